@@ -2,6 +2,7 @@ package com.airport_management.view.swing;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.swing.launcher.ApplicationLauncher.application;
+import static org.assertj.swing.timing.Pause.pause;
 
 import java.io.IOException;
 import java.util.Calendar;
@@ -9,14 +10,17 @@ import java.util.Date;
 import java.util.regex.Pattern;
 
 import javax.swing.JFrame;
+import javax.swing.JProgressBar;
 
 import org.assertj.swing.annotation.GUITest;
 import org.assertj.swing.core.GenericTypeMatcher;
 import org.assertj.swing.core.matcher.JButtonMatcher;
+import org.assertj.swing.edt.GuiActionRunner;
 import org.assertj.swing.finder.WindowFinder;
 import org.assertj.swing.fixture.FrameFixture;
 import org.assertj.swing.junit.runner.GUITestRunner;
 import org.assertj.swing.junit.testcase.AssertJSwingJUnitTestCase;
+import org.assertj.swing.timing.Condition;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.junit.BeforeClass;
@@ -57,6 +61,8 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	private static final String PLANE_COLLECTION_NAME = "test-plane-collection";
 	private static final String FLIGHT_COLLECTION_NAME = "test-flight-collection";
 	
+	private static final long TIMEOUT = 10000;
+	
 	private MongoClient mongoClient;
 	private FrameFixture window;
 	
@@ -100,6 +106,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 				return "Airport Controller".equals(frame.getTitle()) && frame.isShowing();
 			}
 		}).using(robot());
+		waitForBackgroundCalls();
 	}
 	
 	
@@ -113,6 +120,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testOnStartAllDatabaseElementsAreShown() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		waitForBackgroundCalls();
 		assertThat(window.list().contents())
 			.anySatisfy(e -> assertThat(e).contains(FLIGHT_FIXTURE_1.getFlightNum(), 
 					FLIGHT_FIXTURE_1.getDepartureDate().toString(), 
@@ -134,6 +142,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testAddFlightButtonSuccess() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		waitForBackgroundCalls();
 
 		window.comboBox("planeComboBox").selectItem(0);
 		window.textBox("originTextBox").enterText(ORIGIN_FIXTURE);
@@ -142,6 +151,8 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 		window.spinner("spinnerArrivalDate").select(getDate(8));
 		
 		window.button(JButtonMatcher.withText("Add")).click();
+		
+		waitForBackgroundCalls();
 		assertThat(window.list().contents())
 			.anySatisfy(e -> assertThat(e).contains(
 					ORIGIN_FIXTURE, 
@@ -157,6 +168,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testAddFlightButtonErrorOriginAndDestinationAreEquals() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		waitForBackgroundCalls();
 
 		window.comboBox("planeComboBox").selectItem(0);
 		window.textBox("originTextBox").enterText(ORIGIN_FIXTURE);
@@ -165,6 +177,8 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 		window.spinner("spinnerArrivalDate").select(getDate(5));
 		
 		window.button(JButtonMatcher.withText("Add")).click();
+		
+		waitForBackgroundCalls();
 		assertThat(window.label("errorMessageLabel").text())
 			.contains("origin or destination is wrong");
 	}
@@ -174,6 +188,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testAddFlightButtonErrorDepartureDateIsAfterArrivalDateOrAreEquals() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		waitForBackgroundCalls();
 
 		window.comboBox("planeComboBox").selectItem(0);
 		window.textBox("originTextBox").enterText(ORIGIN_FIXTURE);
@@ -182,6 +197,8 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 		window.spinner("spinnerArrivalDate").select(getDate(4));
 		
 		window.button(JButtonMatcher.withText("Add")).click();
+		
+		waitForBackgroundCalls();
 		assertThat(window.label("errorMessageLabel").text())
 			.contains("departure or arrival date is wrong");
 	}
@@ -191,6 +208,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testAddFlightButtonErrorDepartureOrArrivalDateAreEqualsOfExistingFlight() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		waitForBackgroundCalls();
 
 		window.comboBox("planeComboBox").selectItem(0);
 		window.textBox("originTextBox").enterText(ORIGIN_FIXTURE);
@@ -199,6 +217,8 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 		window.spinner("spinnerArrivalDate").select(getDate(4));
 		
 		window.button(JButtonMatcher.withText("Add")).click();
+		
+		waitForBackgroundCalls();
 		assertThat(window.label("errorMessageLabel").text())
 			.contains("This plane is already in service. Departure or arrival date are equals to exsisting flight.");
 	}
@@ -208,6 +228,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testAddFlightButtonErrorDepartureDateIsBetweenDatesOfExistingFlight() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		waitForBackgroundCalls();
 
 		window.comboBox("planeComboBox").selectItem(0);
 		window.textBox("originTextBox").enterText(ORIGIN_FIXTURE);
@@ -216,6 +237,8 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 		window.spinner("spinnerArrivalDate").select(getDate(4));
 		
 		window.button(JButtonMatcher.withText("Add")).click();
+		
+		waitForBackgroundCalls();
 		assertThat(window.label("errorMessageLabel").text())
 			.contains("This plane is already in service. Departure date is between dates of existing flight");
 	}
@@ -225,6 +248,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testAddFlightButtonErrorArrivalDateIsBetweenDatesOfExistingFlight() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		waitForBackgroundCalls();
 
 		window.comboBox("planeComboBox").selectItem(0);
 		window.textBox("originTextBox").enterText(ORIGIN_FIXTURE);
@@ -233,6 +257,8 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 		window.spinner("spinnerArrivalDate").select(getDate(2));
 		
 		window.button(JButtonMatcher.withText("Add")).click();
+		
+		waitForBackgroundCalls();
 		assertThat(window.label("errorMessageLabel").text())
 			.contains("This plane is already in service. Arrival date is between dates of existing flight");
 	}
@@ -242,6 +268,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testAddFlightButtonErrorDepartureOrArrivalDateAreEqualsToExistingFlight() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		waitForBackgroundCalls();
 
 		window.comboBox("planeComboBox").selectItem(0);
 		window.textBox("originTextBox").enterText(ORIGIN_FIXTURE);
@@ -250,6 +277,8 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 		window.spinner("spinnerArrivalDate").select(getDate(4));
 		
 		window.button(JButtonMatcher.withText("Add")).click();
+		
+		waitForBackgroundCalls();
 		assertThat(window.label("errorMessageLabel").text())
 			.contains("This plane is already in service. Departure date is before and arrival date is after dates of existing flight");
 	}
@@ -259,9 +288,11 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testDeleteFlightButtonSuccess() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		waitForBackgroundCalls();
 		window.list("flightsList")
 			.selectItem(Pattern.compile(".*" + FLIGHT_FIXTURE_1.getFlightNum() + ".*"));
 	window.button(JButtonMatcher.withText("Delete Selected")).click();
+	waitForBackgroundCalls();
 	assertThat(window.list().contents())
 		.noneMatch(e -> e.contains(FLIGHT_FIXTURE_1.getFlightNum()));
 	}
@@ -271,6 +302,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testDeleteFlightButtonError() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		waitForBackgroundCalls();
 		//select the flight
 		window.list("flightsList")
 			.selectItem(Pattern.compile(".*" + FLIGHT_FIXTURE_1.getFlightNum() + ".*"));
@@ -278,6 +310,7 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 		removeTestFlightFromDatabase(FLIGHT_FIXTURE_1);
 		//press the delete button
 		window.button(JButtonMatcher.withText("Delete Selected")).click();
+		waitForBackgroundCalls();
 		//verify an error is shown
 		assertThat(window.label("errorMessageLabel").text())
 			.contains(FLIGHT_FIXTURE_1.getFlightNum());
@@ -288,6 +321,18 @@ public class AirportSwingViewFlightPanelE2E extends AssertJSwingJUnitTestCase{
 	
 	// ############################# private methods ################################
 	
+	//controller calls run in background while the progress bar is shown
+	private void waitForBackgroundCalls() {
+		JProgressBar progressBar = ((AirportSwingView) window.target()).getProgressBar();
+		pause(new Condition("background calls to complete") {
+			@Override
+			public boolean test() {
+				return !GuiActionRunner.execute(progressBar::isVisible);
+			}
+		}, TIMEOUT);
+	}
+	
+	
 	private static final Date getDate(int request) {
 		Calendar cal = Calendar.getInstance();
 		cal.add(Calendar.DAY_OF_MONTH, 1);
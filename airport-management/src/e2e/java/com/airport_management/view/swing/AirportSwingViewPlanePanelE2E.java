@@ -2,19 +2,23 @@ package com.airport_management.view.swing;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.swing.launcher.ApplicationLauncher.application;
+import static org.assertj.swing.timing.Pause.pause;
 
 import java.io.IOException;
 import java.util.regex.Pattern;
 
 import javax.swing.JFrame;
+import javax.swing.JProgressBar;
 
 import org.assertj.swing.annotation.GUITest;
 import org.assertj.swing.core.GenericTypeMatcher;
 import org.assertj.swing.core.matcher.JButtonMatcher;
+import org.assertj.swing.edt.GuiActionRunner;
 import org.assertj.swing.finder.WindowFinder;
 import org.assertj.swing.fixture.FrameFixture;
 import org.assertj.swing.junit.runner.GUITestRunner;
 import org.assertj.swing.junit.testcase.AssertJSwingJUnitTestCase;
+import org.assertj.swing.timing.Condition;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.junit.BeforeClass;
@@ -48,6 +52,8 @@ public class AirportSwingViewPlanePanelE2E extends AssertJSwingJUnitTestCase{
 	private static final String PLANE_COLLECTION_NAME = "test-plane-collection";
 	private static final String FLIGHT_COLLECTION_NAME = "test-flight-collection";
 	
+	private static final long TIMEOUT = 10000;
+	
 	private MongoClient mongoClient;
 	private FrameFixture window;
 	
@@ -89,6 +95,7 @@ public class AirportSwingViewPlanePanelE2E extends AssertJSwingJUnitTestCase{
 				return "Airport Controller".equals(frame.getTitle()) && frame.isShowing();
 			}
 		}).using(robot());
+		waitForBackgroundCalls();
 	}
 	
 	
@@ -111,8 +118,10 @@ public class AirportSwingViewPlanePanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testAddPlaneButtonSuccess() {
 		window.button(JButtonMatcher.withText("Plane Panel")).click();
+		waitForBackgroundCalls();
 		window.textBox("modelTextBox").enterText(MODEL_FIXTURE);
 		window.button(JButtonMatcher.withText("Add")).click();
+		waitForBackgroundCalls();
 		assertThat(window.list().contents())
 			.anySatisfy(e -> assertThat(e).contains(MODEL_FIXTURE));
 	}
@@ -122,9 +131,11 @@ public class AirportSwingViewPlanePanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testDeletePlaneButtonSuccess() {
 		window.button(JButtonMatcher.withText("Plane Panel")).click();
+		waitForBackgroundCalls();
 		window.list("planeList")
 			.selectItem(Pattern.compile(".*" + PLANE_FIXTURE_1.getId() + ".*"));
 		window.button(JButtonMatcher.withText("Delete Selected")).click();
+		waitForBackgroundCalls();
 		assertThat(window.list().contents())
 			.noneMatch(e -> e.contains(PLANE_FIXTURE_1.getId()));
 	}
@@ -134,6 +145,7 @@ public class AirportSwingViewPlanePanelE2E extends AssertJSwingJUnitTestCase{
 	@Test @GUITest
 	public void testDeletePlaneButtonError() {
 		window.button(JButtonMatcher.withText("Plane Panel")).click();
+		waitForBackgroundCalls();
 		// select the student in the list...
 		window.list("planeList")
 			.selectItem(Pattern.compile(".*" + PLANE_FIXTURE_1.getId() + ".*"));
@@ -141,6 +153,7 @@ public class AirportSwingViewPlanePanelE2E extends AssertJSwingJUnitTestCase{
 		removeTestPlaneFromDatabase(PLANE_FIXTURE_1);
 		// now press the delete button
 		window.button(JButtonMatcher.withText("Delete Selected")).click();
+		waitForBackgroundCalls();
 		// and verify an error is shown
 		assertThat(window.label("errorMessageLabel").text())
 			.contains(PLANE_FIXTURE_1.getId());
@@ -151,6 +164,18 @@ public class AirportSwingViewPlanePanelE2E extends AssertJSwingJUnitTestCase{
 	
 	// ############################# private methods ################################
 	
+	//controller calls run in background while the progress bar is shown
+	private void waitForBackgroundCalls() {
+		JProgressBar progressBar = ((AirportSwingView) window.target()).getProgressBar();
+		pause(new Condition("background calls to complete") {
+			@Override
+			public boolean test() {
+				return !GuiActionRunner.execute(progressBar::isVisible);
+			}
+		}, TIMEOUT);
+	}
+	
+	
 	private void addTestPlaneToDatabase(Plane plane) {
 		Document newDocument = new Document();
 
@@ -2,20 +2,24 @@ package com.airport_management.view.swing;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.swing.launcher.ApplicationLauncher.application;
+import static org.assertj.swing.timing.Pause.pause;
 
 import java.io.IOException;
 import java.util.Calendar;
 import java.util.Date;
 
 import javax.swing.JFrame;
+import javax.swing.JProgressBar;
 
 import org.assertj.swing.annotation.GUITest;
 import org.assertj.swing.core.GenericTypeMatcher;
 import org.assertj.swing.core.matcher.JButtonMatcher;
+import org.assertj.swing.edt.GuiActionRunner;
 import org.assertj.swing.finder.WindowFinder;
 import org.assertj.swing.fixture.FrameFixture;
 import org.assertj.swing.junit.runner.GUITestRunner;
 import org.assertj.swing.junit.testcase.AssertJSwingJUnitTestCase;
+import org.assertj.swing.timing.Condition;
 import org.bson.Document;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
@@ -54,6 +58,8 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	private static final String PLANE_COLLECTION_NAME = "test-plane-collection";
 	private static final String FLIGHT_COLLECTION_NAME = "test-flight-collection";
 	
+	private static final long TIMEOUT = 10000;
+	
 	private MongoClient mongoClient;
 	private FrameFixture window;
 	
@@ -97,6 +103,7 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 				return "Airport Controller".equals(frame.getTitle()) && frame.isShowing();
 			}
 		}).using(robot());
+		waitForBackgroundCalls();
 	}
 	
 	
@@ -110,8 +117,10 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchFlightByOriginButtonSuccess() {
 		window.button(JButtonMatcher.withText("Flight Search")).click();
+		waitForBackgroundCalls();
 		window.textBox("searchOriginTextBox").enterText(ORIGIN_FIXTURE);	
 		window.button(JButtonMatcher.withText("Search by origin")).click();
+		waitForBackgroundCalls();
 		assertThat(window.list("searchOriginList").contents())
 			.anySatisfy(e -> assertThat(e).contains(
 					FLIGHT_FIXTURE_1.getFlightNum(),
@@ -136,8 +145,10 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchFlightByOriginButtonError() {
 		window.button(JButtonMatcher.withText("Flight Search")).click();
+		waitForBackgroundCalls();
 		window.textBox("searchOriginTextBox").enterText("new-origin");	
 		window.button(JButtonMatcher.withText("Search by origin")).click();
+		waitForBackgroundCalls();
 		assertThat(window.label("errorSearchFlightLabel").text())
 		.contains("There aren't flights with this origin");
 	}
@@ -147,8 +158,10 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchFlightByDestinationButtonSuccess() {
 		window.button(JButtonMatcher.withText("Flight Search")).click();
+		waitForBackgroundCalls();
 		window.textBox("searchDestinationTextBox").enterText(DESTINATION_FIXTURE);
 		window.button(JButtonMatcher.withText("Search by destination")).click();
+		waitForBackgroundCalls();
 		assertThat(window.list("searchDestinationList").contents())
 			.anySatisfy(e -> assertThat(e).contains(
 					FLIGHT_FIXTURE_1.getFlightNum(),
@@ -173,8 +186,10 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchFlightByDestinationButtonError() {
 		window.button(JButtonMatcher.withText("Flight Search")).click();
+		waitForBackgroundCalls();
 		window.textBox("searchOriginTextBox").enterText("new-destination");	
 		window.button(JButtonMatcher.withText("Search by destination")).click();
+		waitForBackgroundCalls();
 		assertThat(window.label("errorSearchFlightLabel").text())
 		.contains("There aren't flights with this destination");
 	}
@@ -184,9 +199,11 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchFlightByDepartureDateInRangeButtonSuccess() {
 		window.button(JButtonMatcher.withText("Flight Search")).click();
+		waitForBackgroundCalls();
 		window.spinner("spinnerSearchByDepartureDateStart").select(getDate(0));
 		window.spinner("spinnerSearchByDepartureDateEnd").select(getDate(2));
 		window.button(JButtonMatcher.withText("Search by departure date")).click();
+		waitForBackgroundCalls();
 		assertThat(window.list("searchDepartureDateList").contents())
 			.anySatisfy(e -> assertThat(e).contains(
 					FLIGHT_FIXTURE_1.getFlightNum(),
@@ -211,9 +228,11 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchFlightByDepartureDateInRangeButtonError() {
 		window.button(JButtonMatcher.withText("Flight Search")).click();
+		waitForBackgroundCalls();
 		window.spinner("spinnerSearchByDepartureDateStart").select(getDate(4));
 		window.spinner("spinnerSearchByDepartureDateEnd").select(getDate(5));
 		window.button(JButtonMatcher.withText("Search by departure date")).click();
+		waitForBackgroundCalls();
 		assertThat(window.label("errorSearchFlightLabel").text())
 			.contains("There aren't flights with departure date in the selected range");
 	}
@@ -223,9 +242,11 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchFlightByArrivalDateInRangeButtonSuccess() {
 		window.button(JButtonMatcher.withText("Flight Search")).click();
+		waitForBackgroundCalls();
 		window.spinner("spinnerSearchByArrivalDateStart").select(getDate(2));
 		window.spinner("spinnerSearchByArrivalDateEnd").select(getDate(4));
 		window.button(JButtonMatcher.withText("Search by arrival date")).click();
+		waitForBackgroundCalls();
 		assertThat(window.list("searchArrivalDateList").contents())
 			.anySatisfy(e -> assertThat(e).contains(
 					FLIGHT_FIXTURE_1.getFlightNum(),
@@ -250,9 +271,11 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchFlightByArrivalDateInRangeButtonError() {
 		window.button(JButtonMatcher.withText("Flight Search")).click();
+		waitForBackgroundCalls();
 		window.spinner("spinnerSearchByArrivalDateStart").select(getDate(4));
 		window.spinner("spinnerSearchByArrivalDateEnd").select(getDate(5));
 		window.button(JButtonMatcher.withText("Search by arrival date")).click();
+		waitForBackgroundCalls();
 		assertThat(window.label("errorSearchFlightLabel").text())
 			.contains("There aren't flights with arrival date in the selected range");
 	}
@@ -262,8 +285,10 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchPlaneAssociatedFlightsButtonSuccess() {
 		window.button(JButtonMatcher.withText("Plane Search")).click();
+		waitForBackgroundCalls();
 		window.comboBox("planeComboBoxSearch").selectItem(0);
 		window.button(JButtonMatcher.withText("Search associates flights")).click();
+		waitForBackgroundCalls();
 		assertThat(window.list("searchFlightsAssociatesList").contents())
 		.anySatisfy(e -> assertThat(e).contains(
 				FLIGHT_FIXTURE_1.getFlightNum(),
@@ -280,8 +305,10 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchPlaneAssociatedFlightsButtonError() {
 		window.button(JButtonMatcher.withText("Plane Search")).click();
+		waitForBackgroundCalls();
 		window.comboBox("planeComboBoxSearch").selectItem(1);
 		window.button(JButtonMatcher.withText("Search associates flights")).click();
+		waitForBackgroundCalls();
 		assertThat(window.label("errorSearchPlaneLabel").text())
 			.contains("There aren't flights associates with selected plane");
 	}
@@ -291,8 +318,10 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchPlaneByModelButtonSuccess() {
 		window.button(JButtonMatcher.withText("Plane Search")).click();
+		waitForBackgroundCalls();
 		window.textBox("searchModelTextBox").enterText(MODEL_FIXTURE);	
 		window.button(JButtonMatcher.withText("Search by model")).click();
+		waitForBackgroundCalls();
 		assertThat(window.list("searchPlaneByModelList").contents())
 			.anySatisfy(e -> assertThat(e).contains(
 					PLANE_FIXTURE_1.getId(),
@@ -307,8 +336,10 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testSearchPlaneByModelButtonError() {
 		window.button(JButtonMatcher.withText("Plane Search")).click();
+		waitForBackgroundCalls();
 		window.textBox("searchModelTextBox").enterText("new-model");	
 		window.button(JButtonMatcher.withText("Search by model")).click();
+		waitForBackgroundCalls();
 		assertThat(window.label("errorSearchPlaneLabel").text())
 			.contains("There aren't planes with insert model");
 	}
@@ -318,6 +349,18 @@ public class AirportSwingViewSearchPanelE2E extends AssertJSwingJUnitTestCase {
 	
 	// ############################# private methods ################################
 	
+	//controller calls run in background while the progress bar is shown
+	private void waitForBackgroundCalls() {
+		JProgressBar progressBar = ((AirportSwingView) window.target()).getProgressBar();
+		pause(new Condition("background calls to complete") {
+			@Override
+			public boolean test() {
+				return !GuiActionRunner.execute(progressBar::isVisible);
+			}
+		}, TIMEOUT);
+	}
+	
+	
 		private static final Date getDate(int request) {
 			Calendar cal = Calendar.getInstance();
 			cal.add(Calendar.DAY_OF_MONTH, 1);
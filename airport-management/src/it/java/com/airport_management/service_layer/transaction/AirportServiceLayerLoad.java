@@ -0,0 +1,285 @@
+package com.airport_management.service_layer.transaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.airport_management.exception.FlightNotFoundException;
+import com.airport_management.exception.PlaneAlreadyInServiceException;
+import com.airport_management.exception.PlaneNotFoundException;
+import com.airport_management.model.Flight;
+import com.airport_management.model.Plane;
+import com.airport_management.transaction.TransactionManager;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientURI;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+
+
+//load run against the replica set started by docker-maven-plugin, only executed with the load profile:
+//mvn -P load verify -Dload.threads=32 -Dload.seconds=60 -Dload.mix=save=30,delete=10,search=60
+//or against a replica set already running, without docker:
+//mvn -P load verify -Ddocker.skip=true -Dload.mongoUri=mongodb://host1,host2,host3/?replicaSet=rs0
+public class AirportServiceLayerLoad {
+
+	private static final String AIRPORT_DB_NAME = "airport-load";
+	private static final String PLANE_COLLECTION_NAME = "plane";
+	private static final String FLIGHT_COLLECTION_NAME = "flight";
+	private static final String[] AIRPORTS = {"Florence", "Rome", "Milan", "Paris", "London", "Madrid"};
+	private static final long HOUR = 3600000L;
+
+	private static final int THREADS = Integer.getInteger("load.threads", 16);
+	private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+	private static final int PLANES = Integer.getInteger("load.planes", 20);
+	private static final int SEED_FLIGHTS = Integer.getInteger("load.flights", 1000);
+	//hours the new flights are spread over, fewer hours mean more conflicts on the same plane
+	private static final int WINDOW_HOURS = Integer.getInteger("load.windowHours", 24 * 30);
+	private static final String MONGO_URI = System.getProperty("load.mongoUri", "mongodb://localhost:27017");
+	private static final String MIX = System.getProperty("load.mix", "save=40,delete=10,search=50");
+	private static final boolean SEARCH_CACHE = Boolean.parseBoolean(System.getProperty("load.searchCache", "true"));
+
+	private static Logger logger = Logger.getLogger(AirportServiceLayerLoad.class.getName());
+
+	private enum Operation { SAVE, DELETE, SEARCH }
+
+	private MongoClient client;
+	private TransactionManager transactionManager;
+	private AirportServiceLayer airportServiceLayer;
+	private List<Plane> planes = new ArrayList<>();
+	private Date firstDeparture = new Date();
+	private ConcurrentLinkedQueue<Flight> savedFlights = new ConcurrentLinkedQueue<>();
+
+
+	@Before
+	public void setUp() {
+		client = new MongoClient(new MongoClientURI(MONGO_URI));
+		MongoDatabase database = client.getDatabase(AIRPORT_DB_NAME);
+		database.drop();
+
+		transactionManager = new TransactionManager(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME);
+		airportServiceLayer = new AirportServiceLayer(transactionManager);
+		if(!SEARCH_CACHE)
+			airportServiceLayer.setSearchCache(null);
+
+		for(int i = 0; i < PLANES; i++)
+			planes.add(airportServiceLayer.savePlaneSL(new Plane("model" + i % 4)));
+
+		//the seed flights are inserted directly, back to back on every plane and before the load window
+		MongoCollection<Document> flightCollection = database.getCollection(FLIGHT_COLLECTION_NAME);
+		List<Document> seed = new ArrayList<>();
+		for(int i = 0; i < SEED_FLIGHTS; i++) {
+			Date departureDate = new Date(firstDeparture.getTime() - (i / PLANES + 1) * 2 * HOUR);
+			seed.add(new Document()
+					.append("departure_date", departureDate)
+					.append("arrival_date", new Date(departureDate.getTime() + HOUR))
+					.append("origin", AIRPORTS[i % AIRPORTS.length])
+					.append("destination", AIRPORTS[(i + 1) % AIRPORTS.length])
+					.append("plane_id", planes.get(i % PLANES).getId()));
+		}
+		if(!seed.isEmpty())
+			flightCollection.insertMany(seed);
+	}
+
+
+
+	@After
+	public void tearDown() {
+		client.close();
+	}
+
+
+
+	@Test
+	public void testMixedLoad() throws InterruptedException {
+		Map<Operation, Integer> weights = parseMix(MIX);
+		List<Worker> workers = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+
+		for(int i = 0; i < THREADS; i++) {
+			Worker worker = new Worker(weights, end);
+			workers.add(worker);
+			executor.execute(() -> {
+				try {
+					start.await();
+					worker.run();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		long startedAt = System.nanoTime();
+		start.countDown();
+		executor.shutdown();
+		executor.awaitTermination(SECONDS + 60L, TimeUnit.SECONDS);
+		double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+		long total = report(workers, elapsedSeconds);
+		assertThat(total).isPositive();
+	}
+
+
+
+	private long report(List<Worker> workers, double elapsedSeconds) {
+		logger.info(String.format(Locale.ROOT, "servers=%s, threads=%d, seconds=%.1f, mix=%s, planes=%d, seed_flights=%d, search_cache=%b",
+				client.getAllAddress(), THREADS, elapsedSeconds, MIX, PLANES, SEED_FLIGHTS, SEARCH_CACHE));
+
+		long total = 0;
+		for(Operation operation : Operation.values()) {
+			List<Long> latencies = new ArrayList<>();
+			long rejected = 0;
+			long failed = 0;
+			for(Worker worker : workers) {
+				latencies.addAll(worker.latencies.get(operation));
+				rejected += worker.rejected.get(operation)[0];
+				failed += worker.failed.get(operation)[0];
+			}
+			Collections.sort(latencies);
+			total += latencies.size();
+
+			logger.info(String.format(Locale.ROOT, "%s: ops=%d, throughput=%.1f ops/s, p50=%.2f ms, p99=%.2f ms, rejected=%d, failed=%d",
+					operation.name().toLowerCase(Locale.ROOT), latencies.size(), latencies.size() / elapsedSeconds,
+					percentile(latencies, 0.50), percentile(latencies, 0.99), rejected, failed));
+		}
+
+		logger.info(String.format(Locale.ROOT, "total: ops=%d, throughput=%.1f ops/s, transaction_retries=%d",
+				total, total / elapsedSeconds, transactionManager.getTransactionRetries()));
+		return total;
+	}
+
+
+
+	private static double percentile(List<Long> sortedNanos, double percentile) {
+		if(sortedNanos.isEmpty())
+			return 0;
+		int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+		return sortedNanos.get(Math.max(index, 0)) / 1e6;
+	}
+
+
+
+	//"save=40,delete=10,search=50", operations left out are not run
+	private static Map<Operation, Integer> parseMix(String mix) {
+		Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+		for(String entry : mix.split(",")) {
+			String[] parts = entry.trim().split("=");
+			weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+		}
+		return weights;
+	}
+
+
+
+	//latencies and outcomes are kept per thread and merged at the end
+	private class Worker {
+
+		private final Map<Operation, Integer> weights;
+		private final int totalWeight;
+		private final long end;
+		private final Map<Operation, List<Long>> latencies = new EnumMap<>(Operation.class);
+		private final Map<Operation, long[]> rejected = new EnumMap<>(Operation.class);
+		private final Map<Operation, long[]> failed = new EnumMap<>(Operation.class);
+
+
+		Worker(Map<Operation, Integer> weights, long end) {
+			this.weights = weights;
+			this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+			this.end = end;
+			for(Operation operation : Operation.values()) {
+				latencies.put(operation, new ArrayList<>());
+				rejected.put(operation, new long[1]);
+				failed.put(operation, new long[1]);
+			}
+		}
+
+
+		void run() {
+			while(System.nanoTime() < end) {
+				Operation operation = next();
+				long started = System.nanoTime();
+				try {
+					if(!execute(operation))
+						failed.get(operation)[0]++;
+				}
+				//expected outcomes under contention, the operation still completed
+				catch(PlaneAlreadyInServiceException | FlightNotFoundException | PlaneNotFoundException e) {
+					rejected.get(operation)[0]++;
+				}
+				catch(RuntimeException e) {
+					failed.get(operation)[0]++;
+				}
+				latencies.get(operation).add(System.nanoTime() - started);
+			}
+		}
+
+
+		private Operation next() {
+			int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+			for(Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+				pick -= weight.getValue();
+				if(pick < 0)
+					return weight.getKey();
+			}
+			throw new IllegalStateException("empty mix");
+		}
+
+
+		//false if the service layer could not reach the database
+		private boolean execute(Operation operation) {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			switch(operation) {
+				case SAVE:
+					Date departureDate = new Date(firstDeparture.getTime() + random.nextInt(WINDOW_HOURS) * HOUR);
+					int airport = random.nextInt(AIRPORTS.length);
+					Flight flight = new Flight(departureDate, new Date(departureDate.getTime() + HOUR),
+							AIRPORTS[airport], AIRPORTS[(airport + 1) % AIRPORTS.length],
+							planes.get(random.nextInt(planes.size())));
+					airportServiceLayer.saveFlightSL(flight);
+					if(flight.getFlightNum() == null)
+						return false;
+					savedFlights.add(flight);
+					return true;
+
+				case DELETE:
+					Flight toDelete = savedFlights.poll();
+					if(toDelete == null)
+						throw new FlightNotFoundException("no saved flight to delete yet");
+					airportServiceLayer.deleteFlightSL(toDelete);
+					return true;
+
+				default:
+					Date start = new Date(firstDeparture.getTime() + random.nextInt(WINDOW_HOURS) * HOUR);
+					Date endOfRange = new Date(start.getTime() + 6 * HOUR);
+					switch(random.nextInt(3)) {
+						case 0:
+							return airportServiceLayer.findAllFlightsByOriginSL(AIRPORTS[random.nextInt(AIRPORTS.length)]) != null;
+						case 1:
+							return airportServiceLayer.findAllFlightsWithDepartureDateInRangeSL(start, endOfRange) != null;
+						default:
+							return airportServiceLayer.findAvailablePlanesSL(start, endOfRange, null) != null;
+					}
+			}
+		}
+	}
+}
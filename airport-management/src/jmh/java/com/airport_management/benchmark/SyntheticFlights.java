@@ -0,0 +1,58 @@
+package com.airport_management.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+
+import com.airport_management.model.Flight;
+import com.airport_management.model.Plane;
+
+
+//a fleet flying back to back, every plane is on the ground for an hour between two flights
+public class SyntheticFlights {
+
+	public static final long FLIGHT_MILLIS = 2 * 3600000L;
+	public static final long SLOT_MILLIS = 3 * 3600000L;
+
+	//2020-01-01T00:00:00Z
+	private static final long FIRST_DEPARTURE = 1577836800000L;
+	private static final String[] AIRPORTS = {"Florence", "Rome", "Milan", "Paris", "London", "Madrid", "Berlin", "Vienna"};
+
+
+	private SyntheticFlights() {
+	}
+
+
+
+	public static List<Plane> planes(int count) {
+		List<Plane> planes = new ArrayList<>(count);
+		for(int i = 0; i < count; i++)
+			planes.add(new Plane(new ObjectId().toHexString(), "model" + i % 10));
+		return planes;
+	}
+
+
+
+	//the i-th flight is flown by plane i % planes in its slot i / planes
+	public static List<Flight> flights(List<Plane> planes, int count) {
+		List<Flight> flights = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			Date departureDate = departure(i / planes.size());
+			flights.add(new Flight(new ObjectId().toHexString(),
+					departureDate,
+					new Date(departureDate.getTime() + FLIGHT_MILLIS),
+					AIRPORTS[i % AIRPORTS.length],
+					AIRPORTS[(i + 1) % AIRPORTS.length],
+					planes.get(i % planes.size())));
+		}
+		return flights;
+	}
+
+
+
+	public static Date departure(int slot) {
+		return new Date(FIRST_DEPARTURE + slot * SLOT_MILLIS);
+	}
+}
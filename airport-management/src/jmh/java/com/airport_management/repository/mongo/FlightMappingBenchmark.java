@@ -0,0 +1,89 @@
+package com.airport_management.repository.mongo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mongodb.client.MongoCollection;
+
+import com.airport_management.benchmark.SyntheticFlights;
+import com.airport_management.model.Flight;
+import com.airport_management.model.Plane;
+import com.airport_management.repository.PlaneCache;
+
+
+//Document to Flight mapping of the flight queries, page by page as the cursor is read,
+//the planes are served by the plane cache so that no query is sent
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FlightMappingBenchmark {
+
+	private static final int PLANES = 200;
+
+	@Param({"1000", "100000", "1000000"})
+	int flights;
+
+	@Param({"1000"})
+	int pageSize;
+
+	private List<List<Document>> pages;
+	private FlightRepositoryMongo flightRepository;
+
+
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<Plane> planes = SyntheticFlights.planes(PLANES);
+		PlaneCache planeCache = new PlaneCache(PLANES, 1, TimeUnit.DAYS);
+		planes.forEach(planeCache::put);
+
+		PlaneRepositoryMongo planeRepository = new PlaneRepositoryMongo(null, (MongoCollection<Document>) null);
+		planeRepository.setPlaneCache(planeCache);
+		flightRepository = new FlightRepositoryMongo(null, (MongoCollection<Document>) null, planeRepository);
+
+		pages = new ArrayList<>();
+		List<Document> page = new ArrayList<>();
+		for(Flight flight : SyntheticFlights.flights(planes, flights)) {
+			page.add(new Document("_id", new ObjectId(flight.getFlightNum()))
+					.append("departure_date", flight.getDepartureDate())
+					.append("arrival_date", flight.getArrivalDate())
+					.append("origin", flight.getOrigin())
+					.append("destination", flight.getDestination())
+					.append("plane_id", flight.getPlane().getId()));
+			if(page.size() == pageSize) {
+				pages.add(page);
+				page = new ArrayList<>();
+			}
+		}
+		if(!page.isEmpty())
+			pages.add(page);
+	}
+
+
+
+	@Benchmark
+	public void mapAllPages(Blackhole blackhole) {
+		for(List<Document> page : pages)
+			blackhole.consume(flightRepository.fromPageToFlights(page));
+	}
+}
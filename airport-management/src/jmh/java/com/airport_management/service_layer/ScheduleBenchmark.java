@@ -0,0 +1,98 @@
+package com.airport_management.service_layer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.airport_management.benchmark.SyntheticFlights;
+import com.airport_management.model.Flight;
+import com.airport_management.model.Plane;
+
+
+//the in-memory validation of an import batch against the stored flights
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ScheduleBenchmark {
+
+	private static final int PLANES = 1000;
+	private static final int IMPORT_BATCH = 1000;
+
+	@Param({"1000", "100000", "1000000"})
+	int flights;
+
+	private List<Flight> stored;
+	private List<Flight> batch;
+	private PlaneScheduleIndex index;
+	private List<Flight> accepted;
+
+
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<Plane> planes = SyntheticFlights.planes(PLANES);
+		stored = SyntheticFlights.flights(planes, flights);
+
+		//the same planes flying the same slots again, about half of them collide with stored flights
+		batch = SyntheticFlights.flights(planes, IMPORT_BATCH);
+		batch.forEach(flight -> {
+			if(flight.getFlightNum().hashCode() % 2 == 0) {
+				flight.setDepartureDate(new Date(flight.getDepartureDate().getTime() + SyntheticFlights.FLIGHT_MILLIS + 900000));
+				flight.setArrivalDate(new Date(flight.getDepartureDate().getTime() + 1800000));
+			}
+		});
+
+		index = new PlaneScheduleIndex();
+		stored.forEach(index::addExisting);
+		accepted = new ArrayList<>(IMPORT_BATCH);
+	}
+
+
+
+	//the stored flights are indexed once, only the checks and the adds of the batch are measured
+	@Benchmark
+	public int validateImportBatch() {
+		for(Flight flight : batch) {
+			if(index.add(flight))
+				accepted.add(flight);
+		}
+		return accepted.size();
+	}
+
+
+
+	//the accepted flights are taken out, every invocation sees the stored flights only
+	@TearDown(Level.Invocation)
+	public void undoImportBatch() {
+		accepted.forEach(index::remove);
+		accepted.clear();
+	}
+
+
+
+	//what an import pays to index the stored flights it read, as if the batch spanned the whole schedule
+	@Benchmark
+	public PlaneScheduleIndex indexStoredFlights() {
+		PlaneScheduleIndex built = new PlaneScheduleIndex();
+		stored.forEach(built::addExisting);
+		return built;
+	}
+}
@@ -0,0 +1,113 @@
+package com.airport_management.service_layer.transaction;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.airport_management.benchmark.SyntheticFlights;
+import com.airport_management.exception.PlaneAlreadyInServiceException;
+import com.airport_management.model.Flight;
+import com.airport_management.model.Plane;
+import com.airport_management.service_layer.PlaneScheduleIndex;
+
+
+//the conflict check of saveFlightSL on the flights findOverlappingFlights returns, for a flight in a free hour
+//of its plane and for one over a stored flight; the import index answers the same question
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FlightConflictBenchmark {
+
+	private static final int PLANES = 200;
+
+	@Param({"1000", "100000", "1000000"})
+	int flights;
+
+	private Flight candidate;
+	private List<Flight> candidateOverlaps;
+	private Flight busyCandidate;
+	private List<Flight> busyCandidateOverlaps;
+	private PlaneScheduleIndex index;
+
+
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<Plane> planes = SyntheticFlights.planes(PLANES);
+		List<Flight> stored = SyntheticFlights.flights(planes, flights);
+
+		//between the arrival of the middle flight of the first plane and its next departure
+		Date arrival = new Date(SyntheticFlights.departure(flights / PLANES / 2).getTime() + SyntheticFlights.FLIGHT_MILLIS);
+		candidate = new Flight(null,
+				new Date(arrival.getTime() + 900000),
+				new Date(arrival.getTime() + 2700000),
+				"Florence", "Rome", planes.get(0));
+		candidateOverlaps = overlapping(stored, candidate);
+
+		//half an hour into the middle flight of the first plane
+		busyCandidate = new Flight(null,
+				new Date(arrival.getTime() - SyntheticFlights.FLIGHT_MILLIS + 1800000),
+				new Date(arrival.getTime() + 1800000),
+				"Florence", "Rome", planes.get(0));
+		busyCandidateOverlaps = overlapping(stored, busyCandidate);
+
+		index = new PlaneScheduleIndex();
+		stored.forEach(index::addExisting);
+	}
+
+
+
+	//the filter of FlightRepositoryMongo.findOverlappingFlights, applied once to the synthetic flights
+	private static List<Flight> overlapping(List<Flight> stored, Flight flight) {
+		return stored.stream()
+				.filter(other -> other.getPlane().getId().equals(flight.getPlane().getId()))
+				.filter(other -> other.getArrivalDate().after(flight.getDepartureDate()))
+				.filter(other -> other.getDepartureDate().before(flight.getArrivalDate()))
+				.collect(Collectors.toList());
+	}
+
+
+
+	@Benchmark
+	public Flight checkPlaneAvailability() {
+		AirportServiceLayer.checkPlaneAvailability(candidate, candidateOverlaps);
+		return candidate;
+	}
+
+
+
+	@Benchmark
+	public boolean checkPlaneAvailabilityWhenBusy() {
+		try {
+			AirportServiceLayer.checkPlaneAvailability(busyCandidate, busyCandidateOverlaps);
+			return true;
+		}
+		catch(PlaneAlreadyInServiceException ex) {
+			return false;
+		}
+	}
+
+
+
+	@Benchmark
+	public boolean importIndexIsFree() {
+		return index.isFree(candidate.getPlane().getId(), candidate.getDepartureDate(), candidate.getArrivalDate());
+	}
+}
@@ -1,20 +1,43 @@
 package com.airport_management.app;
 
 import java.awt.EventQueue;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.ReadPreference;
 import com.mongodb.ServerAddress;
 import com.airport_management.controller.FlightController;
+import com.airport_management.controller.LiveBoardController;
 import com.airport_management.controller.PlaneController;
+import com.airport_management.controller.ReportController;
 import com.airport_management.controller.SearchController;
+import com.airport_management.metrics.MetricsRegistry;
+import com.airport_management.metrics.PrometheusEndpoint;
+import com.airport_management.repository.PlaneCache;
+import com.airport_management.service_layer.FlightImportParser;
+import com.airport_management.service_layer.ImportReport;
+import com.airport_management.service_layer.SearchResultCache;
 import com.airport_management.service_layer.transaction.AirportServiceLayer;
+import com.airport_management.transaction.CommandTracer;
+import com.airport_management.transaction.ReadOperation;
 import com.airport_management.transaction.TransactionManager;
+import com.airport_management.transaction.TransactionRetryPolicy;
 import com.airport_management.view.swing.AirportSwingView;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
 
 import java.util.logging.Level; 
 import java.util.logging.Logger;
@@ -23,6 +46,10 @@ import java.util.logging.Logger;
 @Command(mixinStandardHelpOptions = true)
 public class App implements Callable<Void> {
 
+	//the smallest bound the server accepts
+	private static final long MIN_MAX_STALENESS_SECONDS = 90;
+	private static final String READ_PREFERENCE_MODES = "primary, primaryPreferred, secondary, secondaryPreferred, nearest";
+
 	@Option(names = { "--mongo-host" }, description = "MongoDB host address")
 	private String mongoHost = "localhost";
 
@@ -38,6 +65,63 @@ public class App implements Callable<Void> {
 	@Option(names = { "--db-flight-collection" }, description = "Flight collection name")
 	private String flightCollectionName = "flight";
 	
+	@Option(names = { "--list-page-size" }, description = "Number of planes or flights read at a time by the plane and flight lists")
+	private int listPageSize = 100;
+	
+	@Option(names = { "--flight-batch-size" }, description = "Stream the flight list from the database in batches of this size, it fills while the flights are read (0 reads it a page at a time)")
+	private int flightBatchSize = 0;
+	
+	@Option(names = { "--listing-read-preference" }, description = "Read preference of plane and flight listings (primary, primaryPreferred, secondary, secondaryPreferred, nearest)")
+	private String listingReadPreference = "primary";
+	
+	@Option(names = { "--search-read-preference" }, description = "Read preference of searches (primary, primaryPreferred, secondary, secondaryPreferred, nearest)")
+	private String searchReadPreference = "primary";
+	
+	@Option(names = { "--report-read-preference" }, description = "Read preference of reports (primary, primaryPreferred, secondary, secondaryPreferred, nearest)")
+	private String reportReadPreference = "primary";
+	
+	@Option(names = { "--max-staleness-seconds" }, description = "Maximum staleness of secondaries used by listings, searches and reports, at least 90 (0 means no bound)")
+	private long maxStalenessSeconds = 0;
+	
+	@Option(names = { "--plane-cache-size" }, description = "Maximum number of planes kept in memory (0 disables the cache)")
+	private int planeCacheSize = PlaneCache.DEFAULT_MAX_SIZE;
+	
+	@Option(names = { "--plane-cache-ttl-seconds" }, description = "Seconds a cached plane is kept before being read again")
+	private long planeCacheTtlSeconds = PlaneCache.DEFAULT_TTL_SECONDS;
+	
+	@Option(names = { "--search-cache-size" }, description = "Maximum number of search results kept in memory (0 disables the cache)")
+	private int searchCacheSize = SearchResultCache.DEFAULT_MAX_SIZE;
+	
+	@Option(names = { "--search-cache-ttl-seconds" }, description = "Seconds a cached search result is kept before being read again")
+	private long searchCacheTtlSeconds = SearchResultCache.DEFAULT_TTL_SECONDS;
+	
+	@Option(names = { "--import-flights" }, description = "CSV or JSON lines file of flights imported at startup")
+	private String importFlightsFile;
+	
+	@Option(names = { "--import-batch-size" }, description = "Number of imported flights validated and written in a transaction")
+	private int importBatchSize = 500;
+	
+	@Option(names = { "--metrics-port" }, description = "Port of the Prometheus metrics endpoint /metrics (0 disables it)")
+	private int metricsPort = 0;
+	
+	@Option(names = { "--transaction-max-attempts" }, description = "Attempts of a transaction that fails with a transient error or a write conflict")
+	private int transactionMaxAttempts = TransactionRetryPolicy.DEFAULT_MAX_ATTEMPTS;
+	
+	@Option(names = { "--transaction-backoff-millis" }, description = "Wait before the first retry of a transaction, doubled at every retry and randomized")
+	private long transactionBackoffMillis = TransactionRetryPolicy.DEFAULT_INITIAL_BACKOFF_MILLIS;
+	
+	@Option(names = { "--transaction-deadline-millis" }, description = "Total time after which a retried transaction is given up")
+	private long transactionDeadlineMillis = TransactionRetryPolicy.DEFAULT_DEADLINE_MILLIS;
+	
+	@Option(names = { "--slow-operation-millis" }, description = "Transactions and reads slower than this are logged with the commands they issued (0 disables the trace)")
+	private long slowOperationMillis = CommandTracer.DEFAULT_SLOW_MILLIS;
+	
+	@Option(names = { "--no-live-updates" }, description = "Do not show the planes and flights changed by other clients until restart")
+	private boolean noLiveUpdates = false;
+	
+	@Spec
+	private CommandSpec spec;
+	
 	private static Logger logger = Logger.getLogger(App.class.getName());
 	
 
@@ -51,15 +135,43 @@ public class App implements Callable<Void> {
 
 	@Override
 	public Void call() throws Exception {
+		
+		//checked before the window is built, a wrong option fails with the usage instead of an empty screen
+		if(maxStalenessSeconds != 0 && maxStalenessSeconds < MIN_MAX_STALENESS_SECONDS)
+			throw new ParameterException(spec.commandLine(), 
+					"--max-staleness-seconds must be 0 or at least " + MIN_MAX_STALENESS_SECONDS + ", not " + maxStalenessSeconds);
+		if(flightBatchSize < 0)
+			throw new ParameterException(spec.commandLine(), "--flight-batch-size must be 0 or positive, not " + flightBatchSize);
+		ReadPreference listingPreference = readPreference("--listing-read-preference", listingReadPreference);
+		ReadPreference searchPreference = readPreference("--search-read-preference", searchReadPreference);
+		ReadPreference reportPreference = readPreference("--report-read-preference", reportReadPreference);
 				
 		EventQueue.invokeLater(() -> {
 			try {
 				
 				ServerAddress serverAddress = new ServerAddress(mongoHost, mongoPort);
-				MongoClient mongoClient = new MongoClient(serverAddress);
+				CommandTracer commandTracer = slowOperationMillis == 0 ? null : new CommandTracer(slowOperationMillis, TimeUnit.MILLISECONDS);
+				MongoClientOptions.Builder clientOptions = MongoClientOptions.builder();
+				if(commandTracer != null)
+					clientOptions.addCommandListener(commandTracer);
+				MongoClient mongoClient = new MongoClient(serverAddress, clientOptions.build());
 
+				MetricsRegistry metrics = new MetricsRegistry();
 				TransactionManager transactionManager = new TransactionManager(mongoClient, databaseName, planeCollectionName, flightCollectionName);
+				transactionManager.setMetrics(metrics);
+				transactionManager.setCommandTracer(commandTracer);
+				transactionManager.setRetryPolicy(new TransactionRetryPolicy(transactionMaxAttempts, transactionBackoffMillis,
+						Math.max(transactionBackoffMillis, TransactionRetryPolicy.DEFAULT_MAX_BACKOFF_MILLIS), transactionDeadlineMillis, TimeUnit.MILLISECONDS));
+				transactionManager.setReadPreference(ReadOperation.LISTING, listingPreference);
+				transactionManager.setReadPreference(ReadOperation.SEARCH, searchPreference);
+				transactionManager.setReadPreference(ReadOperation.REPORT, reportPreference);
+				transactionManager.setPlaneCache(planeCache(metrics));
 				AirportServiceLayer serviceLayer = new AirportServiceLayer(transactionManager);
+				serviceLayer.setMetrics(metrics);
+				serviceLayer.setSearchCache(searchCache(metrics));
+				
+				if(metricsPort != 0)
+					new PrometheusEndpoint(metrics).start(metricsPort);
 
 				AirportSwingView swingView = new AirportSwingView();
 				PlaneController planeController = new PlaneController(swingView, serviceLayer);
@@ -67,9 +179,21 @@ public class App implements Callable<Void> {
 				SearchController searchController = new SearchController(swingView, serviceLayer);
 
 				swingView.setAirportController(planeController, flightController, searchController);
+				swingView.setReportController(new ReportController(swingView, serviceLayer));
+				swingView.setListPageSize(listPageSize);
+				swingView.setFlightBatchSize(flightBatchSize);
 				swingView.setVisible(true);
-				planeController.allPlanes();
-				flightController.allFlights();
+				
+				//the stream is open before the first read, no change falls between the two
+				//the flight schedule only sees the flights of other clients through the stream
+				if(!noLiveUpdates) {
+					serviceLayer.enableSchedule(true);
+					transactionManager.watchChanges(new LiveBoardController(planeController, flightController, serviceLayer)).start();
+				}
+				swingView.refreshLists();
+				
+				if(importFlightsFile != null)
+					new Thread(() -> importFlights(serviceLayer, swingView), "flight-import").start();
 
 			} catch (Exception e) {
 				logger.log(Level.INFO, "error in app main", e);
@@ -77,7 +201,65 @@ public class App implements Callable<Void> {
 		});
 		return null;
 	}
+	
+	
+	
+	//the lists are read again at the end, live updates may be off
+	private void importFlights(AirportServiceLayer serviceLayer, AirportSwingView swingView) {
+		try(Reader reader = Files.newBufferedReader(Paths.get(importFlightsFile), StandardCharsets.UTF_8)) {
+			ImportReport report = serviceLayer.importFlightsSL(reader, FlightImportParser.Format.of(importFlightsFile), importBatchSize);
+			
+			logger.log(Level.INFO, "{0} {1}", new Object[] {importFlightsFile, report});
+			report.getErrors().forEach(error -> logger.log(Level.WARNING, "{0} {1}", new Object[] {importFlightsFile, error}));
+			swingView.refreshLists();
+		} 
+		catch (IOException e) {
+			logger.log(Level.INFO, "error importing flights", e);
+		}
+	}
+	
+	
+	
+	private PlaneCache planeCache(MetricsRegistry metrics) {
+		if(planeCacheSize == 0)
+			return null;
+		
+		PlaneCache planeCache = new PlaneCache(planeCacheSize, planeCacheTtlSeconds, TimeUnit.SECONDS);
+		metrics.functionCounter("airport_cache_hits_total", "Reads served by a cache", planeCache::getHitCount, "cache", "plane");
+		metrics.functionCounter("airport_cache_misses_total", "Reads a cache could not serve", planeCache::getMissCount, "cache", "plane");
+		metrics.functionCounter("airport_cache_evictions_total", "Entries dropped to keep a cache within its size", planeCache::getEvictionCount, "cache", "plane");
+		metrics.gauge("airport_cache_size", "Entries in a cache", planeCache::size, "cache", "plane");
+		Runtime.getRuntime().addShutdownHook(new Thread(
+				() -> logger.log(Level.INFO, "plane cache {0}", planeCache)));
+		return planeCache;
+	}
+	
+	
+	
+	private SearchResultCache searchCache(MetricsRegistry metrics) {
+		if(searchCacheSize == 0)
+			return null;
+		
+		SearchResultCache searchCache = new SearchResultCache(searchCacheSize, searchCacheTtlSeconds, TimeUnit.SECONDS);
+		metrics.functionCounter("airport_cache_hits_total", "Reads served by a cache", searchCache::getHitCount, "cache", "search");
+		metrics.functionCounter("airport_cache_misses_total", "Reads a cache could not serve", searchCache::getMissCount, "cache", "search");
+		metrics.functionCounter("airport_cache_evictions_total", "Entries dropped to keep a cache within its size", searchCache::getEvictionCount, "cache", "search");
+		metrics.gauge("airport_cache_size", "Entries in a cache", searchCache::size, "cache", "search");
+		Runtime.getRuntime().addShutdownHook(new Thread(
+				() -> logger.log(Level.INFO, "search cache {0}", searchCache)));
+		return searchCache;
+	}
+	
+	
+	
+	private ReadPreference readPreference(String option, String mode) {
+		try {
+			if(maxStalenessSeconds == 0 || ReadPreference.primary().getName().equals(mode))
+				return ReadPreference.valueOf(mode);
+			return ReadPreference.valueOf(mode, Collections.emptyList(), maxStalenessSeconds, TimeUnit.SECONDS);
+		}
+		catch(IllegalArgumentException e) {
+			throw new ParameterException(spec.commandLine(), option + " must be one of " + READ_PREFERENCE_MODES + ", not " + mode);
+		}
+	}
 }
-
-
-
@@ -1,14 +1,17 @@
 package com.airport_management.controller;
 
 import java.io.Serializable;
+import java.util.Date;
 import java.util.List;
 
 import com.airport_management.exception.FlightNotFoundException;
 import com.airport_management.exception.InconsistentDataException;
 import com.airport_management.exception.PlaneAlreadyInServiceException;
+import com.airport_management.exception.TransactionFailedException;
 import com.airport_management.model.Flight;
 import com.airport_management.service_layer.transaction.AirportServiceLayer;
 import com.airport_management.view.FlightView;
+import com.airport_management.view.PageSource;
 
  
 public class FlightController implements Serializable {
@@ -18,6 +21,12 @@ public class FlightController implements Serializable {
 	private transient FlightView flightView;
 	private transient AirportServiceLayer serviceLayer;
 	
+	//the view shows pages read on demand rather than a list handed to it
+	private boolean paged;
+	
+	//flights read in one go from a cursor, 0 while the list is not streamed
+	private int streamBatchSize;
+	
 	public FlightController(FlightView flightView, AirportServiceLayer serviceLayer) {
 		this.flightView = flightView;
 		this.serviceLayer = serviceLayer;
@@ -26,12 +35,57 @@ public class FlightController implements Serializable {
 	
 	
 	public void allFlights() {
+		paged = false;
+		streamBatchSize = 0;
 		List<Flight> flights = serviceLayer.findAllFlightsSL();
 		flightView.showAllFlights(flights);
 	}
 	
 	
 	
+	//the view is filled chunk by chunk while the cursor is read, the flights are then kept in memory
+	public void allFlightsStreamed(int batchSize) {
+		paged = false;
+		streamBatchSize = batchSize;
+		flightView.clearFlights();
+		if(!serviceLayer.streamAllFlightsSL(batchSize, flightView::showAllFlights))
+			flightView.showFlightError("Not all the flights could be read, the list is incomplete");
+	}
+	
+	
+	
+	//the list is read again the way it was read last
+	public void reloadFlights() {
+		if(streamBatchSize > 0)
+			allFlightsStreamed(streamBatchSize);
+		else
+			allFlightsPaged();
+	}
+	
+	
+	
+	//the view reads the pages it needs, nothing is loaded up front
+	public void allFlightsPaged() {
+		paged = true;
+		streamBatchSize = 0;
+		flightView.showFlightPages(new PageSource<Flight>() {
+			@Override
+			public int size() {
+				return (int) serviceLayer.countFlightsSL();
+			}
+			@Override
+			public List<Flight> page(int offset, int limit) {
+				return serviceLayer.findFlightsPageSL(offset, limit);
+			}
+			@Override
+			public List<Flight> pageAfter(Flight last, int offset, int limit) {
+				return serviceLayer.findFlightsPageAfterSL(last.getFlightNum(), limit);
+			}
+		});
+	}
+	
+	
+	
 	public Flight idFlight(String num) {
 		return serviceLayer.findByNumSL(num);
 	}
@@ -44,7 +98,7 @@ public class FlightController implements Serializable {
 			serviceLayer.saveFlightSL(flight);
 			flightView.flightAdded(flight);
 		}
-		catch (PlaneAlreadyInServiceException | InconsistentDataException ex) {
+		catch (PlaneAlreadyInServiceException | InconsistentDataException | TransactionFailedException ex) {
 			flightView.showFlightError(ex.getMessage());
 		}
 	}
@@ -57,8 +111,98 @@ public class FlightController implements Serializable {
 			serviceLayer.deleteFlightSL(flight);
 			flightView.flightRemoved(flight);
 		}
-		catch (FlightNotFoundException ex) {
+		catch (FlightNotFoundException | TransactionFailedException ex) {
 			flightView.showFlightError(ex.getMessage());
 		}	
 	}
+	
+	
+	
+	public void deleteFlights(List<Flight> flights) {
+		
+		try {
+			long deleted = serviceLayer.deleteFlightsSL(flights);
+			flightView.flightsRemoved(flights);
+			flightView.showFlightsDeleted(deleted);
+		}
+		catch (TransactionFailedException ex) {
+			flightView.showFlightError(ex.getMessage());
+		}
+	}
+	
+	
+	
+	//how many flights the bulk delete would remove, asked before running it
+	public long countFlightsOfPlane(String planeId) {
+		return serviceLayer.countFlightsByPlaneSL(planeId);
+	}
+	
+	
+	
+	public long countFlightsWithDepartureDateInRange(Date start, Date end) {
+		return serviceLayer.countFlightsWithDepartureDateInRangeSL(start, end);
+	}
+	
+	
+	
+	//the deleted flights are not known one by one, the list is read again
+	public void deleteFlightsOfPlane(String planeId) {
+		
+		try {
+			long deleted = serviceLayer.deleteFlightsByPlaneSL(planeId);
+			reloadFlights();
+			flightView.showFlightsDeleted(deleted);
+		}
+		catch (TransactionFailedException ex) {
+			flightView.showFlightError(ex.getMessage());
+		}
+	}
+	
+	
+	
+	public void deleteFlightsWithDepartureDateInRange(Date start, Date end) {
+		
+		try {
+			long deleted = serviceLayer.deleteFlightsWithDepartureDateInRangeSL(start, end);
+			reloadFlights();
+			flightView.showFlightsDeleted(deleted);
+		}
+		catch (TransactionFailedException ex) {
+			flightView.showFlightError(ex.getMessage());
+		}
+	}
+	
+	
+	
+	//a paged view reads the new flights itself, an in-memory one gets the stored flight, which may already be gone
+	public void flightInserted(String num) {
+		if(paged) {
+			flightView.flightInsertedElsewhere(num);
+			return;
+		}
+		
+		Flight flight = serviceLayer.findByNumSL(num);
+		if(flight != null)
+			flightView.flightInserted(flight);
+	}
+	
+	
+	
+	//same as an insert, a flight gone since the update is removed by its delete event
+	public void flightUpdated(String num) {
+		if(paged) {
+			flightView.flightUpdatedElsewhere(num);
+			return;
+		}
+		
+		Flight flight = serviceLayer.findByNumSL(num);
+		if(flight != null)
+			flightView.flightUpdated(flight);
+	}
+	
+	
+	
+	public void flightDeleted(String num) {
+		flightView.flightDeleted(num);
+	}
 }
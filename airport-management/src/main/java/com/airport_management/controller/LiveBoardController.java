@@ -0,0 +1,80 @@
+package com.airport_management.controller;
+
+import com.airport_management.repository.CollectionChangeListener;
+import com.airport_management.service_layer.transaction.AirportServiceLayer;
+
+
+//applies the changes of every client to the plane and flight lists and to the flight schedule, a cached search may no longer hold after any of them
+public class LiveBoardController implements CollectionChangeListener {
+
+	private PlaneController planeController;
+	private FlightController flightController;
+	private AirportServiceLayer serviceLayer;
+	
+	public LiveBoardController(PlaneController planeController, FlightController flightController, AirportServiceLayer serviceLayer) {
+		this.planeController = planeController;
+		this.flightController = flightController;
+		this.serviceLayer = serviceLayer;
+	}
+	
+	
+	
+	@Override
+	public void planeInserted(String id) {
+		serviceLayer.invalidateSearches();
+		planeController.planeInserted(id);
+	}
+	
+	
+	
+	@Override
+	public void planeUpdated(String id) {
+		serviceLayer.invalidateSearches();
+		planeController.planeUpdated(id);
+	}
+	
+	
+	
+	@Override
+	public void planeDeleted(String id) {
+		serviceLayer.invalidateSearches();
+		planeController.planeDeleted(id);
+	}
+	
+	
+	
+	@Override
+	public void flightInserted(String num) {
+		serviceLayer.flightChangedElsewhere(num);
+		serviceLayer.invalidateSearches();
+		flightController.flightInserted(num);
+	}
+	
+	
+	
+	@Override
+	public void flightUpdated(String num) {
+		serviceLayer.flightChangedElsewhere(num);
+		serviceLayer.invalidateSearches();
+		flightController.flightUpdated(num);
+	}
+	
+	
+	
+	@Override
+	public void flightDeleted(String num) {
+		serviceLayer.flightDeletedElsewhere(num);
+		serviceLayer.invalidateSearches();
+		flightController.flightDeleted(num);
+	}
+	
+	
+	
+	@Override
+	public void resynchronize() {
+		serviceLayer.invalidateSchedule();
+		serviceLayer.invalidateSearches();
+		planeController.allPlanesPaged();
+		flightController.reloadFlights();
+	}
+}
@@ -2,12 +2,14 @@ package com.airport_management.controller;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import com.airport_management.model.Plane;
 import com.airport_management.service_layer.transaction.AirportServiceLayer;
 import com.airport_management.view.*;
 import com.airport_management.exception.PlaneNotFoundException;
 import com.airport_management.exception.PlaneWithAssociateFlightException;
+import com.airport_management.exception.TransactionFailedException;
 
 
 public class PlaneController implements Serializable {
@@ -16,6 +18,9 @@ public class PlaneController implements Serializable {
 	
 	private transient PlaneView planeView;	
 	private transient AirportServiceLayer serviceLayer;
+	
+	//the view shows pages read on demand rather than a list handed to it
+	private boolean paged;
 
 	
 	public PlaneController(PlaneView planeView, AirportServiceLayer serviceLayer) {
@@ -25,19 +30,55 @@ public class PlaneController implements Serializable {
 	
 	
 	
-	public List<Plane> returnAllPlanes() {
-		return serviceLayer.findAllPlanesSL();
+	//the ids of the stored planes for the plane pickers, read a page at a time like the plane list
+	public PageSource<String> planeIdPages() {
+		return new PageSource<String>() {
+			@Override
+			public int size() {
+				return (int) serviceLayer.countPlanesSL();
+			}
+			@Override
+			public List<String> page(int offset, int limit) {
+				return ids(serviceLayer.findPlanesPageSL(offset, limit));
+			}
+			@Override
+			public List<String> pageAfter(String last, int offset, int limit) {
+				return ids(serviceLayer.findPlanesPageAfterSL(last, limit));
+			}
+		};
 	}
 	
 	
 	
 	public void allPlanes() {
+		paged = false;
 		List<Plane> planes = serviceLayer.findAllPlanesSL();
 		planeView.showAllPlanes(planes);
 	}
 	
 	
 	
+	//the view reads the pages it needs, nothing is loaded up front
+	public void allPlanesPaged() {
+		paged = true;
+		planeView.showPlanePages(new PageSource<Plane>() {
+			@Override
+			public int size() {
+				return (int) serviceLayer.countPlanesSL();
+			}
+			@Override
+			public List<Plane> page(int offset, int limit) {
+				return serviceLayer.findPlanesPageSL(offset, limit);
+			}
+			@Override
+			public List<Plane> pageAfter(Plane last, int offset, int limit) {
+				return serviceLayer.findPlanesPageAfterSL(last.getId(), limit);
+			}
+		});
+	}
+	
+	
+	
 	public Plane idPlane(String id) {
 		return serviceLayer.findByIdSL(id);
 	}
@@ -45,9 +86,14 @@ public class PlaneController implements Serializable {
 	
 	 
 	public void newPlane(Plane plane) {
-		serviceLayer.savePlaneSL(plane);
-		planeView.planeAdded(plane);
 		
+		try {
+			serviceLayer.savePlaneSL(plane);
+			planeView.planeAdded(plane);
+		}
+		catch(TransactionFailedException ex) {
+			planeView.showPlaneError(ex.getMessage());
+		}
 	}
 	
 	
@@ -58,8 +104,63 @@ public class PlaneController implements Serializable {
 			serviceLayer.deletePlaneSL(plane);
 			planeView.planeRemoved(plane);
 		}
-		catch(PlaneNotFoundException | PlaneWithAssociateFlightException ex) {
+		catch(PlaneNotFoundException | PlaneWithAssociateFlightException | TransactionFailedException ex) {
 			planeView.showPlaneError(ex.getMessage());
 		}
 	}
+	
+	
+	
+	public void deletePlanes(List<Plane> planes) {
+		
+		try {
+			long deleted = serviceLayer.deletePlanesSL(planes);
+			planeView.planesRemoved(planes);
+			planeView.showPlanesDeleted(deleted);
+		}
+		catch(PlaneWithAssociateFlightException | TransactionFailedException ex) {
+			planeView.showPlaneError(ex.getMessage());
+		}
+	}
+	
+	
+	
+	//a paged view reads the new planes itself, an in-memory one gets the stored plane, which may already be gone
+	public void planeInserted(String id) {
+		if(paged) {
+			planeView.planeInsertedElsewhere(id);
+			return;
+		}
+		
+		Plane plane = serviceLayer.findByIdSL(id);
+		if(plane != null)
+			planeView.planeInserted(plane);
+	}
+	
+	
+	
+	//same as an insert, a plane gone since the update is removed by its delete event
+	public void planeUpdated(String id) {
+		if(paged) {
+			planeView.planeUpdatedElsewhere(id);
+			return;
+		}
+		
+		Plane plane = serviceLayer.findByIdSL(id);
+		if(plane != null)
+			planeView.planeUpdated(plane);
+	}
+	
+	
+	
+	public void planeDeleted(String id) {
+		planeView.planeDeleted(id);
+	}
+	
+	
+	
+	//a failed read stays null
+	private static List<String> ids(List<Plane> planes) {
+		return planes == null ? null : planes.stream().map(Plane::getId).collect(Collectors.toList());
+	}
 }
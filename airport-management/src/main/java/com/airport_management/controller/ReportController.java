@@ -0,0 +1,40 @@
+package com.airport_management.controller;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+import com.airport_management.exception.InconsistentDataException;
+import com.airport_management.model.PlaneUtilisation;
+import com.airport_management.service_layer.transaction.AirportServiceLayer;
+import com.airport_management.view.ReportView;
+
+
+public class ReportController implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	private transient ReportView reportView;
+	private transient AirportServiceLayer serviceLayer;
+	
+	public ReportController(ReportView reportView, AirportServiceLayer serviceLayer) {
+		this.reportView = reportView;
+		this.serviceLayer = serviceLayer;
+	}
+	
+	
+	
+	public void planeUtilisation(Date start, Date end) {
+		try {
+			List<PlaneUtilisation> report = serviceLayer.planeUtilisationSL(start, end);
+			if(report == null) {
+				reportView.showReportError("The report could not be read, try again");
+				return;
+			}
+			reportView.showPlaneUtilisation(report);
+		}
+		catch(InconsistentDataException ex) {
+			reportView.showReportError(ex.getMessage());
+		}
+	}
+}
@@ -5,6 +5,7 @@ import java.util.Date;
 import java.util.List;
 
 import com.airport_management.exception.FlightNotFoundException;
+import com.airport_management.exception.InconsistentDataException;
 import com.airport_management.model.Flight;
 import com.airport_management.service_layer.transaction.AirportServiceLayer;
 import com.airport_management.view.SearchView;
@@ -92,6 +93,19 @@ public class SearchController implements Serializable {
 	
 	
 	
+	public void findAvailablePlanes(Date start, Date end, String model) {
+		try {
+			List<Plane> planes = serviceLayer.findAvailablePlanesSL(start, end, model);
+			searchView.showAllFoundedAvailablePlanes(planes);
+		}
+		catch(PlaneNotFoundException | InconsistentDataException ex) {
+			searchView.showSearchPlaneError(ex.getMessage());
+			searchView.clearListSearchAvailablePlanes();
+		}
+	}
+	
+	
+	
 	public void findAllPlanesByModel(String model) {
 		try {
 			List<Plane> planes = serviceLayer.findAllPlanesByModelSL(model);
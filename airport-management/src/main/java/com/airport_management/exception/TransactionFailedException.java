@@ -0,0 +1,16 @@
+package com.airport_management.exception;
+
+
+public class TransactionFailedException extends RuntimeException{
+
+	private static final long serialVersionUID = 1L;
+	
+	public TransactionFailedException(Throwable cause) {
+		this("The change was not saved, database error: " + cause.getMessage(), cause);
+	}
+	
+	public TransactionFailedException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+}
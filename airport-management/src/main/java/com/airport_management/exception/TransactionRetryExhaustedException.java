@@ -0,0 +1,19 @@
+package com.airport_management.exception;
+
+
+public class TransactionRetryExhaustedException extends TransactionFailedException{
+
+	private static final long serialVersionUID = 1L;
+	
+	private final int attempts;
+	
+	public TransactionRetryExhaustedException(int attempts, Throwable cause) {
+		super("The database is busy, the change was not saved after " + attempts + " attempts. Try again", cause);
+		this.attempts = attempts;
+	}
+	
+	public int getAttempts() {
+		return attempts;
+	}
+	
+}
@@ -0,0 +1,245 @@
+package com.airport_management.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+
+//counters, histograms and sampled values kept in memory, scrape() renders them in the Prometheus text format
+public class MetricsRegistry {
+
+	//upper bounds of the buckets, in seconds for timers
+	public static final double[] TIME_BUCKETS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+	public static final double[] SIZE_BUCKETS = {0, 1, 10, 100, 1000, 10000, 100000, 1000000};
+
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+
+
+	//labels are name, value pairs; the help of a metric is the one given the first time
+	public Counter counter(String name, String help, String... labels) {
+		return (Counter) family(name, help, "counter").series(labels, Counter::new);
+	}
+
+
+
+	public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+		return (Histogram) family(name, help, "histogram").series(labels, () -> new Histogram(buckets));
+	}
+
+
+
+	public Histogram timer(String name, String help, String... labels) {
+		return histogram(name, help, TIME_BUCKETS, labels);
+	}
+
+
+
+	//a value read at every scrape, registering the same series again replaces it
+	public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+		family(name, help, "gauge").replace(labels, new Sampled(value));
+	}
+
+
+
+	//a count kept by someone else, such as the hits of a cache
+	public void functionCounter(String name, String help, DoubleSupplier value, String... labels) {
+		family(name, help, "counter").replace(labels, new Sampled(value));
+	}
+
+
+
+	public String scrape() {
+		StringBuilder text = new StringBuilder();
+		new TreeMap<>(families).forEach((name, family) -> family.render(name, text));
+		return text.toString();
+	}
+
+
+
+	private Family family(String name, String help, String type) {
+		Family family = families.computeIfAbsent(name, n -> new Family(help, type));
+		if(!family.type.equals(type))
+			throw new IllegalArgumentException(name + " is already a " + family.type);
+		return family;
+	}
+
+
+
+	private static String labels(String... labels) {
+		if(labels.length % 2 != 0)
+			throw new IllegalArgumentException("labels must be name, value pairs");
+
+		StringBuilder text = new StringBuilder();
+		for(int i = 0; i < labels.length; i += 2) {
+			text.append(text.length() == 0 ? "" : ",")
+				.append(labels[i]).append("=\"")
+				.append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+				.append('"');
+		}
+		return text.toString();
+	}
+
+
+
+	private static String number(double value) {
+		if(value == Math.rint(value) && !Double.isInfinite(value))
+			return Long.toString((long) value);
+		return String.format(Locale.ROOT, "%s", value);
+	}
+
+
+
+	private static String series(String name, String labels, String extraLabel) {
+		String all = labels.isEmpty() ? extraLabel : extraLabel.isEmpty() ? labels : labels + "," + extraLabel;
+		return all.isEmpty() ? name : name + "{" + all + "}";
+	}
+
+
+
+	private interface Metric {
+		void render(String name, String labels, StringBuilder text);
+	}
+
+
+
+	private static class Family {
+
+		private final String help;
+		private final String type;
+		private final Map<String, Metric> series = new ConcurrentHashMap<>();
+
+		Family(String help, String type) {
+			this.help = help;
+			this.type = type;
+		}
+
+		Metric series(String[] labels, Supplier<Metric> metric) {
+			return series.computeIfAbsent(labels(labels), l -> metric.get());
+		}
+
+		void replace(String[] labels, Metric metric) {
+			series.put(labels(labels), metric);
+		}
+
+		void render(String name, StringBuilder text) {
+			text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+			text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+			new TreeMap<>(series).forEach((labels, metric) -> metric.render(name, labels, text));
+		}
+	}
+
+
+
+	public static class Counter implements Metric {
+
+		private final LongAdder count = new LongAdder();
+
+		public void increment() {
+			count.increment();
+		}
+
+		public void add(long amount) {
+			count.add(amount);
+		}
+
+		public long count() {
+			return count.sum();
+		}
+
+		@Override
+		public void render(String name, String labels, StringBuilder text) {
+			text.append(series(name, labels, "")).append(' ').append(count()).append('\n');
+		}
+	}
+
+
+
+	//buckets are counted apart and summed up when rendered
+	public static class Histogram implements Metric {
+
+		private final double[] bounds;
+		private final LongAdder[] buckets;
+		private final LongAdder count = new LongAdder();
+		private final DoubleAdder sum = new DoubleAdder();
+
+		Histogram(double[] bounds) {
+			this.bounds = bounds.clone();
+			this.buckets = new LongAdder[bounds.length];
+			for(int i = 0; i < buckets.length; i++)
+				buckets[i] = new LongAdder();
+		}
+
+		public void observe(double value) {
+			for(int i = 0; i < bounds.length; i++) {
+				if(value <= bounds[i]) {
+					buckets[i].increment();
+					break;
+				}
+			}
+			count.increment();
+			sum.add(value);
+		}
+
+		public void recordNanos(long nanos) {
+			observe(nanos / NANOS_PER_SECOND);
+		}
+
+		//times the code even when it throws
+		public <T> T time(Supplier<T> code) {
+			long started = System.nanoTime();
+			try {
+				return code.get();
+			}
+			finally {
+				recordNanos(System.nanoTime() - started);
+			}
+		}
+
+		public long count() {
+			return count.sum();
+		}
+
+		public double sum() {
+			return sum.sum();
+		}
+
+		@Override
+		public void render(String name, String labels, StringBuilder text) {
+			long cumulative = 0;
+			for(int i = 0; i < bounds.length; i++) {
+				cumulative += buckets[i].sum();
+				text.append(series(name + "_bucket", labels, "le=\"" + number(bounds[i]) + "\""))
+					.append(' ').append(cumulative).append('\n');
+			}
+			//observations above the last bound are only in the count, which may also move on while rendering
+			long total = Math.max(cumulative, count());
+			text.append(series(name + "_bucket", labels, "le=\"+Inf\"")).append(' ').append(total).append('\n');
+			text.append(series(name + "_sum", labels, "")).append(' ').append(number(sum())).append('\n');
+			text.append(series(name + "_count", labels, "")).append(' ').append(total).append('\n');
+		}
+	}
+
+
+
+	private static class Sampled implements Metric {
+
+		private final DoubleSupplier value;
+
+		Sampled(DoubleSupplier value) {
+			this.value = value;
+		}
+
+		@Override
+		public void render(String name, String labels, StringBuilder text) {
+			text.append(series(name, labels, "")).append(' ').append(number(value.getAsDouble())).append('\n');
+		}
+	}
+}
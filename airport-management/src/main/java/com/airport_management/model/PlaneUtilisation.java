@@ -0,0 +1,102 @@
+package com.airport_management.model;
+
+import java.util.Locale;
+import java.util.Objects;
+
+
+//use of a plane over a date range, the times are in milliseconds and only the part of a flight inside the range counts
+public class PlaneUtilisation {
+
+	private static final double MILLIS_PER_HOUR = 3600000.0;
+
+	private String planeId;
+	private String model;
+	private int flights;
+	private long flownMillis;
+	private long idleMillis;
+	private long longestIdleMillis;
+
+
+	public PlaneUtilisation(String planeId, String model, int flights, long flownMillis, long idleMillis, long longestIdleMillis) {
+		this.planeId = planeId;
+		this.model = model;
+		this.flights = flights;
+		this.flownMillis = flownMillis;
+		this.idleMillis = idleMillis;
+		this.longestIdleMillis = longestIdleMillis;
+	}
+
+
+	public String getPlaneId() {
+		return planeId;
+	}
+
+
+	public String getModel() {
+		return model;
+	}
+
+
+	public int getFlights() {
+		return flights;
+	}
+
+
+	public long getFlownMillis() {
+		return flownMillis;
+	}
+
+
+	public long getIdleMillis() {
+		return idleMillis;
+	}
+
+
+	//the longest time on the ground, counting the start and the end of the range
+	public long getLongestIdleMillis() {
+		return longestIdleMillis;
+	}
+
+
+	public double getFlownHours() {
+		return flownMillis / MILLIS_PER_HOUR;
+	}
+
+
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(planeId, model, flights, flownMillis, idleMillis, longestIdleMillis);
+	}
+
+
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		PlaneUtilisation other = (PlaneUtilisation) obj;
+		return Objects.equals(planeId, other.planeId) &&
+				Objects.equals(model, other.model) &&
+				flights == other.flights &&
+				flownMillis == other.flownMillis &&
+				idleMillis == other.idleMillis &&
+				longestIdleMillis == other.longestIdleMillis;
+	}
+
+
+
+	@Override
+	public String toString() {
+		return "plane[id=" + planeId + ", model=" + model + "], flights=" + flights +
+				String.format(Locale.ROOT, ", flown_hours=%.1f, idle_hours=%.1f, longest_idle_hours=%.1f",
+						getFlownHours(), idleMillis / MILLIS_PER_HOUR, longestIdleMillis / MILLIS_PER_HOUR);
+	}
+}
@@ -0,0 +1,16 @@
+package com.airport_management.repository;
+
+
+//changes of the plane and flight collections, whoever made them
+public interface CollectionChangeListener {
+
+	public void planeInserted(String id);
+	public void planeUpdated(String id);
+	public void planeDeleted(String id);
+	public void flightInserted(String num);
+	public void flightUpdated(String num);
+	public void flightDeleted(String num);
+
+	//some changes may have been missed, everything must be read again
+	public void resynchronize();
+}
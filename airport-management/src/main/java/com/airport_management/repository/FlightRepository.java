@@ -1,15 +1,38 @@
 package com.airport_management.repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 import com.airport_management.model.Flight;
 
 
 public interface FlightRepository {
 	
 	public List<Flight> findAllFlights();
+	public Stream<Flight> streamAllFlights(int batchSize);
+	public List<Flight> findFlightsPage(int offset, int limit);
+	public List<Flight> findFlightsPageAfter(String number, int limit);
+	public long countFlights();
 	public Flight findByNum(String number);
 	public Flight saveFlight(Flight flight);
+	public List<Flight> saveFlights(List<Flight> flights);
 	public String deleteFlight(Flight flight);
+	public long deleteFlights(Collection<String> numbers);
+	public long deleteFlightsByPlaneId(String planeId);
+	public long deleteFlightsWithDepartureBetween(Date start, Date end);
+	public long countFlightsByPlaneId(String planeId);
+	public long countFlightsWithDepartureBetween(Date start, Date end);
+	public List<Flight> findByOrigin(String origin);
+	public List<Flight> findByDestination(String destination);
+	public List<Flight> findByDepartureBetween(Date start, Date end);
+	public List<Flight> findByArrivalBetween(Date start, Date end);
+	public List<Flight> findByPlaneId(String planeId);
+	public String findAnyFlightNumByPlaneId(String planeId);
+	public List<String> findPlaneIdsWithFlights(Collection<String> planeIds);
+	public List<String> findBusyPlaneIds(Date start, Date end);
+	public List<Flight> findOverlappingFlights(String planeId, Date departureDate, Date arrivalDate);
+	public List<Flight> findOverlappingFlights(Collection<String> planeIds, Date start, Date end);
 	
 }
 
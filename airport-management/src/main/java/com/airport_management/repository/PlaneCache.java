@@ -0,0 +1,184 @@
+package com.airport_management.repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.airport_management.model.Plane;
+
+
+//bounded LRU of planes by id, entries expire a fixed time after they are written
+public class PlaneCache {
+
+	public static final int DEFAULT_MAX_SIZE = 1000;
+	public static final long DEFAULT_TTL_SECONDS = 600;
+
+	private final int maxSize;
+	private final long ttlNanos;
+	private final LongSupplier ticker;
+	private final LinkedHashMap<String, Entry> entries;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+
+	public PlaneCache() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+	}
+
+
+	public PlaneCache(int maxSize, long ttl, TimeUnit unit) {
+		this(maxSize, ttl, unit, System::nanoTime);
+	}
+
+
+	PlaneCache(int maxSize, long ttl, TimeUnit unit, LongSupplier ticker) {
+		if(maxSize < 1 || ttl < 1)
+			throw new IllegalArgumentException("cache size and time to live must be positive");
+
+		this.maxSize = maxSize;
+		this.ttlNanos = unit.toNanos(ttl);
+		this.ticker = ticker;
+
+		//access ordered, the least recently read plane is evicted first
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if(size() <= PlaneCache.this.maxSize)
+					return false;
+				evictions.incrementAndGet();
+				return true;
+			}
+		};
+	}
+
+
+
+	//a copy of the cached plane, null on a miss
+	public synchronized Plane get(String id) {
+		Entry entry = entries.get(id);
+		if(entry != null && entry.isExpired(ticker.getAsLong())) {
+			entries.remove(id);
+			evictions.incrementAndGet();
+			entry = null;
+		}
+
+		if(entry == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+
+		hits.incrementAndGet();
+		return copy(entry.plane);
+	}
+
+
+
+	//the cached planes among the ids, every id not returned is counted as a miss
+	public synchronized Map<String, Plane> getAll(Collection<String> ids) {
+		Map<String, Plane> found = new HashMap<>();
+		for(String id : ids) {
+			Plane plane = get(id);
+			if(plane != null)
+				found.put(id, plane);
+		}
+		return found;
+	}
+
+
+
+	public synchronized void put(Plane plane) {
+		entries.put(plane.getId(), new Entry(copy(plane), ticker.getAsLong() + ttlNanos));
+	}
+
+
+
+	public synchronized void invalidate(String id) {
+		entries.remove(id);
+	}
+
+
+
+	public synchronized void invalidateAll() {
+		entries.clear();
+	}
+
+
+
+	//drops the expired entries, they are otherwise dropped when read
+	public synchronized void cleanUp() {
+		long now = ticker.getAsLong();
+		for(Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+			if(it.next().isExpired(now)) {
+				it.remove();
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+
+
+	@Override
+	public String toString() {
+		return "PlaneCache [size=" + size() + ", maxSize=" + maxSize + ", hits=" + getHitCount()
+				+ ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]";
+	}
+
+
+
+	//planes are mutable, callers never share the cached instance
+	private static Plane copy(Plane plane) {
+		return new Plane(plane.getId(), plane.getModel());
+	}
+
+
+
+	private static class Entry {
+
+		private final Plane plane;
+		private final long expiresAt;
+
+		Entry(Plane plane, long expiresAt) {
+			this.plane = plane;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(long now) {
+			return now - expiresAt >= 0;
+		}
+	}
+}
@@ -1,14 +1,23 @@
 package com.airport_management.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import com.airport_management.model.Plane;
 
 
 public interface PlaneRepository {
 
 	public List<Plane> findAllPlanes();
+	public List<Plane> findPlanesPage(int offset, int limit);
+	public List<Plane> findPlanesPageAfter(String id, int limit);
+	public long countPlanes();
 	public Plane findById(String id);
+	public Map<String, Plane> findByIds(Collection<String> ids);
 	public Plane savePlane(Plane plane);
 	public String deletePlane(Plane plane);
+	public long deletePlanes(Collection<String> ids);
+	public List<Plane> findByModel(String model);
+	public List<Plane> findPlanesExcept(Collection<String> ids, String model);
 	
 }
@@ -0,0 +1,11 @@
+package com.airport_management.repository;
+
+import java.util.Date;
+import java.util.List;
+import com.airport_management.model.PlaneUtilisation;
+
+
+public interface ReportRepository {
+
+	public List<PlaneUtilisation> findPlaneUtilisation(Date start, Date end);
+}
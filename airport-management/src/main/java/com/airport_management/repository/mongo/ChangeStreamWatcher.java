@@ -0,0 +1,249 @@
+package com.airport_management.repository.mongo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+
+import com.airport_management.repository.CollectionChangeListener;
+import com.airport_management.repository.PlaneCache;
+
+
+//follows the plane and flight collections on a daemon thread and resumes after the last event it handled
+public class ChangeStreamWatcher implements AutoCloseable {
+
+	private static final String FIELD_PK = "_id";
+
+	//resume token older than the oplog, or otherwise unusable
+	private static final List<Integer> HISTORY_LOST_CODES = Arrays.asList(260, 280, 286);
+
+	private static final long MAX_AWAIT_MILLIS = 1000;
+	private static final long RETRY_DELAY_MILLIS = 2000;
+
+	private final MongoClient client;
+	private final String databaseName;
+	private final String planeCollectionName;
+	private final String flightCollectionName;
+	private final CollectionChangeListener listener;
+	private PlaneCache planeCache;
+	private Consumer<BsonTimestamp> clusterTimes;
+
+	private BsonDocument resumeToken;
+	private volatile boolean closed;
+	private Thread thread;
+
+	private static Logger logger = Logger.getLogger(ChangeStreamWatcher.class.getName());
+
+
+	public ChangeStreamWatcher(MongoClient client, MongoCollection<Document> planeCollection,
+			MongoCollection<Document> flightCollection, CollectionChangeListener listener) {
+		this.client = client;
+		this.databaseName = planeCollection.getNamespace().getDatabaseName();
+		this.planeCollectionName = planeCollection.getNamespace().getCollectionName();
+		this.flightCollectionName = flightCollection.getNamespace().getCollectionName();
+		this.listener = listener;
+	}
+
+
+
+	//planes changed by other clients are dropped from the cache
+	public void setPlaneCache(PlaneCache planeCache) {
+		this.planeCache = planeCache;
+	}
+
+
+
+	//gets the time of every change before the listener, a read made after it must not miss the change
+	public void setClusterTimeListener(Consumer<BsonTimestamp> clusterTimes) {
+		this.clusterTimes = clusterTimes;
+	}
+
+
+
+	//the stream is opened before returning, changes made after start are never missed
+	public synchronized void start() {
+		if(thread != null)
+			throw new IllegalStateException("watcher already started");
+
+		MongoChangeStreamCursor<ChangeStreamDocument<Document>> first = null;
+		try {
+			first = open();
+		}
+		catch(MongoException ex) {
+			logger.log(Level.WARNING, "change stream not opened, retrying", ex);
+		}
+
+		MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = first;
+		thread = new Thread(() -> watch(opened), "change-stream-watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+
+
+	//returns once the watching thread has stopped
+	@Override
+	public void close() throws InterruptedException {
+		closed = true;
+
+		Thread watching;
+		synchronized(this) {
+			watching = thread;
+		}
+		if(watching != null) {
+			watching.interrupt();
+			watching.join(MAX_AWAIT_MILLIS + RETRY_DELAY_MILLIS);
+		}
+	}
+
+
+
+	private void watch(MongoChangeStreamCursor<ChangeStreamDocument<Document>> first) {
+		MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = first;
+		boolean resynchronize = opened == null;
+
+		while(!closed) {
+			try(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = opened != null ? opened : open()) {
+				opened = null;
+				if(resynchronize) {
+					resynchronize = false;
+					if(planeCache != null)
+						planeCache.invalidateAll();
+					listener.resynchronize();
+				}
+
+				//the server closes the cursor when the stream is invalidated
+				while(!closed && cursor.getServerCursor() != null) {
+					ChangeStreamDocument<Document> change = cursor.tryNext();
+					if(change != null)
+						dispatch(change);
+
+					//also advances while idle, so a resume never replays old events
+					BsonDocument token = cursor.getResumeToken();
+					if(token != null)
+						resumeToken = token;
+				}
+			}
+			catch(MongoException ex) {
+				if(closed)
+					return;
+
+				if(isHistoryLost(ex)) {
+					resumeToken = null;
+					resynchronize = true;
+				}
+				logger.log(Level.WARNING, "change stream interrupted, resuming", ex);
+			}
+
+			if(!closed)
+				pause();
+		}
+	}
+
+
+
+	private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open() {
+		List<Bson> pipeline = Arrays.asList(Aggregates.match(Filters.and(
+				Filters.in("ns.coll", planeCollectionName, flightCollectionName),
+				Filters.in("operationType", "insert", "update", "replace", "delete", "drop", "rename"))));
+
+		ChangeStreamIterable<Document> changes = client.getDatabase(databaseName)
+				.watch(pipeline)
+				.maxAwaitTime(MAX_AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+		if(resumeToken != null)
+			changes = changes.resumeAfter(resumeToken);
+		return changes.cursor();
+	}
+
+
+
+	//a failing listener must not stop the events that follow
+	void dispatch(ChangeStreamDocument<Document> change) {
+		try {
+			if(clusterTimes != null && change.getClusterTime() != null)
+				clusterTimes.accept(change.getClusterTime());
+			
+			String collection = change.getNamespace().getCollectionName();
+			boolean plane = planeCollectionName.equals(collection);
+
+			switch(change.getOperationType()) {
+			case INSERT:
+				if(plane)
+					listener.planeInserted(id(change));
+				else
+					listener.flightInserted(id(change));
+				break;
+			case UPDATE:
+			case REPLACE:
+				if(plane) {
+					if(planeCache != null)
+						planeCache.invalidate(id(change));
+					listener.planeUpdated(id(change));
+				}
+				else
+					listener.flightUpdated(id(change));
+				break;
+			case DELETE:
+				if(plane) {
+					if(planeCache != null)
+						planeCache.invalidate(id(change));
+					listener.planeDeleted(id(change));
+				}
+				else
+					listener.flightDeleted(id(change));
+				break;
+			default:
+				if(planeCache != null)
+					planeCache.invalidateAll();
+				listener.resynchronize();
+			}
+		}
+		catch(RuntimeException ex) {
+			logger.log(Level.WARNING, "change not applied: " + change, ex);
+		}
+	}
+
+
+
+	private static String id(ChangeStreamDocument<Document> change) {
+		BsonValue id = change.getDocumentKey().get(FIELD_PK);
+		return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+	}
+
+
+
+	private static boolean isHistoryLost(MongoException ex) {
+		return ex instanceof MongoCommandException && HISTORY_LOST_CODES.contains(ex.getCode());
+	}
+
+
+
+	private void pause() {
+		try {
+			Thread.sleep(RETRY_DELAY_MILLIS);
+		}
+		catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			closed = true;
+		}
+	}
+}
@@ -1,18 +1,31 @@
 package com.airport_management.repository.mongo;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
 import com.mongodb.MongoClient;
 import com.mongodb.client.ClientSession;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 
 import com.airport_management.model.Flight;
 import com.airport_management.model.Plane;
@@ -22,6 +35,13 @@ import com.airport_management.repository.FlightRepository;
 public class FlightRepositoryMongo implements FlightRepository{
 
 	private static final String FIELD_PK = "_id";
+	private static final String FIELD_PLANE_ID = "plane_id";
+	private static final String FIELD_DEPARTURE_DATE = "departure_date";
+	private static final String FIELD_ARRIVAL_DATE = "arrival_date";
+	private static final String FIELD_ORIGIN = "origin";
+	private static final String FIELD_DESTINATION = "destination";
+	//number of flight documents whose planes are resolved with a single query
+	private static final int DEFAULT_BATCH_SIZE = 1000;
 	private PlaneRepositoryMongo planeRepositoryMongo;
 	private MongoCollection<Document> flightCollection;
 	private MongoClient client;
@@ -29,14 +49,13 @@ public class FlightRepositoryMongo implements FlightRepository{
 	
 	
 	public FlightRepositoryMongo(MongoClient client, String databaseName, String collectionName2, PlaneRepositoryMongo planeRepositoryMongo) {
-		
+		this(client, RepositoryMongo.resolveCollection(client, databaseName, collectionName2), planeRepositoryMongo);
+	}
+	
+	
+	public FlightRepositoryMongo(MongoClient client, MongoCollection<Document> flightCollection, PlaneRepositoryMongo planeRepositoryMongo) {
 		this.client = client;
-		MongoDatabase database = client.getDatabase(databaseName);
-		
-		if(!database.listCollectionNames().into(new ArrayList<String>()).contains(collectionName2))
-			database.createCollection(collectionName2);
-
-		flightCollection = database.getCollection(collectionName2);
+		this.flightCollection = flightCollection;
 		this.planeRepositoryMongo = planeRepositoryMongo;
 	}
 	
@@ -55,26 +74,115 @@ public class FlightRepositoryMongo implements FlightRepository{
 	public ClientSession getClientSession() {
 		return clientSession;
 	}
-
 	
 	
 	@Override
 	public List<Flight> findAllFlights() {
-		return StreamSupport.
-				stream(flightCollection.find(clientSession).spliterator(), false)
-				.map(this::fromDocumentToFlight)
+		return fromDocumentsToFlights(flightCollection.find(clientSession));
+	}
+	
+	
+	
+	//flights in _id order, mapped a batch at a time while the cursor is read; closing the stream closes the cursor
+	@Override
+	public Stream<Flight> streamAllFlights(int batchSize) {
+		if(batchSize < 1)
+			throw new IllegalArgumentException("batch size must be positive");
+		
+		MongoCursor<Document> cursor = flightCollection.find(clientSession)
+				.sort(Sorts.ascending(FIELD_PK))
+				.batchSize(batchSize)
+				.iterator();
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(pages(cursor, batchSize), Spliterator.ORDERED), false)
+				.flatMap(List::stream)
+				.onClose(cursor::close);
+	}
+	
+	
+	
+	//page of flights in _id order, that is in insertion order
+	@Override
+	public List<Flight> findFlightsPage(int offset, int limit) {
+		return fromDocumentsToFlights(flightCollection.find(clientSession)
+				.sort(Sorts.ascending(FIELD_PK))
+				.skip(offset)
+				.limit(limit));
+	}
+	
+	
+	
+	//the flights after number in _id order, a range on the _id index however deep the page
+	@Override
+	public List<Flight> findFlightsPageAfter(String number, int limit) {
+		return fromDocumentsToFlights(flightCollection.find(clientSession, Filters.gt(FIELD_PK, new ObjectId(number)))
+				.sort(Sorts.ascending(FIELD_PK))
+				.limit(limit));
+	}
+	
+	
+	
+	@Override
+	public long countFlights() {
+		return flightCollection.countDocuments(clientSession);
+	}
+	
+	
+	
+	private List<Flight> fromDocumentsToFlights(FindIterable<Document> documents) {
+		List<Flight> flights = new ArrayList<>();
+		
+		try(MongoCursor<Document> cursor = documents.batchSize(DEFAULT_BATCH_SIZE).iterator()) {
+			pages(cursor, DEFAULT_BATCH_SIZE).forEachRemaining(flights::addAll);
+		}
+		return flights;
+	}
+	
+	
+	
+	private Iterator<List<Flight>> pages(MongoCursor<Document> cursor, int size) {
+		return new Iterator<List<Flight>>() {
+			
+			@Override
+			public boolean hasNext() {
+				return cursor.hasNext();
+			}
+			
+			@Override
+			public List<Flight> next() {
+				if(!cursor.hasNext())
+					throw new NoSuchElementException();
+				
+				List<Document> page = new ArrayList<>();
+				while(page.size() < size && cursor.hasNext())
+					page.add(cursor.next());
+				return fromPageToFlights(page);
+			}
+		};
+	}
+	
+	
+	
+	//package private for the mapping benchmark
+	List<Flight> fromPageToFlights(List<Document> page) {
+		Set<String> planeIds = page.stream()
+				.map(d -> ""+d.get(FIELD_PLANE_ID))
+				.collect(Collectors.toSet());
+		Map<String, Plane> planes = planeRepositoryMongo.findByIds(planeIds);
+		
+		return page.stream()
+				.map(d -> fromDocumentToFlight(d, planes.get(""+d.get(FIELD_PLANE_ID))))
 				.collect(Collectors.toList());
 	}
 	
 	
 	
-	private Flight fromDocumentToFlight(Document d) {	
-		Plane plane = planeRepositoryMongo.findById(""+d.get("plane_id"));
+	private Flight fromDocumentToFlight(Document d, Plane plane) {	
 		return new Flight(""+d.get(FIELD_PK), 
-				d.getDate("departure_date"),
-				d.getDate("arrival_date"), 
-				""+d.get("origin"),
-				""+d.get("destination"),
+				d.getDate(FIELD_DEPARTURE_DATE),
+				d.getDate(FIELD_ARRIVAL_DATE), 
+				""+d.get(FIELD_ORIGIN),
+				""+d.get(FIELD_DESTINATION),
 				plane); 
 	}
 	
@@ -84,7 +192,7 @@ public class FlightRepositoryMongo implements FlightRepository{
 	public Flight findByNum(String number) {
 		Document d = flightCollection.find(clientSession,  Filters.eq("_id", new ObjectId(number))).first();
 		if(d != null)
-			return fromDocumentToFlight(d);
+			return fromDocumentToFlight(d, planeRepositoryMongo.findById(""+d.get(FIELD_PLANE_ID)));
 		return null; 
 	}
 	
@@ -92,19 +200,41 @@ public class FlightRepositoryMongo implements FlightRepository{
 	
 	@Override
 	public Flight saveFlight(Flight flight) {		
-		Document newDocument = new Document();
-		flightCollection.insertOne(
-				clientSession,
-				newDocument
-					.append("departure_date", flight.getDepartureDate())
-					.append("arrival_date", flight.getArrivalDate())
-					.append("origin", flight.getOrigin())
-					.append("destination", flight.getDestination())
-					.append("plane_id", flight.getPlane().getId()));
+		Document newDocument = fromFlightToDocument(flight);
+		flightCollection.insertOne(clientSession, newDocument);
 		
 		flight.setFlightNum(newDocument.get(FIELD_PK).toString());
 		return flight;
 	}
+	
+	
+	
+	//a single insertMany, the flights get their num as saveFlight does
+	@Override
+	public List<Flight> saveFlights(List<Flight> flights) {
+		if(flights.isEmpty())
+			return flights;
+		
+		List<Document> newDocuments = flights.stream()
+				.map(this::fromFlightToDocument)
+				.collect(Collectors.toList());
+		flightCollection.insertMany(clientSession, newDocuments);
+		
+		for(int i = 0; i < flights.size(); i++)
+			flights.get(i).setFlightNum(newDocuments.get(i).get(FIELD_PK).toString());
+		return flights;
+	}
+	
+	
+	
+	private Document fromFlightToDocument(Flight flight) {
+		return new Document()
+				.append(FIELD_DEPARTURE_DATE, flight.getDepartureDate())
+				.append(FIELD_ARRIVAL_DATE, flight.getArrivalDate())
+				.append(FIELD_ORIGIN, flight.getOrigin())
+				.append(FIELD_DESTINATION, flight.getDestination())
+				.append(FIELD_PLANE_ID, flight.getPlane().getId());
+	}
 
 	
 	
@@ -114,4 +244,157 @@ public class FlightRepositoryMongo implements FlightRepository{
 		flightCollection.deleteOne(clientSession, Filters.eq("_id", new ObjectId(flightNum)));
 		return "delete with success";
 	}
+	
+	
+	
+	//a single deleteMany, nums that are not valid ids match nothing
+	@Override
+	public long deleteFlights(Collection<String> numbers) {
+		List<ObjectId> ids = numbers.stream()
+				.filter(ObjectId::isValid)
+				.map(ObjectId::new)
+				.collect(Collectors.toList());
+		if(ids.isEmpty())
+			return 0;
+		return flightCollection.deleteMany(clientSession, Filters.in(FIELD_PK, ids)).getDeletedCount();
+	}
+	
+	
+	
+	@Override
+	public long deleteFlightsByPlaneId(String planeId) {
+		return flightCollection.deleteMany(clientSession, Filters.eq(FIELD_PLANE_ID, planeId)).getDeletedCount();
+	}
+	
+	
+	
+	//same bounds as findByDepartureBetween
+	@Override
+	public long deleteFlightsWithDepartureBetween(Date start, Date end) {
+		return flightCollection.deleteMany(clientSession, departureBetween(start, end)).getDeletedCount();
+	}
+	
+	
+	
+	//the same filters as the deletes, what they would remove
+	@Override
+	public long countFlightsByPlaneId(String planeId) {
+		return flightCollection.countDocuments(clientSession, Filters.eq(FIELD_PLANE_ID, planeId));
+	}
+	
+	
+	
+	@Override
+	public long countFlightsWithDepartureBetween(Date start, Date end) {
+		return flightCollection.countDocuments(clientSession, departureBetween(start, end));
+	}
+	
+	
+	
+	@Override
+	public List<Flight> findByOrigin(String origin) {
+		return fromDocumentsToFlights(flightCollection.find(clientSession, Filters.eq(FIELD_ORIGIN, origin))
+				.collation(RepositoryMongo.IGNORE_CASE));
+	}
+	
+	
+	
+	@Override
+	public List<Flight> findByDestination(String destination) {
+		return fromDocumentsToFlights(flightCollection.find(clientSession, Filters.eq(FIELD_DESTINATION, destination))
+				.collation(RepositoryMongo.IGNORE_CASE));
+	}
+	
+	
+	
+	@Override
+	public List<Flight> findByDepartureBetween(Date start, Date end) {
+		return fromDocumentsToFlights(flightCollection.find(clientSession, departureBetween(start, end)));
+	}
+	
+	
+	
+	private static Bson departureBetween(Date start, Date end) {
+		return Filters.and(
+				Filters.gt(FIELD_DEPARTURE_DATE, start), 
+				Filters.lt(FIELD_DEPARTURE_DATE, end));
+	}
+	
+	
+	
+	@Override
+	public List<Flight> findByArrivalBetween(Date start, Date end) {
+		return fromDocumentsToFlights(flightCollection.find(clientSession, 
+				Filters.and(
+						Filters.gt(FIELD_ARRIVAL_DATE, start), 
+						Filters.lt(FIELD_ARRIVAL_DATE, end))));
+	}
+	
+	
+	
+	@Override
+	public List<Flight> findByPlaneId(String planeId) {
+		return fromDocumentsToFlights(flightCollection.find(clientSession, Filters.eq(FIELD_PLANE_ID, planeId)));
+	}
+	
+	
+	
+	//number of one flight associated with the plane, null when there is none
+	@Override
+	public String findAnyFlightNumByPlaneId(String planeId) {
+		Document d = flightCollection.find(clientSession, Filters.eq(FIELD_PLANE_ID, planeId))
+				.projection(Projections.include(FIELD_PK))
+				.first();
+		if(d != null)
+			return ""+d.get(FIELD_PK);
+		return null;
+	}
+	
+	
+	
+	//the planes among the ids that still have flights
+	@Override
+	public List<String> findPlaneIdsWithFlights(Collection<String> planeIds) {
+		return flightCollection.distinct(clientSession, FIELD_PLANE_ID, Filters.in(FIELD_PLANE_ID, planeIds), String.class)
+				.into(new ArrayList<>());
+	}
+	
+	
+	
+	//planes with a flight overlapping (start, end), read on the arrival_date index from start on
+	@Override
+	public List<String> findBusyPlaneIds(Date start, Date end) {
+		return flightCollection.distinct(clientSession, FIELD_PLANE_ID, 
+				overlapping(start, end), String.class)
+				.into(new ArrayList<>());
+	}
+	
+	
+	
+	//flights of the plane whose interval overlaps (departureDate, arrivalDate), read on the plane_id, arrival_date index
+	//from departureDate on, so the plane's older flights are not scanned whatever their length
+	@Override
+	public List<Flight> findOverlappingFlights(String planeId, Date departureDate, Date arrivalDate) {
+		return fromDocumentsToFlights(flightCollection.find(clientSession, 
+				Filters.and(Filters.eq(FIELD_PLANE_ID, planeId), overlapping(departureDate, arrivalDate))));
+	}
+	
+	
+	
+	//flights of any of the planes whose interval overlaps (start, end), with one query
+	@Override
+	public List<Flight> findOverlappingFlights(Collection<String> planeIds, Date start, Date end) {
+		return fromDocumentsToFlights(flightCollection.find(clientSession, 
+				Filters.and(Filters.in(FIELD_PLANE_ID, planeIds), overlapping(start, end))));
+	}
+	
+	
+	
+	//flights in the air at some point of (start, end), a flight may depart when the previous one arrives;
+	//the arrival_date range is the one read, the flights that depart after end are filtered on the index keys
+	private static Bson overlapping(Date start, Date end) {
+		return Filters.and(
+				Filters.gt(FIELD_ARRIVAL_DATE, start),
+				Filters.lt(FIELD_DEPARTURE_DATE, end));
+	}
 }
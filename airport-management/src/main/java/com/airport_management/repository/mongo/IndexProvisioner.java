@@ -0,0 +1,147 @@
+package com.airport_management.repository.mongo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.bson.Document;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+
+
+public class IndexProvisioner {
+
+	//database and collections already provisioned, per client
+	private static final Map<MongoClient, Set<String>> provisioned = Collections.synchronizedMap(new WeakHashMap<>());
+
+	//the searches by text ignore case, an index built with another collation is of no use to them
+	private static final List<IndexDefinition> PLANE_INDEXES = Arrays.asList(
+			new IndexDefinition("model_1_ci", RepositoryMongo.IGNORE_CASE, "model"));
+
+	private static final List<IndexDefinition> FLIGHT_INDEXES = Arrays.asList(
+			new IndexDefinition("origin_1_ci", RepositoryMongo.IGNORE_CASE, "origin"),
+			new IndexDefinition("destination_1_ci", RepositoryMongo.IGNORE_CASE, "destination"),
+			new IndexDefinition("departure_date_1", "departure_date"),
+			new IndexDefinition("arrival_date_1", "arrival_date"),
+			new IndexDefinition("plane_id_1_departure_date_1_arrival_date_1", "plane_id", "departure_date", "arrival_date"),
+			new IndexDefinition("plane_id_1_arrival_date_1_departure_date_1", "plane_id", "arrival_date", "departure_date"));
+
+
+	private IndexProvisioner() {}
+
+
+
+	//returns one line per index, empty when the client was already provisioned;
+	//the client is marked only once every index is there, so a failed attempt is made again by the next caller
+	public static List<String> ensureIndexes(MongoClient client, String databaseName, String planeCollectionName, String flightCollectionName) {
+
+		String key = databaseName + "." + planeCollectionName + "." + flightCollectionName;
+		synchronized (provisioned) {
+			if(provisioned.getOrDefault(client, Collections.emptySet()).contains(key))
+				return Collections.emptyList();
+		}
+
+		MongoDatabase database = client.getDatabase(databaseName);
+		List<String> report = new ArrayList<>();
+		report.addAll(ensureIndexes(database.getCollection(planeCollectionName), PLANE_INDEXES));
+		report.addAll(ensureIndexes(database.getCollection(flightCollectionName), FLIGHT_INDEXES));
+
+		synchronized (provisioned) {
+			provisioned.computeIfAbsent(client, c -> new HashSet<>()).add(key);
+		}
+		return report;
+	}
+
+
+
+	private static List<String> ensureIndexes(MongoCollection<Document> collection, List<IndexDefinition> indexes) {
+
+		//name -> the indexes already there
+		Map<String, Document> existing = new HashMap<>();
+		for(Document index : collection.listIndexes())
+			existing.put(index.getString("name"), index);
+
+		String collectionName = collection.getNamespace().getCollectionName();
+		List<String> report = new ArrayList<>();
+		for(IndexDefinition index : indexes) {
+			Document sameName = existing.get(index.name);
+			String sameKeys = existing.entrySet().stream()
+					.filter(e -> index.matches(e.getValue()))
+					.map(Map.Entry::getKey)
+					.findFirst().orElse(null);
+
+			if(sameName != null && index.matches(sameName)) {
+				report.add(collectionName + "." + index.name + " already present");
+			}
+			//a different index under the name cannot be replaced without dropping it, which is left to an administrator
+			else if(sameName != null && !index.hasKeys(sameName.get("key", Document.class))) {
+				report.add(collectionName + "." + index.name + " has keys " + sameName.get("key", Document.class).toJson() + " instead of " + index.fields + ", not created");
+			}
+			else if(sameName != null) {
+				report.add(collectionName + "." + index.name + " has another collation than " + index.locale() + ", not created");
+			}
+			else if(sameKeys != null) {
+				report.add(collectionName + "." + index.name + " already present as " + sameKeys);
+			}
+			else {
+				collection.createIndex(Indexes.ascending(index.fields), new IndexOptions().name(index.name).collation(index.collation));
+				report.add(collectionName + "." + index.name + " created");
+			}
+		}
+		return report;
+	}
+
+
+
+	private static class IndexDefinition {
+
+		private final String name;
+		private final Collation collation;
+		private final List<String> fields;
+
+		IndexDefinition(String name, String... fields) {
+			this(name, null, fields);
+		}
+
+		IndexDefinition(String name, Collation collation, String... fields) {
+			this.name = name;
+			this.collation = collation;
+			this.fields = Arrays.asList(fields);
+		}
+
+		boolean matches(Document index) {
+			return hasKeys(index.get("key", Document.class)) && hasCollation(index.get("collation", Document.class));
+		}
+
+		//an index without collation, or with the simple one, compares binary
+		boolean hasCollation(Document indexCollation) {
+			String indexLocale = indexCollation == null ? "simple" : indexCollation.getString("locale");
+			if(collation == null)
+				return "simple".equals(indexLocale);
+			return collation.getLocale().equals(indexLocale)
+					&& indexCollation.get("strength", Number.class).intValue() == collation.getStrength().getIntRepresentation();
+		}
+
+		String locale() {
+			return collation == null ? "simple" : collation.getLocale() + " strength " + collation.getStrength().getIntRepresentation();
+		}
+
+		//same fields in the same order, all ascending; the server may give the direction back as an int or a double
+		boolean hasKeys(Document key) {
+			if(key == null || !new ArrayList<>(key.keySet()).equals(fields))
+				return false;
+			return key.values().stream().allMatch(direction -> direction instanceof Number && ((Number) direction).doubleValue() == 1);
+		}
+	}
+}
@@ -1,40 +1,48 @@
 package com.airport_management.repository.mongo;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
 
 import com.mongodb.MongoClient;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
 
 import com.airport_management.model.Plane;
+import com.airport_management.repository.PlaneCache;
 import com.airport_management.repository.PlaneRepository;
 
 
 public class PlaneRepositoryMongo implements PlaneRepository {
 
 	private static final String FIELD_PK = "_id";
+	private static final String FIELD_MODEL = "model";
 	private MongoCollection<Document> planeCollection;
 	private MongoClient client;
 	private ClientSession clientSession;
+	private PlaneCache planeCache;
+	private Set<String> invalidatedIds = new HashSet<>();
 	
 	
 	public PlaneRepositoryMongo(MongoClient client, String databaseName, String collectionName1) {
-		
-		this.client = client;		
-		MongoDatabase database = client.getDatabase(databaseName);
-		
-		if(!database.listCollectionNames().into(new ArrayList<String>()).contains(collectionName1))
-			database.createCollection(collectionName1);
-
-		planeCollection = database.getCollection(collectionName1);
+		this(client, RepositoryMongo.resolveCollection(client, databaseName, collectionName1));
+	}
+	
+	
+	public PlaneRepositoryMongo(MongoClient client, MongoCollection<Document> planeCollection) {
+		this.client = client;
+		this.planeCollection = planeCollection;
 	}
 	
 	
@@ -51,6 +59,17 @@ public class PlaneRepositoryMongo implements PlaneRepository {
 	public ClientSession getClientSession() {
 		return clientSession;
 	}
+	
+	
+	public void setPlaneCache(PlaneCache planeCache) {
+		this.planeCache = planeCache;
+	}
+	
+	
+	//ids invalidated by this repository, to invalidate again once the transaction is over
+	public Set<String> getInvalidatedIds() {
+		return invalidatedIds;
+	}
 
 	
 	
@@ -64,20 +83,87 @@ public class PlaneRepositoryMongo implements PlaneRepository {
 
 
 
+	//page of planes in _id order, that is in insertion order
+	@Override
+	public List<Plane> findPlanesPage(int offset, int limit) {
+		return StreamSupport.
+				stream(planeCollection.find(clientSession)
+						.sort(Sorts.ascending(FIELD_PK))
+						.skip(offset)
+						.limit(limit)
+						.spliterator(), false)
+				.map(this::fromDocumentToPlane)
+				.collect(Collectors.toList());
+	}
+	
+	
+	
+	//the planes after id in _id order, a range on the _id index however deep the page
+	@Override
+	public List<Plane> findPlanesPageAfter(String id, int limit) {
+		return StreamSupport.
+				stream(planeCollection.find(clientSession, Filters.gt(FIELD_PK, new ObjectId(id)))
+						.sort(Sorts.ascending(FIELD_PK))
+						.limit(limit)
+						.spliterator(), false)
+				.map(this::fromDocumentToPlane)
+				.collect(Collectors.toList());
+	}
+	
+	
+	
+	@Override
+	public long countPlanes() {
+		return planeCollection.countDocuments(clientSession);
+	}
+	
+	
+	
 	private Plane fromDocumentToPlane(Document d) {
 		return new Plane(""+d.get(FIELD_PK),
-				""+d.get("model"));
+				""+d.get(FIELD_MODEL));
 	}
 	
 	
 	
 	@Override
 	public Plane findById(String id) {
+		if(isCacheReadable()) {
+			Plane cached = planeCache.get(id);
+			if(cached != null)
+				return cached;
+		}
+		
 		Document d = planeCollection.find(clientSession, Filters.eq("_id", new ObjectId(id))).first();
 		if(d != null)
-			return fromDocumentToPlane(d);
+			return cache(fromDocumentToPlane(d));
 		return null; 
 	}
+	
+	
+	
+	@Override
+	public Map<String, Plane> findByIds(Collection<String> ids) {
+		List<ObjectId> objectIds = ids.stream()
+				.filter(ObjectId::isValid)
+				.map(ObjectId::new)
+				.collect(Collectors.toList());
+		
+		Map<String, Plane> planes = new HashMap<>();
+		if(isCacheReadable()) {
+			planes.putAll(planeCache.getAll(ids));
+			objectIds.removeIf(objectId -> planes.containsKey(objectId.toHexString()));
+		}
+		
+		if(objectIds.isEmpty())
+			return planes;
+		
+		for(Document d : planeCollection.find(clientSession, Filters.in(FIELD_PK, objectIds))) {
+			Plane plane = cache(fromDocumentToPlane(d));
+			planes.put(plane.getId(), plane);
+		}
+		return planes;
+	}
 
 
 	
@@ -87,9 +173,10 @@ public class PlaneRepositoryMongo implements PlaneRepository {
 		
 		planeCollection.insertOne(
 				clientSession,
-				newDocument.append("model", plane.getModel()));
+				newDocument.append(FIELD_MODEL, plane.getModel()));
 		
 		plane.setId(newDocument.get(FIELD_PK).toString());	
+		invalidate(plane.getId());
 		return plane;
 	}
 	
@@ -99,7 +186,82 @@ public class PlaneRepositoryMongo implements PlaneRepository {
 	public String deletePlane(Plane plane) {
 		String id = plane.getId();
 		planeCollection.deleteOne(clientSession, Filters.eq("_id", new ObjectId(id)));
+		invalidate(id);
 		return "delete with success";
 	}
 	
+	
+	
+	@Override
+	public long deletePlanes(Collection<String> ids) {
+		List<ObjectId> objectIds = ids.stream()
+				.filter(ObjectId::isValid)
+				.map(ObjectId::new)
+				.collect(Collectors.toList());
+		if(objectIds.isEmpty())
+			return 0;
+		
+		long deleted = planeCollection.deleteMany(clientSession, Filters.in(FIELD_PK, objectIds)).getDeletedCount();
+		ids.forEach(this::invalidate);
+		return deleted;
+	}
+	
+	
+	
+	@Override
+	public List<Plane> findByModel(String model) {
+		return StreamSupport.
+				stream(planeCollection.find(clientSession, Filters.eq(FIELD_MODEL, model))
+						.collation(RepositoryMongo.IGNORE_CASE)
+						.spliterator(), false)
+				.map(this::fromDocumentToPlane)
+				.collect(Collectors.toList());
+	}
+	
+	
+	
+	//planes whose id is not among the ids, of the model if it is not null, in _id order
+	@Override
+	public List<Plane> findPlanesExcept(Collection<String> ids, String model) {
+		List<ObjectId> objectIds = ids.stream()
+				.filter(ObjectId::isValid)
+				.map(ObjectId::new)
+				.collect(Collectors.toList());
+		
+		Bson filter = Filters.nin(FIELD_PK, objectIds);
+		if(model != null)
+			filter = Filters.and(Filters.eq(FIELD_MODEL, model), filter);
+		
+		return StreamSupport.
+				stream(planeCollection.find(clientSession, filter)
+						.collation(RepositoryMongo.IGNORE_CASE)
+						.sort(Sorts.ascending(FIELD_PK))
+						.spliterator(), false)
+				.map(this::fromDocumentToPlane)
+				.collect(Collectors.toList());
+	}
+	
+	
+	
+	//inside a transaction the cache could hide the transaction's own writes
+	private boolean isCacheReadable() {
+		return planeCache != null && (clientSession == null || !clientSession.hasActiveTransaction());
+	}
+	
+	
+	
+	private Plane cache(Plane plane) {
+		if(isCacheReadable())
+			planeCache.put(plane);
+		return plane;
+	}
+	
+	
+	
+	private void invalidate(String id) {
+		if(planeCache != null) {
+			planeCache.invalidate(id);
+			invalidatedIds.add(id);
+		}
+	}
 }
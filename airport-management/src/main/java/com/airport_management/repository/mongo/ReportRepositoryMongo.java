@@ -0,0 +1,121 @@
+package com.airport_management.repository.mongo;
+
+import static java.util.Arrays.asList;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Field;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+
+import com.airport_management.model.PlaneUtilisation;
+import com.airport_management.repository.ReportRepository;
+
+
+//figures computed by the server, only one document per plane comes back
+public class ReportRepositoryMongo implements ReportRepository {
+
+	private static final String FIELD_PK = "_id";
+	private static final String FIELD_MODEL = "model";
+	private static final String FIELD_PLANE_ID = "plane_id";
+	private static final String FIELD_DEPARTURE_DATE = "departure_date";
+	private static final String FIELD_ARRIVAL_DATE = "arrival_date";
+	private static final String FIELD_FLIGHTS = "flights";
+	private static final String FIELD_FLOWN = "flown";
+	private static final String FIELD_LONGEST_IDLE = "longest_idle";
+	private MongoCollection<Document> planeCollection;
+	private MongoCollection<Document> flightCollection;
+	private ClientSession clientSession;
+
+
+	public ReportRepositoryMongo(MongoCollection<Document> planeCollection, MongoCollection<Document> flightCollection) {
+		this.planeCollection = planeCollection;
+		this.flightCollection = flightCollection;
+	}
+
+
+	public void setClientSession(ClientSession clientSession) {
+		this.clientSession = clientSession;
+	}
+
+
+
+	//planes without flights in the range are read with one more query, they are idle all the time
+	@Override
+	public List<PlaneUtilisation> findPlaneUtilisation(Date start, Date end) {
+		long range = end.getTime() - start.getTime();
+		List<PlaneUtilisation> report = flightCollection.aggregate(clientSession, utilisationPipeline(start, end))
+				.map(d -> fromDocumentToUtilisation(d, range))
+				.into(new ArrayList<>());
+
+		List<ObjectId> flown = report.stream()
+				.map(PlaneUtilisation::getPlaneId)
+				.filter(ObjectId::isValid)
+				.map(ObjectId::new)
+				.collect(Collectors.toList());
+		planeCollection.find(clientSession, Filters.nin(FIELD_PK, flown))
+				.map(d -> new PlaneUtilisation(""+d.get(FIELD_PK), ""+d.get(FIELD_MODEL), 0, 0, range, range))
+				.into(report);
+
+		report.sort((first, second) -> first.getPlaneId().compareTo(second.getPlaneId()));
+		return report;
+	}
+
+
+
+	//flights are clipped to the range, sorted, then folded per plane to find the longest gap between them
+	private List<Bson> utilisationPipeline(Date start, Date end) {
+		Document gaps = new Document("$reduce", new Document("input", "$intervals")
+				.append("initialValue", new Document("last", start).append("longest", 0L))
+				.append("in", new Document("last", new Document("$max", asList("$$value.last", "$$this.a")))
+						.append("longest", new Document("$max", asList("$$value.longest",
+								new Document("$subtract", asList("$$this.d", "$$value.last")))))));
+
+		return asList(
+				Aggregates.match(Filters.and(
+						Filters.lt(FIELD_DEPARTURE_DATE, end),
+						Filters.gt(FIELD_ARRIVAL_DATE, start))),
+				Aggregates.project(new Document(FIELD_PLANE_ID, 1)
+						.append("d", new Document("$max", asList("$" + FIELD_DEPARTURE_DATE, start)))
+						.append("a", new Document("$min", asList("$" + FIELD_ARRIVAL_DATE, end)))),
+				Aggregates.sort(Sorts.ascending("d")),
+				Aggregates.group("$" + FIELD_PLANE_ID,
+						Accumulators.sum(FIELD_FLIGHTS, 1),
+						Accumulators.sum(FIELD_FLOWN, new Document("$subtract", asList("$a", "$d"))),
+						Accumulators.push("intervals", new Document("d", "$d").append("a", "$a"))),
+				Aggregates.addFields(
+						new Field<>("gaps", gaps),
+						new Field<>("plane_oid", new Document("$convert", new Document("input", "$_id")
+								.append("to", "objectId")
+								.append("onError", null)))),
+				Aggregates.lookup(planeCollection.getNamespace().getCollectionName(), "plane_oid", FIELD_PK, "plane"),
+				Aggregates.project(new Document(FIELD_FLIGHTS, 1)
+						.append(FIELD_FLOWN, 1)
+						.append(FIELD_LONGEST_IDLE, new Document("$max", asList("$gaps.longest",
+								new Document("$subtract", asList(end, "$gaps.last")))))
+						.append(FIELD_MODEL, new Document("$arrayElemAt", asList("$plane." + FIELD_MODEL, 0)))));
+	}
+
+
+
+	private PlaneUtilisation fromDocumentToUtilisation(Document d, long range) {
+		long flown = ((Number) d.get(FIELD_FLOWN)).longValue();
+		return new PlaneUtilisation(""+d.get(FIELD_PK),
+				d.getString(FIELD_MODEL),
+				((Number) d.get(FIELD_FLIGHTS)).intValue(),
+				flown,
+				range - flown,
+				((Number) d.get(FIELD_LONGEST_IDLE)).longValue());
+	}
+}
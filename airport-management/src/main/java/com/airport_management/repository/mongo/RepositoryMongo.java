@@ -1,39 +1,106 @@
 package com.airport_management.repository.mongo;
 
+import java.util.ArrayList;
+
+import org.bson.Document;
+
+import com.airport_management.repository.PlaneCache;
+
 import com.mongodb.MongoClient;
 import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.CollationStrength;
 
 
 public class RepositoryMongo {
 
+	//origin, destination and model are matched ignoring case, their indexes are built with the same collation
+	public static final Collation IGNORE_CASE = Collation.builder()
+			.locale("en")
+			.collationStrength(CollationStrength.SECONDARY)
+			.build();
+
 	MongoClient client;
 	ClientSession clientSession;
-	String databaseName;
-	String collectionName1;
-	String collectionName2;
-	
+	MongoCollection<Document> planeCollection;
+	MongoCollection<Document> flightCollection;
+	PlaneRepositoryMongo planeRepositoryMongo;
+	FlightRepositoryMongo flightRepositoryMongo;
+	ReportRepositoryMongo reportRepositoryMongo;
+	PlaneCache planeCache;
+
 	public RepositoryMongo(MongoClient client, ClientSession clientSession, String databaseName, String collectionName1, String collectionName2) {
+		this(client, clientSession,
+				resolveCollection(client, databaseName, collectionName1),
+				resolveCollection(client, databaseName, collectionName2));
+	}
+
+
+	//view on already resolved collections, binds only the session
+	public RepositoryMongo(MongoClient client, ClientSession clientSession, MongoCollection<Document> planeCollection, MongoCollection<Document> flightCollection) {
 		this.client = client;
 		this.clientSession = clientSession;
-		this.databaseName = databaseName;
-		this.collectionName1 = collectionName1;
-		this.collectionName2 = collectionName2;
+		this.planeCollection = planeCollection;
+		this.flightCollection = flightCollection;
 	}
 
 
-	
+
+	//creates the collection when missing and returns its handle
+	public static MongoCollection<Document> resolveCollection(MongoClient client, String databaseName, String collectionName) {
+		MongoDatabase database = client.getDatabase(databaseName);
+
+		if(!database.listCollectionNames().into(new ArrayList<String>()).contains(collectionName))
+			database.createCollection(collectionName);
+
+		return database.getCollection(collectionName);
+	}
+
+
+
+	//shared by the plane repositories of every session
+	public void setPlaneCache(PlaneCache planeCache) {
+		this.planeCache = planeCache;
+	}
+
+
+
 	public PlaneRepositoryMongo createPlaneRepository() {
-		PlaneRepositoryMongo planeRepositoryMongo = new PlaneRepositoryMongo(client, databaseName, collectionName1);
-		planeRepositoryMongo.setClientSession(clientSession);
+		if(planeRepositoryMongo == null) {
+			planeRepositoryMongo = new PlaneRepositoryMongo(client, planeCollection);
+			planeRepositoryMongo.setClientSession(clientSession);
+			planeRepositoryMongo.setPlaneCache(planeCache);
+		}
 		return planeRepositoryMongo;
 	}
-	
 
-	
+
+
+	//a read in another session may have cached a plane this session deleted before committing
+	public void invalidateCachedPlanes() {
+		if(planeCache != null && planeRepositoryMongo != null)
+			planeRepositoryMongo.getInvalidatedIds().forEach(planeCache::invalidate);
+	}
+
+
+
 	public FlightRepositoryMongo createFlightRepository() {
-		PlaneRepositoryMongo planeRepositoryMongo = createPlaneRepository();
-		FlightRepositoryMongo flightRepositoryMongo = new FlightRepositoryMongo(client, databaseName, collectionName2, planeRepositoryMongo);
-		flightRepositoryMongo.setClientSession(clientSession);
+		if(flightRepositoryMongo == null) {
+			flightRepositoryMongo = new FlightRepositoryMongo(client, flightCollection, createPlaneRepository());
+			flightRepositoryMongo.setClientSession(clientSession);
+		}
 		return flightRepositoryMongo;
 	}
-}
\ No newline at end of file
+
+
+
+	public ReportRepositoryMongo createReportRepository() {
+		if(reportRepositoryMongo == null) {
+			reportRepositoryMongo = new ReportRepositoryMongo(planeCollection, flightCollection);
+			reportRepositoryMongo.setClientSession(clientSession);
+		}
+		return reportRepositoryMongo;
+	}
+}
@@ -0,0 +1,206 @@
+package com.airport_management.service_layer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.json.JsonParseException;
+
+import com.airport_management.model.Flight;
+import com.airport_management.model.Plane;
+
+
+//reads flights one line at a time, a malformed line becomes a row with an error instead of stopping the import
+public class FlightImportParser {
+
+	public enum Format {
+		//a header line naming the columns, then one flight per line
+		CSV,
+		//one JSON document per line
+		JSON_LINES;
+
+		public static Format of(String fileName) {
+			return fileName.toLowerCase().endsWith(".csv") ? CSV : JSON_LINES;
+		}
+	}
+
+	static final String FIELD_DEPARTURE_DATE = "departure_date";
+	static final String FIELD_ARRIVAL_DATE = "arrival_date";
+	static final String FIELD_ORIGIN = "origin";
+	static final String FIELD_DESTINATION = "destination";
+	static final String FIELD_PLANE_ID = "plane_id";
+
+	private final BufferedReader reader;
+	private final Format format;
+	private final ZoneId zone;
+	private List<String> header;
+	private int line;
+
+
+	public FlightImportParser(Reader reader, Format format) {
+		this(reader, format, ZoneId.systemDefault());
+	}
+
+
+	//dates without an offset are read in the zone
+	public FlightImportParser(Reader reader, Format format, ZoneId zone) {
+		this.reader = new BufferedReader(reader);
+		this.format = format;
+		this.zone = zone;
+	}
+
+
+
+	//null at the end of the input, blank lines are skipped
+	public Row next() throws IOException {
+		String text;
+		do {
+			text = reader.readLine();
+			if(text == null)
+				return null;
+			line++;
+		} while(text.trim().isEmpty());
+
+		if(format == Format.CSV && header == null) {
+			header = splitCsv(text);
+			return next();
+		}
+
+		try {
+			Map<String, Object> fields = format == Format.CSV ? csvFields(text) : Document.parse(text);
+			return new Row(line, toFlight(fields), null);
+		}
+		catch(IllegalArgumentException | JsonParseException ex) {
+			return new Row(line, null, ex.getMessage());
+		}
+	}
+
+
+
+	private Map<String, Object> csvFields(String text) {
+		List<String> values = splitCsv(text);
+		if(values.size() != header.size())
+			throw new IllegalArgumentException("expected " + header.size() + " columns, found " + values.size());
+
+		Map<String, Object> fields = new HashMap<>();
+		for(int i = 0; i < header.size(); i++)
+			fields.put(header.get(i), values.get(i));
+		return fields;
+	}
+
+
+
+	private Flight toFlight(Map<String, Object> fields) {
+		return new Flight(
+				date(fields, FIELD_DEPARTURE_DATE),
+				date(fields, FIELD_ARRIVAL_DATE),
+				text(fields, FIELD_ORIGIN),
+				text(fields, FIELD_DESTINATION),
+				new Plane(text(fields, FIELD_PLANE_ID), null));
+	}
+
+
+
+	private static String text(Map<String, Object> fields, String name) {
+		Object value = fields.get(name);
+		if(value == null || value.toString().trim().isEmpty())
+			throw new IllegalArgumentException("missing " + name);
+		return value.toString().trim();
+	}
+
+
+
+	//an ISO-8601 date time, with or without offset, or an extended JSON date
+	private Date date(Map<String, Object> fields, String name) {
+		Object value = fields.get(name);
+		if(value instanceof Date)
+			return (Date) value;
+
+		String text = text(fields, name);
+		try {
+			return Date.from(OffsetDateTime.parse(text).toInstant());
+		}
+		catch(DateTimeParseException ex) {
+			try {
+				return Date.from(LocalDateTime.parse(text).atZone(zone).toInstant());
+			}
+			catch(DateTimeParseException invalid) {
+				throw new IllegalArgumentException("invalid " + name + ": " + text);
+			}
+		}
+	}
+
+
+
+	//comma separated values, a value in double quotes may hold commas and doubled quotes
+	static List<String> splitCsv(String text) {
+		List<String> values = new ArrayList<>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if(quoted) {
+				if(c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+					value.append('"');
+					i++;
+				}
+				else if(c == '"')
+					quoted = false;
+				else
+					value.append(c);
+			}
+			else if(c == '"')
+				quoted = true;
+			else if(c == ',') {
+				values.add(value.toString().trim());
+				value.setLength(0);
+			}
+			else
+				value.append(c);
+		}
+
+		if(quoted)
+			throw new IllegalArgumentException("unterminated quoted value");
+		values.add(value.toString().trim());
+		return values;
+	}
+
+
+
+	public static class Row {
+
+		private final int line;
+		private final Flight flight;
+		private final String error;
+
+		Row(int line, Flight flight, String error) {
+			this.line = line;
+			this.flight = flight;
+			this.error = error;
+		}
+
+		public int getLine() {
+			return line;
+		}
+
+		//null when the line could not be read
+		public Flight getFlight() {
+			return flight;
+		}
+
+		public String getError() {
+			return error;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package com.airport_management.service_layer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import com.airport_management.model.Flight;
+
+
+//the stored flights of every plane, a read model of the flight collection kept in step by the local writes and the
+//change stream; without the change stream the flights of other clients would be missed, so it is off until enabled
+public class FlightSchedule {
+
+	private final Map<String, Flight> flights = new HashMap<>();
+	private final PlaneScheduleIndex index = new PlaneScheduleIndex();
+	private boolean enabled;
+	private boolean loaded;
+
+	//moved by every change, the flights read for a load may miss the changes made while they were read
+	private long version;
+
+
+
+	public synchronized void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		invalidate();
+	}
+
+
+
+	public synchronized boolean isEnabled() {
+		return enabled;
+	}
+
+
+
+	public synchronized boolean isLoaded() {
+		return loaded;
+	}
+
+
+
+	//taken before the flights of a load are read
+	public synchronized long version() {
+		return version;
+	}
+
+
+
+	//the flights are read by the caller without holding the schedule; false if anything changed since readAt
+	public synchronized boolean load(List<Flight> stored, long readAt) {
+		if(!enabled || readAt != version)
+			return false;
+
+		clear();
+		stored.forEach(this::put);
+		loaded = true;
+		return true;
+	}
+
+
+
+	//the next query loads the flights again
+	public synchronized void invalidate() {
+		version++;
+		loaded = false;
+		clear();
+	}
+
+
+
+	//null while not loaded
+	public synchronized List<String> busyPlaneIds(Date start, Date end) {
+		return loaded ? index.busyPlaneIds(start, end) : null;
+	}
+
+
+
+	//a stored flight, new or changed; before the load it is read by the load itself
+	public synchronized void add(Flight flight) {
+		version++;
+		if(!loaded)
+			return;
+
+		Flight previous = flights.remove(flight.getFlightNum());
+		if(previous != null)
+			index.remove(previous);
+		put(flight);
+	}
+
+
+
+	public synchronized void remove(String num) {
+		version++;
+		Flight flight = flights.remove(num);
+		if(flight != null)
+			index.remove(flight);
+	}
+
+
+
+	public synchronized void removeIf(Predicate<Flight> deleted) {
+		version++;
+		List<Flight> removed = new ArrayList<>();
+		flights.values().removeIf(flight -> deleted.test(flight) && removed.add(flight));
+		removed.forEach(index::remove);
+	}
+
+
+
+	public synchronized int size() {
+		return flights.size();
+	}
+
+
+
+	//stored flights of a plane do not overlap, saveFlightSL and the import reject them; if some do anyway
+	//their intervals are merged and the plane stays busy until the schedule is loaded again
+	private void put(Flight flight) {
+		flights.put(flight.getFlightNum(), flight);
+		index.addExisting(flight);
+	}
+
+
+
+	private void clear() {
+		flights.clear();
+		index.clear();
+	}
+}
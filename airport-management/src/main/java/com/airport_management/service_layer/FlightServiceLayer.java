@@ -1,6 +1,9 @@
 package com.airport_management.service_layer;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 import com.airport_management.model.Flight;
 
 
@@ -8,8 +11,15 @@ public interface FlightServiceLayer {
 	
 	public void saveFlightSL(Flight flight);
 	public void deleteFlightSL(Flight flight);
+	public long deleteFlightsSL(Collection<Flight> flights);
+	public long deleteFlightsByPlaneSL(String planeId);
+	public long deleteFlightsWithDepartureDateInRangeSL(Date start, Date end);
 	public Flight findByNumSL(String num);
 	public List<Flight> findAllFlightsSL();
+	public boolean streamAllFlightsSL(int batchSize, Consumer<List<Flight>> chunks);
+	public List<Flight> findFlightsPageSL(int offset, int limit);
+	public List<Flight> findFlightsPageAfterSL(String num, int limit);
+	public long countFlightsSL();
 }
 
 
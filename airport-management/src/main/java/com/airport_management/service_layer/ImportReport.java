@@ -0,0 +1,80 @@
+package com.airport_management.service_layer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+
+//outcome of an import, rows are identified by their line in the input
+public class ImportReport {
+
+	private int importedCount;
+	private final List<RowError> errors = new ArrayList<>();
+
+
+
+	public void imported(int count) {
+		importedCount += count;
+	}
+
+
+
+	public void rejected(int line, String message) {
+		errors.add(new RowError(line, message));
+	}
+
+
+
+	public void merge(ImportReport other) {
+		importedCount += other.importedCount;
+		errors.addAll(other.errors);
+	}
+
+
+
+	public int getImportedCount() {
+		return importedCount;
+	}
+
+
+
+	//sorted by line, batches report their rows after the rows rejected while reading
+	public List<RowError> getErrors() {
+		errors.sort(Comparator.comparingInt(RowError::getLine));
+		return Collections.unmodifiableList(errors);
+	}
+
+
+
+	@Override
+	public String toString() {
+		return "ImportReport [imported=" + importedCount + ", rejected=" + errors.size() + "]";
+	}
+
+
+
+	public static class RowError {
+
+		private final int line;
+		private final String message;
+
+		public RowError(int line, String message) {
+			this.line = line;
+			this.message = message;
+		}
+
+		public int getLine() {
+			return line;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public String toString() {
+			return "line " + line + ": " + message;
+		}
+	}
+}
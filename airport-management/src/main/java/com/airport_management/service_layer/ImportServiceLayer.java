@@ -0,0 +1,10 @@
+package com.airport_management.service_layer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+
+public interface ImportServiceLayer {
+	
+	public ImportReport importFlightsSL(Reader reader, FlightImportParser.Format format, int batchSize) throws IOException;
+}
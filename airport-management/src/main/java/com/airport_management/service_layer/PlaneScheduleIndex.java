@@ -0,0 +1,98 @@
+package com.airport_management.service_layer;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.airport_management.model.Flight;
+
+
+//busy intervals of every plane, sorted by departure and merged so that they never overlap
+public class PlaneScheduleIndex {
+
+	//plane id to departure to arrival, in epoch millis
+	private final Map<String, TreeMap<Long, Long>> schedules = new HashMap<>();
+
+
+
+	//a flight may depart when the previous one arrives, as saveFlightSL allows
+	public boolean isFree(String planeId, Date departureDate, Date arrivalDate) {
+		TreeMap<Long, Long> schedule = schedules.get(planeId);
+		if(schedule == null)
+			return true;
+
+		//the busy interval starting last before the arrival is the only one that can overlap
+		Map.Entry<Long, Long> before = schedule.lowerEntry(arrivalDate.getTime());
+		return before == null || before.getValue() <= departureDate.getTime();
+	}
+
+
+
+	//adds the flight only if its plane is free, false otherwise
+	public boolean add(Flight flight) {
+		String planeId = flight.getPlane().getId();
+		if(!isFree(planeId, flight.getDepartureDate(), flight.getArrivalDate()))
+			return false;
+
+		put(planeId, flight.getDepartureDate(), flight.getArrivalDate());
+		return true;
+	}
+
+
+
+	//adds a stored flight even if it overlaps others, the overlapping intervals are merged
+	public void addExisting(Flight flight) {
+		put(flight.getPlane().getId(), flight.getDepartureDate(), flight.getArrivalDate());
+	}
+
+
+
+	//undoes add, an accepted flight keeps its own interval until a stored flight is merged into it
+	public void remove(Flight flight) {
+		String planeId = flight.getPlane().getId();
+		TreeMap<Long, Long> schedule = schedules.get(planeId);
+		if(schedule != null && schedule.remove(flight.getDepartureDate().getTime(), flight.getArrivalDate().getTime()) && schedule.isEmpty())
+			schedules.remove(planeId);
+	}
+
+
+
+	//one lookup per plane with flights
+	public List<String> busyPlaneIds(Date start, Date end) {
+		return schedules.keySet().stream()
+				.filter(planeId -> !isFree(planeId, start, end))
+				.collect(Collectors.toList());
+	}
+
+
+
+	public int planes() {
+		return schedules.size();
+	}
+
+
+
+	public void clear() {
+		schedules.clear();
+	}
+
+
+
+	private void put(String planeId, Date departureDate, Date arrivalDate) {
+		TreeMap<Long, Long> schedule = schedules.computeIfAbsent(planeId, id -> new TreeMap<>());
+		long departure = departureDate.getTime();
+		long arrival = arrivalDate.getTime();
+
+		Map.Entry<Long, Long> before = schedule.lowerEntry(arrival);
+		while(before != null && before.getValue() > departure) {
+			departure = Math.min(departure, before.getKey());
+			arrival = Math.max(arrival, before.getValue());
+			schedule.remove(before.getKey());
+			before = schedule.lowerEntry(arrival);
+		}
+		schedule.put(departure, arrival);
+	}
+}
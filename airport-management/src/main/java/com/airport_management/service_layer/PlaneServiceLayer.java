@@ -1,5 +1,6 @@
 package com.airport_management.service_layer;
 
+import java.util.Collection;
 import java.util.List;
 import com.airport_management.model.Plane;
 
@@ -9,7 +10,11 @@ public interface PlaneServiceLayer {
 	public Plane savePlaneSL(Plane plane);
 	public Plane findByIdSL(String id);
 	public List<Plane> findAllPlanesSL();
+	public List<Plane> findPlanesPageSL(int offset, int limit);
+	public List<Plane> findPlanesPageAfterSL(String id, int limit);
+	public long countPlanesSL();
 	public void deletePlaneSL(Plane plane);
+	public long deletePlanesSL(Collection<Plane> planes);
 }
 
 
@@ -0,0 +1,11 @@
+package com.airport_management.service_layer;
+
+import java.util.Date;
+import java.util.List;
+import com.airport_management.model.PlaneUtilisation;
+
+
+public interface ReportServiceLayer {
+	
+	public List<PlaneUtilisation> planeUtilisationSL(Date start, Date end);
+}
@@ -0,0 +1,208 @@
+package com.airport_management.service_layer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+
+//bounded LRU of search results keyed by the search predicate, every write drops all of them
+public class SearchResultCache {
+
+	public static final int DEFAULT_MAX_SIZE = 200;
+	public static final long DEFAULT_TTL_SECONDS = 60;
+
+	private final int maxSize;
+	private final long ttlNanos;
+	private final LongSupplier ticker;
+	private final LinkedHashMap<Key, Entry> entries;
+
+	//bumped by every invalidation, a result read before it is not stored
+	private long generation;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+
+	public SearchResultCache() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+	}
+
+
+	public SearchResultCache(int maxSize, long ttl, TimeUnit unit) {
+		this(maxSize, ttl, unit, System::nanoTime);
+	}
+
+
+	SearchResultCache(int maxSize, long ttl, TimeUnit unit, LongSupplier ticker) {
+		if(maxSize < 1 || ttl < 1)
+			throw new IllegalArgumentException("cache size and time to live must be positive");
+
+		this.maxSize = maxSize;
+		this.ttlNanos = unit.toNanos(ttl);
+		this.ticker = ticker;
+
+		//access ordered, the least recently read result is evicted first
+		this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				if(size() <= SearchResultCache.this.maxSize)
+					return false;
+				evictions.incrementAndGet();
+				return true;
+			}
+		};
+	}
+
+
+
+	//the search name and its arguments, dates are compared by their instant
+	public static Key key(String search, Object... arguments) {
+		List<Object> values = new ArrayList<>(arguments.length + 1);
+		values.add(search);
+		for(Object argument : arguments)
+			values.add(argument instanceof Date ? ((Date) argument).getTime() : argument);
+		return new Key(values);
+	}
+
+
+
+	//a copy of the cached result, null on a miss
+	@SuppressWarnings("unchecked")
+	public synchronized <T> List<T> get(Key key) {
+		Entry entry = entries.get(key);
+		if(entry != null && ticker.getAsLong() - entry.expiresAt >= 0) {
+			entries.remove(key);
+			evictions.incrementAndGet();
+			entry = null;
+		}
+
+		if(entry == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+
+		hits.incrementAndGet();
+		UnaryOperator<T> copy = (UnaryOperator<T>) entry.copy;
+		return Collections.unmodifiableList(entry.result.stream()
+				.map(element -> copy.apply((T) element))
+				.collect(Collectors.toList()));
+	}
+
+
+
+	public synchronized long generation() {
+		return generation;
+	}
+
+
+
+	//for results of immutable elements
+	public <T> List<T> put(Key key, List<T> result, long readGeneration) {
+		return put(key, result, readGeneration, UnaryOperator.identity());
+	}
+
+
+
+	//stored only if nothing was invalidated since the generation was read;
+	//the cache keeps copies and hands out copies, a caller changing its result never changes the cached one
+	public synchronized <T> List<T> put(Key key, List<T> result, long readGeneration, UnaryOperator<T> copy) {
+		if(readGeneration == generation) {
+			List<T> copies = result.stream().map(copy).collect(Collectors.toList());
+			entries.put(key, new Entry(copies, copy, ticker.getAsLong() + ttlNanos));
+		}
+		return Collections.unmodifiableList(new ArrayList<>(result));
+	}
+
+
+
+	public synchronized void invalidateAll() {
+		generation++;
+		entries.clear();
+	}
+
+
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+
+
+	@Override
+	public String toString() {
+		return "SearchResultCache [size=" + size() + ", maxSize=" + maxSize + ", hits=" + getHitCount()
+				+ ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]";
+	}
+
+
+
+	public static final class Key {
+
+		private final List<Object> values;
+
+		private Key(List<Object> values) {
+			this.values = values;
+		}
+
+		public String getSearch() {
+			return (String) values.get(0);
+		}
+
+		@Override
+		public int hashCode() {
+			return values.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && values.equals(((Key) obj).values);
+		}
+
+		@Override
+		public String toString() {
+			return Arrays.toString(values.toArray());
+		}
+	}
+
+
+
+	private static class Entry {
+
+		private final List<?> result;
+		private final UnaryOperator<?> copy;
+		private final long expiresAt;
+
+		Entry(List<?> result, UnaryOperator<?> copy, long expiresAt) {
+			this.result = result;
+			this.copy = copy;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -14,4 +14,5 @@ public interface SearchServiceLayer {
 	public List<Flight> findAllFlightsWithArrivalDateInRangeSL(Date start, Date end);
 	public List<Flight> findAllFlightsAssociatesWithPlaneSL(String planeId);
 	public List<Plane> findAllPlanesByModelSL(String model);
+	public List<Plane> findAvailablePlanesSL(Date start, Date end, String model);
 }
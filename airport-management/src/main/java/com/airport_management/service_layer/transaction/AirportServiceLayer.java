@@ -1,30 +1,149 @@
 package com.airport_management.service_layer.transaction;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.airport_management.metrics.MetricsRegistry;
 import com.airport_management.model.Flight;
 import com.airport_management.model.Plane;
+import com.airport_management.model.PlaneUtilisation;
 import com.airport_management.repository.mongo.FlightRepositoryMongo;
 import com.airport_management.repository.mongo.PlaneRepositoryMongo;
+import com.airport_management.service_layer.FlightImportParser;
+import com.airport_management.service_layer.FlightSchedule;
 import com.airport_management.service_layer.FlightServiceLayer;
+import com.airport_management.service_layer.ImportReport;
+import com.airport_management.service_layer.ImportServiceLayer;
+import com.airport_management.service_layer.PlaneScheduleIndex;
 import com.airport_management.service_layer.PlaneServiceLayer;
+import com.airport_management.service_layer.ReportServiceLayer;
+import com.airport_management.service_layer.SearchResultCache;
+import com.airport_management.service_layer.SearchServiceLayer;
+import com.airport_management.transaction.ReadOperation;
+import com.airport_management.transaction.TransactionCode;
 import com.airport_management.transaction.TransactionManager;
 import com.airport_management.exception.PlaneAlreadyInServiceException;
 import com.airport_management.exception.PlaneNotFoundException;
 import com.airport_management.exception.PlaneWithAssociateFlightException;
 import com.airport_management.exception.InconsistentDataException;
 import com.airport_management.exception.FlightNotFoundException;
+import com.airport_management.exception.TransactionFailedException;
+import com.airport_management.exception.TransactionRetryExhaustedException;
 
 
-public class AirportServiceLayer implements PlaneServiceLayer, FlightServiceLayer {
+public class AirportServiceLayer implements PlaneServiceLayer, FlightServiceLayer, SearchServiceLayer, ImportServiceLayer, ReportServiceLayer {
 
 	TransactionManager transactionManager;
+	SearchResultCache searchCache = new SearchResultCache();
+	FlightSchedule schedule = new FlightSchedule();
+	MetricsRegistry metrics = new MetricsRegistry();
 	
 	public AirportServiceLayer(TransactionManager transactionManager) {
 		this.transactionManager = transactionManager;
 	}
+	
+	
+	
+	public void setMetrics(MetricsRegistry metrics) {
+		this.metrics = metrics;
+	}
+	
+	
+	
+	//the time of a service method, recorded also when it throws
+	private <T> T timed(String method, Supplier<T> body) {
+		return methodTimer(method).time(body);
+	}
+	
+	
+	
+	private void timedAction(String method, Runnable body) {
+		methodTimer(method).time(() -> {
+			body.run();
+			return null;
+		});
+	}
+	
+	
+	
+	private MetricsRegistry.Histogram methodTimer(String method) {
+		return metrics.timer("airport_service_method_seconds", "Time of the service layer methods", "method", method);
+	}
+	
+	
+	
+	//null disables the cache
+	public void setSearchCache(SearchResultCache searchCache) {
+		this.searchCache = searchCache;
+	}
+	
+	
+	
+	public SearchResultCache getSearchCache() {
+		return searchCache;
+	}
+	
+	
+	
+	//a committed write can change any search result
+	public void invalidateSearches() {
+		if(searchCache != null)
+			searchCache.invalidateAll();
+	}
+	
+	
+	
+	//only while the change stream runs, it brings the flights written by other clients
+	public void enableSchedule(boolean enabled) {
+		schedule.setEnabled(enabled);
+	}
+	
+	
+	
+	//changes may have been missed, the schedule is loaded again at the next search
+	public void invalidateSchedule() {
+		schedule.invalidate();
+	}
+	
+	
+	
+	//a flight inserted, updated or replaced by any client; read only once the schedule is loaded
+	public void flightChangedElsewhere(String num) {
+		if(!schedule.isLoaded()) {
+			schedule.invalidate();
+			return;
+		}
+		
+		Optional<Flight> stored = transactionManager.doReadOnly(ReadOperation.LOOKUP, 
+				flightRepository -> Optional.ofNullable(flightRepository.createFlightRepository().findByNum(num)));
+		if(stored == null)
+			schedule.invalidate();
+		else if(stored.isPresent())
+			schedule.add(stored.get());
+		else
+			schedule.remove(num);
+	}
+	
+	
+	
+	public void flightDeletedElsewhere(String num) {
+		schedule.remove(num);
+	}
 
 		
 	
@@ -32,37 +151,75 @@ public class AirportServiceLayer implements PlaneServiceLayer, FlightServiceLaye
 	//########## plane methods ###########
 	
 	public Plane savePlaneSL(Plane plane) {
-		return transactionManager.doInTransaction(planeRepository -> planeRepository.createPlaneRepository().savePlane(plane));
+		return timed("savePlaneSL", () -> {
+			Plane saved = transactionManager.doInTransaction(planeRepository -> planeRepository.createPlaneRepository().savePlane(plane));
+			invalidateSearches();
+			return saved;
+		});
 	}
 	
 	public Plane findByIdSL(String id) {
-		return transactionManager.doInTransaction(planeRepository -> planeRepository.createPlaneRepository().findById(id));
+		return timed("findByIdSL", () -> transactionManager.doReadOnly(ReadOperation.LOOKUP, planeRepository -> planeRepository.createPlaneRepository().findById(id)));
 	}
 	
 	public List<Plane> findAllPlanesSL() {
-		return transactionManager.doInTransaction(planeRepository -> planeRepository.createPlaneRepository().findAllPlanes());
+		return timed("findAllPlanesSL", () -> transactionManager.doReadOnly(ReadOperation.LISTING, planeRepository -> planeRepository.createPlaneRepository().findAllPlanes()));
+	}
+	
+	public List<Plane> findPlanesPageSL(int offset, int limit) {
+		return timed("findPlanesPageSL", () -> transactionManager.doReadOnly(ReadOperation.LISTING, planeRepository -> planeRepository.createPlaneRepository().findPlanesPage(offset, limit)));
+	}
+	
+	public List<Plane> findPlanesPageAfterSL(String id, int limit) {
+		return timed("findPlanesPageAfterSL", () -> transactionManager.doReadOnly(ReadOperation.LISTING, planeRepository -> planeRepository.createPlaneRepository().findPlanesPageAfter(id, limit)));
+	}
+	
+	public long countPlanesSL() {
+		return timed("countPlanesSL", () -> {
+			Long count = transactionManager.doReadOnly(ReadOperation.LISTING, planeRepository -> planeRepository.createPlaneRepository().countPlanes());
+			return count == null ? 0 : count;
+		});
 	}
 	
 	public void deletePlaneSL(Plane plane) {
-		transactionManager.doInTransaction(
-				repositoryMongo -> {
-					PlaneRepositoryMongo planeRepositoryMongo = repositoryMongo.createPlaneRepository();
-					FlightRepositoryMongo flightRepositoryMongo = repositoryMongo.createFlightRepository();
+		timedAction("deletePlaneSL", () -> {
+			transactionManager.doInTransaction(
+					repositoryMongo -> {
+						PlaneRepositoryMongo planeRepositoryMongo = repositoryMongo.createPlaneRepository();
+						FlightRepositoryMongo flightRepositoryMongo = repositoryMongo.createFlightRepository();
 					
-					if (planeRepositoryMongo.findById(plane.getId()) == null) {
-						throw new PlaneNotFoundException("No existing plane with id " + plane.getId());
-					}
+						if (planeRepositoryMongo.findById(plane.getId()) == null) {
+							throw new PlaneNotFoundException("No existing plane with id " + plane.getId());
+						}
 					
-					List<Flight> flights = flightRepositoryMongo.findAllFlights();
-					for(int i = 0; i < flights.size(); i++) {
-						
-						if(flights.get(i).getPlane().getId().equals(plane.getId())) {
+						String associateFlightNum = flightRepositoryMongo.findAnyFlightNumByPlaneId(plane.getId());
+						if(associateFlightNum != null) {
 							throw new PlaneWithAssociateFlightException("Impossible to delete. There is the flight " + 
-									flights.get(i).getFlightNum() + " associates with this plane");
+									associateFlightNum + " associates with this plane");
 						}
-					}				
-					return planeRepositoryMongo.deletePlane(plane);			
-				});
+						return planeRepositoryMongo.deletePlane(plane);			
+					});
+			invalidateSearches();
+		});
+	}
+	
+	//one deleteMany; nothing is deleted if any of the planes still has flights
+	public long deletePlanesSL(Collection<Plane> planes) {
+		return timed("deletePlanesSL", () -> {
+			List<String> ids = planes.stream().map(Plane::getId).collect(Collectors.toList());
+		
+			Long deleted = transactionManager.doInTransaction(
+					repositoryMongo -> {
+						List<String> withFlights = repositoryMongo.createFlightRepository().findPlaneIdsWithFlights(ids);
+						if(!withFlights.isEmpty()) {
+							throw new PlaneWithAssociateFlightException("Impossible to delete. There are flights associates with the planes " + 
+									String.join(", ", withFlights));
+						}
+						return repositoryMongo.createPlaneRepository().deletePlanes(ids);
+					});
+			invalidateSearches();
+			return deleted == null ? 0 : deleted;
+		});
 	}
 	
 	
@@ -72,231 +229,511 @@ public class AirportServiceLayer implements PlaneServiceLayer, FlightServiceLaye
 	//########### flight methods ##########
 	
 	public void saveFlightSL(Flight flight) {
-				
-		transactionManager.doInTransaction(
-				flightRepository -> {
-					
-					FlightRepositoryMongo flightRepositoryMongo = flightRepository.createFlightRepository();
-					List<Flight> flights = flightRepositoryMongo.findAllFlights();
-					Date departureDate = flight.getDepartureDate();
-					Date arrivalDate = flight.getArrivalDate();
-					String origin = flight.getOrigin();
-					String destination = flight.getDestination();
-					String planeId = flight.getPlane().getId();
-					
-					if(arrivalDate.before(departureDate) || departureDate.compareTo(arrivalDate) == 0) {
-						throw new InconsistentDataException("departure or arrival date is wrong");
-					}
+		timedAction("saveFlightSL", () -> {
+			Flight saved = transactionManager.doInTransaction(
+					flightRepository -> {
 					
-					if(origin.equals(destination)) {
-						throw new InconsistentDataException("origin or destination is wrong");
-					}
+						FlightRepositoryMongo flightRepositoryMongo = flightRepository.createFlightRepository();
+						Date departureDate = flight.getDepartureDate();
+						Date arrivalDate = flight.getArrivalDate();
+						String planeId = flight.getPlane().getId();
 					
-					for(int i = 0; i < flights.size(); i++) {
-						
-						if((departureDate.compareTo(flights.get(i).getDepartureDate()) == 0 || arrivalDate.compareTo(flights.get(i).getArrivalDate()) == 0) &&
-								flights.get(i).getPlane().getId().equals(planeId)) {
-							throw new PlaneAlreadyInServiceException("This plane is already in service. Departure or arrival date are equals to exsisting flight.");
-						}
-						
-						
-						if(departureDate.after(flights.get(i).getDepartureDate()) && 
-								departureDate.before(flights.get(i).getArrivalDate()) &&
-								flights.get(i).getPlane().getId().equals(planeId)) {
-							
-							throw new PlaneAlreadyInServiceException("This plane is already in service. Departure date is between dates of existing flight");
-						}
-						
-						if(arrivalDate.after(flights.get(i).getDepartureDate()) && 
-								arrivalDate.before(flights.get(i).getArrivalDate()) &&
-								flights.get(i).getPlane().getId().equals(planeId)) {
-							
-							throw new PlaneAlreadyInServiceException("This plane is already in service. Arrival date is between dates of existing flight");
+						String inconsistency = inconsistency(flight);
+						if(inconsistency != null) {
+							throw new InconsistentDataException(inconsistency);
 						}
-						
-						if(departureDate.before(flights.get(i).getDepartureDate()) &&
-								arrivalDate.after(flights.get(i).getArrivalDate()) &&
-								flights.get(i).getPlane().getId().equals(planeId)) {
-							
-							throw new PlaneAlreadyInServiceException("This plane is already in service. Departure date is before and arrival date is after dates of existing flight");
-						}				
-					}
 					
-					return flightRepositoryMongo.saveFlight(flight);
-				});
+						checkPlaneAvailability(flight, flightRepositoryMongo.findOverlappingFlights(planeId, departureDate, arrivalDate));
+					
+						return flightRepositoryMongo.saveFlight(flight);
+					});
+			if(saved != null)
+				schedule.add(saved);
+			invalidateSearches();
+		});
+	}
+	
+	
+	
+	//the message of the first check the flight fails, null if it passes them
+	private static String inconsistency(Flight flight) {
+		Date departureDate = flight.getDepartureDate();
+		Date arrivalDate = flight.getArrivalDate();
+		
+		if(arrivalDate.before(departureDate) || departureDate.compareTo(arrivalDate) == 0) {
+			return "departure or arrival date is wrong";
+		}
+		
+		if(flight.getOrigin().equals(flight.getDestination())) {
+			return "origin or destination is wrong";
+		}
+		return null;
+	}
+	
+	
+	
+	//package private for the conflict benchmark
+	static void checkPlaneAvailability(Flight flight, List<Flight> flights) {
+		
+		Date departureDate = flight.getDepartureDate();
+		Date arrivalDate = flight.getArrivalDate();
+		String planeId = flight.getPlane().getId();
+		
+		for(int i = 0; i < flights.size(); i++) {
+			
+			if((departureDate.compareTo(flights.get(i).getDepartureDate()) == 0 || arrivalDate.compareTo(flights.get(i).getArrivalDate()) == 0) &&
+					flights.get(i).getPlane().getId().equals(planeId)) {
+				throw new PlaneAlreadyInServiceException("This plane is already in service. Departure or arrival date are equals to exsisting flight.");
+			}
+			
+			
+			if(departureDate.after(flights.get(i).getDepartureDate()) && 
+					departureDate.before(flights.get(i).getArrivalDate()) &&
+					flights.get(i).getPlane().getId().equals(planeId)) {
+				
+				throw new PlaneAlreadyInServiceException("This plane is already in service. Departure date is between dates of existing flight");
+			}
+			
+			if(arrivalDate.after(flights.get(i).getDepartureDate()) && 
+					arrivalDate.before(flights.get(i).getArrivalDate()) &&
+					flights.get(i).getPlane().getId().equals(planeId)) {
+				
+				throw new PlaneAlreadyInServiceException("This plane is already in service. Arrival date is between dates of existing flight");
+			}
+			
+			if(departureDate.before(flights.get(i).getDepartureDate()) &&
+					arrivalDate.after(flights.get(i).getArrivalDate()) &&
+					flights.get(i).getPlane().getId().equals(planeId)) {
+				
+				throw new PlaneAlreadyInServiceException("This plane is already in service. Departure date is before and arrival date is after dates of existing flight");
+			}				
+		}
 	}
 	
 	
 	
 	public Flight findByNumSL(String num) {
-		return transactionManager.doInTransaction(flightRepository -> flightRepository.createFlightRepository().findByNum(num));
+		return timed("findByNumSL", () -> transactionManager.doReadOnly(ReadOperation.LOOKUP, flightRepository -> flightRepository.createFlightRepository().findByNum(num)));
 	}
 	
 	
 	
 	public List<Flight> findAllFlightsSL() {
-		return transactionManager.doInTransaction(flightRepository -> flightRepository.createFlightRepository().findAllFlights());
+		return timed("findAllFlightsSL", () -> transactionManager.doReadOnly(ReadOperation.LISTING, flightRepository -> flightRepository.createFlightRepository().findAllFlights()));
 	}
 	
 	
 	
-	public void deleteFlightSL(Flight flight) {
-		
-		transactionManager.doInTransaction(
+	//hands the flights to the consumer a chunk at a time while the cursor is still open;
+	//false if the read failed, the chunks already handed over are then only part of the flights
+	public boolean streamAllFlightsSL(int batchSize, Consumer<List<Flight>> chunks) {
+		return timed("streamAllFlightsSL", () -> transactionManager.doReadOnly(ReadOperation.LISTING, 
 				flightRepository -> {
+				
+					List<Flight> chunk = new ArrayList<>();
+					try(Stream<Flight> flights = flightRepository.createFlightRepository().streamAllFlights(batchSize)) {
+						flights.forEach(flight -> {
+							chunk.add(flight);
+							if(chunk.size() == batchSize) {
+								chunks.accept(new ArrayList<>(chunk));
+								chunk.clear();
+							}
+						});
+					}
+				
+					if(!chunk.isEmpty())
+						chunks.accept(chunk);
+					return Boolean.TRUE;
+				})) != null;
+	}
+	
+	
+	
+	public List<Flight> findFlightsPageSL(int offset, int limit) {
+		return timed("findFlightsPageSL", () -> transactionManager.doReadOnly(ReadOperation.LISTING, flightRepository -> flightRepository.createFlightRepository().findFlightsPage(offset, limit)));
+	}
+	
+	
+	
+	public List<Flight> findFlightsPageAfterSL(String num, int limit) {
+		return timed("findFlightsPageAfterSL", () -> transactionManager.doReadOnly(ReadOperation.LISTING, flightRepository -> flightRepository.createFlightRepository().findFlightsPageAfter(num, limit)));
+	}
+	
+	
+	
+	public long countFlightsSL() {
+		return timed("countFlightsSL", () -> {
+			Long count = transactionManager.doReadOnly(ReadOperation.LISTING, flightRepository -> flightRepository.createFlightRepository().countFlights());
+			return count == null ? 0 : count;
+		});
+	}
+	
+	
+	
+	//counted right before a bulk delete, to say how many flights it will remove
+	public long countFlightsByPlaneSL(String planeId) {
+		return timed("countFlightsByPlaneSL", () -> countFlightsWhere(flightRepository -> flightRepository.createFlightRepository().countFlightsByPlaneId(planeId)));
+	}
+	
+	
+	
+	public long countFlightsWithDepartureDateInRangeSL(Date start, Date end) {
+		return timed("countFlightsWithDepartureDateInRangeSL", () -> countFlightsWhere(flightRepository -> flightRepository.createFlightRepository().countFlightsWithDepartureBetween(start, end)));
+	}
+	
+	
+	
+	private long countFlightsWhere(TransactionCode<Long> count) {
+		Long counted = transactionManager.doReadOnly(ReadOperation.LOOKUP, count);
+		return counted == null ? 0 : counted;
+	}
+	
+	
+	
+	//rows are validated on their own first, then each batch against the stored flights and the rows before it
+	public ImportReport importFlightsSL(Reader reader, FlightImportParser.Format format, int batchSize) throws IOException {
+		if(batchSize < 1)
+			throw new IllegalArgumentException("batch size must be positive");
+		
+		ImportReport report = new ImportReport();
+		FlightImportParser parser = new FlightImportParser(reader, format);
+		List<FlightImportParser.Row> batch = new ArrayList<>(batchSize);
+		long started = System.nanoTime();
+		
+		try {
+			FlightImportParser.Row row;
+			while((row = parser.next()) != null) {
+				String error = row.getError() != null ? row.getError() : inconsistency(row.getFlight());
+				if(error != null) {
+					report.rejected(row.getLine(), error);
+					continue;
+				}
+				
+				batch.add(row);
+				if(batch.size() == batchSize) {
+					importBatch(batch, report);
+					batch.clear();
+				}
+			}
+			
+			if(!batch.isEmpty())
+				importBatch(batch, report);
+		}
+		finally {
+			invalidateSchedule();
+			invalidateSearches();
+			methodTimer("importFlightsSL").recordNanos(System.nanoTime() - started);
+		}
+		return report;
+	}
+	
+	
+	
+	//one transaction per batch, only the stored flights of the batch's planes and dates are read
+	private void importBatch(List<FlightImportParser.Row> batch, ImportReport report) {
+		Set<String> planeIds = new HashSet<>();
+		Date start = batch.get(0).getFlight().getDepartureDate();
+		Date end = batch.get(0).getFlight().getArrivalDate();
+		for(FlightImportParser.Row row : batch) {
+			Flight flight = row.getFlight();
+			planeIds.add(flight.getPlane().getId());
+			if(flight.getDepartureDate().before(start))
+				start = flight.getDepartureDate();
+			if(flight.getArrivalDate().after(end))
+				end = flight.getArrivalDate();
+		}
+		
+		ImportReport batchReport;
+		try {
+			batchReport = writeBatch(batch, planeIds, start, end);
+		}
+		catch(TransactionRetryExhaustedException ex) {
+			for(FlightImportParser.Row row : batch)
+				report.rejected(row.getLine(), "batch not written, database busy");
+			return;
+		}
+		catch(TransactionFailedException ex) {
+			for(FlightImportParser.Row row : batch)
+				report.rejected(row.getLine(), "batch not written, database error");
+			return;
+		}
+		
+		report.merge(batchReport);
+	}
+	
+	
+	
+	//one transaction, the stored flights of the batch's planes and dates are read inside it
+	private ImportReport writeBatch(List<FlightImportParser.Row> batch, Set<String> planeIds, Date from, Date to) {
+		return transactionManager.doInTransaction(
+				repositoryMongo -> {
+					
+					//built again if the transaction is retried
+					ImportReport rows = new ImportReport();
+					FlightRepositoryMongo flightRepositoryMongo = repositoryMongo.createFlightRepository();
+					Map<String, Plane> planes = repositoryMongo.createPlaneRepository().findByIds(planeIds);
 					
-					FlightRepositoryMongo flightRepositoryMongo = flightRepository.createFlightRepository();
+					PlaneScheduleIndex schedule = new PlaneScheduleIndex();
+					flightRepositoryMongo.findOverlappingFlights(planes.keySet(), from, to)
+						.forEach(schedule::addExisting);
 					
-					if (flightRepositoryMongo.findByNum(flight.getFlightNum()) == null) {				
-						throw new FlightNotFoundException("No existing flight with num " + flight.getFlightNum());
+					List<Flight> accepted = new ArrayList<>();
+					for(FlightImportParser.Row row : batch) {
+						Flight flight = row.getFlight();
+						Plane plane = planes.get(flight.getPlane().getId());
+						
+						if(plane == null)
+							rows.rejected(row.getLine(), "No existing plane with id " + flight.getPlane().getId());
+						else if(!schedule.add(flight))
+							rows.rejected(row.getLine(), "This plane is already in service. Dates overlap an existing or imported flight");
+						else {
+							flight.setPlane(plane);
+							accepted.add(flight);
+						}
 					}
-					return flightRepositoryMongo.deleteFlight(flight);	
+					
+					flightRepositoryMongo.saveFlights(accepted);
+					rows.imported(accepted.size());
+					return rows;
 				});
 	}
 	
 	
 	
+	//one deleteMany, flights already deleted are not counted
+	public long deleteFlightsSL(Collection<Flight> flights) {
+		return timed("deleteFlightsSL", () -> {
+			List<String> nums = flights.stream().map(Flight::getFlightNum).collect(Collectors.toList());
+			return deleteFlightsWhere(flightRepository -> flightRepository.createFlightRepository().deleteFlights(nums),
+					flight -> nums.contains(flight.getFlightNum()));
+		});
+	}
 	
 	
-	//############## search methods #################
 	
-		public List<Flight> findAllFlightsByOriginSL(String origin) {
-			
-			return transactionManager.doInTransaction(
+	public long deleteFlightsByPlaneSL(String planeId) {
+		return timed("deleteFlightsByPlaneSL", () -> deleteFlightsWhere(flightRepository -> flightRepository.createFlightRepository().deleteFlightsByPlaneId(planeId),
+				flight -> planeId.equals(flight.getPlane().getId())));
+	}
+	
+	
+	
+	public long deleteFlightsWithDepartureDateInRangeSL(Date start, Date end) {
+		return timed("deleteFlightsWithDepartureDateInRangeSL", () -> deleteFlightsWhere(flightRepository -> flightRepository.createFlightRepository().deleteFlightsWithDepartureBetween(start, end),
+				flight -> flight.getDepartureDate().after(start) && flight.getDepartureDate().before(end)));
+	}
+	
+	
+	
+	//the schedule drops the same flights as the delete, once it is committed
+	private long deleteFlightsWhere(TransactionCode<Long> delete, Predicate<Flight> deletedFlights) {
+		Long deleted = transactionManager.doInTransaction(delete);
+		schedule.removeIf(deletedFlights);
+		invalidateSearches();
+		return deleted == null ? 0 : deleted;
+	}
+	
+	
+	
+	public void deleteFlightSL(Flight flight) {
+		timedAction("deleteFlightSL", () -> {
+			transactionManager.doInTransaction(
 					flightRepository -> {
-						
+					
 						FlightRepositoryMongo flightRepositoryMongo = flightRepository.createFlightRepository();
-						List<Flight> allFlights = flightRepositoryMongo.findAllFlights();
-						List<Flight> flightsToReturn = new ArrayList<>();
-						
-						for(int i = 0; i < allFlights.size(); i++) {
-							if(allFlights.get(i).getOrigin().equals(origin)) {
-								flightsToReturn.add(allFlights.get(i));
-							}
+					
+						if (flightRepositoryMongo.findByNum(flight.getFlightNum()) == null) {				
+							throw new FlightNotFoundException("No existing flight with num " + flight.getFlightNum());
 						}
-						
-						if(flightsToReturn.isEmpty())
-							throw new FlightNotFoundException("There aren't flights with this origin");
-						
-						return flightsToReturn;	
+						return flightRepositoryMongo.deleteFlight(flight);	
 					});
+			schedule.remove(flight.getFlightNum());
+			invalidateSearches();
+		});
+	}
+	
+	
+	
+	
+	
+	//############## report methods #################
+	
+	//one aggregation on the server, null if it could not be run
+	public List<PlaneUtilisation> planeUtilisationSL(Date start, Date end) {
+		return timed("planeUtilisationSL", () -> {
+			if(!start.before(end)) {
+				throw new InconsistentDataException("start or end date is wrong");
+			}
+			return transactionManager.doReadOnly(ReadOperation.REPORT, reportRepository -> reportRepository.createReportRepository().findPlaneUtilisation(start, end));
+		});
+	}
+	
+	
+	
+	
+	
+	//############## search methods #################
+	
+		public List<Flight> findAllFlightsByOriginSL(String origin) {
+			return timed("findAllFlightsByOriginSL", () -> search(SearchResultCache.key("origin", folded(origin)),
+						flightRepository -> flightRepository.createFlightRepository().findByOrigin(trimmed(origin)),
+						() -> new FlightNotFoundException("There aren't flights with this origin"), AirportServiceLayer::copyFlight));
 		}
 		
 		
 		
 		public List<Flight> findAllFlightsByDestinationSL(String destination) {
-			
-			return transactionManager.doInTransaction(
-					flightRepository -> {
-						
-						FlightRepositoryMongo flightRepositoryMongo = flightRepository.createFlightRepository();
-						List<Flight> allFlights = flightRepositoryMongo.findAllFlights();
-						List<Flight> flightsToReturn = new ArrayList<>();
-						
-						for(int i = 0; i < allFlights.size(); i++) {
-							if(allFlights.get(i).getDestination().equals(destination)) {
-								flightsToReturn.add(allFlights.get(i));
-							}
-						}
-						
-						if(flightsToReturn.isEmpty())
-							throw new FlightNotFoundException("There aren't flights with this destination");
-						
-						return flightsToReturn;	
-					});
+			return timed("findAllFlightsByDestinationSL", () -> search(SearchResultCache.key("destination", folded(destination)),
+						flightRepository -> flightRepository.createFlightRepository().findByDestination(trimmed(destination)),
+						() -> new FlightNotFoundException("There aren't flights with this destination"), AirportServiceLayer::copyFlight));
 		}
 		
 		
 		
 		public List<Flight> findAllFlightsWithDepartureDateInRangeSL(Date start, Date end) {
-			return transactionManager.doInTransaction(
-					flightRepository -> {
-						
-						FlightRepositoryMongo flightRepositoryMongo = flightRepository.createFlightRepository();
-						List<Flight> allFlights = flightRepositoryMongo.findAllFlights();
-						List<Flight> flightsToReturn = new ArrayList<>();
-
-						for(int i = 0; i < allFlights.size(); i++) {
-							if(allFlights.get(i).getDepartureDate().after(start) && allFlights.get(i).getDepartureDate().before(end)) {
-								flightsToReturn.add(allFlights.get(i));
-							}
-						}
-						
-						if(flightsToReturn.isEmpty())
-							throw new FlightNotFoundException("There aren't flights with departure date in the selected range");
-						
-						return flightsToReturn;	
-					});
+			return timed("findAllFlightsWithDepartureDateInRangeSL", () -> search(SearchResultCache.key("departure", start, end),
+						flightRepository -> flightRepository.createFlightRepository().findByDepartureBetween(start, end),
+						() -> new FlightNotFoundException("There aren't flights with departure date in the selected range"), AirportServiceLayer::copyFlight));
 		}
 		
 		
 		
 		public List<Flight> findAllFlightsWithArrivalDateInRangeSL(Date start, Date end) {
-			return transactionManager.doInTransaction(
-					flightRepository -> {
-						
-						FlightRepositoryMongo flightRepositoryMongo = flightRepository.createFlightRepository();
-						List<Flight> allFlights = flightRepositoryMongo.findAllFlights();
-						List<Flight> flightsToReturn = new ArrayList<>();
-		
-						for(int i = 0; i < allFlights.size(); i++) {
-							if(allFlights.get(i).getArrivalDate().after(start) && allFlights.get(i).getArrivalDate().before(end)) {
-								flightsToReturn.add(allFlights.get(i));
-							}
-						}
-						
-						if(flightsToReturn.isEmpty())
-							throw new FlightNotFoundException("There aren't flights with arrival date in the selected range");
-						
-						return flightsToReturn;	
-					});
+			return timed("findAllFlightsWithArrivalDateInRangeSL", () -> search(SearchResultCache.key("arrival", start, end),
+						flightRepository -> flightRepository.createFlightRepository().findByArrivalBetween(start, end),
+						() -> new FlightNotFoundException("There aren't flights with arrival date in the selected range"), AirportServiceLayer::copyFlight));
 		}
 		
 		
 		
 		public List<Flight> findAllFlightsAssociatesWithPlaneSL(String planeId) {
-			return transactionManager.doInTransaction(
-					flightRepository -> {
-						
-						FlightRepositoryMongo flightRepositoryMongo = flightRepository.createFlightRepository();
-						List<Flight> allFlights = flightRepositoryMongo.findAllFlights();
-						List<Flight> flightsToReturn = new ArrayList<>();
-						
-						for(int i = 0; i < allFlights.size(); i++) {
-							if(allFlights.get(i).getPlane().getId().equals(planeId)) {
-								flightsToReturn.add(allFlights.get(i));
-							}
-						}
-						
-						if(flightsToReturn.isEmpty())
-							throw new FlightNotFoundException("There aren't flights associates with selected plane");
-						
-						return flightsToReturn;	
-					});
+			return timed("findAllFlightsAssociatesWithPlaneSL", () -> search(SearchResultCache.key("planeId", planeId),
+						flightRepository -> flightRepository.createFlightRepository().findByPlaneId(planeId),
+						() -> new FlightNotFoundException("There aren't flights associates with selected plane"), AirportServiceLayer::copyFlight));
 		}
 		
 		
 		
 		public List<Plane> findAllPlanesByModelSL(String model) {
-			return transactionManager.doInTransaction(
-					planeRepository -> {
-						
-						PlaneRepositoryMongo planeRepositoryMongo = planeRepository.createPlaneRepository();
-						List<Plane> allPlanes = planeRepositoryMongo.findAllPlanes();
-						List<Plane> planesToReturn = new ArrayList<>();
-						
-						for(int i = 0; i < allPlanes.size(); i++) {
-							if(allPlanes.get(i).getModel().equals(model)) {
-								planesToReturn.add(allPlanes.get(i));
-							}
-						}
-						
-						if(planesToReturn.isEmpty())
-							throw new PlaneNotFoundException("There aren't planes with insert model");
-						
-						return planesToReturn;
-					});
+			return timed("findAllPlanesByModelSL", () -> search(SearchResultCache.key("model", folded(model)),
+						planeRepository -> planeRepository.createPlaneRepository().findByModel(trimmed(model)),
+						() -> new PlaneNotFoundException("There aren't planes with insert model"), AirportServiceLayer::copyPlane));
+		}
+		
+		
+		
+		//anti-join in one snapshot: the planes busy in the window, then every other plane; a blank model means any model
+		public List<Plane> findAvailablePlanesSL(Date start, Date end, String model) {
+			return timed("findAvailablePlanesSL", () -> {
+				if(!start.before(end)) {
+					throw new InconsistentDataException("start or end date is wrong");
+				}
+				String anyModel = model == null || model.trim().isEmpty() ? null : model.trim();
+				SearchResultCache.Key key = SearchResultCache.key("available", start, end, folded(anyModel));
+				Supplier<RuntimeException> notFound = () -> new PlaneNotFoundException("There aren't available planes in the selected range");
+				
+				List<String> busy = scheduledBusyPlaneIds(start, end);
+				if(busy != null)
+					return search(key, repositoryMongo -> repositoryMongo.createPlaneRepository().findPlanesExcept(busy, anyModel), 
+							notFound, AirportServiceLayer::copyPlane);
+				
+				TransactionCode<List<Plane>> query = repositoryMongo -> repositoryMongo.createPlaneRepository().findPlanesExcept(
+						repositoryMongo.createFlightRepository().findBusyPlaneIds(start, end), anyModel);
+				//the snapshot is read on the primary, always current
+				return search(key, () -> transactionManager.doInSnapshot(ReadOperation.SEARCH, query), true, 
+						notFound, AirportServiceLayer::copyPlane);
+			});
+		}
+		
+		
+		
+		//the busy planes from the schedule, O(log n) per plane with flights; null when it cannot answer: it is off,
+		//or the flights could not be read, or a change came in while they were read. The read holds no lock
+		private List<String> scheduledBusyPlaneIds(Date start, Date end) {
+			if(!schedule.isEnabled())
+				return null;
+			
+			if(!schedule.isLoaded()) {
+				//a lagging read could miss a change the stream already brought
+				if(!transactionManager.readsAreCurrent(ReadOperation.LISTING))
+					return null;
+				
+				long version = schedule.version();
+				List<Flight> stored = findAllFlightsSL();
+				if(stored == null || !schedule.load(stored, version))
+					return null;
+			}
+			return schedule.busyPlaneIds(start, end);
+		}
+		
+		
+		
+		private <T> List<T> search(SearchResultCache.Key key, TransactionCode<List<T>> query, Supplier<RuntimeException> notFound, UnaryOperator<T> copy) {
+			return search(key, () -> transactionManager.doReadOnly(ReadOperation.SEARCH, query),
+					transactionManager.readsAreCurrent(ReadOperation.SEARCH), notFound, copy);
+		}
+		
+		
+		
+		//empty results are cached too, a hit on them throws again;
+		//a read that may miss a known write, such as one from a lagging secondary, is not cached
+		private <T> List<T> search(SearchResultCache.Key key, Supplier<List<T>> read, boolean current, 
+				Supplier<RuntimeException> notFound, UnaryOperator<T> copy) {
+			
+			List<T> found = searchCache == null ? null : searchCache.get(key);
+			
+			if(found == null) {
+				long generation = searchCache == null ? 0 : searchCache.generation();
+				found = read.get();
+				
+				//the read failed, nothing to cache
+				if(found == null)
+					return null;
+				
+				//only results read from the database, the documents scanned are not known to the client
+				metrics.histogram("airport_search_results", "Documents returned by the searches that reached the database",
+						MetricsRegistry.SIZE_BUCKETS, "search", key.getSearch()).observe(found.size());
+				
+				if(searchCache != null && current)
+					found = searchCache.put(key, found, generation, copy);
+			}
+			
+			if(found.isEmpty())
+				throw notFound.get();
+			
+			return found;
+		}
+		
+		
+		
+		//the searches by text ignore case and surrounding blanks, the key is the predicate the query runs
+		private static String trimmed(String text) {
+			return text == null ? null : text.trim();
+		}
+		
+		
+		
+		private static String folded(String text) {
+			return text == null ? null : text.trim().toLowerCase(Locale.ROOT);
+		}
+		
+		
+		
+		//the cache hands out copies, planes and flights are mutable
+		private static Plane copyPlane(Plane plane) {
+			return new Plane(plane.getId(), plane.getModel());
+		}
+		
+		
+		
+		private static Flight copyFlight(Flight flight) {
+			return new Flight(flight.getFlightNum(), copyDate(flight.getDepartureDate()), copyDate(flight.getArrivalDate()),
+					flight.getOrigin(), flight.getDestination(), flight.getPlane() == null ? null : copyPlane(flight.getPlane()));
+		}
+		
+		
+		
+		private static Date copyDate(Date date) {
+			return date == null ? null : new Date(date.getTime());
 		}
 }
-
-
@@ -0,0 +1,217 @@
+package com.airport_management.transaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+
+//commands a thread issues between begin and end, a unit of work slower than the threshold is logged with them;
+//the synchronous driver reports a command on the thread that sends it
+public class CommandTracer implements CommandListener {
+
+	public static final long DEFAULT_SLOW_MILLIS = 1000;
+
+	private static final double NANOS_PER_MILLI = 1e6;
+
+	private final long slowNanos;
+	private final LongSupplier ticker;
+	private final ThreadLocal<Trace> current = new ThreadLocal<>();
+
+	private static Logger logger = Logger.getLogger(CommandTracer.class.getName());
+
+
+	public CommandTracer(long slowThreshold, TimeUnit unit) {
+		this(slowThreshold, unit, System::nanoTime);
+	}
+
+
+	CommandTracer(long slowThreshold, TimeUnit unit, LongSupplier ticker) {
+		if(slowThreshold < 1)
+			throw new IllegalArgumentException("slow threshold must be positive");
+
+		this.slowNanos = unit.toNanos(slowThreshold);
+		this.ticker = ticker;
+	}
+
+
+
+	//a unit begun inside another one belongs to the outer one
+	public void begin(String unit) {
+		Trace trace = current.get();
+		if(trace != null) {
+			trace.depth++;
+			return;
+		}
+		current.set(new Trace(unit, ticker.getAsLong()));
+	}
+
+
+
+	//the trace of the outermost unit when it ends, null for a nested one
+	public Trace end() {
+		Trace trace = current.get();
+		if(trace == null)
+			return null;
+
+		if(trace.depth > 0) {
+			trace.depth--;
+			return null;
+		}
+
+		current.remove();
+		trace.elapsedNanos = ticker.getAsLong() - trace.startedAt;
+		if(trace.isSlowerThan(slowNanos))
+			logger.log(Level.WARNING, "slow {0}", trace);
+		return trace;
+	}
+
+
+
+	@Override
+	public void commandStarted(CommandStartedEvent event) {
+		Trace trace = current.get();
+		if(trace != null)
+			trace.targets.put(event.getRequestId(), target(event.getCommand(), event.getCommandName(), event.getDatabaseName()));
+	}
+
+
+
+	@Override
+	public void commandSucceeded(CommandSucceededEvent event) {
+		Trace trace = current.get();
+		if(trace != null)
+			trace.finished(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), false);
+	}
+
+
+
+	@Override
+	public void commandFailed(CommandFailedEvent event) {
+		Trace trace = current.get();
+		if(trace != null)
+			trace.finished(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), true);
+	}
+
+
+
+	//the collection a command works on, getMore names it apart, commands such as commitTransaction only have the database
+	private static String target(BsonDocument command, String commandName, String databaseName) {
+		BsonValue collection = command.get(commandName);
+		if(collection == null || !collection.isString())
+			collection = command.get("collection");
+		return collection != null && collection.isString() ? collection.asString().getValue() : databaseName;
+	}
+
+
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.1f ms", nanos / NANOS_PER_MILLI);
+	}
+
+
+
+	public static final class Trace {
+
+		private final String unit;
+		private final long startedAt;
+		private final Map<Integer, String> targets = new HashMap<>();
+		private final List<Command> commands = new ArrayList<>();
+		private int depth;
+		private long elapsedNanos;
+
+		private Trace(String unit, long startedAt) {
+			this.unit = unit;
+			this.startedAt = startedAt;
+		}
+
+		private void finished(int requestId, String name, long nanos, boolean failed) {
+			String target = targets.remove(requestId);
+			commands.add(new Command(name, target == null ? "" : target, nanos, failed));
+		}
+
+		public String getUnit() {
+			return unit;
+		}
+
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+
+		public List<Command> getCommands() {
+			return Collections.unmodifiableList(commands);
+		}
+
+		public boolean isSlowerThan(long nanos) {
+			return elapsedNanos >= nanos;
+		}
+
+		//the same command on the same collection is summed up, so N+1 reads show as one line with their count
+		@Override
+		public String toString() {
+			Map<String, long[]> breakdown = new LinkedHashMap<>();
+			for(Command command : commands) {
+				long[] totals = breakdown.computeIfAbsent(command.name + " " + command.target, key -> new long[3]);
+				totals[0]++;
+				totals[1] += command.nanos;
+				totals[2] += command.failed ? 1 : 0;
+			}
+
+			StringBuilder text = new StringBuilder(unit + " took " + millis(elapsedNanos) + ", " + commands.size() + " commands");
+			breakdown.forEach((command, totals) -> {
+				text.append("\n  ").append(command).append(" x").append(totals[0]).append(' ').append(millis(totals[1]));
+				if(totals[2] > 0)
+					text.append(", ").append(totals[2]).append(" failed");
+			});
+			return text.toString();
+		}
+	}
+
+
+
+	public static final class Command {
+
+		private final String name;
+		private final String target;
+		private final long nanos;
+		private final boolean failed;
+
+		private Command(String name, String target, long nanos, boolean failed) {
+			this.name = name;
+			this.target = target;
+			this.nanos = nanos;
+			this.failed = failed;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getTarget() {
+			return target;
+		}
+
+		public long getNanos() {
+			return nanos;
+		}
+
+		public boolean isFailed() {
+			return failed;
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package com.airport_management.transaction;
+
+
+//classes of read-only operations, each one can be routed to its own read preference
+public enum ReadOperation {
+	
+	LOOKUP,
+	LISTING,
+	SEARCH,
+	REPORT
+}
@@ -1,5 +1,16 @@
 package com.airport_management.transaction;
 
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+
+import com.mongodb.ClientSessionOptions;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoException;
 import com.mongodb.ReadConcern;
@@ -7,67 +18,315 @@ import com.mongodb.ReadPreference;
 import com.mongodb.TransactionOptions;
 import com.mongodb.WriteConcern;
 import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.TransactionBody;
 
+import com.airport_management.exception.TransactionFailedException;
+import com.airport_management.exception.TransactionRetryExhaustedException;
+import com.airport_management.metrics.MetricsRegistry;
+import com.airport_management.repository.CollectionChangeListener;
+import com.airport_management.repository.PlaneCache;
+import com.airport_management.repository.mongo.ChangeStreamWatcher;
+import com.airport_management.repository.mongo.IndexProvisioner;
 import com.airport_management.repository.mongo.RepositoryMongo;
 
 
 public class TransactionManager implements TransactionManagerInterface {
 	
 	private MongoClient client;
-	private String databaseName;
-	private String collectionName1;
-	private String collectionName2;
+	private MongoCollection<Document> planeCollection;
+	private MongoCollection<Document> flightCollection;
+	private Map<ReadOperation, ReadPreference> readPreferences = new EnumMap<>(ReadOperation.class);
+	private boolean causallyConsistentReads = true;
+	private PlaneCache planeCache = new PlaneCache();
+	private TransactionRetryPolicy retryPolicy = new TransactionRetryPolicy();
+	private MetricsRegistry metrics;
+	private CommandTracer commandTracer;
+	
+	//the latest times seen by a session, each read session starts from them
+	private BsonTimestamp operationTime;
+	private BsonDocument clusterTime;
+	
+	private static Logger logger = Logger.getLogger(TransactionManager.class.getName());
 	
 	
 	public TransactionManager(MongoClient client, String databaseName, String collectionName1, String collectionName2) {
 		this.client = client;
-		this.databaseName = databaseName;
-		this.collectionName1 = collectionName1;
-		this.collectionName2 = collectionName2;
+		
+		for(ReadOperation operation : ReadOperation.values())
+			readPreferences.put(operation, ReadPreference.primary());
+		
+		//resolved once, every transaction only binds its session to them
+		planeCollection = RepositoryMongo.resolveCollection(client, databaseName, collectionName1);
+		flightCollection = RepositoryMongo.resolveCollection(client, databaseName, collectionName2);
+		
+		useMetrics(new MetricsRegistry());
+		
+		IndexProvisioner.ensureIndexes(client, databaseName, collectionName1, collectionName2)
+			.forEach(line -> logger.log(Level.INFO, "index {0}", line));
+	}
+	
+	
+	
+	//read preference used by doReadOnly for the operation, transactions always read from the primary
+	public void setReadPreference(ReadOperation operation, ReadPreference readPreference) {
+		readPreferences.put(operation, readPreference);
+	}
+	
+	
+	public ReadPreference getReadPreference(ReadOperation operation) {
+		return readPreferences.get(operation);
 	}
 	
 	
+	public void setCausallyConsistentReads(boolean causallyConsistentReads) {
+		this.causallyConsistentReads = causallyConsistentReads;
+	}
+	
+	
+	//a read of the operation sees every write this client knows of: it runs on the primary, or in a session advanced to them
+	public boolean readsAreCurrent(ReadOperation operation) {
+		return causallyConsistentReads || ReadPreference.primary().equals(readPreferences.get(operation));
+	}
+	
+	
+	//null disables the plane cache
+	public void setPlaneCache(PlaneCache planeCache) {
+		this.planeCache = planeCache;
+	}
+	
+	
+	public PlaneCache getPlaneCache() {
+		return planeCache;
+	}
+	
+	
+	//a registry of its own until one shared with the service layer is set
+	public void setMetrics(MetricsRegistry metrics) {
+		useMetrics(metrics);
+	}
+	
 	
-	//Define options to use for the transaction
-	TransactionOptions txnOptions = TransactionOptions.builder()
+	private void useMetrics(MetricsRegistry metrics) {
+		this.metrics = metrics;
+		metrics.functionCounter("airport_transaction_retries_total", "Transactions retried after a transient error or a write conflict",
+				() -> retryPolicy.getRetryCount());
+		metrics.functionCounter("airport_transaction_give_ups_total", "Transactions given up once the retry policy ran out",
+				() -> retryPolicy.getGiveUpCount());
+	}
+	
+	
+	public MetricsRegistry getMetrics() {
+		return metrics;
+	}
+	
+	
+	//the tracer must also be a command listener of the client, null disables the trace
+	public void setCommandTracer(CommandTracer commandTracer) {
+		this.commandTracer = commandTracer;
+	}
+	
+	
+	public void setRetryPolicy(TransactionRetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+	
+	
+	//times a transaction or its commit was retried after a transient error
+	public long getTransactionRetries() {
+		return retryPolicy.getRetryCount();
+	}
+	
+	
+	//the watcher is not started, it also keeps the plane cache consistent with other clients
+	public ChangeStreamWatcher watchChanges(CollectionChangeListener listener) {
+		ChangeStreamWatcher watcher = new ChangeStreamWatcher(client, planeCollection, flightCollection, listener);
+		watcher.setPlaneCache(planeCache);
+		watcher.setClusterTimeListener(this::advanceOperationTime);
+		return watcher;
+	}
+	
+	
+	
+	//Define options to use for the transaction, writes and conflict checks stay on the primary
+	private final TransactionOptions txnOptions = TransactionOptions.builder()
 			.readPreference(ReadPreference.primary())
 			.readConcern(ReadConcern.LOCAL)
 			.writeConcern(WriteConcern.MAJORITY)
 			.build();
 	
+	//reads that must see the same data, the snapshot is taken on the primary from majority-committed writes
+	private final TransactionOptions snapshotOptions = TransactionOptions.builder()
+			.readPreference(ReadPreference.primary())
+			.readConcern(ReadConcern.SNAPSHOT)
+			.writeConcern(WriteConcern.MAJORITY)
+			.build();
 	
 	
-	//TransactionBody transactionBody without <T> 
-	private <T> T processTransaction(TransactionBody<T> transactionBody, ClientSession clientSession) {
-		TransactionOptions transactionOptions = TransactionOptions.builder()
-	            .readPreference(ReadPreference.primary())
-	            .readConcern(ReadConcern.LOCAL)
-	            .writeConcern(WriteConcern.MAJORITY)
-	            .build();
-		return clientSession.withTransaction(transactionBody , transactionOptions);
-	}
-	
-
 	
 	@Override
 	public <T> T doInTransaction(TransactionCode<T> code) {
 		
 		T result = null;
+		long started = System.nanoTime();
+		String outcome = "commit";
 		ClientSession clientSession  = client.startSession();
+		sessionOpened("transaction");
+		RepositoryMongo repositoryMongo = new RepositoryMongo(client, clientSession, planeCollection, flightCollection);
+		repositoryMongo.setPlaneCache(planeCache);
+		beginTrace("transaction");
 		
 		try {
-			RepositoryMongo repositoryMongo = new RepositoryMongo(client, clientSession, databaseName, collectionName1, collectionName2);
-
 			TransactionBody<T> transactionBody = () -> code.apply(repositoryMongo);
-			result = processTransaction(transactionBody,clientSession);
+			result = retryPolicy.execute(clientSession, txnOptions, transactionBody);
 			return result;
 		} 
+		//not transient or not retryable, nothing was committed
 		catch(MongoException ex){
-			return null;
+			outcome = "error";
+			throw new TransactionFailedException(ex);
+		}
+		catch(TransactionRetryExhaustedException ex) {
+			outcome = "give_up";
+			throw ex;
+		}
+		//the code rejected the write, the policy aborted it
+		catch(RuntimeException ex) {
+			outcome = "abort";
+			throw ex;
 		}
 		finally {
+			metrics.counter("airport_transactions_total", "Transactions by outcome: commit, abort, give_up or error", "outcome", outcome).increment();
+			metrics.timer("airport_transaction_seconds", "Time of doInTransaction, retries included").recordNanos(System.nanoTime() - started);
+			repositoryMongo.invalidateCachedPlanes();
+			advanceTimes(clientSession);
 			clientSession.close();
+			endTrace();
 		}	
 	}
+	
+	
+	
+	private void beginTrace(String unit) {
+		if(commandTracer != null)
+			commandTracer.begin(unit);
+	}
+	
+	
+	
+	private void endTrace() {
+		if(commandTracer != null)
+			commandTracer.end();
+	}
+	
+	
+	
+	//keeps the later of the known times and those of the session
+	private synchronized void advanceTimes(ClientSession clientSession) {
+		advanceOperationTime(clientSession.getOperationTime());
+		
+		BsonDocument sessionClusterTime = clientSession.getClusterTime();
+		if(sessionClusterTime != null && (clusterTime == null 
+				|| sessionClusterTime.getTimestamp("clusterTime").compareTo(clusterTime.getTimestamp("clusterTime")) > 0))
+			clusterTime = sessionClusterTime;
+	}
+	
+	
+	
+	//also the time of a change made by another client, the reads that follow wait for a secondary to have it
+	public synchronized void advanceOperationTime(BsonTimestamp time) {
+		if(time != null && (operationTime == null || time.compareTo(operationTime) > 0))
+			operationTime = time;
+	}
+	
+	
+	
+	//a fresh session knows no time, a secondary would answer it without waiting for the writes of this client
+	private synchronized void catchUp(ClientSession clientSession) {
+		if(operationTime != null)
+			clientSession.advanceOperationTime(operationTime);
+		if(clusterTime != null)
+			clientSession.advanceClusterTime(clusterTime);
+	}
+	
+	
+	
+	private void sessionOpened(String kind) {
+		metrics.counter("airport_sessions_opened_total", "Client sessions opened by transactions and reads", "kind", kind).increment();
+	}
+	
+	
+	
+	//runs the code in a session without starting a transaction
+	@Override
+	public <T> T doReadOnly(ReadOperation operation, TransactionCode<T> code) {
+		
+		ReadPreference readPreference = readPreferences.get(operation);
+		String name = operation.name().toLowerCase(Locale.ROOT);
+		long started = System.nanoTime();
+		ClientSession clientSession = client.startSession(
+				ClientSessionOptions.builder()
+					.causallyConsistent(causallyConsistentReads)
+					.build());
+		if(causallyConsistentReads)
+			catchUp(clientSession);
+		sessionOpened("read");
+		beginTrace(name + " read");
+		
+		try {
+			RepositoryMongo repositoryMongo = new RepositoryMongo(client, clientSession, 
+					planeCollection.withReadPreference(readPreference), 
+					flightCollection.withReadPreference(readPreference));
+			repositoryMongo.setPlaneCache(planeCache);
+			
+			return code.apply(repositoryMongo);
+		}
+		catch(MongoException ex){
+			metrics.counter("airport_read_errors_total", "Reads that failed with a database error", "operation", name).increment();
+			return null;
+		}
+		finally {
+			metrics.timer("airport_read_seconds", "Time of doReadOnly by operation", "operation", name).recordNanos(System.nanoTime() - started);
+			if(causallyConsistentReads)
+				advanceTimes(clientSession);
+			clientSession.close();
+			endTrace();
+		}
+	}
+	
+	
+	
+	//several reads in one transaction that writes nothing, none of them sees a write the others miss
+	@Override
+	public <T> T doInSnapshot(ReadOperation operation, TransactionCode<T> code) {
+		
+		String name = operation.name().toLowerCase(Locale.ROOT);
+		long started = System.nanoTime();
+		ClientSession clientSession = client.startSession(
+				ClientSessionOptions.builder()
+					.causallyConsistent(causallyConsistentReads)
+					.build());
+		if(causallyConsistentReads)
+			catchUp(clientSession);
+		sessionOpened("snapshot");
+		RepositoryMongo repositoryMongo = new RepositoryMongo(client, clientSession, planeCollection, flightCollection);
+		repositoryMongo.setPlaneCache(planeCache);
+		beginTrace(name + " snapshot");
+		
+		try {
+			TransactionBody<T> transactionBody = () -> code.apply(repositoryMongo);
+			return retryPolicy.execute(clientSession, snapshotOptions, transactionBody);
+		}
+		catch(MongoException | TransactionRetryExhaustedException ex){
+			metrics.counter("airport_read_errors_total", "Reads that failed with a database error", "operation", name).increment();
+			return null;
+		}
+		finally {
+			metrics.timer("airport_read_seconds", "Time of doReadOnly by operation", "operation", name).recordNanos(System.nanoTime() - started);
+			if(causallyConsistentReads)
+				advanceTimes(clientSession);
+			clientSession.close();
+			endTrace();
+		}
+	}
 }
@@ -4,4 +4,6 @@ package com.airport_management.transaction;
 public interface TransactionManagerInterface {
 	
 	public <T> T doInTransaction(TransactionCode<T> code);
+	public <T> T doReadOnly(ReadOperation operation, TransactionCode<T> code);
+	public <T> T doInSnapshot(ReadOperation operation, TransactionCode<T> code);
 }
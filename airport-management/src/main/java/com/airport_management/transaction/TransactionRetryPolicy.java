@@ -0,0 +1,168 @@
+package com.airport_management.transaction;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+import com.airport_management.exception.TransactionRetryExhaustedException;
+import com.mongodb.MongoException;
+import com.mongodb.TransactionOptions;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.TransactionBody;
+
+
+//runs a transaction body in place of withTransaction: transient errors and write conflicts are retried
+//after an exponential backoff with full jitter, until the attempts or the total time run out
+public class TransactionRetryPolicy {
+
+	public static final int DEFAULT_MAX_ATTEMPTS = 5;
+	public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 20;
+	public static final long DEFAULT_MAX_BACKOFF_MILLIS = 1000;
+	public static final long DEFAULT_DEADLINE_MILLIS = 5000;
+
+	private static final int WRITE_CONFLICT = 112;
+
+	private final int maxAttempts;
+	private final long initialBackoffNanos;
+	private final long maxBackoffNanos;
+	private final long deadlineNanos;
+	private final LongSupplier ticker;
+	private final DoubleSupplier jitter;
+	private final Sleeper sleeper;
+
+	private final AtomicLong retries = new AtomicLong();
+	private final AtomicLong giveUps = new AtomicLong();
+
+
+	public TransactionRetryPolicy() {
+		this(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS, DEFAULT_DEADLINE_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+
+	public TransactionRetryPolicy(int maxAttempts, long initialBackoff, long maxBackoff, long deadline, TimeUnit unit) {
+		this(maxAttempts, initialBackoff, maxBackoff, deadline, unit,
+				System::nanoTime, () -> ThreadLocalRandom.current().nextDouble(), TimeUnit.NANOSECONDS::sleep);
+	}
+
+
+	TransactionRetryPolicy(int maxAttempts, long initialBackoff, long maxBackoff, long deadline, TimeUnit unit,
+			LongSupplier ticker, DoubleSupplier jitter, Sleeper sleeper) {
+		if(maxAttempts < 1 || initialBackoff < 0 || maxBackoff < initialBackoff || deadline < 1)
+			throw new IllegalArgumentException("attempts and deadline must be positive, backoffs must not decrease");
+
+		this.maxAttempts = maxAttempts;
+		this.initialBackoffNanos = unit.toNanos(initialBackoff);
+		this.maxBackoffNanos = unit.toNanos(maxBackoff);
+		this.deadlineNanos = unit.toNanos(deadline);
+		this.ticker = ticker;
+		this.jitter = jitter;
+		this.sleeper = sleeper;
+	}
+
+
+
+	//a failed commit with an unknown result is committed again, any other transient error runs the body again
+	public <T> T execute(ClientSession clientSession, TransactionOptions options, TransactionBody<T> body) {
+		long startedAt = ticker.getAsLong();
+		int attempt = 1;
+
+		while(true) {
+			clientSession.startTransaction(options);
+			T result;
+			try {
+				result = body.execute();
+			}
+			catch(RuntimeException ex) {
+				abort(clientSession);
+				if(!isTransient(ex))
+					throw ex;
+				backOff(attempt++, startedAt, ex);
+				continue;
+			}
+
+			while(true) {
+				try {
+					clientSession.commitTransaction();
+					return result;
+				}
+				catch(MongoException ex) {
+					if(!ex.hasErrorLabel(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL) && !isTransient(ex))
+						throw ex;
+					backOff(attempt++, startedAt, ex);
+					if(!ex.hasErrorLabel(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL))
+						break;
+				}
+			}
+		}
+	}
+
+
+
+	public long getRetryCount() {
+		return retries.get();
+	}
+
+
+
+	public long getGiveUpCount() {
+		return giveUps.get();
+	}
+
+
+
+	//up to the exponential bound of the attempt, never past the maximum
+	long backoffNanos(int attempt) {
+		double bound = Math.min(maxBackoffNanos, initialBackoffNanos * Math.pow(2, attempt - 1.0));
+		return (long) (jitter.getAsDouble() * bound);
+	}
+
+
+
+	private void backOff(int attempt, long startedAt, RuntimeException ex) {
+		long sleep = backoffNanos(attempt);
+		if(attempt >= maxAttempts || ticker.getAsLong() - startedAt + sleep > deadlineNanos) {
+			giveUps.incrementAndGet();
+			throw new TransactionRetryExhaustedException(attempt, ex);
+		}
+
+		retries.incrementAndGet();
+		try {
+			sleeper.sleep(sleep);
+		}
+		catch(InterruptedException interrupted) {
+			Thread.currentThread().interrupt();
+			giveUps.incrementAndGet();
+			throw new TransactionRetryExhaustedException(attempt, ex);
+		}
+	}
+
+
+
+	private static boolean isTransient(RuntimeException ex) {
+		return ex instanceof MongoException &&
+				(((MongoException) ex).hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL) ||
+				((MongoException) ex).getCode() == WRITE_CONFLICT);
+	}
+
+
+
+	//the transaction is already over if the server aborted it
+	private static void abort(ClientSession clientSession) {
+		if(!clientSession.hasActiveTransaction())
+			return;
+		try {
+			clientSession.abortTransaction();
+		}
+		catch(MongoException ex) {
+			//the server drops it anyway when it times out
+		}
+	}
+
+
+
+	interface Sleeper {
+		void sleep(long nanos) throws InterruptedException;
+	}
+}
@@ -7,7 +7,18 @@ import com.airport_management.model.Flight;
 public interface FlightView {
 
 	public void showAllFlights(List<Flight> flights);
+	public void clearFlights();
+	public void showFlightPages(PageSource<Flight> flights);
 	public void showFlightError(String message);
 	public void flightAdded(Flight flight);
 	public void flightRemoved(Flight flight);
+	public void flightsRemoved(List<Flight> flights);
+	public void showFlightsDeleted(long count);
+	
+	//changes made by other clients
+	public void flightInserted(Flight flight);
+	public void flightInsertedElsewhere(String num);
+	public void flightUpdated(Flight flight);
+	public void flightUpdatedElsewhere(String num);
+	public void flightDeleted(String num);
 }
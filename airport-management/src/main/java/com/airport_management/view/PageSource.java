@@ -0,0 +1,16 @@
+package com.airport_management.view;
+
+import java.util.List;
+
+
+//read side of a list that is loaded a page at a time
+public interface PageSource<T> {
+
+	public int size();
+	public List<T> page(int offset, int limit);
+	
+	//the page that follows last, the row before offset; a source that can seek to it does not skip the rows before
+	public default List<T> pageAfter(T last, int offset, int limit) {
+		return page(offset, limit);
+	}
+}
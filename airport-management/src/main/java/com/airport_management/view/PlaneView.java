@@ -7,7 +7,17 @@ import com.airport_management.model.Plane;
 public interface PlaneView {
 	
 	public void showAllPlanes(List<Plane> planes);
+	public void showPlanePages(PageSource<Plane> planes);
 	public void showPlaneError(String message);
 	public void planeAdded(Plane plane);
 	public void planeRemoved(Plane plane);	
+	public void planesRemoved(List<Plane> planes);
+	public void showPlanesDeleted(long count);
+	
+	//changes made by other clients
+	public void planeInserted(Plane plane);
+	public void planeInsertedElsewhere(String id);
+	public void planeUpdated(Plane plane);
+	public void planeUpdatedElsewhere(String id);
+	public void planeDeleted(String id);
 }
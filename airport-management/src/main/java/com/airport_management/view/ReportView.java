@@ -0,0 +1,11 @@
+package com.airport_management.view;
+
+import java.util.List;
+import com.airport_management.model.PlaneUtilisation;
+
+
+public interface ReportView {
+
+	public void showPlaneUtilisation(List<PlaneUtilisation> report);
+	public void showReportError(String message);
+}
@@ -16,6 +16,7 @@ public interface SearchView {
 	public void clearListSearchByArrivalDate();
 	public void clearListSearchAssociatesFlights();
 	public void clearListSearchByModel();
+	public void clearListSearchAvailablePlanes();
 
 	public void showAllFoundedFlightsByOrigin(List<Flight> flights);
 	public void showAllFoundedFlightsByDestination(List<Flight> flights);
@@ -23,4 +24,5 @@ public interface SearchView {
 	public void showAllFoundedFlightsByArrivalDate(List<Flight> flights);
 	public void showAllFoundedFlightsAssociatesWithPlane(List<Flight> flights);
 	public void showAllFoundedPlanesByModel(List<Plane> planes);
+	public void showAllFoundedAvailablePlanes(List<Plane> planes);
 }
@@ -5,33 +5,40 @@ import java.awt.Color;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.text.ParseException;
-import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JLayeredPane;
 import javax.swing.JList;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
 import javax.swing.border.EmptyBorder;
 
 import com.airport_management.view.FlightView;
+import com.airport_management.view.PageSource;
 import com.airport_management.view.PlaneView;
+import com.airport_management.view.ReportView;
 import com.airport_management.view.SearchView;
 import com.airport_management.controller.FlightController;
 import com.airport_management.controller.PlaneController;
+import com.airport_management.controller.ReportController;
 import com.airport_management.controller.SearchController;
 import com.airport_management.model.Flight;
 import com.airport_management.model.Plane;
+import com.airport_management.model.PlaneUtilisation;
 
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
 import javax.swing.SpinnerDateModel;
-import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import java.awt.GridBagLayout;
@@ -39,29 +46,40 @@ import java.awt.GridBagConstraints;
 import java.awt.Insets;
 
 
-public class AirportSwingView extends JFrame implements PlaneView, FlightView, SearchView{
+public class AirportSwingView extends JFrame implements PlaneView, FlightView, SearchView, ReportView{
 
 	private static final long serialVersionUID = 1L;
+	static final String UNREADABLE_SELECTION = "Some selected rows could not be read, nothing was deleted";
+	static final String NOTHING_TO_DELETE = "No flight matches, nothing was deleted";
+	
+	//as wide as an ObjectId, the plane pickers are sized on it instead of on every plane
+	private static final String PLANE_ID_PROTOTYPE = "000000000000000000000000";
 
 	private transient PlaneController planeController;
 	private transient FlightController flightController;
 	private transient SearchController searchController;
+	private transient ReportController reportController;
+	private transient BackgroundTasks background;
 	
 	private JLayeredPane layeredPane;
 	private JPanel contentPane;
+	private JProgressBar progressBar;
 	private JPanel panel1;
 	private JPanel panel2;
 	private JPanel panel3;
 	private JPanel panel4;
+	private JPanel panel5;
 
-	private DefaultListModel<Plane> listPlanesModel;
-	private DefaultListModel<Flight> listFlightsModel;
-	private DefaultListModel<Flight> listFoundedFlightsByOriginModel;
-	private DefaultListModel<Flight> listFoundedFlightsByDestinationModel;
-	private DefaultListModel<Flight> listFoundedFlightsByDepartureDateModel;
-	private DefaultListModel<Flight> listFoundedFlightsByArrivalDateModel;
-	private DefaultListModel<Flight> listFoundedFlightsAssociatesWithPlaneModel;
-	private DefaultListModel<Plane> listFoundedPlanesByModel;
+	private LazyListModel<Plane> listPlanesModel;
+	private LazyListModel<Flight> listFlightsModel;
+	private int flightBatchSize;
+	private LazyListModel<Flight> listFoundedFlightsByOriginModel;
+	private LazyListModel<Flight> listFoundedFlightsByDestinationModel;
+	private LazyListModel<Flight> listFoundedFlightsByDepartureDateModel;
+	private LazyListModel<Flight> listFoundedFlightsByArrivalDateModel;
+	private LazyListModel<Flight> listFoundedFlightsAssociatesWithPlaneModel;
+	private LazyListModel<Plane> listFoundedPlanesByModel;
+	private LazyListModel<Plane> listFoundedAvailablePlanes;
 	
 	private JList<Plane> listPlanes;
 	private JList<Flight> listFlights;
@@ -71,6 +89,7 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 	private JList<Flight> listSearchArrivalDate;
 	private JList<Flight> listSearchFlightsAssociates;
 	private JList<Plane> listSearchPlaneByModel;
+	private JList<Plane> listSearchAvailablePlanes;
 
 	private JScrollPane scrollPane;
 	private JScrollPane scrollPane1;
@@ -80,6 +99,7 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 	private JScrollPane scrollPane5;
 	private JScrollPane scrollPane6;
 	private JScrollPane scrollPane7;
+	private JScrollPane scrollPane8;
 
 	private JTextField txtModel;
 	private JTextField txtOrigin;
@@ -99,35 +119,57 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 	private JLabel lblSearchFlightDepartureDateInRange;
 	private JLabel lblSearchFlightArrivalDateInRange;
 	private JLabel lblRangeArrivalDate;
+	private JLabel lblRangeAvailable;
 	private JLabel lblSearchFlightsAssociates;
 	private JLabel lblErrorMessageSearchPlane;
 	private JLabel lblPlaneModel;
+	private JLabel lblAvailablePlanes;
 	
 	private JButton btnAdd;
 	private JButton btnPlanePanel;
 	private JButton btnFlightPanel;
 	private JButton btnAddFlight;
 	private JButton btnDeleteSelected2;
+	private JButton btnDeleteFlightsOfPlane;
+	private JButton btnDeleteFlightsInRange;
 	private JButton btnSearchByDestination;
 	private JButton btnSearchPanel;
 	private JButton btnSearchByOrigin;
 	private JButton btnSearchByDepartureDate;
 	private JButton btnSearchByArrivalDate;
 	private JButton btnPlaneSearch;
+	private JButton btnReportPanel;
+	private JButton btnRunReport;
+	private JLabel lblReport;
+	private JLabel lblRangeReport;
+	private JLabel lblErrorMessageReport;
+	private JSpinner spinnerReportStart;
+	private JSpinner spinnerReportEnd;
+	private JScrollPane scrollPane9;
+	private LazyListModel<PlaneUtilisation> listUtilisationReportModel;
+	private JList<PlaneUtilisation> listUtilisationReport;
 	private JButton btnSearchAssociatesFlights;
 	private JButton btnSearchByModel;
+	private JButton btnSearchAvailablePlanes;
 	
 	private JSpinner spinnerDepartureDate;
 	private JSpinner spinnerArrivalDate;
+	private JSpinner spinnerDeleteFrom;
+	private JSpinner spinnerDeleteTo;
 	private JSpinner spinnerSearchByDepartureDateStart;
 	private JSpinner spinnerSearchByDepartureDateEnd;
 	private JSpinner spinnerSearchByArrivalDateStart;
 	private JSpinner spinnerSearchByArrivalDateEnd;
+	private JSpinner spinnerSearchAvailableStart;
+	private JSpinner spinnerSearchAvailableEnd;
 	
 	private JComboBox<String> comboBox;
 	private JComboBox<String> comboBoxSearch;
+	private JComboBox<String> comboBoxDeletePlane;
 	
-	private transient List<Plane> planes = new ArrayList<>();
+	private LazyComboBoxModel<String> planeIdsModel;
+	private LazyComboBoxModel<String> planeDeleteIdsModel;
+	private LazyComboBoxModel<String> planeSearchIdsModel;
 	private JLabel lblPlane;
 	private JLabel lblDestination;
 	private JLabel lblDepartureDate;
@@ -143,6 +185,14 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		return comboBoxSearch;
 	}
 	
+	public JComboBox<String> getComboBoxDeletePlane() {
+		return comboBoxDeletePlane;
+	}
+	
+	JProgressBar getProgressBar() {
+		return progressBar;
+	}
+	
 	public JSpinner getSpinnerDepartureDate() {
 		return spinnerDepartureDate;
 	}
@@ -168,15 +218,35 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 	}
 	
 	
-	DefaultListModel<Plane> getListPlaneModel() {
+	public void setListPageSize(int pageSize) {
+		listPlanesModel.setPageSize(pageSize);
+		listFlightsModel.setPageSize(pageSize);
+	}
+	
+	//the flight list is streamed from a cursor in batches of this size rather than read a page at a time, 0 pages it
+	public void setFlightBatchSize(int batchSize) {
+		flightBatchSize = batchSize;
+	}
+	
+	LazyListModel<Plane> getListPlaneModel() {
 		return listPlanesModel;
 	}
 	
-	DefaultListModel<Flight> getListFlightsModel() {
+	LazyListModel<Flight> getListFlightsModel() {
 		return listFlightsModel;
 	}
 
 	
+	//loads the plane and flight lists in background
+	public void refreshLists() {
+		background.submitLatest("planeList", planeController::allPlanesPaged);
+		if(flightBatchSize > 0)
+			background.submitLatest("flightList", () -> flightController.allFlightsStreamed(flightBatchSize));
+		else
+			background.submitLatest("flightList", flightController::allFlightsPaged);
+	}
+	
+	
 	public void setAirportController(PlaneController planeController, FlightController flightController, SearchController searchController) {
 		this.planeController = planeController;
 		this.flightController = flightController;
@@ -184,6 +254,11 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 	}
 
 	
+	public void setReportController(ReportController reportController) {
+		this.reportController = reportController;
+	}
+
+	
 	public void switchPanels(JPanel panel) {
 		layeredPane.removeAll();
 		layeredPane.add(panel);
@@ -201,6 +276,7 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 	public AirportSwingView() throws ParseException {
 
 		setTitle("Airport Controller");
+		background = new BackgroundTasks(this::showBusy);
 		
 		setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		setBounds(100, 100, 982, 817);
@@ -240,6 +316,10 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		cal.add(Calendar.YEAR, 1); 
 		Date nextYear = cal.getTime();
 		
+		cal.setTime(tomorrow);
+		cal.add(Calendar.DAY_OF_MONTH, -1);
+		Date today = cal.getTime();
+		
 		
 		
 		
@@ -273,13 +353,10 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		
 		
 		//button flight panel add action combo box options
-		btnFlightPanel.addActionListener(arg0 -> {	
-			planes = planeController.returnAllPlanes();	
-			comboBox.removeAllItems();
-			for(int i = 0; i < planes.size(); i++)
-				comboBox.addItem(planes.get(i).getId());
-			comboBox.setSelectedIndex(-1);
-
+		//the plane ids are read a page at a time as the popup shows them
+		btnFlightPanel.addActionListener(arg0 -> {
+			planeIdsModel.setSource(planeController.planeIdPages());
+			planeDeleteIdsModel.setSource(planeController.planeIdPages());
 		});		
 		
 		
@@ -304,14 +381,32 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		
 		
 		//button search plane panel add action listener
-		btnPlaneSearch.addActionListener(arg0 -> {
-			planes = planeController.returnAllPlanes();
-			comboBoxSearch.removeAllItems();
-			for(int i = 0; i < planes.size(); i++)
-				comboBoxSearch.addItem(planes.get(i).getId());
-			comboBoxSearch.setSelectedIndex(-1);
-			
-		});
+		btnPlaneSearch.addActionListener(arg0 -> planeSearchIdsModel.setSource(planeController.planeIdPages()));
+		
+		
+		//button report panel
+		btnReportPanel = new JButton("Report");
+		btnReportPanel.addActionListener(arg0 -> switchPanels(panel5));
+		GridBagConstraints gbc_btnReportPanel = new GridBagConstraints();
+		gbc_btnReportPanel.anchor = GridBagConstraints.WEST;
+		gbc_btnReportPanel.insets = new Insets(0, 0, 5, 5);
+		gbc_btnReportPanel.gridx = 5;
+		gbc_btnReportPanel.gridy = 0;
+		contentPane.add(btnReportPanel, gbc_btnReportPanel);
+		
+		
+		//progress of the calls running in background
+		progressBar = new JProgressBar();
+		progressBar.setName("busyProgressBar");
+		progressBar.setIndeterminate(true);
+		progressBar.setVisible(false);
+		GridBagConstraints gbc_progressBar = new GridBagConstraints();
+		gbc_progressBar.fill = GridBagConstraints.HORIZONTAL;
+		gbc_progressBar.insets = new Insets(0, 0, 5, 5);
+		gbc_progressBar.gridwidth = 5;
+		gbc_progressBar.gridx = 1;
+		gbc_progressBar.gridy = 1;
+		contentPane.add(progressBar, gbc_progressBar);
 		
 		
 		//layered pane
@@ -385,8 +480,18 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		//button delete plane
 		btnDeleteSelected = new JButton("Delete Selected");
 		btnDeleteSelected.setEnabled(false);
-		btnDeleteSelected.addActionListener(
-				e -> planeController.deletePlane(listPlanes.getSelectedValue()));
+		btnDeleteSelected.addActionListener(e -> {
+			Supplier<List<Plane>> selection = listPlanesModel.elementsAt(listPlanes.getSelectedIndices());
+			background.submitWrite(() -> {
+				List<Plane> selected = selection.get();
+				if(selected == null)
+					showPlaneError(UNREADABLE_SELECTION);
+				else if(selected.size() == 1)
+					planeController.deletePlane(selected.get(0));
+				else
+					planeController.deletePlanes(selected);
+			});
+		});
 		GridBagConstraints gbc_btnDeleteSelected = new GridBagConstraints();
 		gbc_btnDeleteSelected.anchor = GridBagConstraints.NORTHWEST;
 		gbc_btnDeleteSelected.insets = new Insets(0, 0, 5, 0);
@@ -404,13 +509,15 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		gbc_btnAdd.gridx = 5;
 		gbc_btnAdd.gridy = 1;
 		panel1.add(btnAdd, gbc_btnAdd);
-		btnAdd.addActionListener(
-				e -> planeController.newPlane(
-						new Plane(txtModel.getText()))); 
+		btnAdd.addActionListener(e -> {
+			Plane plane = new Plane(txtModel.getText());
+			background.submitWrite(() -> planeController.newPlane(plane));
+		}); 
 				
 		
 		//list flights
-		listPlanesModel = new DefaultListModel<>();
+		listPlanesModel = newLazyListModel();
+		listPlanesModel.setOrder(Comparator.comparing(Plane::getId));
 		//scroll list flights
 		scrollPane = new JScrollPane();
 		GridBagConstraints gbc_scrollPane = new GridBagConstraints();
@@ -426,7 +533,7 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 				e -> btnDeleteSelected.setEnabled(listPlanes.getSelectedIndex() != -1));
 		listPlanes.setName("planeList");
 		scrollPane.setViewportView(listPlanes);
-		listPlanes.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		listPlanes.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
 		
 		
 		//error message
@@ -470,9 +577,9 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		};
 		GridBagLayout gbl_panel2 = new GridBagLayout();
 		gbl_panel2.columnWidths = new int[]{101, 78, 34, 104, 56, 526, 0};
-		gbl_panel2.rowHeights = new int[]{19, 19, 19, 15, 25, 25, 433, 25, 15, 0};
+		gbl_panel2.rowHeights = new int[]{19, 19, 19, 15, 25, 25, 433, 25, 15, 25, 25, 0};
 		gbl_panel2.columnWeights = new double[]{0.0, 0.0, 0.0, 0.0, 0.0, 0.0, Double.MIN_VALUE};
-		gbl_panel2.rowWeights = new double[]{0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, Double.MIN_VALUE};
+		gbl_panel2.rowWeights = new double[]{0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, Double.MIN_VALUE};
 		panel2.setLayout(gbl_panel2);
 		
 		
@@ -487,7 +594,8 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 
 
 		//plane id combo box
-		comboBox = new JComboBox<>();
+		planeIdsModel = new LazyComboBoxModel<>(newLazyListModel());
+		comboBox = new LazyComboBox<>(planeIdsModel, PLANE_ID_PROTOTYPE);
 		comboBox.setName("planeComboBox");
 		GridBagConstraints gbc_comboBox = new GridBagConstraints();
 		gbc_comboBox.fill = GridBagConstraints.BOTH;
@@ -600,10 +708,20 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		//button delete flight
 		btnDeleteSelected2 = new JButton("Delete Selected");
 		btnDeleteSelected2.setEnabled(false);
-		btnDeleteSelected2.addActionListener(
-				e -> flightController.deleteFlight(listFlights.getSelectedValue()));
-				
-						
+		btnDeleteSelected2.addActionListener(e -> {
+			Supplier<List<Flight>> selection = listFlightsModel.elementsAt(listFlights.getSelectedIndices());
+			background.submitWrite(() -> {
+				List<Flight> selected = selection.get();
+				if(selected == null)
+					showFlightError(UNREADABLE_SELECTION);
+				else if(selected.size() == 1)
+					flightController.deleteFlight(selected.get(0));
+				else
+					flightController.deleteFlights(selected);
+			});
+		});
+		
+		
 		//button add flight
 		btnAddFlight = new JButton("Add");
 		btnAddFlight.setEnabled(false);
@@ -613,18 +731,25 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		gbc_btnAddFlight.gridx = 5;
 		gbc_btnAddFlight.gridy = 5;
 		panel2.add(btnAddFlight, gbc_btnAddFlight);
-		btnAddFlight.addActionListener(
-				e -> flightController.newFlight(
-						new Flight(
-								(Date)spinnerDepartureDate.getValue(),
-								(Date)spinnerArrivalDate.getValue(),
-								txtOrigin.getText(), 
-								txtDestination.getText(), 
-								planeController.idPlane((String)comboBox.getSelectedItem())))); 
+		btnAddFlight.addActionListener(e -> {
+			Date departureDate = (Date)spinnerDepartureDate.getValue();
+			Date arrivalDate = (Date)spinnerArrivalDate.getValue();
+			String origin = txtOrigin.getText();
+			String destination = txtDestination.getText();
+			String planeId = (String)comboBox.getSelectedItem();
+			background.submitWrite(() -> flightController.newFlight(
+					new Flight(
+							departureDate,
+							arrivalDate,
+							origin, 
+							destination, 
+							planeController.idPlane(planeId))));
+		}); 
 				
 		
 		//list flights
-		listFlightsModel = new DefaultListModel<>();
+		listFlightsModel = newLazyListModel();
+		listFlightsModel.setOrder(Comparator.comparing(Flight::getFlightNum));
 		//scroll list flights
 		scrollPane1 = new JScrollPane();
 		GridBagConstraints gbc_scrollPane_1 = new GridBagConstraints();
@@ -639,7 +764,7 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 				e -> btnDeleteSelected2.setEnabled(listFlights.getSelectedIndex() != -1));
 		listFlights.setName("flightsList");
 		scrollPane1.setViewportView(listFlights);
-		listFlights.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		listFlights.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
 		GridBagConstraints gbc_btnDeleteSelected2 = new GridBagConstraints();
 		gbc_btnDeleteSelected2.anchor = GridBagConstraints.NORTHWEST;
 		gbc_btnDeleteSelected2.insets = new Insets(0, 0, 5, 0);
@@ -659,6 +784,90 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		gbc_lblErrorMessageFlight.gridx = 0;
 		gbc_lblErrorMessageFlight.gridy = 8;
 		panel2.add(lblErrorMessageFlight, gbc_lblErrorMessageFlight);
+		
+		
+		//the bulk deletes have their own inputs, a flight being added is never deleted by mistake
+		JLabel lblDeleteFlightsOfPlane = new JLabel("flights of plane");
+		GridBagConstraints gbc_lblDeleteFlightsOfPlane = new GridBagConstraints();
+		gbc_lblDeleteFlightsOfPlane.insets = new Insets(0, 0, 5, 5);
+		gbc_lblDeleteFlightsOfPlane.anchor = GridBagConstraints.EAST;
+		gbc_lblDeleteFlightsOfPlane.gridx = 0;
+		gbc_lblDeleteFlightsOfPlane.gridy = 9;
+		panel2.add(lblDeleteFlightsOfPlane, gbc_lblDeleteFlightsOfPlane);
+		
+		
+		//plane id combo box of the bulk delete
+		planeDeleteIdsModel = new LazyComboBoxModel<>(newLazyListModel());
+		comboBoxDeletePlane = new LazyComboBox<>(planeDeleteIdsModel, PLANE_ID_PROTOTYPE);
+		comboBoxDeletePlane.setName("deletePlaneComboBox");
+		comboBoxDeletePlane.setBackground(Color.WHITE);
+		GridBagConstraints gbc_comboBoxDeletePlane = new GridBagConstraints();
+		gbc_comboBoxDeletePlane.fill = GridBagConstraints.BOTH;
+		gbc_comboBoxDeletePlane.insets = new Insets(0, 0, 5, 5);
+		gbc_comboBoxDeletePlane.gridwidth = 3;
+		gbc_comboBoxDeletePlane.gridx = 1;
+		gbc_comboBoxDeletePlane.gridy = 9;
+		panel2.add(comboBoxDeletePlane, gbc_comboBoxDeletePlane);
+		
+		
+		//button delete the flights of the plane in the combo box
+		btnDeleteFlightsOfPlane = new JButton("Delete Flights Of Plane");
+		btnDeleteFlightsOfPlane.setEnabled(false);
+		btnDeleteFlightsOfPlane.addActionListener(e -> {
+			String planeId = (String)comboBoxDeletePlane.getSelectedItem();
+			confirmFlightsDeletion(
+					() -> flightController.countFlightsOfPlane(planeId),
+					() -> flightController.deleteFlightsOfPlane(planeId));
+		});
+		comboBoxDeletePlane.addActionListener(e -> btnDeleteFlightsOfPlane.setEnabled(comboBoxDeletePlane.getSelectedItem() != null));
+		GridBagConstraints gbc_btnDeleteFlightsOfPlane = new GridBagConstraints();
+		gbc_btnDeleteFlightsOfPlane.anchor = GridBagConstraints.NORTHWEST;
+		gbc_btnDeleteFlightsOfPlane.insets = new Insets(0, 0, 5, 0);
+		gbc_btnDeleteFlightsOfPlane.gridx = 5;
+		gbc_btnDeleteFlightsOfPlane.gridy = 9;
+		panel2.add(btnDeleteFlightsOfPlane, gbc_btnDeleteFlightsOfPlane);
+		
+		
+		//start of the departures to delete, any day
+		spinnerDeleteFrom = new JSpinner();
+		spinnerDeleteFrom.setName("spinnerDeleteFrom");
+		spinnerDeleteFrom.setModel(new SpinnerDateModel(today, null, null, Calendar.DAY_OF_MONTH));
+		GridBagConstraints gbc_spinnerDeleteFrom = new GridBagConstraints();
+		gbc_spinnerDeleteFrom.fill = GridBagConstraints.BOTH;
+		gbc_spinnerDeleteFrom.insets = new Insets(0, 0, 0, 5);
+		gbc_spinnerDeleteFrom.gridwidth = 2;
+		gbc_spinnerDeleteFrom.gridx = 1;
+		gbc_spinnerDeleteFrom.gridy = 10;
+		panel2.add(spinnerDeleteFrom, gbc_spinnerDeleteFrom);
+		
+		
+		//end of the departures to delete
+		spinnerDeleteTo = new JSpinner();
+		spinnerDeleteTo.setName("spinnerDeleteTo");
+		spinnerDeleteTo.setModel(new SpinnerDateModel(tomorrow, null, null, Calendar.DAY_OF_MONTH));
+		GridBagConstraints gbc_spinnerDeleteTo = new GridBagConstraints();
+		gbc_spinnerDeleteTo.fill = GridBagConstraints.BOTH;
+		gbc_spinnerDeleteTo.insets = new Insets(0, 0, 0, 5);
+		gbc_spinnerDeleteTo.gridwidth = 2;
+		gbc_spinnerDeleteTo.gridx = 3;
+		gbc_spinnerDeleteTo.gridy = 10;
+		panel2.add(spinnerDeleteTo, gbc_spinnerDeleteTo);
+		
+		
+		//button delete the flights departing between the two dates
+		btnDeleteFlightsInRange = new JButton("Delete Departing Between");
+		btnDeleteFlightsInRange.addActionListener(e -> {
+			Date start = (Date)spinnerDeleteFrom.getValue();
+			Date end = (Date)spinnerDeleteTo.getValue();
+			confirmFlightsDeletion(
+					() -> flightController.countFlightsWithDepartureDateInRange(start, end),
+					() -> flightController.deleteFlightsWithDepartureDateInRange(start, end));
+		});
+		GridBagConstraints gbc_btnDeleteFlightsInRange = new GridBagConstraints();
+		gbc_btnDeleteFlightsInRange.anchor = GridBagConstraints.NORTHWEST;
+		gbc_btnDeleteFlightsInRange.gridx = 5;
+		gbc_btnDeleteFlightsInRange.gridy = 10;
+		panel2.add(btnDeleteFlightsInRange, gbc_btnDeleteFlightsInRange);
 
 		
 			
@@ -697,7 +906,7 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		
 		
 		//list search by origin
-		listFoundedFlightsByOriginModel = new DefaultListModel<>();
+		listFoundedFlightsByOriginModel = new LazyListModel<>();
 		listSearchOrigin = new JList<>(listFoundedFlightsByOriginModel);
 		listSearchOrigin.setName("searchOriginList");
 		scrollPane2.setViewportView(listSearchOrigin);
@@ -707,8 +916,10 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		btnSearchByOrigin = new JButton("Search by origin");
 		btnSearchByOrigin.setBounds(692, 20, 217, 25);
 		panel3.add(btnSearchByOrigin);
-		btnSearchByOrigin.addActionListener(
-				e -> searchController.findAllFlightsByOrigin(txtSearchOrigin.getText()));
+		btnSearchByOrigin.addActionListener(e -> {
+			String origin = txtSearchOrigin.getText();
+			background.submitLatest("searchByOrigin", () -> searchController.findAllFlightsByOrigin(origin));
+		});
 		
 		
 		//########################################################################
@@ -735,7 +946,7 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		
 		
 		//list search by destination
-		listFoundedFlightsByDestinationModel = new DefaultListModel<>();
+		listFoundedFlightsByDestinationModel = new LazyListModel<>();
 		listSearchDestination = new JList<>(listFoundedFlightsByDestinationModel);
 		listSearchDestination.setName("searchDestinationList");
 		scrollPane3.setViewportView(listSearchDestination);
@@ -745,8 +956,10 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		btnSearchByDestination = new JButton("Search by destination");
 		btnSearchByDestination.setBounds(690, 190, 217, 25);
 		panel3.add(btnSearchByDestination);
-		btnSearchByDestination.addActionListener(
-				e -> searchController.findAllFlightsByDestination(txtSearchDestination.getText()));
+		btnSearchByDestination.addActionListener(e -> {
+			String destination = txtSearchDestination.getText();
+			background.submitLatest("searchByDestination", () -> searchController.findAllFlightsByDestination(destination));
+		});
 		
 		
 		//#####################################################################
@@ -788,7 +1001,7 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 
 		
 		//list search by departure date in range
-		listFoundedFlightsByDepartureDateModel = new DefaultListModel<>();
+		listFoundedFlightsByDepartureDateModel = new LazyListModel<>();
 		listSearchDepartureDate = new JList<>(listFoundedFlightsByDepartureDateModel);
 		listSearchDepartureDate.setName("searchDepartureDateList");
 		scrollPane4.setViewportView(listSearchDepartureDate);
@@ -798,8 +1011,11 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		btnSearchByDepartureDate = new JButton("Search by departure date");
 		btnSearchByDepartureDate.setBounds(690, 358, 217, 25);
 		panel3.add(btnSearchByDepartureDate);
-		btnSearchByDepartureDate.addActionListener(
-				e -> searchController.findAllFlightsWithDepartureDateInRange((Date)spinnerSearchByDepartureDateStart.getValue(), (Date)spinnerSearchByDepartureDateEnd.getValue()));
+		btnSearchByDepartureDate.addActionListener(e -> {
+			Date start = (Date)spinnerSearchByDepartureDateStart.getValue();
+			Date end = (Date)spinnerSearchByDepartureDateEnd.getValue();
+			background.submitLatest("searchByDepartureDate", () -> searchController.findAllFlightsWithDepartureDateInRange(start, end));
+		});
 
 
 		//#######################################################################
@@ -841,7 +1057,7 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		
 		
 		//list search by arrival date
-		listFoundedFlightsByArrivalDateModel = new DefaultListModel<>();
+		listFoundedFlightsByArrivalDateModel = new LazyListModel<>();
 		listSearchArrivalDate = new JList<>(listFoundedFlightsByArrivalDateModel);
 		listSearchArrivalDate.setName("searchArrivalDateList");
 		scrollPane5.setViewportView(listSearchArrivalDate);
@@ -851,8 +1067,11 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		btnSearchByArrivalDate = new JButton("Search by arrival date");
 		btnSearchByArrivalDate.setBounds(690, 536, 217, 25);
 		panel3.add(btnSearchByArrivalDate);
-		btnSearchByArrivalDate.addActionListener(
-				e -> searchController.findAllFlightsWithArrivalDateInRange((Date)spinnerSearchByArrivalDateStart.getValue(), (Date)spinnerSearchByArrivalDateEnd.getValue()));
+		btnSearchByArrivalDate.addActionListener(e -> {
+			Date start = (Date)spinnerSearchByArrivalDateStart.getValue();
+			Date end = (Date)spinnerSearchByArrivalDateEnd.getValue();
+			background.submitLatest("searchByArrivalDate", () -> searchController.findAllFlightsWithArrivalDateInRange(start, end));
+		});
 		
 		
 		//error search label
@@ -885,7 +1104,8 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		
 		
 		//planes id combo box
-		comboBoxSearch = new JComboBox<>();
+		planeSearchIdsModel = new LazyComboBoxModel<>(newLazyListModel());
+		comboBoxSearch = new LazyComboBox<>(planeSearchIdsModel, PLANE_ID_PROTOTYPE);
 		comboBoxSearch.setName("planeComboBoxSearch");
 		comboBoxSearch.setBounds(1, 34, 244, 20);
 		panel4.add(comboBoxSearch);
@@ -899,7 +1119,7 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		
 		
 		//list associates flights
-		listFoundedFlightsAssociatesWithPlaneModel = new DefaultListModel<>();
+		listFoundedFlightsAssociatesWithPlaneModel = new LazyListModel<>();
 		listSearchFlightsAssociates = new JList<>(listFoundedFlightsAssociatesWithPlaneModel);
 		listSearchFlightsAssociates.setName("searchFlightsAssociatesList");
 		scrollPane6.setViewportView(listSearchFlightsAssociates);
@@ -907,8 +1127,10 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		
 		//button search associates flights
 		btnSearchAssociatesFlights = new JButton("Search associates flights");
-		btnSearchAssociatesFlights.addActionListener(
-				e -> searchController.findAllFlightsAssiociatesWithPlane((String)comboBoxSearch.getSelectedItem()));
+		btnSearchAssociatesFlights.addActionListener(e -> {
+			String planeId = (String)comboBoxSearch.getSelectedItem();
+			background.submitLatest("searchAssociatesFlights", () -> searchController.findAllFlightsAssiociatesWithPlane(planeId));
+		});
 		btnSearchAssociatesFlights.setBounds(593, 32, 315, 25);
 		panel4.add(btnSearchAssociatesFlights);
 		
@@ -937,12 +1159,12 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		
 		//scroll list search by model
 		scrollPane7 = new JScrollPane();
-		scrollPane7.setBounds(1, 386, 908, 226);
+		scrollPane7.setBounds(1, 386, 908, 110);
 		panel4.add(scrollPane7);
 		
 		
 		//list search by model
-		listFoundedPlanesByModel = new DefaultListModel<>();
+		listFoundedPlanesByModel = new LazyListModel<>();
 		listSearchPlaneByModel = new JList<>(listFoundedPlanesByModel);
 		listSearchPlaneByModel.setName("searchPlaneByModelList");
 		scrollPane7.setViewportView(listSearchPlaneByModel);
@@ -950,10 +1172,145 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 		
 		//button search by model
 		btnSearchByModel = new JButton("Search by model");
-		btnSearchByModel.addActionListener(
-				e -> searchController.findAllPlanesByModel(txtSearchModel.getText()));
+		btnSearchByModel.addActionListener(e -> {
+			String model = txtSearchModel.getText();
+			background.submitLatest("searchByModel", () -> searchController.findAllPlanesByModel(model));
+		});
 		btnSearchByModel.setBounds(593, 355, 315, 25);
 		panel4.add(btnSearchByModel);
+		
+		
+		//#############################################################################
+		
+		
+		//available planes label
+		lblAvailablePlanes = new JLabel("Available planes, of the plane model if given");
+		lblAvailablePlanes.setBounds(3, 505, 400, 15);
+		panel4.add(lblAvailablePlanes);
+		
+		
+		//spinner available planes start
+		spinnerSearchAvailableStart = new JSpinner();
+		spinnerSearchAvailableStart.setModel(new SpinnerDateModel(now, previousYearFromNow, nextYearFromNow, Calendar.DAY_OF_YEAR));
+		spinnerSearchAvailableStart.setName("spinnerSearchAvailableStart");
+		spinnerSearchAvailableStart.setBounds(1, 524, 147, 20);
+		panel4.add(spinnerSearchAvailableStart);
+		
+		
+		//range label
+		lblRangeAvailable = new JLabel("÷");
+		lblRangeAvailable.setName("lblRangeAvailable");
+		lblRangeAvailable.setBounds(162, 526, 20, 15);
+		panel4.add(lblRangeAvailable);
+		
+		
+		//spinner available planes end
+		spinnerSearchAvailableEnd = new JSpinner();
+		spinnerSearchAvailableEnd.setName("spinnerSearchAvailableEnd");
+		spinnerSearchAvailableEnd.setModel(new SpinnerDateModel(now, previousYearFromNow, nextYearFromNow, Calendar.DAY_OF_YEAR));
+		spinnerSearchAvailableEnd.setBounds(186, 524, 147, 20);
+		panel4.add(spinnerSearchAvailableEnd);
+		
+		
+		//scroll list available planes
+		scrollPane8 = new JScrollPane();
+		scrollPane8.setBounds(1, 553, 908, 110);
+		panel4.add(scrollPane8);
+		
+		
+		//list available planes
+		listFoundedAvailablePlanes = new LazyListModel<>();
+		listSearchAvailablePlanes = new JList<>(listFoundedAvailablePlanes);
+		listSearchAvailablePlanes.setName("searchAvailablePlanesList");
+		scrollPane8.setViewportView(listSearchAvailablePlanes);
+		
+		
+		//button search available planes
+		btnSearchAvailablePlanes = new JButton("Search available planes");
+		btnSearchAvailablePlanes.addActionListener(e -> {
+			Date start = (Date)spinnerSearchAvailableStart.getValue();
+			Date end = (Date)spinnerSearchAvailableEnd.getValue();
+			String model = txtSearchModel.getText();
+			background.submitLatest("searchAvailablePlanes", () -> searchController.findAvailablePlanes(start, end, model));
+		});
+		btnSearchAvailablePlanes.setBounds(593, 521, 315, 25);
+		panel4.add(btnSearchAvailablePlanes);
+		
+		
+		
+		
+		
+		/*
+		 * ########### Report panel #############
+		 * 
+		 */
+		
+		//panel 5
+		panel5 = new JPanel();
+		panel5.setName("panel5");
+		layeredPane.add(panel5, "name_1231722096125");
+		panel5.setLayout(null);
+		
+		
+		//report label
+		lblReport = new JLabel("Fleet utilisation between");
+		lblReport.setBounds(2, 12, 366, 15);
+		panel5.add(lblReport);
+		
+		
+		//spinner report start
+		spinnerReportStart = new JSpinner();
+		spinnerReportStart.setModel(new SpinnerDateModel(now, previousYearFromNow, nextYearFromNow, Calendar.DAY_OF_YEAR));
+		spinnerReportStart.setName("spinnerReportStart");
+		spinnerReportStart.setBounds(1, 34, 147, 20);
+		panel5.add(spinnerReportStart);
+		
+		
+		//range label
+		lblRangeReport = new JLabel("÷");
+		lblRangeReport.setName("lblRangeReport");
+		lblRangeReport.setBounds(162, 36, 20, 15);
+		panel5.add(lblRangeReport);
+		
+		
+		//spinner report end
+		spinnerReportEnd = new JSpinner();
+		spinnerReportEnd.setModel(new SpinnerDateModel(tomorrow, previousYearFromNow, nextYearFromNow, Calendar.DAY_OF_YEAR));
+		spinnerReportEnd.setName("spinnerReportEnd");
+		spinnerReportEnd.setBounds(186, 34, 147, 20);
+		panel5.add(spinnerReportEnd);
+		
+		
+		//scroll list report
+		scrollPane9 = new JScrollPane();
+		scrollPane9.setBounds(1, 63, 909, 600);
+		panel5.add(scrollPane9);
+		
+		
+		//list report
+		listUtilisationReportModel = new LazyListModel<>();
+		listUtilisationReport = new JList<>(listUtilisationReportModel);
+		listUtilisationReport.setName("utilisationReportList");
+		scrollPane9.setViewportView(listUtilisationReport);
+		
+		
+		//button run report, the aggregation runs in background
+		btnRunReport = new JButton("Run report");
+		btnRunReport.addActionListener(e -> {
+			Date start = (Date)spinnerReportStart.getValue();
+			Date end = (Date)spinnerReportEnd.getValue();
+			background.submitLatest("utilisationReport", () -> reportController.planeUtilisation(start, end));
+		});
+		btnRunReport.setBounds(593, 32, 315, 25);
+		panel5.add(btnRunReport);
+		
+		
+		//error report label
+		lblErrorMessageReport = new JLabel(" ");
+		lblErrorMessageReport.setName("errorReportLabel");
+		lblErrorMessageReport.setForeground(Color.RED);
+		lblErrorMessageReport.setBounds(12, 681, 882, 15);
+		panel5.add(lblErrorMessageReport);
 				
 	}
 
@@ -965,26 +1322,73 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 	
 	@Override
 	public void showAllPlanes(List<Plane> planes) {
-		planes.stream()
-			.forEach(listPlanesModel::addElement);	
+		onEdt(() -> listPlanesModel.addAll(planes));
+	}
+
+	@Override
+	public void showPlanePages(PageSource<Plane> planes) {
+		onEdt(() -> listPlanesModel.setSource(planes));
 	}
 
 	@Override
 	public void showPlaneError(String message) {
-		lblErrorMessage.setText(message);
+		onEdt(() -> lblErrorMessage.setText(message));
 	}
 
 	@Override
 	public void planeAdded(Plane plane) {
-		listPlanesModel.addElement(plane);
-		lblErrorMessage.setText(" ");
-		
+		onEdt(() -> {
+			listPlanesModel.addElement(plane);
+			lblErrorMessage.setText(" ");
+		});
 	}
 
 	@Override
 	public void planeRemoved(Plane plane) {
-		listPlanesModel.removeElement(plane);
-		lblErrorMessage.setText(" ");
+		onEdt(() -> {
+			listPlanesModel.removeElement(plane);
+			lblErrorMessage.setText(" ");
+		});
+	}
+
+	@Override
+	public void planesRemoved(List<Plane> planes) {
+		onEdt(() -> {
+			listPlanesModel.removeAll(planes);
+			lblErrorMessage.setText(" ");
+		});
+	}
+
+	@Override
+	public void showPlanesDeleted(long count) {
+		onEdt(() -> lblErrorMessage.setText(count + (count == 1 ? " plane deleted" : " planes deleted")));
+	}
+
+	//a change made elsewhere keeps the message of the user's last action
+	@Override
+	public void planeInserted(Plane plane) {
+		onEdt(() -> listPlanesModel.addElement(plane));
+	}
+
+	//the paged list reads the new plane when it paints it, from the first row that may follow it
+	@Override
+	public void planeInsertedElsewhere(String id) {
+		onEdt(() -> listPlanesModel.inserted(plane -> plane.getId().compareTo(id) < 0));
+	}
+
+	@Override
+	public void planeUpdated(Plane plane) {
+		onEdt(() -> listPlanesModel.replaceFirst(shown -> plane.getId().equals(shown.getId()), plane));
+	}
+
+	@Override
+	public void planeUpdatedElsewhere(String id) {
+		onEdt(() -> listPlanesModel.replaceFirst(plane -> id.equals(plane.getId()), null));
+	}
+
+	@Override
+	public void planeDeleted(String id) {
+		onEdt(() -> listPlanesModel.removeFirst(plane -> id.equals(plane.getId())));
 	}
 
 
@@ -994,28 +1398,89 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 	
 	@Override
 	public void showAllFlights(List<Flight> flights) {
-		flights.stream()
-			.forEach(listFlightsModel::addElement);		 
+		onEdt(() -> listFlightsModel.addAll(flights));
+	}
+	
+	
+	@Override
+	public void clearFlights() {
+		onEdt(() -> listFlightsModel.clear());
+	}
+	
+	
+	@Override
+	public void showFlightPages(PageSource<Flight> flights) {
+		onEdt(() -> listFlightsModel.setSource(flights));
 	}
 	
 	
 	@Override
 	public void showFlightError(String message) { 
-		lblErrorMessageFlight.setText(message);	
+		onEdt(() -> lblErrorMessageFlight.setText(message));
 	}
 
 
 	@Override
 	public void flightAdded(Flight flight) {
-		listFlightsModel.addElement(flight);
-		lblErrorMessageFlight.setText(" ");
+		onEdt(() -> {
+			listFlightsModel.addElement(flight);
+			lblErrorMessageFlight.setText(" ");
+		});
 	}
  
 
 	@Override
 	public void flightRemoved(Flight flight) {
-		listFlightsModel.removeElement(flight);
-		lblErrorMessageFlight.setText(" ");
+		onEdt(() -> {
+			listFlightsModel.removeElement(flight);
+			lblErrorMessageFlight.setText(" ");
+		});
+	}
+
+
+	@Override
+	public void flightsRemoved(List<Flight> flights) {
+		onEdt(() -> {
+			listFlightsModel.removeAll(flights);
+			lblErrorMessageFlight.setText(" ");
+		});
+	}
+
+
+	@Override
+	public void showFlightsDeleted(long count) {
+		onEdt(() -> lblErrorMessageFlight.setText(count + (count == 1 ? " flight deleted" : " flights deleted")));
+	}
+
+
+	@Override
+	public void flightInserted(Flight flight) {
+		onEdt(() -> listFlightsModel.addElement(flight));
+	}
+
+
+	//the paged list reads the new flight when it paints it, from the first row that may follow it
+	@Override
+	public void flightInsertedElsewhere(String num) {
+		onEdt(() -> listFlightsModel.inserted(flight -> flight.getFlightNum().compareTo(num) < 0));
+	}
+
+
+	@Override
+	public void flightUpdated(Flight flight) {
+		onEdt(() -> listFlightsModel.replaceFirst(shown -> flight.getFlightNum().equals(shown.getFlightNum()), flight));
+	}
+
+
+	@Override
+	public void flightUpdatedElsewhere(String num) {
+		onEdt(() -> listFlightsModel.replaceFirst(flight -> num.equals(flight.getFlightNum()), null));
+	}
+
+
+	@Override
+	public void flightDeleted(String num) {
+		onEdt(() -> listFlightsModel.removeFirst(flight -> num.equals(flight.getFlightNum())));
 	}
 	
 	
@@ -1025,90 +1490,158 @@ public class AirportSwingView extends JFrame implements PlaneView, FlightView, S
 	
 	@Override
 	public void showSearchFlightError(String message) {
-		lblErrorMessageSearch.setText(message);
+		onEdt(() -> lblErrorMessageSearch.setText(message));
 	}
 	
 	@Override
 	public void showSearchPlaneError(String message) {
-		lblErrorMessageSearchPlane.setText(message);
+		onEdt(() -> lblErrorMessageSearchPlane.setText(message));
 	}
 	
 	@Override
 	public void clearListSearchByOrigin() {
-		listFoundedFlightsByOriginModel.clear();
+		onEdt(() -> listFoundedFlightsByOriginModel.clear());
 	}
 	
 	@Override
 	public void clearListSearchByDestination() {
-		listFoundedFlightsByDestinationModel.clear();
+		onEdt(() -> listFoundedFlightsByDestinationModel.clear());
 	}
 	
 	@Override
 	public void clearListSearchByDepartureDate() {
-		listFoundedFlightsByDepartureDateModel.clear();
+		onEdt(() -> listFoundedFlightsByDepartureDateModel.clear());
 	}
 	
 	@Override
 	public void clearListSearchByArrivalDate() {
-		listFoundedFlightsByArrivalDateModel.clear();
+		onEdt(() -> listFoundedFlightsByArrivalDateModel.clear());
 	}
 	
 	@Override
 	public void clearListSearchAssociatesFlights() {
-		listFoundedFlightsAssociatesWithPlaneModel.clear();
+		onEdt(() -> listFoundedFlightsAssociatesWithPlaneModel.clear());
 	}
 	
 	@Override
 	public void clearListSearchByModel() {
-		listFoundedPlanesByModel.clear();	
+		onEdt(() -> listFoundedPlanesByModel.clear());
+	}
+	
+	@Override
+	public void clearListSearchAvailablePlanes() {
+		onEdt(() -> listFoundedAvailablePlanes.clear());
 	}
 	
 	@Override
 	public void showAllFoundedFlightsByOrigin(List<Flight> flights) {
-		listFoundedFlightsByOriginModel.clear();
-		flights.stream()
-			.forEach(listFoundedFlightsByOriginModel::addElement);
-		lblErrorMessageSearch.setText(" ");
+		onEdt(() -> {
+			listFoundedFlightsByOriginModel.replaceAll(flights);
+			lblErrorMessageSearch.setText(" ");
+		});
 	}
 	
 	@Override
 	public void showAllFoundedFlightsByDestination(List<Flight> flights) {
-		listFoundedFlightsByDestinationModel.clear();
-		flights.stream()
-			.forEach(listFoundedFlightsByDestinationModel::addElement);
-		lblErrorMessageSearch.setText(" ");
+		onEdt(() -> {
+			listFoundedFlightsByDestinationModel.replaceAll(flights);
+			lblErrorMessageSearch.setText(" ");
+		});
 	}
 	
 	@Override
 	public void showAllFoundedFlightsByDepartureDate(List<Flight> flights) {
-		listFoundedFlightsByDepartureDateModel.clear();
-		flights.stream()
-			.forEach(listFoundedFlightsByDepartureDateModel::addElement);
-		lblErrorMessageSearch.setText(" ");
+		onEdt(() -> {
+			listFoundedFlightsByDepartureDateModel.replaceAll(flights);
+			lblErrorMessageSearch.setText(" ");
+		});
 	}
 	
 	@Override
 	public void showAllFoundedFlightsByArrivalDate(List<Flight> flights) {
-		listFoundedFlightsByArrivalDateModel.clear();
-		flights.stream()
-			.forEach(listFoundedFlightsByArrivalDateModel::addElement);
-		lblErrorMessageSearch.setText(" ");
+		onEdt(() -> {
+			listFoundedFlightsByArrivalDateModel.replaceAll(flights);
+			lblErrorMessageSearch.setText(" ");
+		});
 	}
 	
 	@Override
 	public void showAllFoundedFlightsAssociatesWithPlane(List<Flight> flights) {
-		listFoundedFlightsAssociatesWithPlaneModel.clear();
-		flights.stream()
-			.forEach(listFoundedFlightsAssociatesWithPlaneModel::addElement);
-		lblErrorMessageSearchPlane.setText(" ");
+		onEdt(() -> {
+			listFoundedFlightsAssociatesWithPlaneModel.replaceAll(flights);
+			lblErrorMessageSearchPlane.setText(" ");
+		});
 	}
 	
 	@Override
 	public void showAllFoundedPlanesByModel(List<Plane> planes) {
-		listFoundedPlanesByModel.clear();
-		planes.stream()
-			.forEach(listFoundedPlanesByModel::addElement);
-		lblErrorMessageSearchPlane.setText(" ");
+		onEdt(() -> {
+			listFoundedPlanesByModel.replaceAll(planes);
+			lblErrorMessageSearchPlane.setText(" ");
+		});
 	}
-}
+	
+	@Override
+	public void showAllFoundedAvailablePlanes(List<Plane> planes) {
+		onEdt(() -> {
+			listFoundedAvailablePlanes.replaceAll(planes);
+			lblErrorMessageSearchPlane.setText(" ");
+		});
+	}
+	
+	
+	
+	
+	//################ report methods #################
+	
+	@Override
+	public void showPlaneUtilisation(List<PlaneUtilisation> report) {
+		onEdt(() -> {
+			listUtilisationReportModel.replaceAll(report);
+			lblErrorMessageReport.setText(" ");
+		});
+	}
+	
+	@Override
+	public void showReportError(String message) {
+		onEdt(() -> lblErrorMessageReport.setText(message));
+	}
+	
+	
+	
+	
+	
+	//################ private methods #################
+	
+	//view updates may come from background calls
+	private void onEdt(Runnable update) {
+		BackgroundTasks.onEdt(background.guard(update));
+	}
+	
+	private void showBusy(boolean busy) {
+		progressBar.setVisible(busy);
+	}
+	
+	//counts in the background, asks on the EDT, deletes through the write queue
+	private void confirmFlightsDeletion(LongSupplier count, Runnable delete) {
+		background.submitRead(() -> {
+			long flights = count.getAsLong();
+			onEdt(() -> {
+				if(flights == 0) {
+					lblErrorMessageFlight.setText(NOTHING_TO_DELETE);
+					return;
+				}
+				
+				String message = flights + (flights == 1 ? " flight" : " flights") + " will be deleted";
+				if(JOptionPane.showConfirmDialog(this, message, "Delete flights", JOptionPane.OK_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE) == JOptionPane.OK_OPTION)
+					background.submitWrite(delete);
+			});
+		});
+	}
+
+
 
+	private <E> LazyListModel<E> newLazyListModel() {
+		return new LazyListModel<>(LazyListModel.DEFAULT_PAGE_SIZE, LazyListModel.DEFAULT_MAX_PAGES, background::submitRead, BackgroundTasks::onEdt);
+	}
+}
@@ -0,0 +1,146 @@
+package com.airport_management.view.swing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+
+
+//runs controller calls away from the event dispatch thread
+class BackgroundTasks {
+
+	private static final Logger LOGGER = Logger.getLogger(BackgroundTasks.class.getName());
+
+	private static final int READ_THREADS = 4;
+	private static final long KEEP_ALIVE_SECONDS = 30;
+
+	//ticket of the task running on the current thread
+	private static final ThreadLocal<Ticket> CURRENT = new ThreadLocal<>();
+
+	private final ThreadPoolExecutor reads;
+	private final ThreadPoolExecutor writes;
+	private final Map<String, Ticket> latest = new ConcurrentHashMap<>();
+	private final Consumer<Boolean> busyListener;
+
+	//only touched on the event dispatch thread
+	private int running;
+
+
+	BackgroundTasks(Consumer<Boolean> busyListener) {
+		this.busyListener = busyListener;
+		this.reads = newPool("airport-read", READ_THREADS);
+		this.writes = newPool("airport-write", 1);
+	}
+
+
+
+	//changes run one at a time in submission order and are never superseded
+	void submitWrite(Runnable task) {
+		run(writes, new Ticket(null), task);
+	}
+
+
+
+	void submitRead(Runnable task) {
+		run(reads, new Ticket(null), task);
+	}
+
+
+
+	//a newer task on the same channel supersedes this one: it is skipped if not started yet, its view updates are dropped otherwise
+	void submitLatest(String channel, Runnable task) {
+		Ticket ticket = new Ticket(channel);
+		latest.put(channel, ticket);
+		run(reads, ticket, task);
+	}
+
+
+
+	//binds a view update to the task running on this thread, if any
+	Runnable guard(Runnable update) {
+		Ticket ticket = CURRENT.get();
+		if(ticket == null)
+			return update;
+
+		return () -> {
+			if(ticket.isCurrent())
+				update.run();
+		};
+	}
+
+
+
+	static void onEdt(Runnable update) {
+		if(SwingUtilities.isEventDispatchThread())
+			update.run();
+		else
+			SwingUtilities.invokeLater(update);
+	}
+
+
+
+	private void run(ThreadPoolExecutor executor, Ticket ticket, Runnable task) {
+		onEdt(() -> changeRunning(1));
+		executor.execute(() -> {
+			CURRENT.set(ticket);
+			try {
+				if(ticket.isCurrent())
+					task.run();
+			}
+			catch(RuntimeException ex) {
+				LOGGER.log(Level.WARNING, "background call failed", ex);
+			}
+			finally {
+				CURRENT.remove();
+				onEdt(() -> changeRunning(-1));
+			}
+		});
+	}
+
+
+
+	private void changeRunning(int delta) {
+		boolean wasBusy = running > 0;
+		running += delta;
+		if(wasBusy != running > 0)
+			busyListener.accept(running > 0);
+	}
+
+
+
+	private static ThreadPoolExecutor newPool(String name, int threads) {
+		AtomicInteger count = new AtomicInteger();
+		ThreadFactory factory = task -> {
+			Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+
+
+	private class Ticket {
+
+		private final String channel;
+
+		Ticket(String channel) {
+			this.channel = channel;
+		}
+
+		boolean isCurrent() {
+			return channel == null || latest.get(channel) == this;
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.airport_management.view.swing;
+
+import java.util.Objects;
+
+import javax.swing.JComboBox;
+
+
+//a JComboBox looks a new selection up through every item and sizes itself on every item, both would read all the pages
+class LazyComboBox<E> extends JComboBox<E> {
+
+	private static final long serialVersionUID = 1L;
+
+
+	LazyComboBox(LazyComboBoxModel<E> model, E prototype) {
+		super(model);
+		setPrototypeDisplayValue(prototype);
+	}
+
+
+
+	//the item comes from a painted row, the model fires the change and the combo box its action event
+	@Override
+	public void setSelectedItem(Object item) {
+		if(!Objects.equals(item, getModel().getSelectedItem()))
+			getModel().setSelectedItem(item);
+	}
+
+
+
+	//typing a key would look for the item through the whole list
+	@Override
+	public boolean selectWithKeyChar(char keyChar) {
+		return false;
+	}
+}
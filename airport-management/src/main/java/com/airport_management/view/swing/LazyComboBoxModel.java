@@ -0,0 +1,113 @@
+package com.airport_management.view.swing;
+
+import java.util.Objects;
+
+import javax.swing.AbstractListModel;
+import javax.swing.MutableComboBoxModel;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import com.airport_management.view.PageSource;
+
+
+//combo box items read a page at a time through a LazyListModel, the selection is kept apart from the pages
+public class LazyComboBoxModel<E> extends AbstractListModel<E> implements MutableComboBoxModel<E> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final LazyListModel<E> items;
+	private transient Object selected;
+
+
+	public LazyComboBoxModel(LazyListModel<E> items) {
+		this.items = items;
+		items.addListDataListener(new ListDataListener() {
+			@Override
+			public void intervalAdded(ListDataEvent e) {
+				fireIntervalAdded(LazyComboBoxModel.this, e.getIndex0(), e.getIndex1());
+			}
+
+			@Override
+			public void intervalRemoved(ListDataEvent e) {
+				fireIntervalRemoved(LazyComboBoxModel.this, e.getIndex0(), e.getIndex1());
+			}
+
+			@Override
+			public void contentsChanged(ListDataEvent e) {
+				fireContentsChanged(LazyComboBoxModel.this, e.getIndex0(), e.getIndex1());
+			}
+		});
+	}
+
+
+
+	//the selection belongs to the previous items
+	public void setSource(PageSource<E> source) {
+		setSelectedItem(null);
+		items.setSource(source);
+	}
+
+
+
+	@Override
+	public int getSize() {
+		return items.getSize();
+	}
+
+
+
+	//null while the page of the item is being loaded
+	@Override
+	public E getElementAt(int index) {
+		return items.getElementAt(index);
+	}
+
+
+
+	@Override
+	public void setSelectedItem(Object item) {
+		if(Objects.equals(selected, item))
+			return;
+
+		selected = item;
+		fireContentsChanged(this, -1, -1);
+	}
+
+
+
+	@Override
+	public Object getSelectedItem() {
+		return selected;
+	}
+
+
+
+	@Override
+	public void addElement(E item) {
+		items.addElement(item);
+	}
+
+
+
+	@Override
+	public void removeElement(Object item) {
+		if(Objects.equals(selected, item))
+			setSelectedItem(null);
+		items.removeFirst(e -> Objects.equals(e, item));
+	}
+
+
+
+	//the items keep the order of their source
+	@Override
+	public void insertElementAt(E item, int index) {
+		throw new UnsupportedOperationException("items cannot be inserted at an index");
+	}
+
+
+
+	@Override
+	public void removeElementAt(int index) {
+		removeElement(getElementAt(index));
+	}
+}
@@ -0,0 +1,544 @@
+package com.airport_management.view.swing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import javax.swing.AbstractListModel;
+
+import com.airport_management.view.PageSource;
+
+
+//list model that keeps only the pages the JList is painting; without a source it behaves as a plain in-memory list
+public class LazyListModel<E> extends AbstractListModel<E> {
+
+	private static final long serialVersionUID = 1L;
+
+	static final int DEFAULT_PAGE_SIZE = 100;
+	static final int DEFAULT_MAX_PAGES = 10;
+
+	private int pageSize;
+	private final int maxPages;
+	private transient PageSource<E> source;
+	private int size;
+	private final List<E> elements = new ArrayList<>();
+	private final Map<Integer, List<E>> pages;
+
+	//the order of the source, an element added locally keeps the rows sorting before it
+	private transient Comparator<? super E> order;
+
+	//page index to its last row, kept after the page is dropped so the next page is read from it instead of from an offset
+	private final Map<Integer, E> pageEnds = new HashMap<>();
+
+	//the source is read through the loader, results come back through the publisher
+	private final transient Executor loader;
+	private final transient Executor publisher;
+
+	//page index to the token of its load in flight
+	private final Map<Integer, Object> pendingPages = new HashMap<>();
+	private int countGeneration;
+	private boolean loadingInline;
+
+	//rows before dirtyFrom are unchanged by the pending recount
+	private int dirtyFrom = Integer.MAX_VALUE;
+	private int removedIndex = -1;
+
+	//one count at a time, the changes made while it runs are merged into a single count after it
+	private boolean counting;
+	private int changedWhileCounting = Integer.MAX_VALUE;
+
+
+	public LazyListModel() {
+		this(DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+	}
+
+
+	public LazyListModel(int pageSize, int maxPages) {
+		this(pageSize, maxPages, Runnable::run, Runnable::run);
+	}
+
+
+	public LazyListModel(int pageSize, int maxPages, Executor loader, Executor publisher) {
+		if(pageSize < 1 || maxPages < 1)
+			throw new IllegalArgumentException("page size and max pages must be positive");
+
+		this.pageSize = pageSize;
+		this.maxPages = maxPages;
+		this.loader = loader;
+		this.publisher = publisher;
+
+		//access ordered, the least recently painted page is dropped first
+		this.pages = new LinkedHashMap<Integer, List<E>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, List<E>> eldest) {
+				return size() > LazyListModel.this.maxPages;
+			}
+		};
+	}
+
+
+
+	public void setPageSize(int pageSize) {
+		if(pageSize < 1)
+			throw new IllegalArgumentException("page size must be positive");
+
+		this.pageSize = pageSize;
+		pages.clear();
+		pageEnds.clear();
+		pendingPages.clear();
+	}
+
+
+
+	public void setOrder(Comparator<? super E> order) {
+		this.order = order;
+	}
+
+
+
+	public void setSource(PageSource<E> source) {
+		int oldSize = getSize();
+		this.source = source;
+		elements.clear();
+		pages.clear();
+		pageEnds.clear();
+		pendingPages.clear();
+		resetCount();
+		size = 0;
+		fireReplaced(0, oldSize, 0);
+		refresh();
+	}
+
+
+
+	//re-reads the size and drops the cached pages once the new size is known
+	public void refresh() {
+		recount(0, -1);
+	}
+
+
+
+	@Override
+	public int getSize() {
+		return source == null ? elements.size() : size;
+	}
+
+
+
+	//null while the page of the element is being loaded
+	@Override
+	public E getElementAt(int index) {
+		if(source == null)
+			return elements.get(index);
+
+		int pageIndex = index / pageSize;
+		List<E> page = pages.get(pageIndex);
+		if(page == null) {
+			loadPage(pageIndex);
+			page = pages.get(pageIndex);
+		}
+
+		int offset = index % pageSize;
+
+		//not loaded yet, or the collection shrank since the last count
+		return page != null && offset < page.size() ? page.get(offset) : null;
+	}
+
+
+
+	//a row added to the source by someone else: the known rows sorting before it are kept, the list is read again from the
+	//first row that may follow it, wherever that is
+	public void inserted(Predicate<? super E> sortsBefore) {
+		recount(insertionPoint(sortsBefore), -1);
+	}
+
+
+
+	//with a source the new element is read back from it, without an order its place is unknown and the whole list is read again
+	public void addElement(E element) {
+		if(source != null) {
+			inserted(row -> order != null && order.compare(row, element) < 0);
+			return;
+		}
+
+		elements.add(element);
+		fireIntervalAdded(this, elements.size() - 1, elements.size() - 1);
+	}
+
+
+
+	//appends with a single event
+	public void addAll(Collection<? extends E> newElements) {
+		if(source != null) {
+			inserted(row -> order != null && newElements.stream().allMatch(element -> order.compare(row, element) < 0));
+			return;
+		}
+
+		if(newElements.isEmpty())
+			return;
+
+		int first = elements.size();
+		elements.addAll(newElements);
+		fireIntervalAdded(this, first, elements.size() - 1);
+	}
+
+
+
+	//with a source the page holding the row is dropped and read again when painted, a row not cached is read fresh anyway
+	public boolean replaceFirst(Predicate<? super E> matching, E element) {
+		if(source != null) {
+			int index = cachedIndexOf(matching);
+			if(index < 0)
+				return false;
+
+			int pageIndex = index / pageSize;
+			pages.remove(pageIndex);
+			pendingPages.remove(pageIndex);
+			int offset = pageIndex * pageSize;
+			fireContentsChanged(this, offset, Math.min(size, offset + pageSize) - 1);
+			return true;
+		}
+
+		int index = indexOf(elements, matching);
+		if(index < 0)
+			return false;
+
+		elements.set(index, element);
+		fireContentsChanged(this, index, index);
+		return true;
+	}
+
+
+
+	//drops the source if any; only the rows between the common head and tail are reported as changed
+	public void replaceAll(List<? extends E> newElements) {
+		if(source != null) {
+			int oldSize = size;
+			source = null;
+			pages.clear();
+			pageEnds.clear();
+			pendingPages.clear();
+			resetCount();
+			elements.addAll(newElements);
+			fireReplaced(0, oldSize, elements.size());
+			return;
+		}
+
+		int oldSize = elements.size();
+		int newSize = newElements.size();
+
+		int head = 0;
+		while(head < oldSize && head < newSize && Objects.equals(elements.get(head), newElements.get(head)))
+			head++;
+
+		int tail = 0;
+		while(tail < oldSize - head && tail < newSize - head
+				&& Objects.equals(elements.get(oldSize - 1 - tail), newElements.get(newSize - 1 - tail)))
+			tail++;
+
+		elements.subList(head, oldSize - tail).clear();
+		elements.addAll(head, newElements.subList(head, newSize - tail));
+		fireReplaced(head, oldSize - head - tail, newSize - head - tail);
+	}
+
+
+
+	public boolean removeElement(E element) {
+		return removeFirst(e -> Objects.equals(e, element));
+	}
+
+
+
+	//with a source only the cached pages are searched for the row, the removal is always read back from the source
+	public boolean removeFirst(Predicate<? super E> matching) {
+		if(source != null) {
+			int index = cachedIndexOf(matching);
+			if(index < 0)
+				recount(0, -1);
+			else
+				recount(index, index);
+			return true;
+		}
+
+		int index = indexOf(elements, matching);
+		if(index < 0)
+			return false;
+
+		elements.remove(index);
+		fireIntervalRemoved(this, index, index);
+		return true;
+	}
+
+
+
+	//with a source the list is read again from the first cached row removed
+	public void removeAll(Collection<?> removed) {
+		if(removed.isEmpty())
+			return;
+
+		if(source != null) {
+			int index = cachedIndexOf(removed::contains);
+			recount(Math.max(index, 0), -1);
+			return;
+		}
+
+		List<E> kept = new ArrayList<>(elements);
+		kept.removeAll(removed);
+		replaceAll(kept);
+	}
+
+
+
+	public void clear() {
+		setSource(null);
+	}
+
+
+
+	//the rows at the indices, to be read off the EDT: the cached rows are taken now, the other pages are read from the
+	//source once each; the result is null if any row cannot be read or may have moved since it was shown
+	public Supplier<List<E>> elementsAt(int[] indices) {
+		if(source == null) {
+			List<E> selected = new ArrayList<>(indices.length);
+			for(int index : indices)
+				selected.add(elements.get(index));
+			return () -> selected;
+		}
+
+		int stableRows = Math.min(size, Math.min(dirtyFrom, changedWhileCounting));
+		PageSource<E> current = source;
+		int limit = pageSize;
+		Map<Integer, List<E>> known = new HashMap<>();
+		Map<Integer, E> ends = new HashMap<>(pageEnds);
+		for(int index : indices) {
+			if(index >= stableRows)
+				return () -> null;
+			List<E> page = pages.get(index / limit);
+			if(page != null)
+				known.put(index / limit, page);
+		}
+
+		return () -> {
+			List<E> selected = new ArrayList<>(indices.length);
+			for(int index : indices) {
+				int pageIndex = index / limit;
+				if(!known.containsKey(pageIndex)) {
+					E previousEnd = ends.get(pageIndex - 1);
+					int offset = pageIndex * limit;
+					List<E> read = previousEnd == null ? current.page(offset, limit) : current.pageAfter(previousEnd, offset, limit);
+					known.put(pageIndex, read);
+					if(read != null && read.size() == limit)
+						ends.put(pageIndex, read.get(limit - 1));
+				}
+
+				List<E> page = known.get(pageIndex);
+				int offset = index % limit;
+				if(page == null || offset >= page.size() || page.get(offset) == null)
+					return null;
+				selected.add(page.get(offset));
+			}
+			return selected;
+		};
+	}
+
+
+
+	int cachedPages() {
+		return pages.size();
+	}
+
+
+
+	//a burst of changes, such as a bulk write made elsewhere, costs two counts at most
+	private void recount(int firstChanged, int removed) {
+		if(source == null)
+			return;
+
+		if(counting) {
+			changedWhileCounting = Math.min(changedWhileCounting, firstChanged);
+			return;
+		}
+
+		//the single removed row is only known when it is the whole change
+		removedIndex = dirtyFrom == Integer.MAX_VALUE ? removed : -1;
+		dirtyFrom = Math.min(dirtyFrom, firstChanged);
+		counting = true;
+
+		PageSource<E> current = source;
+		int expected = ++countGeneration;
+		loader.execute(() -> {
+			Integer newSize = null;
+			try {
+				newSize = current.size();
+			}
+			//a failed count keeps the changed rows for the next one
+			finally {
+				Integer counted = newSize;
+				publisher.execute(() -> counted(expected, counted));
+			}
+		});
+	}
+
+
+
+	private void counted(int expected, Integer newSize) {
+		if(expected != countGeneration)
+			return;
+
+		counting = false;
+		if(newSize != null)
+			resize(newSize);
+
+		if(changedWhileCounting != Integer.MAX_VALUE) {
+			int firstChanged = changedWhileCounting;
+			changedWhileCounting = Integer.MAX_VALUE;
+			recount(firstChanged, -1);
+		}
+	}
+
+
+
+	private void resize(int newSize) {
+		int oldSize = size;
+		int from = Math.min(dirtyFrom, Math.min(oldSize, newSize));
+		int removedRow = removedIndex;
+		dirtyFrom = Integer.MAX_VALUE;
+		removedIndex = -1;
+
+		int firstDirtyPage = from / pageSize;
+		pages.keySet().removeIf(page -> page >= firstDirtyPage);
+		pageEnds.keySet().removeIf(page -> page >= firstDirtyPage);
+		pendingPages.keySet().removeIf(page -> page >= firstDirtyPage);
+		size = newSize;
+
+		if(removedRow >= 0 && newSize == oldSize - 1)
+			fireIntervalRemoved(this, removedRow, removedRow);
+		else
+			fireReplaced(from, oldSize - from, newSize - from);
+	}
+
+
+
+	//the count in flight, if any, belongs to the previous contents
+	private void resetCount() {
+		countGeneration++;
+		counting = false;
+		changedWhileCounting = Integer.MAX_VALUE;
+		dirtyFrom = Integer.MAX_VALUE;
+		removedIndex = -1;
+	}
+
+
+
+	private void loadPage(int pageIndex) {
+		if(pendingPages.containsKey(pageIndex))
+			return;
+
+		Object token = new Object();
+		pendingPages.put(pageIndex, token);
+
+		PageSource<E> current = source;
+		int offset = pageIndex * pageSize;
+		int limit = pageSize;
+		E previousEnd = pageEnds.get(pageIndex - 1);
+
+		loadingInline = true;
+		try {
+			loader.execute(() -> {
+				List<E> page = null;
+				try {
+					page = previousEnd == null ? current.page(offset, limit) : current.pageAfter(previousEnd, offset, limit);
+				}
+				//the load is over even if the source threw, the page is asked again at the next paint
+				finally {
+					List<E> loaded = page;
+					publisher.execute(() -> pageLoaded(pageIndex, token, loaded));
+				}
+			});
+		}
+		finally {
+			loadingInline = false;
+		}
+	}
+
+
+
+	//a null page is a failed read, it is not cached
+	private void pageLoaded(int pageIndex, Object token, List<E> page) {
+		if(!pendingPages.remove(pageIndex, token) || page == null)
+			return;
+
+		pages.put(pageIndex, page);
+		if(page.size() == pageSize)
+			pageEnds.put(pageIndex, page.get(pageSize - 1));
+
+		//a page loaded while painting needs no repaint
+		int offset = pageIndex * pageSize;
+		if(!loadingInline && offset < size)
+			fireContentsChanged(this, offset, Math.min(size, offset + pageSize) - 1);
+	}
+
+
+
+	private int cachedIndexOf(Predicate<? super E> matching) {
+		for(Map.Entry<Integer, List<E>> page : pages.entrySet()) {
+			int offset = indexOf(page.getValue(), matching);
+			if(offset >= 0)
+				return page.getKey() * pageSize + offset;
+		}
+		return -1;
+	}
+
+
+
+	//the row after the last known one sorting before the new row; the cached pages and the ends of the dropped ones are known
+	private int insertionPoint(Predicate<? super E> sortsBefore) {
+		int point = 0;
+		for(Map.Entry<Integer, List<E>> page : pages.entrySet()) {
+			List<E> rows = page.getValue();
+			for(int i = rows.size() - 1; i >= 0; i--) {
+				if(rows.get(i) != null && sortsBefore.test(rows.get(i))) {
+					point = Math.max(point, page.getKey() * pageSize + i + 1);
+					break;
+				}
+			}
+		}
+
+		for(Map.Entry<Integer, E> end : pageEnds.entrySet())
+			if(sortsBefore.test(end.getValue()))
+				point = Math.max(point, (end.getKey() + 1) * pageSize);
+		return point;
+	}
+
+
+
+	private static <E> int indexOf(List<E> list, Predicate<? super E> matching) {
+		for(int i = 0; i < list.size(); i++)
+			if(matching.test(list.get(i)))
+				return i;
+		return -1;
+	}
+
+
+
+	//oldCount rows starting at from became newCount rows
+	private void fireReplaced(int from, int oldCount, int newCount) {
+		int changed = Math.min(oldCount, newCount);
+		if(changed > 0)
+			fireContentsChanged(this, from, from + changed - 1);
+		if(newCount > changed)
+			fireIntervalAdded(this, from + changed, from + newCount - 1);
+		if(oldCount > changed)
+			fireIntervalRemoved(this, from + changed, from + oldCount - 1);
+	}
+}
@@ -4,11 +4,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static java.util.Arrays.asList;
 
+import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -17,10 +20,14 @@ import org.mockito.MockitoAnnotations;
 import com.airport_management.exception.FlightNotFoundException;
 import com.airport_management.exception.InconsistentDataException;
 import com.airport_management.exception.PlaneAlreadyInServiceException;
+import com.airport_management.exception.TransactionFailedException;
+import com.airport_management.exception.TransactionRetryExhaustedException;
 import com.airport_management.model.Flight;
 import com.airport_management.repository.FlightRepository;
 import com.airport_management.service_layer.transaction.AirportServiceLayer;
+import com.airport_management.view.PageSource;
 import com.airport_management.view.FlightView;
+import com.mongodb.MongoException;
 
 
 public class FlightControllerTest {
@@ -75,6 +82,100 @@ public class FlightControllerTest {
 	
 	
 	
+	@Test
+	public void testAllFlightsPagedReadsPagesFromTheServiceLayer() {
+		List<Flight> page = asList(new Flight());
+		when(serviceLayer.countFlightsSL())
+			.thenReturn(7L);
+		when(serviceLayer.findFlightsPageSL(5, 2))
+			.thenReturn(page);
+		
+		flightController.allFlightsPaged();
+		ArgumentCaptor<PageSource<Flight>> source = ArgumentCaptor.forClass(PageSource.class);
+		verify(flightView).showFlightPages(source.capture());
+		verifyNoInteractions(serviceLayer);
+		
+		assertEquals(7, source.getValue().size());
+		assertEquals(page, source.getValue().page(5, 2));
+	}
+	
+	
+	
+	@Test
+	public void testAllFlightsPagedReadsTheNextPageAfterTheLastFlight() {
+		List<Flight> page = asList(new Flight());
+		when(serviceLayer.findFlightsPageAfterSL(FLIGHT_FIXTURE.getFlightNum(), 2))
+			.thenReturn(page);
+		
+		flightController.allFlightsPaged();
+		ArgumentCaptor<PageSource<Flight>> source = ArgumentCaptor.forClass(PageSource.class);
+		verify(flightView).showFlightPages(source.capture());
+		
+		assertEquals(page, source.getValue().pageAfter(FLIGHT_FIXTURE, 5, 2));
+		verify(serviceLayer, never()).findFlightsPageSL(anyInt(), anyInt());
+	}
+	
+	
+	
+	@Test
+	public void testAllFlightsStreamedShowsEveryChunkOnAClearedList() {
+		List<Flight> firstChunk = asList(new Flight());
+		List<Flight> secondChunk = asList(FLIGHT_FIXTURE);
+		doAnswer(invocation -> {
+			Consumer<List<Flight>> chunks = invocation.getArgument(1);
+			chunks.accept(firstChunk);
+			chunks.accept(secondChunk);
+			return true;
+		}).when(serviceLayer).streamAllFlightsSL(eq(2), any());
+		
+		flightController.allFlightsStreamed(2);
+		InOrder inOrder = inOrder(flightView);
+		inOrder.verify(flightView).clearFlights();
+		inOrder.verify(flightView).showAllFlights(firstChunk);
+		inOrder.verify(flightView).showAllFlights(secondChunk);
+		verifyNoMoreInteractions(flightView);
+	}
+	
+	
+	
+	@Test
+	public void testAllFlightsStreamedWhenTheReadFails() {
+		when(serviceLayer.streamAllFlightsSL(eq(2), any()))
+			.thenReturn(false);
+		
+		flightController.allFlightsStreamed(2);
+		verify(flightView).showFlightError("Not all the flights could be read, the list is incomplete");
+	}
+	
+	
+	
+	@Test
+	public void testAStreamedListIsStreamedAgainAfterABulkDelete() {
+		when(serviceLayer.streamAllFlightsSL(eq(2), any()))
+			.thenReturn(true);
+		when(serviceLayer.deleteFlightsByPlaneSL("id-test"))
+			.thenReturn(1L);
+		flightController.allFlightsStreamed(2);
+		
+		flightController.deleteFlightsOfPlane("id-test");
+		verify(serviceLayer, times(2)).streamAllFlightsSL(eq(2), any());
+		verify(flightView, never()).showFlightPages(any());
+		verify(flightView).showFlightsDeleted(1);
+	}
+	
+	
+	
+	@Test
+	public void testReloadFlightsPagesAListThatWasNotStreamed() {
+		flightController.allFlights();
+		
+		flightController.reloadFlights();
+		verify(flightView).showFlightPages(any());
+		verify(serviceLayer, never()).streamAllFlightsSL(anyInt(), any());
+	}
+	
+	
+	
 	@Test
 	public void testFindFlightWhenExistFlight() {
 		
@@ -126,6 +227,32 @@ public class FlightControllerTest {
 	
 	
 	
+	@Test
+	public void testNewFlightWhenTheRetriesRunOut() {
+		TransactionRetryExhaustedException ex = new TransactionRetryExhaustedException(5, new MongoException("write conflict"));
+		doThrow(ex).when(serviceLayer).saveFlightSL(FLIGHT_FIXTURE);
+		
+		flightController.newFlight(FLIGHT_FIXTURE);
+		verify(flightView).showFlightError(ex.getMessage());
+		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
+		verifyNoMoreInteractions(flightView);
+	}
+	
+	
+	
+	@Test
+	public void testNewFlightWhenTheTransactionFails() {
+		TransactionFailedException ex = new TransactionFailedException(new MongoException("not primary"));
+		doThrow(ex).when(serviceLayer).saveFlightSL(FLIGHT_FIXTURE);
+		
+		flightController.newFlight(FLIGHT_FIXTURE);
+		verify(flightView).showFlightError(ex.getMessage());
+		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
+		verifyNoMoreInteractions(flightView);
+	}
+	
+	
+	
 	@Test
 	public void TestNewFlightWhenThereIsAnInconsistenceOfInputData() {
 
@@ -167,10 +294,140 @@ public class FlightControllerTest {
 		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
 		verifyNoMoreInteractions(flightView);
 	}
+	
+	
+	
+	@Test
+	public void testDeleteFlightsRemovesThemFromTheView() {
+		List<Flight> flights = asList(FLIGHT_FIXTURE, new Flight());
+		when(serviceLayer.deleteFlightsSL(flights)).thenReturn(1L);
+		
+		flightController.deleteFlights(flights);
+		InOrder inOrder = inOrder(serviceLayer, flightView);
+		inOrder.verify(serviceLayer).deleteFlightsSL(flights);
+		inOrder.verify(flightView).flightsRemoved(flights);
+		inOrder.verify(flightView).showFlightsDeleted(1);
+		verifyNoMoreInteractions(serviceLayer, flightView);
+	}
+	
+	
+	
+	@Test
+	public void testDeleteFlightsOfPlaneReadsTheListAgain() {
+		when(serviceLayer.deleteFlightsByPlaneSL("id-test")).thenReturn(3L);
+		
+		flightController.deleteFlightsOfPlane("id-test");
+		InOrder inOrder = inOrder(serviceLayer, flightView);
+		inOrder.verify(serviceLayer).deleteFlightsByPlaneSL("id-test");
+		inOrder.verify(flightView).showFlightPages(any());
+		inOrder.verify(flightView).showFlightsDeleted(3);
+		verifyNoMoreInteractions(serviceLayer, flightView);
+	}
+	
+	
+	
+	@Test
+	public void testDeleteFlightsOfPlaneWhenTheRetriesRunOut() {
+		TransactionRetryExhaustedException ex = new TransactionRetryExhaustedException(5, new MongoException("write conflict"));
+		doThrow(ex).when(serviceLayer).deleteFlightsByPlaneSL("id-test");
+		
+		flightController.deleteFlightsOfPlane("id-test");
+		verify(flightView).showFlightError(ex.getMessage());
+		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
+		verifyNoMoreInteractions(flightView);
+	}
+	
+	
+	
+	@Test
+	public void testCountsOfTheBulkDeletesTouchNoView() {
+		Date start = new Date(1000);
+		Date end = new Date(2000);
+		when(serviceLayer.countFlightsByPlaneSL("id-test")).thenReturn(3L);
+		when(serviceLayer.countFlightsWithDepartureDateInRangeSL(start, end)).thenReturn(2L);
+		
+		assertEquals(3, flightController.countFlightsOfPlane("id-test"));
+		assertEquals(2, flightController.countFlightsWithDepartureDateInRange(start, end));
+		verify(serviceLayer, never()).deleteFlightsByPlaneSL(any());
+		verifyNoInteractions(flightView);
+	}
+	
+	
+	
+	@Test
+	public void testDeleteFlightsWithDepartureDateInRangeReadsTheListAgain() {
+		Date start = new Date(1000);
+		Date end = new Date(2000);
+		when(serviceLayer.deleteFlightsWithDepartureDateInRangeSL(start, end)).thenReturn(2L);
+		
+		flightController.deleteFlightsWithDepartureDateInRange(start, end);
+		InOrder inOrder = inOrder(serviceLayer, flightView);
+		inOrder.verify(serviceLayer).deleteFlightsWithDepartureDateInRangeSL(start, end);
+		inOrder.verify(flightView).showFlightPages(any());
+		inOrder.verify(flightView).showFlightsDeleted(2);
+		verifyNoMoreInteractions(serviceLayer, flightView);
+	}
+	
+	
+	
+	@Test
+	public void testFlightInsertedIsReadByThePagedView() {
+		flightController.allFlightsPaged();
+		
+		flightController.flightInserted(NUM_FIXTURE);
+		verify(flightView).flightInsertedElsewhere(NUM_FIXTURE);
+		verify(serviceLayer, never()).findByNumSL(any());
+	}
+	
+	
+	
+	@Test
+	public void testFlightInsertedShowsTheStoredFlight() {
+		when(serviceLayer.findByNumSL(NUM_FIXTURE))
+			.thenReturn(FLIGHT_FIXTURE);
+		
+		flightController.flightInserted(NUM_FIXTURE);
+		verify(flightView).flightInserted(FLIGHT_FIXTURE);
+		verifyNoMoreInteractions(flightView);
+	}
+	
+	
+	
+	@Test
+	public void testFlightInsertedWhenAlreadyDeleted() {
+		flightController.flightInserted(NUM_FIXTURE);
+		verifyNoInteractions(flightView);
+	}
+	
+	
+	
+	@Test
+	public void testFlightUpdatedIsReadByThePagedView() {
+		flightController.allFlightsPaged();
+		
+		flightController.flightUpdated(NUM_FIXTURE);
+		verify(flightView).flightUpdatedElsewhere(NUM_FIXTURE);
+		verify(serviceLayer, never()).findByNumSL(any());
+	}
+	
+	
+	
+	@Test
+	public void testFlightUpdatedShowsTheStoredFlight() {
+		when(serviceLayer.findByNumSL(NUM_FIXTURE))
+			.thenReturn(FLIGHT_FIXTURE);
+		
+		flightController.flightUpdated(NUM_FIXTURE);
+		verify(flightView).flightUpdated(FLIGHT_FIXTURE);
+		verifyNoMoreInteractions(flightView);
+	}
+	
+	
+	
+	@Test
+	public void testFlightDeleted() {
+		flightController.flightDeleted(NUM_FIXTURE);
+		verify(flightView).flightDeleted(NUM_FIXTURE);
+		verifyNoInteractions(serviceLayer);
+	}
 }
-
-
-
-
-
-
@@ -0,0 +1,114 @@
+package com.airport_management.controller;
+
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.airport_management.service_layer.transaction.AirportServiceLayer;
+
+
+public class LiveBoardControllerTest {
+	
+	@Mock
+	private PlaneController planeController;
+	
+	@Mock
+	private FlightController flightController;
+	
+	@Mock
+	private AirportServiceLayer serviceLayer;
+	
+	@InjectMocks
+	private LiveBoardController liveBoardController;
+	
+	private static final String ID_FIXTURE = "id-test";
+	private static final String NUM_FIXTURE = "num-test";
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneInsertedInvalidatesSearchesFirst() {
+		liveBoardController.planeInserted(ID_FIXTURE);
+		InOrder inOrder = inOrder(serviceLayer, planeController);
+		inOrder.verify(serviceLayer).invalidateSearches();
+		inOrder.verify(planeController).planeInserted(ID_FIXTURE);
+		verifyNoInteractions(flightController);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneUpdatedInvalidatesSearchesFirst() {
+		liveBoardController.planeUpdated(ID_FIXTURE);
+		InOrder inOrder = inOrder(serviceLayer, planeController);
+		inOrder.verify(serviceLayer).invalidateSearches();
+		inOrder.verify(planeController).planeUpdated(ID_FIXTURE);
+		verifyNoInteractions(flightController);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneDeleted() {
+		liveBoardController.planeDeleted(ID_FIXTURE);
+		verify(serviceLayer).invalidateSearches();
+		verify(planeController).planeDeleted(ID_FIXTURE);
+	}
+	
+	
+	
+	@Test
+	public void testFlightInsertedInvalidatesSearchesFirst() {
+		liveBoardController.flightInserted(NUM_FIXTURE);
+		InOrder inOrder = inOrder(serviceLayer, flightController);
+		inOrder.verify(serviceLayer).flightChangedElsewhere(NUM_FIXTURE);
+		inOrder.verify(serviceLayer).invalidateSearches();
+		inOrder.verify(flightController).flightInserted(NUM_FIXTURE);
+		verifyNoInteractions(planeController);
+	}
+	
+	
+	
+	@Test
+	public void testFlightUpdatedInvalidatesSearchesFirst() {
+		liveBoardController.flightUpdated(NUM_FIXTURE);
+		InOrder inOrder = inOrder(serviceLayer, flightController);
+		inOrder.verify(serviceLayer).flightChangedElsewhere(NUM_FIXTURE);
+		inOrder.verify(serviceLayer).invalidateSearches();
+		inOrder.verify(flightController).flightUpdated(NUM_FIXTURE);
+		verifyNoInteractions(planeController);
+	}
+	
+	
+	
+	@Test
+	public void testFlightDeleted() {
+		liveBoardController.flightDeleted(NUM_FIXTURE);
+		verify(serviceLayer).flightDeletedElsewhere(NUM_FIXTURE);
+		verify(serviceLayer).invalidateSearches();
+		verify(flightController).flightDeleted(NUM_FIXTURE);
+	}
+	
+	
+	
+	@Test
+	public void testResynchronizeReadsBothListsAgain() {
+		liveBoardController.resynchronize();
+		verify(serviceLayer).invalidateSchedule();
+		verify(serviceLayer).invalidateSearches();
+		verify(planeController).allPlanesPaged();
+		verify(flightController).reloadFlights();
+	}
+}
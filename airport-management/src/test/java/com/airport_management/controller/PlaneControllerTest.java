@@ -9,6 +9,7 @@ import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -16,10 +17,14 @@ import org.mockito.MockitoAnnotations;
 
 import com.airport_management.exception.PlaneNotFoundException;
 import com.airport_management.exception.PlaneWithAssociateFlightException;
+import com.airport_management.exception.TransactionFailedException;
+import com.airport_management.exception.TransactionRetryExhaustedException;
 import com.airport_management.model.Flight;
 import com.airport_management.model.Plane;
 import com.airport_management.service_layer.transaction.AirportServiceLayer;
+import com.airport_management.view.PageSource;
 import com.airport_management.view.PlaneView;
+import com.mongodb.MongoException;
 
 
 public class PlaneControllerTest {
@@ -48,27 +53,38 @@ public class PlaneControllerTest {
 	
 	
 	@Test
-	public void testReturnAllPlanesWhenExistPlanes() {
-		List<Plane> planes = asList(PLANE_FIXTURE);
+	public void testPlaneIdPagesReadsNothingUpFront() {
+		when(serviceLayer.countPlanesSL())
+			.thenReturn(7L);
+		when(serviceLayer.findPlanesPageSL(5, 2))
+			.thenReturn(asList(PLANE_FIXTURE));
 		
-		when(serviceLayer.findAllPlanesSL())
-			.thenReturn(planes);
+		PageSource<String> ids = planeController.planeIdPages();
+		verifyNoInteractions(serviceLayer);
 		
-		List<Plane> returnedPlanes = planeController.returnAllPlanes();
-		assertEquals(planes, returnedPlanes);
-
+		assertEquals(7, ids.size());
+		assertEquals(asList(ID_FIXTURE), ids.page(5, 2));
 	}
 	
 	 
 	
 	@Test
-	public void testReturnAllPlanesWhenNoExistPlanes() {		
-		when(serviceLayer.findAllPlanesSL())
+	public void testPlaneIdPagesReadsTheNextPageAfterTheLastId() {
+		when(serviceLayer.findPlanesPageAfterSL(ID_FIXTURE, 2))
+			.thenReturn(asList(PLANE_FIXTURE));
+		
+		assertEquals(asList(ID_FIXTURE), planeController.planeIdPages().pageAfter(ID_FIXTURE, 5, 2));
+		verify(serviceLayer, never()).findPlanesPageSL(anyInt(), anyInt());
+	}
+	
+	
+	
+	@Test
+	public void testPlaneIdPagesKeepsAFailedRead() {
+		when(serviceLayer.findPlanesPageSL(0, 2))
 			.thenReturn(null);
 		
-		List<Plane> returnedPlanes = planeController.returnAllPlanes();
-		assertEquals(null, returnedPlanes);
-		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
+		assertEquals(null, planeController.planeIdPages().page(0, 2));
 	}
 	
 	
@@ -101,6 +117,41 @@ public class PlaneControllerTest {
 	
 	
 	
+	@Test
+	public void testAllPlanesPagedReadsPagesFromTheServiceLayer() {
+		List<Plane> page = asList(PLANE_FIXTURE);
+		when(serviceLayer.countPlanesSL())
+			.thenReturn(7L);
+		when(serviceLayer.findPlanesPageSL(5, 2))
+			.thenReturn(page);
+		
+		planeController.allPlanesPaged();
+		ArgumentCaptor<PageSource<Plane>> source = ArgumentCaptor.forClass(PageSource.class);
+		verify(planeView).showPlanePages(source.capture());
+		verifyNoInteractions(serviceLayer);
+		
+		assertEquals(7, source.getValue().size());
+		assertEquals(page, source.getValue().page(5, 2));
+	}
+	
+	
+	
+	@Test
+	public void testAllPlanesPagedReadsTheNextPageAfterTheLastPlane() {
+		List<Plane> page = asList(PLANE_FIXTURE);
+		when(serviceLayer.findPlanesPageAfterSL(PLANE_FIXTURE.getId(), 2))
+			.thenReturn(page);
+		
+		planeController.allPlanesPaged();
+		ArgumentCaptor<PageSource<Plane>> source = ArgumentCaptor.forClass(PageSource.class);
+		verify(planeView).showPlanePages(source.capture());
+		
+		assertEquals(page, source.getValue().pageAfter(PLANE_FIXTURE, 5, 2));
+		verify(serviceLayer, never()).findPlanesPageSL(anyInt(), anyInt());
+	}
+	
+	
+	
 	@Test
 	public void testFindPlaneWhenExistPlane() {		
 		
@@ -138,6 +189,32 @@ public class PlaneControllerTest {
 	
 	
 	
+	@Test
+	public void testNewPlaneWhenTheRetriesRunOut() {
+		TransactionRetryExhaustedException ex = new TransactionRetryExhaustedException(5, new MongoException("write conflict"));
+		doThrow(ex).when(serviceLayer).savePlaneSL(PLANE_FIXTURE);
+		
+		planeController.newPlane(PLANE_FIXTURE);
+		verify(planeView).showPlaneError(ex.getMessage());
+		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
+		verifyNoMoreInteractions(planeView);
+	}
+	
+	
+	
+	@Test
+	public void testNewPlaneWhenTheTransactionFails() {
+		TransactionFailedException ex = new TransactionFailedException(new MongoException("not primary"));
+		doThrow(ex).when(serviceLayer).savePlaneSL(PLANE_FIXTURE);
+		
+		planeController.newPlane(PLANE_FIXTURE);
+		verify(planeView).showPlaneError(ex.getMessage());
+		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
+		verifyNoMoreInteractions(planeView);
+	}
+	
+	
+	
 	@Test
 	public void testDeletePlaneWhenAlreadyExist() {		
 		planeController.deletePlane(PLANE_FIXTURE);
@@ -175,6 +252,97 @@ public class PlaneControllerTest {
 		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
 		verifyNoMoreInteractions(planeView);
 	}	
+	
+	
+	
+	@Test
+	public void testDeletePlanesRemovesThemFromTheView() {
+		List<Plane> planes = asList(PLANE_FIXTURE, new Plane("id2-test", MODEL_FIXTURE));
+		when(serviceLayer.deletePlanesSL(planes)).thenReturn(2L);
+		
+		planeController.deletePlanes(planes);
+		InOrder inOrder = inOrder(serviceLayer, planeView);
+		inOrder.verify(serviceLayer).deletePlanesSL(planes);
+		inOrder.verify(planeView).planesRemoved(planes);
+		inOrder.verify(planeView).showPlanesDeleted(2);
+		verifyNoMoreInteractions(serviceLayer, planeView);
+	}
+	
+	
+	
+	@Test
+	public void testDeletePlanesWhenThereAreAssociatesFlights() {
+		List<Plane> planes = asList(PLANE_FIXTURE);
+		
+		doThrow(new PlaneWithAssociateFlightException("Impossible to delete. There are flights associates with the planes id-test"))
+			.when(serviceLayer).deletePlanesSL(planes);
+		
+		planeController.deletePlanes(planes);
+		verify(planeView).showPlaneError("Impossible to delete. There are flights associates with the planes id-test");
+		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
+		verifyNoMoreInteractions(planeView);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneInsertedIsReadByThePagedView() {
+		planeController.allPlanesPaged();
+		
+		planeController.planeInserted(ID_FIXTURE);
+		verify(planeView).planeInsertedElsewhere(ID_FIXTURE);
+		verify(serviceLayer, never()).findByIdSL(any());
+	}
+	
+	
+	
+	@Test
+	public void testPlaneInsertedShowsTheStoredPlane() {
+		when(serviceLayer.findByIdSL(ID_FIXTURE))
+			.thenReturn(PLANE_FIXTURE);
+		
+		planeController.planeInserted(ID_FIXTURE);
+		verify(planeView).planeInserted(PLANE_FIXTURE);
+		verifyNoMoreInteractions(planeView);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneInsertedWhenAlreadyDeleted() {
+		planeController.planeInserted(ID_FIXTURE);
+		verifyNoInteractions(planeView);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneUpdatedIsReadByThePagedView() {
+		planeController.allPlanesPaged();
+		
+		planeController.planeUpdated(ID_FIXTURE);
+		verify(planeView).planeUpdatedElsewhere(ID_FIXTURE);
+		verify(serviceLayer, never()).findByIdSL(any());
+	}
+	
+	
+	
+	@Test
+	public void testPlaneUpdatedShowsTheStoredPlane() {
+		when(serviceLayer.findByIdSL(ID_FIXTURE))
+			.thenReturn(PLANE_FIXTURE);
+		
+		planeController.planeUpdated(ID_FIXTURE);
+		verify(planeView).planeUpdated(PLANE_FIXTURE);
+		verifyNoMoreInteractions(planeView);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneDeleted() {
+		planeController.planeDeleted(ID_FIXTURE);
+		verify(planeView).planeDeleted(ID_FIXTURE);
+		verifyNoInteractions(serviceLayer);
+	}
 }
-
-
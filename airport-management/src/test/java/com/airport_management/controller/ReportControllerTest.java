@@ -0,0 +1,77 @@
+package com.airport_management.controller;
+
+import static org.mockito.Mockito.*;
+import static java.util.Arrays.asList;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.airport_management.exception.InconsistentDataException;
+import com.airport_management.model.PlaneUtilisation;
+import com.airport_management.service_layer.transaction.AirportServiceLayer;
+import com.airport_management.view.ReportView;
+
+
+public class ReportControllerTest {
+
+	@Mock
+	private ReportView reportView;
+	
+	@Mock
+	private AirportServiceLayer serviceLayer;
+	
+	@InjectMocks
+	private ReportController reportController;
+	
+	private static final Date START_DATE_FIXTURE = new Date(0);
+	private static final Date END_DATE_FIXTURE = new Date(10000);
+	
+	
+	@Before
+	public void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneUtilisationShowsTheReport() {
+		List<PlaneUtilisation> report = asList(new PlaneUtilisation("id-test", "model-test", 1, 1000, 9000, 8000));
+		when(serviceLayer.planeUtilisationSL(START_DATE_FIXTURE, END_DATE_FIXTURE))
+			.thenReturn(report);
+		
+		reportController.planeUtilisation(START_DATE_FIXTURE, END_DATE_FIXTURE);
+		verify(reportView).showPlaneUtilisation(report);
+		verifyNoMoreInteractions(reportView);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneUtilisationWhenTheRangeIsWrong() {
+		doThrow(new InconsistentDataException("start or end date is wrong"))
+			.when(serviceLayer).planeUtilisationSL(END_DATE_FIXTURE, START_DATE_FIXTURE);
+		
+		reportController.planeUtilisation(END_DATE_FIXTURE, START_DATE_FIXTURE);
+		verify(reportView).showReportError("start or end date is wrong");
+		verifyNoMoreInteractions(reportView);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneUtilisationWhenTheReportCannotBeRead() {
+		when(serviceLayer.planeUtilisationSL(START_DATE_FIXTURE, END_DATE_FIXTURE))
+			.thenReturn(null);
+		
+		reportController.planeUtilisation(START_DATE_FIXTURE, END_DATE_FIXTURE);
+		verify(reportView).showReportError("The report could not be read, try again");
+		verifyNoMoreInteractions(reportView);
+	}
+}
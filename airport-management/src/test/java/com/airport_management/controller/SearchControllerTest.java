@@ -15,6 +15,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import com.airport_management.exception.FlightNotFoundException;
+import com.airport_management.exception.InconsistentDataException;
 import com.airport_management.exception.PlaneNotFoundException;
 import com.airport_management.model.Flight;
 import com.airport_management.model.Plane;
@@ -228,6 +229,49 @@ public class SearchControllerTest {
 		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
 		verifyNoMoreInteractions(searchView);
 	}
+	
+	
+	
+	@Test
+	public void testFindAvailablePlanesWhenExist() {
+		List<Plane> planes = asList(PLANE_FIXTURE);
+		
+		when(serviceLayer.findAvailablePlanesSL(START_DATE_FIXTURE, END_DATE_FIXTURE, MODEL_FIXTURE))
+			.thenReturn(planes);
+		
+		searchController.findAvailablePlanes(START_DATE_FIXTURE, END_DATE_FIXTURE, MODEL_FIXTURE);
+		verify(searchView).showAllFoundedAvailablePlanes(planes);
+		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
+		verifyNoMoreInteractions(searchView);
+	}
+	
+	
+	
+	@Test
+	public void testFindAvailablePlanesWhenNoExist() {
+		
+		doThrow(new PlaneNotFoundException("There aren't available planes in the selected range"))
+			.when(serviceLayer).findAvailablePlanesSL(START_DATE_FIXTURE, END_DATE_FIXTURE, MODEL_FIXTURE);
+		
+		searchController.findAvailablePlanes(START_DATE_FIXTURE, END_DATE_FIXTURE, MODEL_FIXTURE);
+		verify(searchView).showSearchPlaneError("There aren't available planes in the selected range");
+		verify(searchView).clearListSearchAvailablePlanes();
+		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
+		verifyNoMoreInteractions(searchView);
+	}
+	
+	
+	
+	@Test
+	public void testFindAvailablePlanesWhenTheRangeIsWrong() {
+		
+		doThrow(new InconsistentDataException("start or end date is wrong"))
+			.when(serviceLayer).findAvailablePlanesSL(END_DATE_FIXTURE, START_DATE_FIXTURE, MODEL_FIXTURE);
+		
+		searchController.findAvailablePlanes(END_DATE_FIXTURE, START_DATE_FIXTURE, MODEL_FIXTURE);
+		verify(searchView).showSearchPlaneError("start or end date is wrong");
+		verify(searchView).clearListSearchAvailablePlanes();
+		verifyNoMoreInteractions(ignoreStubs(serviceLayer));
+		verifyNoMoreInteractions(searchView);
+	}
 }
-
-
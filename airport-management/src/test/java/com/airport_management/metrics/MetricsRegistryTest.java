@@ -0,0 +1,102 @@
+package com.airport_management.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class MetricsRegistryTest {
+
+	private MetricsRegistry metrics;
+
+
+	@Before
+	public void setUp() {
+		metrics = new MetricsRegistry();
+	}
+
+
+
+	@Test
+	public void testCountersAreKeptPerLabels() {
+		metrics.counter("transactions_total", "help", "outcome", "commit").increment();
+		metrics.counter("transactions_total", "help", "outcome", "commit").add(2);
+		metrics.counter("transactions_total", "help", "outcome", "abort").increment();
+
+		assertThat(metrics.counter("transactions_total", "help", "outcome", "commit").count()).isEqualTo(3);
+		assertThat(metrics.scrape()).isEqualTo(
+				"# HELP transactions_total help\n" +
+				"# TYPE transactions_total counter\n" +
+				"transactions_total{outcome=\"abort\"} 1\n" +
+				"transactions_total{outcome=\"commit\"} 3\n");
+	}
+
+
+
+	@Test
+	public void testHistogramBucketsAreCumulative() {
+		MetricsRegistry.Histogram histogram = metrics.histogram("results", "help", new double[] {1, 10});
+		histogram.observe(0);
+		histogram.observe(5);
+		histogram.observe(50);
+
+		assertThat(metrics.scrape()).isEqualTo(
+				"# HELP results help\n" +
+				"# TYPE results histogram\n" +
+				"results_bucket{le=\"1\"} 1\n" +
+				"results_bucket{le=\"10\"} 2\n" +
+				"results_bucket{le=\"+Inf\"} 3\n" +
+				"results_sum 55\n" +
+				"results_count 3\n");
+	}
+
+
+
+	@Test
+	public void testTimerRecordsSecondsAlsoWhenTheCodeThrows() {
+		MetricsRegistry.Histogram timer = metrics.timer("method_seconds", "help", "method", "m");
+
+		assertThatThrownBy(() -> timer.time(() -> {
+			throw new IllegalStateException();
+		})).isInstanceOf(IllegalStateException.class);
+		timer.recordNanos(2500000);
+
+		assertThat(timer.count()).isEqualTo(2);
+		assertThat(metrics.scrape()).contains("method_seconds_bucket{method=\"m\",le=\"0.005\"} 2\n");
+	}
+
+
+
+	@Test
+	public void testGaugesAreReadAtEveryScrape() {
+		AtomicLong size = new AtomicLong(1);
+		metrics.gauge("cache_size", "help", size::get, "cache", "plane");
+		size.set(7);
+
+		assertThat(metrics.scrape()).contains("cache_size{cache=\"plane\"} 7\n");
+	}
+
+
+
+	@Test
+	public void testLabelValuesAreEscaped() {
+		metrics.counter("errors_total", "help", "message", "a \"b\"\n").increment();
+
+		assertThat(metrics.scrape()).contains("errors_total{message=\"a \\\"b\\\"\\n\"} 1\n");
+	}
+
+
+
+	@Test
+	public void testNameCannotChangeType() {
+		metrics.counter("name", "help");
+
+		assertThatThrownBy(() -> metrics.timer("name", "help"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("name is already a counter");
+	}
+}
@@ -0,0 +1,61 @@
+package com.airport_management.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class PrometheusEndpointTest {
+
+	private MetricsRegistry metrics;
+	private PrometheusEndpoint endpoint;
+
+
+	@Before
+	public void setUp() throws IOException {
+		metrics = new MetricsRegistry();
+		endpoint = new PrometheusEndpoint(metrics);
+		endpoint.start(0);
+	}
+
+
+
+	@After
+	public void tearDown() {
+		endpoint.stop();
+	}
+
+
+
+	@Test
+	public void testMetricsAreServedAsPrometheusText() throws IOException {
+		metrics.counter("transactions_total", "help").increment();
+
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + endpoint.getPort() + "/metrics").openConnection();
+
+		assertThat(connection.getResponseCode()).isEqualTo(200);
+		assertThat(connection.getContentType()).startsWith("text/plain; version=0.0.4");
+		try(InputStream in = connection.getInputStream(); Scanner scanner = new Scanner(in, StandardCharsets.UTF_8.name())) {
+			assertThat(scanner.useDelimiter("\\A").next()).isEqualTo(metrics.scrape());
+		}
+	}
+
+
+
+	@Test
+	public void testOnlyGetIsAllowed() throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + endpoint.getPort() + "/metrics").openConnection();
+		connection.setRequestMethod("POST");
+
+		assertThat(connection.getResponseCode()).isEqualTo(405);
+	}
+}
@@ -0,0 +1,133 @@
+package com.airport_management.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static java.util.Arrays.asList;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.airport_management.model.Plane;
+
+
+public class PlaneCacheTest {
+
+	private static final Plane PLANE_FIXTURE_1 = new Plane("id1-test", "model1-test");
+	private static final Plane PLANE_FIXTURE_2 = new Plane("id2-test", "model2-test");
+	private static final Plane PLANE_FIXTURE_3 = new Plane("id3-test", "model3-test");
+
+	private AtomicLong now;
+	private PlaneCache planeCache;
+
+
+	@Before
+	public void setUp() {
+		now = new AtomicLong();
+		planeCache = new PlaneCache(2, 10, TimeUnit.SECONDS, now::get);
+	}
+
+
+
+	@Test
+	public void testGetCountsHitsAndMisses() {
+		planeCache.put(PLANE_FIXTURE_1);
+
+		assertThat(planeCache.get("id1-test")).isEqualTo(PLANE_FIXTURE_1);
+		assertThat(planeCache.get("id2-test")).isNull();
+		assertThat(planeCache.getHitCount()).isEqualTo(1);
+		assertThat(planeCache.getMissCount()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testCachedPlaneIsNotShared() {
+		planeCache.put(PLANE_FIXTURE_1);
+
+		planeCache.get("id1-test").setModel("changed");
+
+		assertThat(planeCache.get("id1-test").getModel()).isEqualTo("model1-test");
+	}
+
+
+
+	@Test
+	public void testLeastRecentlyReadPlaneIsEvicted() {
+		planeCache.put(PLANE_FIXTURE_1);
+		planeCache.put(PLANE_FIXTURE_2);
+		planeCache.get("id1-test");
+
+		planeCache.put(PLANE_FIXTURE_3);
+
+		assertThat(planeCache.get("id2-test")).isNull();
+		assertThat(planeCache.get("id1-test")).isEqualTo(PLANE_FIXTURE_1);
+		assertThat(planeCache.getEvictionCount()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testEntriesExpireAfterTheTimeToLive() {
+		planeCache.put(PLANE_FIXTURE_1);
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+		assertThat(planeCache.get("id1-test")).isEqualTo(PLANE_FIXTURE_1);
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertThat(planeCache.get("id1-test")).isNull();
+		assertThat(planeCache.getEvictionCount()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testCleanUpDropsExpiredEntries() {
+		planeCache.put(PLANE_FIXTURE_1);
+		now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+		planeCache.put(PLANE_FIXTURE_2);
+		now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+		planeCache.cleanUp();
+
+		assertThat(planeCache.size()).isEqualTo(1);
+		assertThat(planeCache.getEvictionCount()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testGetAllReturnsOnlyCachedPlanes() {
+		planeCache.put(PLANE_FIXTURE_1);
+
+		assertThat(planeCache.getAll(asList("id1-test", "id2-test")))
+			.containsOnlyKeys("id1-test");
+		assertThat(planeCache.getMissCount()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testInvalidate() {
+		planeCache.put(PLANE_FIXTURE_1);
+		planeCache.put(PLANE_FIXTURE_2);
+
+		planeCache.invalidate("id1-test");
+		assertThat(planeCache.get("id1-test")).isNull();
+
+		planeCache.invalidateAll();
+		assertThat(planeCache.size()).isZero();
+	}
+
+
+
+	@Test
+	public void testSizeAndTimeToLiveMustBePositive() {
+		assertThatThrownBy(() -> new PlaneCache(0, 10, TimeUnit.SECONDS))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new PlaneCache(10, 0, TimeUnit.SECONDS))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,180 @@
+package com.airport_management.repository.mongo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.function.Consumer;
+
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+
+import com.airport_management.model.Plane;
+import com.airport_management.repository.CollectionChangeListener;
+import com.airport_management.repository.PlaneCache;
+
+
+public class ChangeStreamWatcherTest {
+
+	private static final String AIRPORT_DB_NAME = "airport";
+	private static final String PLANE_COLLECTION_NAME = "plane";
+	private static final String FLIGHT_COLLECTION_NAME = "flight";
+	private static final ObjectId ID_FIXTURE = new ObjectId();
+	private static final BsonTimestamp CLUSTER_TIME = new BsonTimestamp(100, 1);
+
+	@Mock
+	private MongoClient client;
+
+	@Mock
+	private MongoCollection<Document> planeCollection;
+
+	@Mock
+	private MongoCollection<Document> flightCollection;
+
+	@Mock
+	private CollectionChangeListener listener;
+
+	private PlaneCache planeCache;
+	private ChangeStreamWatcher watcher;
+
+
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+
+		when(planeCollection.getNamespace()).thenReturn(new MongoNamespace(AIRPORT_DB_NAME, PLANE_COLLECTION_NAME));
+		when(flightCollection.getNamespace()).thenReturn(new MongoNamespace(AIRPORT_DB_NAME, FLIGHT_COLLECTION_NAME));
+
+		planeCache = new PlaneCache();
+		watcher = new ChangeStreamWatcher(client, planeCollection, flightCollection, listener);
+		watcher.setPlaneCache(planeCache);
+	}
+
+
+
+	@Test
+	public void testInsertedFlightIsPassedByNum() {
+		watcher.dispatch(change(OperationType.INSERT, FLIGHT_COLLECTION_NAME));
+
+		verify(listener).flightInserted(ID_FIXTURE.toHexString());
+		verifyNoMoreInteractions(listener);
+	}
+
+
+
+	@Test
+	public void testDeletedFlightIsPassedByNum() {
+		watcher.dispatch(change(OperationType.DELETE, FLIGHT_COLLECTION_NAME));
+
+		verify(listener).flightDeleted(ID_FIXTURE.toHexString());
+		verifyNoMoreInteractions(listener);
+	}
+
+
+
+	@Test
+	public void testInsertedPlaneIsPassedById() {
+		watcher.dispatch(change(OperationType.INSERT, PLANE_COLLECTION_NAME));
+
+		verify(listener).planeInserted(ID_FIXTURE.toHexString());
+		verifyNoMoreInteractions(listener);
+	}
+
+
+
+	@Test
+	public void testDeletedPlaneIsDroppedFromTheCache() {
+		planeCache.put(new Plane(ID_FIXTURE.toHexString(), "model-test"));
+
+		watcher.dispatch(change(OperationType.DELETE, PLANE_COLLECTION_NAME));
+
+		verify(listener).planeDeleted(ID_FIXTURE.toHexString());
+		assertThat(planeCache.size()).isZero();
+	}
+
+
+
+	@Test
+	public void testUpdatedPlaneIsDroppedFromTheCache() {
+		planeCache.put(new Plane(ID_FIXTURE.toHexString(), "model-test"));
+
+		watcher.dispatch(change(OperationType.UPDATE, PLANE_COLLECTION_NAME));
+
+		verify(listener).planeUpdated(ID_FIXTURE.toHexString());
+		verifyNoMoreInteractions(listener);
+		assertThat(planeCache.size()).isZero();
+	}
+
+
+
+	@Test
+	public void testReplacedFlightIsPassedByNum() {
+		watcher.dispatch(change(OperationType.REPLACE, FLIGHT_COLLECTION_NAME));
+
+		verify(listener).flightUpdated(ID_FIXTURE.toHexString());
+		verifyNoMoreInteractions(listener);
+	}
+
+
+
+	@Test
+	public void testDroppedCollectionResynchronizes() {
+		planeCache.put(new Plane(ID_FIXTURE.toHexString(), "model-test"));
+
+		watcher.dispatch(change(OperationType.DROP, FLIGHT_COLLECTION_NAME));
+
+		verify(listener).resynchronize();
+		assertThat(planeCache.size()).isZero();
+	}
+
+
+
+	@Test
+	public void testTheClusterTimeOfAChangeIsPassedBeforeTheListener() {
+		@SuppressWarnings("unchecked")
+		Consumer<BsonTimestamp> clusterTimes = mock(Consumer.class);
+		watcher.setClusterTimeListener(clusterTimes);
+
+		watcher.dispatch(change(OperationType.INSERT, FLIGHT_COLLECTION_NAME));
+
+		InOrder inOrder = inOrder(clusterTimes, listener);
+		inOrder.verify(clusterTimes).accept(CLUSTER_TIME);
+		inOrder.verify(listener).flightInserted(ID_FIXTURE.toHexString());
+	}
+
+
+
+	@Test
+	public void testFailingListenerDoesNotStopTheWatcher() {
+		doThrow(new IllegalStateException("failure")).when(listener).flightInserted(ID_FIXTURE.toHexString());
+
+		watcher.dispatch(change(OperationType.INSERT, FLIGHT_COLLECTION_NAME));
+		watcher.dispatch(change(OperationType.DELETE, FLIGHT_COLLECTION_NAME));
+
+		verify(listener).flightDeleted(ID_FIXTURE.toHexString());
+	}
+
+
+
+
+	//################ private methods #################
+
+	private static ChangeStreamDocument<Document> change(OperationType operationType, String collectionName) {
+		BsonDocument documentKey = new BsonDocument("_id", new BsonObjectId(ID_FIXTURE));
+		return new ChangeStreamDocument<>(new BsonDocument(), new MongoNamespace(AIRPORT_DB_NAME, collectionName),
+				null, documentKey, CLUSTER_TIME, operationType, null);
+	}
+}
@@ -4,11 +4,13 @@ import static org.junit.Assert.*;
 import static org.assertj.core.api.Assertions.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
+import static java.util.Arrays.asList;
 
 import java.io.IOException;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.bson.Document;
@@ -47,6 +49,7 @@ public class FlightRepositoryMongoTest {
 	private static final Plane PLANE_FIXTURE = new Plane("model-test");
 	private static final Flight FLIGHT_FIXTURE_1 = new Flight(new Date(), new Date(), "origin-test", "destination-test", PLANE_FIXTURE);
 	private static final Flight FLIGHT_FIXTURE_2 = new Flight(new Date(), new Date(), "origin-test", "destination-test", PLANE_FIXTURE);
+	private static final long THREE_DAYS = 3 * 24 * 3600000L;
 
 	private MongoClient client;
 	private FlightRepositoryMongo flightRepository;
@@ -139,6 +142,82 @@ public class FlightRepositoryMongoTest {
 
 
 	
+	@Test
+	public void testStreamAllFlightsResolvesPlanesAcrossBatches() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		Flight otherFlight = new Flight(new Date(), new Date(), "origin-test", "destination-test", otherPlane);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(otherFlight);
+		addTestFlightToRepository(FLIGHT_FIXTURE_2);
+		
+		try(Stream<Flight> flights = flightRepository.streamAllFlights(2)) {
+			assertThat(flights)
+				.containsExactly(
+						FLIGHT_FIXTURE_1,
+						otherFlight,
+						FLIGHT_FIXTURE_2);
+		}
+	}
+	
+	
+	
+	@Test
+	public void testFindFlightsPage() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		Flight otherFlight = new Flight(new Date(), new Date(), "origin-test", "destination-test", otherPlane);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(otherFlight);
+		addTestFlightToRepository(FLIGHT_FIXTURE_2);
+		
+		assertThat(flightRepository.findFlightsPage(1, 5))
+			.containsExactly(otherFlight, FLIGHT_FIXTURE_2);
+		assertThat(flightRepository.findFlightsPage(3, 5))
+			.isEmpty();
+	}
+	
+	
+	
+	@Test
+	public void testFindFlightsPageAfter() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		Flight otherFlight = new Flight(new Date(), new Date(), "origin-test", "destination-test", otherPlane);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(otherFlight);
+		addTestFlightToRepository(FLIGHT_FIXTURE_2);
+		
+		assertThat(flightRepository.findFlightsPageAfter(FLIGHT_FIXTURE_1.getFlightNum(), 5))
+			.containsExactly(otherFlight, FLIGHT_FIXTURE_2);
+		assertThat(flightRepository.findFlightsPageAfter(FLIGHT_FIXTURE_2.getFlightNum(), 5))
+			.isEmpty();
+	}
+	
+	
+	
+	@Test
+	public void testCountFlights() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(FLIGHT_FIXTURE_2);
+		
+		assertThat(flightRepository.countFlights()).isEqualTo(2);
+	}
+	
+	
+	
+	@Test
+	public void testStreamAllFlightsWhenBatchSizeIsNotPositive() {
+		assertThatThrownBy(() -> flightRepository.streamAllFlights(0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+	
+	
+	
 	@Test
 	public void testFindByNumNotFound() {
 		assertThat(flightRepository.findByNum(""+new ObjectId())).isNull();
@@ -169,6 +248,16 @@ public class FlightRepositoryMongoTest {
 
 
 	
+	@Test
+	public void testSaveFlights() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		List<Flight> returnFlights = flightRepository.saveFlights(asList(FLIGHT_FIXTURE_1, FLIGHT_FIXTURE_2));
+		assertThat(readAllFlightsFromRepository()).containsExactly(FLIGHT_FIXTURE_1, FLIGHT_FIXTURE_2);
+		assertThat(returnFlights).extracting(Flight::getFlightNum).doesNotContainNull();
+	}
+
+
+	
 	@Test
 	public void testDeleteFlight() {
 		addTestPlaneToRepository(PLANE_FIXTURE);		
@@ -180,7 +269,259 @@ public class FlightRepositoryMongoTest {
 	
 	
 	
+	@Test
+	public void testDeleteFlights() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(FLIGHT_FIXTURE_2);
+		
+		long deleted = flightRepository.deleteFlights(asList(FLIGHT_FIXTURE_1.getFlightNum(), "not-an-id"));
+		assertEquals(1, deleted);
+		assertThat(readAllFlightsFromRepository()).containsExactly(FLIGHT_FIXTURE_2);
+	}
+	
+	
+	
+	@Test
+	public void testDeleteFlightsByPlaneIdAndByDepartureRange() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		Flight early = new Flight(new Date(1000), new Date(2000), "origin-test", "destination-test", otherPlane);
+		Flight late = new Flight(new Date(5000), new Date(6000), "origin-test", "destination-test", otherPlane);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(early);
+		addTestFlightToRepository(late);
+		
+		assertEquals(1, flightRepository.deleteFlightsByPlaneId(PLANE_FIXTURE.getId()));
+		assertEquals(1, flightRepository.deleteFlightsWithDepartureBetween(new Date(0), new Date(3000)));
+		assertThat(readAllFlightsFromRepository()).containsExactly(late);
+	}
+	
+	
+	
+	@Test
+	public void testCountFlightsByPlaneIdAndByDepartureRange() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(new Flight(new Date(1000), new Date(2000), "origin-test", "destination-test", otherPlane));
+		addTestFlightToRepository(new Flight(new Date(5000), new Date(6000), "origin-test", "destination-test", otherPlane));
+		
+		assertEquals(2, flightRepository.countFlightsByPlaneId(otherPlane.getId()));
+		assertEquals(1, flightRepository.countFlightsWithDepartureBetween(new Date(0), new Date(3000)));
+		assertThat(readAllFlightsFromRepository()).hasSize(3);
+	}
+	
+	
+	
+	@Test
+	public void testFindPlaneIdsWithFlights() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(FLIGHT_FIXTURE_2);
+		
+		assertThat(flightRepository.findPlaneIdsWithFlights(asList(PLANE_FIXTURE.getId(), otherPlane.getId())))
+			.containsExactly(PLANE_FIXTURE.getId());
+	}
+	
+	
+	
+	@Test
+	public void testFindBusyPlaneIds() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		addTestFlightToRepository(new Flight(new Date(1000), new Date(2000), "origin-test", "destination-test", PLANE_FIXTURE));
+		addTestFlightToRepository(new Flight(new Date(2000), new Date(3000), "origin-test", "destination-test", otherPlane));
+		
+		assertThat(flightRepository.findBusyPlaneIds(new Date(1500), new Date(2000)))
+			.containsExactly(PLANE_FIXTURE.getId());
+	}
+	
+	
+	
+	@Test
+	public void testFindBusyPlaneIdsFindsAFlightOfSeveralDays() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		addTestFlightToRepository(new Flight(new Date(0), new Date(THREE_DAYS), "origin-test", "destination-test", PLANE_FIXTURE));
+		addTestFlightToRepository(new Flight(new Date(0), new Date(1000), "origin-test", "destination-test", otherPlane));
+		
+		assertThat(flightRepository.findBusyPlaneIds(new Date(THREE_DAYS - 1000), new Date(THREE_DAYS + 1000)))
+			.containsExactly(PLANE_FIXTURE.getId());
+	}
+	
+	
+	
+	@Test
+	public void testFindByOrigin() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		Flight otherFlight = new Flight(new Date(), new Date(), "other-origin-test", "destination-test", PLANE_FIXTURE);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(otherFlight);
+		
+		assertThat(flightRepository.findByOrigin("origin-test"))
+			.containsExactly(FLIGHT_FIXTURE_1);
+	}
+	
+	
+	
+	@Test
+	public void testFindByOriginIgnoresCase() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		
+		assertThat(flightRepository.findByOrigin("ORIGIN-Test"))
+			.containsExactly(FLIGHT_FIXTURE_1);
+	}
+	
+	
+	
+	@Test
+	public void testFindByDestination() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		Flight otherFlight = new Flight(new Date(), new Date(), "origin-test", "other-destination-test", PLANE_FIXTURE);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(otherFlight);
+		
+		assertThat(flightRepository.findByDestination("other-destination-test"))
+			.containsExactly(otherFlight);
+	}
+	
+	
+	
+	@Test
+	public void testFindByDepartureBetweenExcludesBounds() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		Flight first = new Flight(new Date(1000), new Date(5000), "origin-test", "destination-test", PLANE_FIXTURE);
+		Flight second = new Flight(new Date(2000), new Date(5000), "origin-test", "destination-test", PLANE_FIXTURE);
+		Flight third = new Flight(new Date(3000), new Date(5000), "origin-test", "destination-test", PLANE_FIXTURE);
+		addTestFlightToRepository(first);
+		addTestFlightToRepository(second);
+		addTestFlightToRepository(third);
+		
+		assertThat(flightRepository.findByDepartureBetween(new Date(1000), new Date(3000)))
+			.containsExactly(second);
+	}
+	
+	
+	
+	@Test
+	public void testFindByArrivalBetweenExcludesBounds() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		Flight first = new Flight(new Date(0), new Date(1000), "origin-test", "destination-test", PLANE_FIXTURE);
+		Flight second = new Flight(new Date(0), new Date(2000), "origin-test", "destination-test", PLANE_FIXTURE);
+		Flight third = new Flight(new Date(0), new Date(3000), "origin-test", "destination-test", PLANE_FIXTURE);
+		addTestFlightToRepository(first);
+		addTestFlightToRepository(second);
+		addTestFlightToRepository(third);
+		
+		assertThat(flightRepository.findByArrivalBetween(new Date(1000), new Date(3000)))
+			.containsExactly(second);
+	}
+	
+	
+	
+	@Test
+	public void testFindByPlaneId() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		Flight otherFlight = new Flight(new Date(), new Date(), "origin-test", "destination-test", otherPlane);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		addTestFlightToRepository(otherFlight);
+		
+		assertThat(flightRepository.findByPlaneId(otherPlane.getId()))
+			.containsExactly(otherFlight);
+	}
+	
+	
+	
+	
+	@Test
+	public void testFindAnyFlightNumByPlaneIdWhenExist() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
 		
+		assertThat(flightRepository.findAnyFlightNumByPlaneId(PLANE_FIXTURE.getId()))
+			.isEqualTo(FLIGHT_FIXTURE_1.getFlightNum());
+	}
+	
+	
+	
+	@Test
+	public void testFindAnyFlightNumByPlaneIdWhenNoExist() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestFlightToRepository(FLIGHT_FIXTURE_1);
+		
+		assertThat(flightRepository.findAnyFlightNumByPlaneId(""+new ObjectId()))
+			.isNull();
+	}
+	
+	
+	
+	@Test
+	public void testFindOverlappingFlights() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		Flight before = new Flight(new Date(0), new Date(1000), "origin-test", "destination-test", PLANE_FIXTURE);
+		Flight overlapping = new Flight(new Date(1500), new Date(2500), "origin-test", "destination-test", PLANE_FIXTURE);
+		Flight after = new Flight(new Date(3000), new Date(4000), "origin-test", "destination-test", PLANE_FIXTURE);
+		Flight otherPlaneFlight = new Flight(new Date(1500), new Date(2500), "origin-test", "destination-test", otherPlane);
+		addTestFlightToRepository(before);
+		addTestFlightToRepository(overlapping);
+		addTestFlightToRepository(after);
+		addTestFlightToRepository(otherPlaneFlight);
+		
+		assertThat(flightRepository.findOverlappingFlights(PLANE_FIXTURE.getId(), new Date(1000), new Date(3000)))
+			.containsExactly(overlapping);
+	}
+	
+	
+	
+	@Test
+	public void testFindOverlappingFlightsFindsAFlightOfSeveralDays() {
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		Flight longest = new Flight(new Date(0), new Date(THREE_DAYS), "origin-test", "destination-test", PLANE_FIXTURE);
+		addTestFlightToRepository(longest);
+		
+		assertThat(flightRepository.findOverlappingFlights(PLANE_FIXTURE.getId(), 
+				new Date(THREE_DAYS - 1000), new Date(THREE_DAYS + 1000)))
+			.containsExactly(longest);
+	}
+	
+	
+	
+	
+	@Test
+	public void testFindOverlappingFlightsOfSeveralPlanes() {
+		Plane otherPlane = new Plane("other-model-test");
+		Plane thirdPlane = new Plane("third-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE);
+		addTestPlaneToRepository(otherPlane);
+		addTestPlaneToRepository(thirdPlane);
+		Flight overlapping = new Flight(new Date(1500), new Date(2500), "origin-test", "destination-test", PLANE_FIXTURE);
+		Flight after = new Flight(new Date(3000), new Date(4000), "origin-test", "destination-test", PLANE_FIXTURE);
+		Flight otherPlaneFlight = new Flight(new Date(500), new Date(1500), "origin-test", "destination-test", otherPlane);
+		Flight thirdPlaneFlight = new Flight(new Date(1500), new Date(2500), "origin-test", "destination-test", thirdPlane);
+		addTestFlightToRepository(overlapping);
+		addTestFlightToRepository(after);
+		addTestFlightToRepository(otherPlaneFlight);
+		addTestFlightToRepository(thirdPlaneFlight);
+		
+		assertThat(flightRepository.findOverlappingFlights(asList(PLANE_FIXTURE.getId(), otherPlane.getId()), new Date(1000), new Date(3000)))
+			.containsExactlyInAnyOrder(overlapping, otherPlaneFlight);
+	}
+	
+	
+	
+	
 	//################ private methods #################
 
 	private void addTestFlightToRepository(Flight flight) {
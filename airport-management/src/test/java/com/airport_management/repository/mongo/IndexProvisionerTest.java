@@ -0,0 +1,179 @@
+package com.airport_management.repository.mongo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.testcontainers.containers.GenericContainer;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+
+
+public class IndexProvisionerTest {
+
+	@SuppressWarnings("rawtypes")
+	@ClassRule
+	public static GenericContainer mongo = new GenericContainer("mongo:4.2.3")
+	        .withExposedPorts(27017)
+	        .withCommand("--replSet rs0");
+
+
+	private static final String AIRPORT_DB_NAME = "airport";
+	private static final String PLANE_COLLECTION_NAME = "plane";
+	private static final String FLIGHT_COLLECTION_NAME = "flight";
+
+	private MongoClient client;
+	private MongoDatabase database;
+
+
+	@BeforeClass
+	public static void init() throws UnsupportedOperationException, IOException, InterruptedException {
+		mongo.start();
+		mongo.execInContainer("/bin/bash", "-c", "mongo --eval 'rs.initiate()' --quiet");
+		mongo.execInContainer("/bin/bash", "-c",
+		            "until mongo --eval 'rs.isMaster()' | grep ismaster | grep true > /dev/null 2>&1;do sleep 1;done");
+	}
+
+
+	@Before
+	public void setUp() {
+		client = new MongoClient(
+				new ServerAddress(
+						mongo.getContainerIpAddress(),
+						mongo.getMappedPort(27017)));
+
+		database = client.getDatabase(AIRPORT_DB_NAME);
+		database.drop();
+	}
+
+
+
+	@Test
+	public void testEnsureIndexesCreatesMissingIndexes() {
+		List<String> report = IndexProvisioner.ensureIndexes(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME);
+
+		assertThat(report).containsExactly(
+				"plane.model_1_ci created",
+				"flight.origin_1_ci created",
+				"flight.destination_1_ci created",
+				"flight.departure_date_1 created",
+				"flight.arrival_date_1 created",
+				"flight.plane_id_1_departure_date_1_arrival_date_1 created",
+				"flight.plane_id_1_arrival_date_1_departure_date_1 created");
+		assertThat(indexNames(FLIGHT_COLLECTION_NAME))
+			.contains("origin_1_ci", "plane_id_1_departure_date_1_arrival_date_1");
+		assertThat(indexNames(PLANE_COLLECTION_NAME))
+			.contains("model_1_ci");
+	}
+
+
+
+	@Test
+	public void testEnsureIndexesRunsOncePerClient() {
+		IndexProvisioner.ensureIndexes(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME);
+
+		assertThat(IndexProvisioner.ensureIndexes(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME))
+			.isEmpty();
+	}
+
+
+
+	@Test
+	public void testEnsureIndexesReportsExistingIndexes() {
+		IndexProvisioner.ensureIndexes(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME);
+		MongoClient otherClient = new MongoClient(
+				new ServerAddress(
+						mongo.getContainerIpAddress(),
+						mongo.getMappedPort(27017)));
+
+		assertThat(IndexProvisioner.ensureIndexes(otherClient, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME))
+			.contains(
+					"plane.model_1_ci already present",
+					"flight.origin_1_ci already present");
+	}
+
+
+
+
+	@Test
+	public void testEnsureIndexesIsMadeAgainAfterAFailure() {
+		MongoClient unreachable = mock(MongoClient.class);
+		when(unreachable.getDatabase(AIRPORT_DB_NAME)).thenThrow(new MongoTimeoutException("no primary"));
+
+		assertThatThrownBy(() -> IndexProvisioner.ensureIndexes(unreachable, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME))
+			.isInstanceOf(MongoTimeoutException.class);
+		assertThatThrownBy(() -> IndexProvisioner.ensureIndexes(unreachable, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME))
+			.isInstanceOf(MongoTimeoutException.class);
+		verify(unreachable, times(2)).getDatabase(AIRPORT_DB_NAME);
+	}
+
+
+
+	@Test
+	public void testEnsureIndexesReportsAnIndexWithTheSameNameAndOtherKeys() {
+		database.getCollection(FLIGHT_COLLECTION_NAME)
+			.createIndex(Indexes.descending("origin"), new IndexOptions().name("origin_1_ci"));
+
+		assertThat(IndexProvisioner.ensureIndexes(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME))
+			.contains("flight.origin_1_ci has keys {\"origin\": -1} instead of [origin], not created");
+	}
+
+
+
+	@Test
+	public void testEnsureIndexesReportsAnIndexWithTheSameNameAndAnotherCollation() {
+		database.getCollection(FLIGHT_COLLECTION_NAME)
+			.createIndex(Indexes.ascending("origin"), new IndexOptions().name("origin_1_ci"));
+
+		assertThat(IndexProvisioner.ensureIndexes(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME))
+			.contains("flight.origin_1_ci has another collation than en strength 2, not created");
+	}
+
+
+
+	@Test
+	public void testEnsureIndexesDoesNotTakeACaseSensitiveIndexForTheSearches() {
+		database.getCollection(FLIGHT_COLLECTION_NAME)
+			.createIndex(Indexes.ascending("origin"), new IndexOptions().name("origin_1"));
+
+		assertThat(IndexProvisioner.ensureIndexes(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME))
+			.contains("flight.origin_1_ci created");
+		assertThat(indexNames(FLIGHT_COLLECTION_NAME)).contains("origin_1", "origin_1_ci");
+	}
+
+
+
+	@Test
+	public void testEnsureIndexesReportsTheSameKeysUnderAnotherName() {
+		database.getCollection(FLIGHT_COLLECTION_NAME)
+			.createIndex(Indexes.ascending("destination"), new IndexOptions().name("by_destination").collation(RepositoryMongo.IGNORE_CASE));
+
+		assertThat(IndexProvisioner.ensureIndexes(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME))
+			.contains("flight.destination_1_ci already present as by_destination");
+		assertThat(indexNames(FLIGHT_COLLECTION_NAME)).doesNotContain("destination_1_ci");
+	}
+
+
+
+
+	//################ private methods #################
+
+	private List<String> indexNames(String collectionName) {
+		return database.getCollection(collectionName).listIndexes()
+				.map(d -> d.getString("name"))
+				.into(new ArrayList<String>());
+	}
+}
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static java.util.Arrays.asList;
 
 import java.io.IOException;
 import java.util.List;
@@ -27,6 +28,7 @@ import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.airport_management.model.Plane;
+import com.airport_management.repository.PlaneCache;
 
 
 public class PlaneRepositoryMongoTest {
@@ -143,6 +145,147 @@ public class PlaneRepositoryMongoTest {
 	
 	
 	
+	@Test
+	public void testFindByIdsReturnsOnlyExistingPlanes() {
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		addTestPlaneToRepository(PLANE_FIXTURE_2);
+		
+		assertThat(planeRepository.findByIds(asList(PLANE_FIXTURE_1.getId(), ""+new ObjectId(), "not-an-id")))
+			.containsOnly(entry(PLANE_FIXTURE_1.getId(), PLANE_FIXTURE_1));
+	}
+	
+	
+	
+	@Test
+	public void testFindByIdsWhenNoIds() {
+		assertThat(planeRepository.findByIds(asList())).isEmpty();
+	}
+	
+	
+	
+	@Test
+	public void testFindByModel() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		addTestPlaneToRepository(otherPlane);
+		
+		assertThat(planeRepository.findByModel("other-model-test"))
+			.containsExactly(otherPlane);
+	}
+	
+	
+	
+	@Test
+	public void testFindByModelIgnoresCase() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(otherPlane);
+		
+		assertThat(planeRepository.findByModel("Other-Model-TEST"))
+			.containsExactly(otherPlane);
+	}
+	
+	
+	
+	@Test
+	public void testFindPlanesPage() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		addTestPlaneToRepository(PLANE_FIXTURE_2);
+		addTestPlaneToRepository(otherPlane);
+		
+		assertThat(planeRepository.findPlanesPage(1, 1))
+			.containsExactly(PLANE_FIXTURE_2);
+		assertThat(planeRepository.findPlanesPage(2, 5))
+			.containsExactly(otherPlane);
+	}
+	
+	
+	
+	@Test
+	public void testFindPlanesPageAfter() {
+		Plane otherPlane = new Plane("other-model-test");
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		addTestPlaneToRepository(PLANE_FIXTURE_2);
+		addTestPlaneToRepository(otherPlane);
+		
+		assertThat(planeRepository.findPlanesPageAfter(PLANE_FIXTURE_1.getId(), 1))
+			.containsExactly(PLANE_FIXTURE_2);
+		assertThat(planeRepository.findPlanesPageAfter(otherPlane.getId(), 5))
+			.isEmpty();
+	}
+	
+	
+	
+	@Test
+	public void testCountPlanes() {
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		addTestPlaneToRepository(PLANE_FIXTURE_2);
+		
+		assertThat(planeRepository.countPlanes()).isEqualTo(2);
+	}
+	
+	
+	
+	@Test
+	public void testFindByIdIsServedFromTheCache() {
+		PlaneCache planeCache = new PlaneCache();
+		planeRepository.setPlaneCache(planeCache);
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		planeRepository.findById(PLANE_FIXTURE_1.getId());
+		
+		planeCollection.deleteMany(new Document());
+		
+		assertThat(planeRepository.findById(PLANE_FIXTURE_1.getId())).isEqualTo(PLANE_FIXTURE_1);
+		assertThat(planeCache.getHitCount()).isEqualTo(1);
+	}
+	
+	
+	
+	@Test
+	public void testFindByIdsQueriesOnlyTheMissingIds() {
+		PlaneCache planeCache = new PlaneCache();
+		planeRepository.setPlaneCache(planeCache);
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		addTestPlaneToRepository(PLANE_FIXTURE_2);
+		planeRepository.findById(PLANE_FIXTURE_1.getId());
+		
+		assertThat(planeRepository.findByIds(asList(PLANE_FIXTURE_1.getId(), PLANE_FIXTURE_2.getId())))
+			.containsValues(PLANE_FIXTURE_1, PLANE_FIXTURE_2);
+		assertThat(planeCache.size()).isEqualTo(2);
+	}
+	
+	
+	
+	@Test
+	public void testDeletePlaneInvalidatesTheCache() {
+		PlaneCache planeCache = new PlaneCache();
+		planeRepository.setPlaneCache(planeCache);
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		planeRepository.findById(PLANE_FIXTURE_1.getId());
+		
+		planeRepository.deletePlane(PLANE_FIXTURE_1);
+		
+		assertThat(planeRepository.findById(PLANE_FIXTURE_1.getId())).isNull();
+		assertThat(planeRepository.getInvalidatedIds()).containsExactly(PLANE_FIXTURE_1.getId());
+	}
+	
+	
+	
+	@Test
+	public void testCacheIsBypassedInsideATransaction() {
+		PlaneCache planeCache = new PlaneCache();
+		planeRepository.setPlaneCache(planeCache);
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		
+		planeRepository.getClientSession().startTransaction();
+		planeRepository.findById(PLANE_FIXTURE_1.getId());
+		planeRepository.getClientSession().abortTransaction();
+		
+		assertThat(planeCache.size()).isZero();
+	}
+	
+	
+	
 	@Test
 	public void testSavePlane() {
 		Plane returnPlane = planeRepository.savePlane(PLANE_FIXTURE_1);
@@ -164,6 +307,36 @@ public class PlaneRepositoryMongoTest {
 	
 	
 	
+	@Test
+	public void testDeletePlanes() {
+		Plane otherPlane = new Plane("model3-test");
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		addTestPlaneToRepository(PLANE_FIXTURE_2);
+		addTestPlaneToRepository(otherPlane);
+		
+		long deleted = planeRepository.deletePlanes(asList(PLANE_FIXTURE_1.getId(), PLANE_FIXTURE_2.getId()));
+		assertEquals(2, deleted);
+		assertThat(readAllPlanesFromRepository())
+			.containsExactly(otherPlane);
+	}
+	
+	
+	
+	@Test
+	public void testFindPlanesExcept() {
+		Plane otherPlane = new Plane("model1-test");
+		addTestPlaneToRepository(PLANE_FIXTURE_1);
+		addTestPlaneToRepository(PLANE_FIXTURE_2);
+		addTestPlaneToRepository(otherPlane);
+		
+		assertThat(planeRepository.findPlanesExcept(asList(PLANE_FIXTURE_1.getId()), null))
+			.containsExactly(PLANE_FIXTURE_2, otherPlane);
+		assertThat(planeRepository.findPlanesExcept(asList(PLANE_FIXTURE_1.getId()), "model1-test"))
+			.containsExactly(otherPlane);
+	}
+	
+	
+	
 	
 	// ########## private methods ###########
 	
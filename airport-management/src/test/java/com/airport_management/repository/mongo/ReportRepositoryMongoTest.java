@@ -0,0 +1,122 @@
+package com.airport_management.repository.mongo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Date;
+
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.testcontainers.containers.GenericContainer;
+
+import com.mongodb.MongoClient;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+
+import com.airport_management.model.PlaneUtilisation;
+
+
+public class ReportRepositoryMongoTest {
+
+	@SuppressWarnings("rawtypes")
+	@ClassRule
+	public static GenericContainer mongo = new GenericContainer("mongo:4.2.3")
+	        .withExposedPorts(27017)
+	        .withCommand("--replSet rs0");
+	
+
+	private static final String AIRPORT_DB_NAME = "airport";
+	private static final String PLANE_COLLECTION_NAME = "plane";
+	private static final String FLIGHT_COLLECTION_NAME = "flight";
+
+	private MongoClient client;
+	private ReportRepositoryMongo reportRepository;
+	private MongoCollection<Document> flightCollection;
+	private MongoCollection<Document> planeCollection;
+
+	
+	@BeforeClass
+	public static void init() throws UnsupportedOperationException, IOException, InterruptedException {
+		mongo.start();
+		mongo.execInContainer("/bin/bash", "-c", "mongo --eval 'rs.initiate()' --quiet");
+		mongo.execInContainer("/bin/bash", "-c",
+		            "until mongo --eval 'rs.isMaster()' | grep ismaster | grep true > /dev/null 2>&1;do sleep 1;done");
+	}
+	
+	
+	@Before
+	public void setUp() {
+		client = new MongoClient(
+				new ServerAddress(
+						mongo.getContainerIpAddress(), 
+						mongo.getMappedPort(27017)));
+		
+		MongoDatabase database = client.getDatabase(AIRPORT_DB_NAME);
+		database.drop();
+		planeCollection = RepositoryMongo.resolveCollection(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME);
+		flightCollection = RepositoryMongo.resolveCollection(client, AIRPORT_DB_NAME, FLIGHT_COLLECTION_NAME);
+		reportRepository = new ReportRepositoryMongo(planeCollection, flightCollection);
+		reportRepository.setClientSession(client.startSession());
+	}
+	
+	
+	
+	@Test
+	public void testFlightsAreClippedToTheRange() {
+		String busyPlane = addTestPlaneToRepository("model1-test");
+		String idlePlane = addTestPlaneToRepository("model2-test");
+		addTestFlightToRepository(busyPlane, -1000, 1000);
+		addTestFlightToRepository(busyPlane, 3000, 4000);
+		addTestFlightToRepository(busyPlane, 9000, 12000);
+		addTestFlightToRepository(idlePlane, 20000, 30000);
+		
+		assertThat(reportRepository.findPlaneUtilisation(new Date(0), new Date(10000)))
+			.containsExactly(
+					new PlaneUtilisation(busyPlane, "model1-test", 3, 3000, 7000, 5000),
+					new PlaneUtilisation(idlePlane, "model2-test", 0, 0, 10000, 10000));
+	}
+	
+	
+	
+	@Test
+	public void testLongestIdleCountsTheEndOfTheRange() {
+		String plane = addTestPlaneToRepository("model-test");
+		addTestFlightToRepository(plane, 1000, 2000);
+		
+		assertThat(reportRepository.findPlaneUtilisation(new Date(0), new Date(10000)))
+			.containsExactly(new PlaneUtilisation(plane, "model-test", 1, 1000, 9000, 8000));
+	}
+	
+	
+	
+	@Test
+	public void testEmptyDatabase() {
+		assertThat(reportRepository.findPlaneUtilisation(new Date(0), new Date(10000))).isEmpty();
+	}
+	
+	
+	
+	
+	//################ private methods #################
+	
+	private String addTestPlaneToRepository(String model) {
+		Document newDocument = new Document("model", model);
+		planeCollection.insertOne(newDocument);
+		return newDocument.get("_id").toString();
+	}
+	
+	
+	
+	private void addTestFlightToRepository(String planeId, long departure, long arrival) {
+		flightCollection.insertOne(new Document()
+				.append("departure_date", new Date(departure))
+				.append("arrival_date", new Date(arrival))
+				.append("origin", "origin-test")
+				.append("destination", "destination-test")
+				.append("plane_id", planeId));
+	}
+}
@@ -3,6 +3,7 @@ package com.airport_management.repository.mongo;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -76,4 +77,23 @@ public class RepositoryMongoTest {
 		FlightRepositoryMongo flightRepository = repositoryMongo.createFlightRepository();
 		assertTrue(flightRepository instanceof FlightRepository);
 	}
+	
+	
+	
+	@Test
+	public void testCreateRepositoriesReusesInstancesWithinTheSession() {
+		PlaneRepositoryMongo planeRepository = repositoryMongo.createPlaneRepository();
+		FlightRepositoryMongo flightRepository = repositoryMongo.createFlightRepository();
+		assertSame(planeRepository, repositoryMongo.createPlaneRepository());
+		assertSame(flightRepository, repositoryMongo.createFlightRepository());
+		assertSame(clientSession, flightRepository.getClientSession());
+	}
+	
+	
+	
+	@Test
+	public void testResolveCollectionCreatesMissingCollection() {
+		RepositoryMongo.resolveCollection(client, AIRPORT_DB_NAME, "other");
+		assertTrue(client.getDatabase(AIRPORT_DB_NAME).listCollectionNames().into(new ArrayList<String>()).contains("other"));
+	}
 }
@@ -0,0 +1,114 @@
+package com.airport_management.service_layer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.airport_management.model.Flight;
+import com.airport_management.service_layer.FlightImportParser.Format;
+import com.airport_management.service_layer.FlightImportParser.Row;
+
+
+public class FlightImportParserTest {
+
+	private static final Date DEPARTURE = Date.from(Instant.parse("2026-01-01T10:00:00Z"));
+	private static final Date ARRIVAL = Date.from(Instant.parse("2026-01-01T12:00:00Z"));
+
+
+
+	@Test
+	public void testCsvColumnsAreReadByTheirHeader() throws IOException {
+		FlightImportParser parser = parser(Format.CSV,
+				"plane_id,origin,destination,departure_date,arrival_date\n" +
+				"id1-test,\"Rome, Fiumicino\",Milan,2026-01-01T10:00:00Z,2026-01-01T12:00:00Z\n");
+
+		Row row = parser.next();
+
+		assertThat(row.getLine()).isEqualTo(2);
+		assertThat(row.getError()).isNull();
+		Flight flight = row.getFlight();
+		assertThat(flight.getOrigin()).isEqualTo("Rome, Fiumicino");
+		assertThat(flight.getDestination()).isEqualTo("Milan");
+		assertThat(flight.getDepartureDate()).isEqualTo(DEPARTURE);
+		assertThat(flight.getArrivalDate()).isEqualTo(ARRIVAL);
+		assertThat(flight.getPlane().getId()).isEqualTo("id1-test");
+		assertThat(parser.next()).isNull();
+	}
+
+
+
+	@Test
+	public void testMalformedCsvRowsBecomeErrors() throws IOException {
+		FlightImportParser parser = parser(Format.CSV,
+				"departure_date,arrival_date,origin,destination,plane_id\n" +
+				"2026-01-01T10:00:00Z,2026-01-01T12:00:00Z,origin\n" +
+				"\n" +
+				"2026-01-01T10:00:00Z,2026-01-01T12:00:00Z,origin,destination,\n" +
+				"2026-01-01T10:00:00Z,2026-01-01T12:00:00Z,origin,destination,id1-test\n");
+
+		assertThat(parser.next().getError()).isEqualTo("expected 5 columns, found 3");
+		Row missing = parser.next();
+		assertThat(missing.getLine()).isEqualTo(4);
+		assertThat(missing.getError()).isEqualTo("missing plane_id");
+		assertThat(parser.next().getFlight()).isNotNull();
+	}
+
+
+
+	@Test
+	public void testJsonLinesWithStringAndExtendedJsonDates() throws IOException {
+		FlightImportParser parser = parser(Format.JSON_LINES,
+				"{\"departure_date\": \"2026-01-01T10:00:00Z\", \"arrival_date\": {\"$date\": \"2026-01-01T12:00:00Z\"}, " +
+				"\"origin\": \"origin\", \"destination\": \"destination\", \"plane_id\": \"id1-test\"}\n" +
+				"{not json\n");
+
+		Flight flight = parser.next().getFlight();
+		assertThat(flight.getDepartureDate()).isEqualTo(DEPARTURE);
+		assertThat(flight.getArrivalDate()).isEqualTo(ARRIVAL);
+
+		Row malformed = parser.next();
+		assertThat(malformed.getLine()).isEqualTo(2);
+		assertThat(malformed.getFlight()).isNull();
+		assertThat(malformed.getError()).isNotNull();
+	}
+
+
+
+	@Test
+	public void testDatesWithoutOffsetAreReadInTheZone() throws IOException {
+		FlightImportParser parser = new FlightImportParser(new StringReader(
+				"{\"departure_date\": \"2026-01-01T11:00:00\", \"arrival_date\": \"2026-01-01T13:00:00\", " +
+				"\"origin\": \"origin\", \"destination\": \"destination\", \"plane_id\": \"id1-test\"}"),
+				Format.JSON_LINES, ZoneOffset.ofHours(1));
+
+		assertThat(parser.next().getFlight().getDepartureDate()).isEqualTo(DEPARTURE);
+	}
+
+
+
+	@Test
+	public void testFormatFromTheFileName() {
+		assertThat(Format.of("summer.CSV")).isEqualTo(Format.CSV);
+		assertThat(Format.of("summer.jsonl")).isEqualTo(Format.JSON_LINES);
+	}
+
+
+
+	@Test
+	public void testSplitCsvWithDoubledQuotes() {
+		assertThat(FlightImportParser.splitCsv("a,\"b \"\"c\"\"\", d"))
+			.containsExactly("a", "b \"c\"", "d");
+	}
+
+
+
+	private static FlightImportParser parser(Format format, String text) {
+		return new FlightImportParser(new StringReader(text), format);
+	}
+}
@@ -0,0 +1,100 @@
+package com.airport_management.service_layer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static java.util.Arrays.asList;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.airport_management.model.Flight;
+import com.airport_management.model.Plane;
+
+
+public class FlightScheduleTest {
+
+	private static final Plane PLANE_FIXTURE_1 = new Plane("id1-test", "model-test");
+	private static final Plane PLANE_FIXTURE_2 = new Plane("id2-test", "model-test");
+
+	private FlightSchedule schedule;
+
+
+	@Before
+	public void setUp() {
+		schedule = new FlightSchedule();
+		schedule.setEnabled(true);
+	}
+
+
+
+	@Test
+	public void testAScheduleThatIsOffIsNeverLoaded() {
+		schedule.setEnabled(false);
+
+		assertThat(schedule.load(asList(flight("num1", PLANE_FIXTURE_1, 10, 20)), schedule.version())).isFalse();
+		assertThat(schedule.busyPlaneIds(new Date(0), new Date(30))).isNull();
+	}
+
+
+
+	@Test
+	public void testALoadAfterAChangeIsRefused() {
+		long version = schedule.version();
+		schedule.remove("num2");
+
+		assertThat(schedule.load(asList(flight("num1", PLANE_FIXTURE_1, 10, 20)), version)).isFalse();
+		assertThat(schedule.isLoaded()).isFalse();
+		assertThat(schedule.load(asList(flight("num1", PLANE_FIXTURE_1, 10, 20)), schedule.version())).isTrue();
+		assertThat(schedule.busyPlaneIds(new Date(0), new Date(30))).containsExactly("id1-test");
+	}
+
+
+
+	@Test
+	public void testAnAddedFlightReplacesTheOneWithItsNum() {
+		schedule.load(asList(flight("num1", PLANE_FIXTURE_1, 10, 20)), schedule.version());
+
+		schedule.add(flight("num1", PLANE_FIXTURE_2, 30, 40));
+
+		assertThat(schedule.size()).isEqualTo(1);
+		assertThat(schedule.busyPlaneIds(new Date(10), new Date(20))).isEmpty();
+		assertThat(schedule.busyPlaneIds(new Date(30), new Date(40))).containsExactly("id2-test");
+	}
+
+
+
+	@Test
+	public void testRemovedFlightsFreeTheirPlanes() {
+		schedule.load(asList(
+				flight("num1", PLANE_FIXTURE_1, 10, 20),
+				flight("num2", PLANE_FIXTURE_2, 10, 20),
+				flight("num3", PLANE_FIXTURE_2, 30, 40)), schedule.version());
+
+		schedule.remove("num1");
+		schedule.removeIf(flight -> flight.getDepartureDate().getTime() < 25);
+
+		assertThat(schedule.size()).isEqualTo(1);
+		assertThat(schedule.busyPlaneIds(new Date(0), new Date(25))).isEmpty();
+		assertThat(schedule.busyPlaneIds(new Date(0), new Date(50))).containsExactly("id2-test");
+	}
+
+
+
+	@Test
+	public void testAnInvalidatedScheduleIsLoadedAgain() {
+		schedule.load(asList(flight("num1", PLANE_FIXTURE_1, 10, 20)), schedule.version());
+
+		schedule.invalidate();
+
+		assertThat(schedule.isLoaded()).isFalse();
+		assertThat(schedule.size()).isZero();
+		assertThat(schedule.busyPlaneIds(new Date(0), new Date(30))).isNull();
+	}
+
+
+
+	private static Flight flight(String num, Plane plane, long departure, long arrival) {
+		return new Flight(num, new Date(departure), new Date(arrival), "origin-test", "destination-test", plane);
+	}
+}
@@ -0,0 +1,107 @@
+package com.airport_management.service_layer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.airport_management.model.Flight;
+import com.airport_management.model.Plane;
+
+
+public class PlaneScheduleIndexTest {
+
+	private static final Plane PLANE_FIXTURE_1 = new Plane("id1-test", "model-test");
+	private static final Plane PLANE_FIXTURE_2 = new Plane("id2-test", "model-test");
+
+	private PlaneScheduleIndex schedule;
+
+
+	@Before
+	public void setUp() {
+		schedule = new PlaneScheduleIndex();
+		schedule.add(flight(PLANE_FIXTURE_1, 10, 20));
+	}
+
+
+
+	@Test
+	public void testOverlappingFlightsOfTheSamePlaneAreRejected() {
+		assertThat(schedule.add(flight(PLANE_FIXTURE_1, 10, 20))).isFalse();
+		assertThat(schedule.add(flight(PLANE_FIXTURE_1, 5, 15))).isFalse();
+		assertThat(schedule.add(flight(PLANE_FIXTURE_1, 15, 25))).isFalse();
+		assertThat(schedule.add(flight(PLANE_FIXTURE_1, 12, 18))).isFalse();
+		assertThat(schedule.add(flight(PLANE_FIXTURE_1, 5, 25))).isFalse();
+	}
+
+
+
+	@Test
+	public void testBackToBackFlightsAreAccepted() {
+		assertThat(schedule.add(flight(PLANE_FIXTURE_1, 20, 30))).isTrue();
+		assertThat(schedule.add(flight(PLANE_FIXTURE_1, 0, 10))).isTrue();
+		assertThat(schedule.isFree("id1-test", new Date(5), new Date(25))).isFalse();
+	}
+
+
+
+	@Test
+	public void testOtherPlanesAreFree() {
+		assertThat(schedule.add(flight(PLANE_FIXTURE_2, 10, 20))).isTrue();
+		assertThat(schedule.planes()).isEqualTo(2);
+	}
+
+
+
+	@Test
+	public void testOverlappingStoredFlightsAreMerged() {
+		schedule.addExisting(flight(PLANE_FIXTURE_1, 30, 40));
+		schedule.addExisting(flight(PLANE_FIXTURE_1, 15, 35));
+
+		assertThat(schedule.isFree("id1-test", new Date(20), new Date(30))).isFalse();
+		assertThat(schedule.isFree("id1-test", new Date(36), new Date(39))).isFalse();
+		assertThat(schedule.isFree("id1-test", new Date(40), new Date(50))).isTrue();
+		assertThat(schedule.isFree("id1-test", new Date(0), new Date(10))).isTrue();
+	}
+
+
+
+	@Test
+	public void testARemovedFlightFreesItsPlane() {
+		Flight flight = flight(PLANE_FIXTURE_1, 20, 30);
+		schedule.add(flight);
+
+		schedule.remove(flight);
+		assertThat(schedule.isFree("id1-test", new Date(20), new Date(30))).isTrue();
+		assertThat(schedule.isFree("id1-test", new Date(10), new Date(20))).isFalse();
+	}
+
+
+
+	@Test
+	public void testOnlyThePlanesFlyingInTheRangeAreBusy() {
+		schedule.add(flight(PLANE_FIXTURE_2, 30, 40));
+
+		assertThat(schedule.busyPlaneIds(new Date(15), new Date(35))).containsExactlyInAnyOrder("id1-test", "id2-test");
+		assertThat(schedule.busyPlaneIds(new Date(20), new Date(30))).isEmpty();
+	}
+
+
+
+	@Test
+	public void testThePlaneOfTheLastRemovedFlightIsDropped() {
+		Flight flight = flight(PLANE_FIXTURE_2, 10, 20);
+		schedule.add(flight);
+
+		schedule.remove(flight);
+		assertThat(schedule.planes()).isEqualTo(1);
+	}
+
+
+
+	private static Flight flight(Plane plane, long departure, long arrival) {
+		return new Flight(new Date(departure), new Date(arrival), "origin-test", "destination-test", plane);
+	}
+}
@@ -0,0 +1,131 @@
+package com.airport_management.service_layer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static java.util.Arrays.asList;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.airport_management.model.Plane;
+
+
+public class SearchResultCacheTest {
+
+	private AtomicLong now;
+	private SearchResultCache searchCache;
+
+
+	@Before
+	public void setUp() {
+		now = new AtomicLong();
+		searchCache = new SearchResultCache(2, 10, TimeUnit.SECONDS, now::get);
+	}
+
+
+
+	@Test
+	public void testKeysCompareDatesByInstant() {
+		assertThat(SearchResultCache.key("departure", new Date(1000), new Date(2000)))
+			.isEqualTo(SearchResultCache.key("departure", new Date(1000), new Date(2000)));
+		assertThat(SearchResultCache.key("origin", "a"))
+			.isNotEqualTo(SearchResultCache.key("destination", "a"));
+	}
+
+
+
+	@Test
+	public void testStoredResultIsUnmodifiable() {
+		List<String> stored = searchCache.put(SearchResultCache.key("origin", "a"), asList("x"), searchCache.generation());
+
+		assertThatThrownBy(() -> stored.add("y"))
+			.isInstanceOf(UnsupportedOperationException.class);
+		assertThat(searchCache.<String>get(SearchResultCache.key("origin", "a"))).containsExactly("x");
+		assertThat(searchCache.getHitCount()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testTheCacheKeepsAndHandsOutCopies() {
+		Plane read = new Plane("id1-test", "model-test");
+		UnaryOperator<Plane> copy = plane -> new Plane(plane.getId(), plane.getModel());
+		searchCache.put(SearchResultCache.key("model", "model-test"), asList(read), searchCache.generation(), copy);
+		read.setModel("changed by the caller");
+
+		List<Plane> first = searchCache.get(SearchResultCache.key("model", "model-test"));
+		first.get(0).setModel("changed by the first reader");
+
+		assertThat(searchCache.<Plane>get(SearchResultCache.key("model", "model-test")))
+			.extracting(Plane::getModel)
+			.containsExactly("model-test");
+	}
+
+
+
+	@Test
+	public void testResultReadBeforeAnInvalidationIsNotStored() {
+		long generation = searchCache.generation();
+		searchCache.invalidateAll();
+
+		List<String> returned = searchCache.put(SearchResultCache.key("origin", "a"), asList("x"), generation);
+
+		assertThat(returned).containsExactly("x");
+		assertThat(searchCache.size()).isZero();
+	}
+
+
+
+	@Test
+	public void testEntriesExpireAfterTheTimeToLive() {
+		searchCache.put(SearchResultCache.key("origin", "a"), asList("x"), searchCache.generation());
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+		assertThat(searchCache.<String>get(SearchResultCache.key("origin", "a"))).isNull();
+		assertThat(searchCache.getMissCount()).isEqualTo(1);
+		assertThat(searchCache.getEvictionCount()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testLeastRecentlyReadResultIsEvicted() {
+		searchCache.put(SearchResultCache.key("origin", "a"), asList("x"), searchCache.generation());
+		searchCache.put(SearchResultCache.key("origin", "b"), asList("y"), searchCache.generation());
+		searchCache.get(SearchResultCache.key("origin", "a"));
+
+		searchCache.put(SearchResultCache.key("origin", "c"), asList("z"), searchCache.generation());
+
+		assertThat(searchCache.<String>get(SearchResultCache.key("origin", "b"))).isNull();
+		assertThat(searchCache.<String>get(SearchResultCache.key("origin", "a"))).containsExactly("x");
+		assertThat(searchCache.getEvictionCount()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testInvalidationIsNotCountedAsEviction() {
+		searchCache.put(SearchResultCache.key("origin", "a"), asList("x"), searchCache.generation());
+
+		searchCache.invalidateAll();
+
+		assertThat(searchCache.getEvictionCount()).isZero();
+	}
+
+
+
+	@Test
+	public void testSizeAndTimeToLiveMustBePositive() {
+		assertThatThrownBy(() -> new SearchResultCache(0, 10, TimeUnit.SECONDS))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new SearchResultCache(10, 0, TimeUnit.SECONDS))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
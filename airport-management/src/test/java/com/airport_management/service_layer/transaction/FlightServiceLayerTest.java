@@ -5,12 +5,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.AdditionalAnswers.answer;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static java.util.Arrays.asList;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -21,13 +25,16 @@ import org.mockito.MockitoAnnotations;
 import com.airport_management.exception.FlightNotFoundException;
 import com.airport_management.exception.InconsistentDataException;
 import com.airport_management.exception.PlaneAlreadyInServiceException;
+import com.airport_management.exception.TransactionFailedException;
 import com.airport_management.model.Flight;
 import com.airport_management.model.Plane;
 import com.airport_management.repository.mongo.FlightRepositoryMongo;
 import com.airport_management.repository.mongo.PlaneRepositoryMongo;
 import com.airport_management.repository.mongo.RepositoryMongo;
+import com.airport_management.transaction.ReadOperation;
 import com.airport_management.transaction.TransactionCode;
 import com.airport_management.transaction.TransactionManager;
+import com.mongodb.MongoException;
 
 
 public class FlightServiceLayerTest {
@@ -66,6 +73,8 @@ public class FlightServiceLayerTest {
 		
 		when(transactionManager.doInTransaction(any()))
 			.thenAnswer(answer((TransactionCode<?> code) -> code.apply(repositoryMongo)));
+		when(transactionManager.doReadOnly(any(), any()))
+			.thenAnswer(answer((ReadOperation operation, TransactionCode<?> code) -> code.apply(repositoryMongo)));
 		when(repositoryMongo.createPlaneRepository()).thenReturn(planeRepositoryMongo);
 		when(repositoryMongo.createFlightRepository()).thenReturn(flightRepositoryMongo);
 	}
@@ -79,6 +88,19 @@ public class FlightServiceLayerTest {
 			.thenReturn(flightToAdd);
 		airportServiceLayer.saveFlightSL(flightToAdd);
 		verify(flightRepositoryMongo).saveFlight(flightToAdd);
+		verify(flightRepositoryMongo, never()).findAllFlights();
+	}
+	
+	
+	
+	@Test
+	public void testSaveFlightOfSeveralDays() {
+		Date arrivalDate = new Date(NOW.getTime() + 3 * 24 * 3600000L);
+		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_1, NOW, arrivalDate, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_1);
+		when(flightRepositoryMongo.saveFlight(flightToAdd))
+			.thenReturn(flightToAdd);
+		airportServiceLayer.saveFlightSL(flightToAdd);
+		verify(flightRepositoryMongo).saveFlight(flightToAdd);
 	}
 	
 	
@@ -116,6 +138,16 @@ public class FlightServiceLayerTest {
 	
 	
 	
+	@Test
+	public void testSaveFlightIsTimedAlsoWhenTheFlightIsRejected() {
+		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_1, NOW, ONE_HOUR_LATER, ORIGIN_FIXTURE, ORIGIN_FIXTURE, PLANE_FIXTURE_1);
+		assertThrows(InconsistentDataException.class, () -> airportServiceLayer.saveFlightSL(flightToAdd));
+		assertThat(airportServiceLayer.metrics.scrape())
+			.contains("airport_service_method_seconds_count{method=\"saveFlightSL\"} 1\n");
+	}
+	
+	
+	
 	@Test
 	public void testSaveFlightWhenDepartureDateIsEqualToAnotherFlightOfTheSamePlane() {
 		
@@ -123,7 +155,7 @@ public class FlightServiceLayerTest {
 		List<Flight> flights = asList(flightAlreadyExist);
 		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_2, NOW, ONE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_1);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findOverlappingFlights(PLANE_FIXTURE_1.getId(), flightToAdd.getDepartureDate(), flightToAdd.getArrivalDate()))
 			.thenReturn(flights);
 		
 		PlaneAlreadyInServiceException ex = assertThrows(PlaneAlreadyInServiceException.class, () -> {
@@ -141,7 +173,7 @@ public class FlightServiceLayerTest {
 		List<Flight> flights = asList(flightAlreadyExist);
 		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_2, NOW, TWO_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_1);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findOverlappingFlights(PLANE_FIXTURE_1.getId(), flightToAdd.getDepartureDate(), flightToAdd.getArrivalDate()))
 			.thenReturn(flights);
 		
 		PlaneAlreadyInServiceException ex = assertThrows(PlaneAlreadyInServiceException.class, () -> {
@@ -159,7 +191,7 @@ public class FlightServiceLayerTest {
 		List<Flight> flights = asList(flightAlreadyExist);
 		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_2, NOW, ONE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_2);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findOverlappingFlights(flightToAdd.getPlane().getId(), flightToAdd.getDepartureDate(), flightToAdd.getArrivalDate()))
 			.thenReturn(flights);
 		
 		airportServiceLayer.saveFlightSL(flightToAdd);
@@ -176,7 +208,7 @@ public class FlightServiceLayerTest {
 		List<Flight> flights = asList(flightAlreadyExist);
 		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_2, ONE_HOUR_LATER, THREE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_1);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findOverlappingFlights(PLANE_FIXTURE_1.getId(), flightToAdd.getDepartureDate(), flightToAdd.getArrivalDate()))
 			.thenReturn(flights);
 		
 		PlaneAlreadyInServiceException ex = assertThrows(PlaneAlreadyInServiceException.class, () -> {
@@ -194,7 +226,7 @@ public class FlightServiceLayerTest {
 		List<Flight> flights = asList(flightAlreadyExist);
 		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_2, TWO_HOUR_LATER, THREE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_1);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findOverlappingFlights(flightToAdd.getPlane().getId(), flightToAdd.getDepartureDate(), flightToAdd.getArrivalDate()))
 			.thenReturn(flights);
 		
 		airportServiceLayer.saveFlightSL(flightToAdd);
@@ -211,7 +243,7 @@ public class FlightServiceLayerTest {
 		List<Flight> flights = asList(flightAlreadyExist);
 		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_2, ONE_HOUR_LATER, THREE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_2);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findOverlappingFlights(flightToAdd.getPlane().getId(), flightToAdd.getDepartureDate(), flightToAdd.getArrivalDate()))
 			.thenReturn(flights);
 		
 		airportServiceLayer.saveFlightSL(flightToAdd);
@@ -228,7 +260,7 @@ public class FlightServiceLayerTest {
 		List<Flight> flights = asList(flightAlreadyExist);
 		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_2, NOW, TWO_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_1);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findOverlappingFlights(PLANE_FIXTURE_1.getId(), flightToAdd.getDepartureDate(), flightToAdd.getArrivalDate()))
 			.thenReturn(flights);
 		
 		PlaneAlreadyInServiceException ex = assertThrows(PlaneAlreadyInServiceException.class, () -> {
@@ -246,7 +278,7 @@ public class FlightServiceLayerTest {
 		List<Flight> flights = asList(flightAlreadyExist);
 		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_2, NOW, ONE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_1);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findOverlappingFlights(flightToAdd.getPlane().getId(), flightToAdd.getDepartureDate(), flightToAdd.getArrivalDate()))
 			.thenReturn(flights);
 		
 		airportServiceLayer.saveFlightSL(flightToAdd);
@@ -263,7 +295,7 @@ public class FlightServiceLayerTest {
 		List<Flight> flights = asList(flightAlreadyExist);
 		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_2, NOW, THREE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_1);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findOverlappingFlights(PLANE_FIXTURE_1.getId(), flightToAdd.getDepartureDate(), flightToAdd.getArrivalDate()))
 			.thenReturn(flights);
 		
 		PlaneAlreadyInServiceException ex = assertThrows(PlaneAlreadyInServiceException.class, () -> {
@@ -281,7 +313,7 @@ public class FlightServiceLayerTest {
 		List<Flight> flights = asList(flightAlreadyExist);
 		Flight flightToAdd = new Flight(FLIGHT_NUM_FIXTURE_2, NOW, THREE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_2);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findOverlappingFlights(flightToAdd.getPlane().getId(), flightToAdd.getDepartureDate(), flightToAdd.getArrivalDate()))
 			.thenReturn(flights);
 		
 		airportServiceLayer.saveFlightSL(flightToAdd);
@@ -315,12 +347,86 @@ public class FlightServiceLayerTest {
 		
 		List<Flight> flightsToReturn = airportServiceLayer.findAllFlightsSL();
 		verify(flightRepositoryMongo).findAllFlights();
+		verify(transactionManager).doReadOnly(eq(ReadOperation.LISTING), any());
+		verify(transactionManager, never()).doInTransaction(any());
 		assertThat(flightsToReturn).containsExactly(FLIGHT_FIXTURE);
 		verifyNoMoreInteractions(ignoreStubs(flightRepositoryMongo));
 	}
 	
 	
 	
+	@Test
+	public void testFindFlightsPage() {
+		when(flightRepositoryMongo.findFlightsPage(10, 5))
+			.thenReturn(asList(FLIGHT_FIXTURE));
+		
+		List<Flight> flightsToReturn = airportServiceLayer.findFlightsPageSL(10, 5);
+		verify(transactionManager).doReadOnly(eq(ReadOperation.LISTING), any());
+		assertThat(flightsToReturn).containsExactly(FLIGHT_FIXTURE);
+	}
+	
+	
+	
+	@Test
+	public void testFindFlightsPageAfter() {
+		when(flightRepositoryMongo.findFlightsPageAfter(FLIGHT_NUM_FIXTURE_1, 5))
+			.thenReturn(asList(FLIGHT_FIXTURE));
+		
+		List<Flight> flightsToReturn = airportServiceLayer.findFlightsPageAfterSL(FLIGHT_NUM_FIXTURE_1, 5);
+		verify(transactionManager).doReadOnly(eq(ReadOperation.LISTING), any());
+		assertThat(flightsToReturn).containsExactly(FLIGHT_FIXTURE);
+	}
+	
+	
+	
+	@Test
+	public void testCountFlights() {
+		when(flightRepositoryMongo.countFlights())
+			.thenReturn(3L);
+		
+		assertEquals(3, airportServiceLayer.countFlightsSL());
+		verify(transactionManager).doReadOnly(eq(ReadOperation.LISTING), any());
+	}
+	
+	
+	
+	@Test
+	public void testCountFlightsWhenTheReadFails() {
+		doReturn(null).when(transactionManager).doReadOnly(any(), any());
+		
+		assertEquals(0, airportServiceLayer.countFlightsSL());
+	}
+	
+	
+	
+	@Test
+	public void testStreamAllFlightsHandsFlightsInChunks() {
+		Flight flight1 = new Flight(FLIGHT_NUM_FIXTURE_1, null, null, null, null, null);
+		Flight flight2 = new Flight(FLIGHT_NUM_FIXTURE_2, null, null, null, null, null);
+		Flight flight3 = new Flight("num3-test", null, null, null, null, null);
+		List<List<Flight>> chunks = new ArrayList<>();
+		AtomicBoolean closed = new AtomicBoolean();
+		
+		when(flightRepositoryMongo.streamAllFlights(2))
+			.thenReturn(Stream.of(flight1, flight2, flight3).onClose(() -> closed.set(true)));
+		
+		assertThat(airportServiceLayer.streamAllFlightsSL(2, chunks::add)).isTrue();
+		assertThat(chunks).containsExactly(asList(flight1, flight2), asList(flight3));
+		assertThat(closed).isTrue();
+		verify(transactionManager).doReadOnly(eq(ReadOperation.LISTING), any());
+	}
+	
+	
+	
+	@Test
+	public void testStreamAllFlightsWhenTheReadFails() {
+		doReturn(null).when(transactionManager).doReadOnly(any(), any());
+		
+		assertThat(airportServiceLayer.streamAllFlightsSL(2, chunk -> {})).isFalse();
+	}
+	
+	
+	
 	@Test
 	public void testDeleteFlightWhenExist() {
 		
@@ -348,6 +454,130 @@ public class FlightServiceLayerTest {
 	
 	
 	
+	@Test
+	public void testDeleteFlightsWithASingleDelete() {
+		when(flightRepositoryMongo.deleteFlights(asList(FLIGHT_NUM_FIXTURE_1, FLIGHT_NUM_FIXTURE_2)))
+			.thenReturn(2L);
+		
+		long deleted = airportServiceLayer.deleteFlightsSL(asList(FLIGHT_FIXTURE, 
+				new Flight(FLIGHT_NUM_FIXTURE_2, null, null, null, null, null)));
+		assertEquals(2, deleted);
+		verify(transactionManager).doInTransaction(any());
+	}
+	
+	
+	
+	@Test
+	public void testDeleteFlightsByPlaneAndByDepartureRange() {
+		when(flightRepositoryMongo.deleteFlightsByPlaneId(PLANE_FIXTURE_1.getId()))
+			.thenReturn(3L);
+		when(flightRepositoryMongo.deleteFlightsWithDepartureBetween(NOW, TWO_HOUR_LATER))
+			.thenReturn(4L);
+		
+		assertEquals(3, airportServiceLayer.deleteFlightsByPlaneSL(PLANE_FIXTURE_1.getId()));
+		assertEquals(4, airportServiceLayer.deleteFlightsWithDepartureDateInRangeSL(NOW, TWO_HOUR_LATER));
+	}
+	
+	
+	
+	@Test
+	public void testCountFlightsByPlaneAndByDepartureRange() {
+		when(flightRepositoryMongo.countFlightsByPlaneId(PLANE_FIXTURE_1.getId()))
+			.thenReturn(3L);
+		when(flightRepositoryMongo.countFlightsWithDepartureBetween(NOW, TWO_HOUR_LATER))
+			.thenReturn(4L);
+		
+		assertEquals(3, airportServiceLayer.countFlightsByPlaneSL(PLANE_FIXTURE_1.getId()));
+		assertEquals(4, airportServiceLayer.countFlightsWithDepartureDateInRangeSL(NOW, TWO_HOUR_LATER));
+		verify(transactionManager, times(2)).doReadOnly(eq(ReadOperation.LOOKUP), any());
+		verify(transactionManager, never()).doInTransaction(any());
+	}
+	
+	
+	
+	@Test
+	public void testCountFlightsByPlaneWhenTheReadFails() {
+		doReturn(null).when(transactionManager).doReadOnly(any(), any());
+		
+		assertEquals(0, airportServiceLayer.countFlightsByPlaneSL(PLANE_FIXTURE_1.getId()));
+	}
+	
+	
+	
+	@Test
+	public void testDeleteFlightsWhenTheTransactionFails() {
+		TransactionFailedException ex = new TransactionFailedException(new MongoException("not primary"));
+		doThrow(ex).when(transactionManager).doInTransaction(any());
+		
+		assertThat(assertThrows(TransactionFailedException.class,
+				() -> airportServiceLayer.deleteFlightsByPlaneSL(PLANE_FIXTURE_1.getId())))
+			.isSameAs(ex);
+	}
+	
+	
+	
+	@Test
+	public void testTheScheduleFollowsTheCommittedWrites() {
+		Flight flight1 = new Flight(FLIGHT_NUM_FIXTURE_1, NOW, ONE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_1);
+		Flight flight2 = new Flight(FLIGHT_NUM_FIXTURE_2, TWO_HOUR_LATER, THREE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_2);
+		airportServiceLayer.enableSchedule(true);
+		airportServiceLayer.schedule.load(new ArrayList<>(), airportServiceLayer.schedule.version());
+		when(flightRepositoryMongo.saveFlight(any()))
+			.thenAnswer(answer((Flight flight) -> flight));
+		
+		airportServiceLayer.saveFlightSL(flight1);
+		airportServiceLayer.saveFlightSL(flight2);
+		assertThat(airportServiceLayer.schedule.busyPlaneIds(NOW, THREE_HOUR_LATER)).containsExactlyInAnyOrder("id1-test", "id2-test");
+		
+		when(flightRepositoryMongo.findByNum(FLIGHT_NUM_FIXTURE_1))
+			.thenReturn(flight1);
+		airportServiceLayer.deleteFlightSL(flight1);
+		airportServiceLayer.deleteFlightsByPlaneSL(PLANE_FIXTURE_2.getId());
+		assertThat(airportServiceLayer.schedule.size()).isZero();
+	}
+	
+	
+	
+	@Test
+	public void testAFlightChangedElsewhereIsReadIntoTheSchedule() {
+		Flight flight = new Flight(FLIGHT_NUM_FIXTURE_1, NOW, ONE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, PLANE_FIXTURE_1);
+		airportServiceLayer.enableSchedule(true);
+		airportServiceLayer.schedule.load(new ArrayList<>(), airportServiceLayer.schedule.version());
+		when(flightRepositoryMongo.findByNum(FLIGHT_NUM_FIXTURE_1))
+			.thenReturn(flight);
+		
+		airportServiceLayer.flightChangedElsewhere(FLIGHT_NUM_FIXTURE_1);
+		assertThat(airportServiceLayer.schedule.busyPlaneIds(NOW, ONE_HOUR_LATER)).containsExactly("id1-test");
+		
+		airportServiceLayer.flightDeletedElsewhere(FLIGHT_NUM_FIXTURE_1);
+		assertThat(airportServiceLayer.schedule.busyPlaneIds(NOW, ONE_HOUR_LATER)).isEmpty();
+		verify(transactionManager).doReadOnly(eq(ReadOperation.LOOKUP), any());
+	}
+	
+	
+	
+	@Test
+	public void testAFlightChangedElsewhereThatCannotBeReadInvalidatesTheSchedule() {
+		airportServiceLayer.enableSchedule(true);
+		airportServiceLayer.schedule.load(new ArrayList<>(), airportServiceLayer.schedule.version());
+		doReturn(null).when(transactionManager).doReadOnly(any(), any());
+		
+		airportServiceLayer.flightChangedElsewhere(FLIGHT_NUM_FIXTURE_1);
+		assertThat(airportServiceLayer.schedule.isLoaded()).isFalse();
+	}
+	
+	
+	
+	@Test
+	public void testAFlightChangedElsewhereIsNotReadBeforeTheScheduleIsLoaded() {
+		airportServiceLayer.enableSchedule(true);
+		
+		airportServiceLayer.flightChangedElsewhere(FLIGHT_NUM_FIXTURE_1);
+		verify(transactionManager, never()).doReadOnly(any(), any());
+	}
+	
+	
+	
 	private static final List<Date> getDates() {
 		Calendar cal = Calendar.getInstance();
 		Date now = cal.getTime();
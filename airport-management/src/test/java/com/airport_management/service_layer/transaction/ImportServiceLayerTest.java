@@ -0,0 +1,213 @@
+package com.airport_management.service_layer.transaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.AdditionalAnswers.answer;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+import static java.util.Collections.singletonMap;
+import static java.util.Arrays.asList;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.airport_management.exception.TransactionFailedException;
+import com.airport_management.exception.TransactionRetryExhaustedException;
+import com.airport_management.model.Flight;
+import com.airport_management.model.Plane;
+import com.airport_management.repository.mongo.FlightRepositoryMongo;
+import com.airport_management.repository.mongo.PlaneRepositoryMongo;
+import com.airport_management.repository.mongo.RepositoryMongo;
+import com.airport_management.service_layer.FlightImportParser.Format;
+import com.airport_management.service_layer.ImportReport;
+import com.airport_management.service_layer.ImportReport.RowError;
+import com.airport_management.service_layer.SearchResultCache;
+import com.airport_management.transaction.TransactionCode;
+import com.airport_management.transaction.TransactionManager;
+import com.mongodb.MongoException;
+
+
+public class ImportServiceLayerTest {
+
+	@Mock
+	TransactionManager transactionManager;
+
+	@Mock
+	RepositoryMongo repositoryMongo;
+
+	@Mock
+	PlaneRepositoryMongo planeRepositoryMongo;
+
+	@Mock
+	FlightRepositoryMongo flightRepositoryMongo;
+
+	@InjectMocks
+	AirportServiceLayer airportServiceLayer;
+
+	private static final String HEADER = "departure_date,arrival_date,origin,destination,plane_id\n";
+	private static final Plane PLANE_FIXTURE = new Plane("id1-test", "model1-test");
+
+
+	@Before
+	public void init() {
+		MockitoAnnotations.initMocks(this);
+
+		when(transactionManager.doInTransaction(any()))
+			.thenAnswer(answer((TransactionCode<?> code) -> code.apply(repositoryMongo)));
+		when(repositoryMongo.createPlaneRepository()).thenReturn(planeRepositoryMongo);
+		when(repositoryMongo.createFlightRepository()).thenReturn(flightRepositoryMongo);
+		when(planeRepositoryMongo.findByIds(anyCollection()))
+			.thenReturn(singletonMap(PLANE_FIXTURE.getId(), PLANE_FIXTURE));
+		when(flightRepositoryMongo.saveFlights(any())).then(returnsFirstArg());
+	}
+
+
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testValidRowsAreWrittenWithTheStoredPlane() throws IOException {
+		ImportReport report = importCsv(
+				"2026-01-01T10:00:00Z,2026-01-01T12:00:00Z,origin,destination,id1-test\n" +
+				"2026-01-01T12:00:00Z,2026-01-01T14:00:00Z,destination,origin,id1-test\n", 10);
+
+		ArgumentCaptor<List<Flight>> saved = ArgumentCaptor.forClass(List.class);
+		verify(flightRepositoryMongo).saveFlights(saved.capture());
+		assertThat(saved.getValue())
+			.extracting(Flight::getOrigin, Flight::getPlane)
+			.containsExactly(tuple("origin", PLANE_FIXTURE), tuple("destination", PLANE_FIXTURE));
+		assertThat(report.getImportedCount()).isEqualTo(2);
+		assertThat(report.getErrors()).isEmpty();
+	}
+
+
+
+	@Test
+	public void testRowsAreRejectedWithTheirLine() throws IOException {
+		ImportReport report = importCsv(
+				"2026-01-01T10:00:00Z,2026-01-01T12:00:00Z,origin,origin,id1-test\n" +
+				"2026-01-01T10:00:00Z,2026-01-01T12:00:00Z,origin,destination,unknown\n" +
+				"2026-01-01T10:00:00Z,2026-01-01T12:00:00Z,origin,destination,id1-test\n" +
+				"2026-01-01T11:00:00Z,2026-01-01T13:00:00Z,origin,destination,id1-test\n" +
+				"tomorrow,2026-01-01T12:00:00Z,origin,destination,id1-test\n", 10);
+
+		assertThat(report.getImportedCount()).isEqualTo(1);
+		assertThat(report.getErrors())
+			.extracting(RowError::getLine, RowError::getMessage)
+			.containsExactly(
+					tuple(2, "origin or destination is wrong"),
+					tuple(3, "No existing plane with id unknown"),
+					tuple(5, "This plane is already in service. Dates overlap an existing or imported flight"),
+					tuple(6, "invalid departure_date: tomorrow"));
+	}
+
+
+
+	@Test
+	public void testRowsOverlappingStoredFlightsAreRejected() throws IOException {
+		when(flightRepositoryMongo.findOverlappingFlights(anyCollection(), any(Date.class), any(Date.class)))
+			.thenReturn(asList(new Flight("num-test", date("2026-01-01T09:00:00Z"), date("2026-01-01T11:00:00Z"),
+					"origin", "destination", PLANE_FIXTURE)));
+
+		ImportReport report = importCsv(
+				"2026-01-01T10:00:00Z,2026-01-01T12:00:00Z,origin,destination,id1-test\n" +
+				"2026-01-01T11:00:00Z,2026-01-01T12:00:00Z,origin,destination,id1-test\n", 10);
+
+		assertThat(report.getImportedCount()).isEqualTo(1);
+		assertThat(report.getErrors()).extracting(RowError::getLine).containsExactly(2);
+		verify(flightRepositoryMongo).findOverlappingFlights(
+				Collections.singleton(PLANE_FIXTURE.getId()), date("2026-01-01T10:00:00Z"), date("2026-01-01T12:00:00Z"));
+	}
+
+
+
+	@Test
+	public void testEveryBatchIsATransaction() throws IOException {
+		ImportReport report = importCsv(
+				"2026-01-01T10:00:00Z,2026-01-01T11:00:00Z,origin,destination,id1-test\n" +
+				"2026-01-01T12:00:00Z,2026-01-01T13:00:00Z,origin,destination,id1-test\n" +
+				"2026-01-01T14:00:00Z,2026-01-01T15:00:00Z,origin,destination,id1-test\n", 2);
+
+		verify(transactionManager, times(2)).doInTransaction(any());
+		verify(flightRepositoryMongo, times(2)).saveFlights(any());
+		assertThat(report.getImportedCount()).isEqualTo(3);
+	}
+
+
+
+	@Test
+	public void testRowsOfAFailedBatchAreRejected() throws IOException {
+		doThrow(new TransactionFailedException(new MongoException("not primary")))
+			.when(transactionManager).doInTransaction(any());
+
+		ImportReport report = importCsv(
+				"2026-01-01T10:00:00Z,2026-01-01T11:00:00Z,origin,destination,id1-test\n", 10);
+
+		assertThat(report.getImportedCount()).isZero();
+		assertThat(report.getErrors())
+			.extracting(RowError::getLine, RowError::getMessage)
+			.containsExactly(tuple(2, "batch not written, database error"));
+	}
+
+
+
+	@Test
+	public void testRowsOfABatchGivenUpAreRejected() throws IOException {
+		doThrow(new TransactionRetryExhaustedException(5, new MongoException("write conflict")))
+			.when(transactionManager).doInTransaction(any());
+
+		ImportReport report = importCsv(
+				"2026-01-01T10:00:00Z,2026-01-01T11:00:00Z,origin,destination,id1-test\n", 10);
+
+		assertThat(report.getImportedCount()).isZero();
+		assertThat(report.getErrors())
+			.extracting(RowError::getLine, RowError::getMessage)
+			.containsExactly(tuple(2, "batch not written, database busy"));
+	}
+
+
+
+	@Test
+	public void testImportInvalidatesTheSearches() throws IOException {
+		airportServiceLayer.getSearchCache().put(
+				SearchResultCache.key("origin", "origin"), asList(), 0);
+
+		importCsv("", 10);
+
+		assertThat(airportServiceLayer.getSearchCache().size()).isZero();
+		verify(transactionManager, never()).doInTransaction(any());
+	}
+
+
+
+	@Test
+	public void testBatchSizeMustBePositive() {
+		assertThatThrownBy(() -> importCsv("", 0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+
+	private ImportReport importCsv(String rows, int batchSize) throws IOException {
+		return airportServiceLayer.importFlightsSL(new StringReader(HEADER + rows), Format.CSV, batchSize);
+	}
+
+
+
+	private static Date date(String text) {
+		return Date.from(Instant.parse(text));
+	}
+}
@@ -25,6 +25,7 @@ import com.airport_management.model.Plane;
 import com.airport_management.repository.mongo.FlightRepositoryMongo;
 import com.airport_management.repository.mongo.PlaneRepositoryMongo;
 import com.airport_management.repository.mongo.RepositoryMongo;
+import com.airport_management.transaction.ReadOperation;
 import com.airport_management.transaction.TransactionCode;
 import com.airport_management.transaction.TransactionManager;
 
@@ -61,6 +62,8 @@ public class PlaneServiceLayerTest {
 		
 		when(transactionManager.doInTransaction(any()))
 			.thenAnswer(answer((TransactionCode<?> code) -> code.apply(repositoryMongo)));
+		when(transactionManager.doReadOnly(any(), any()))
+			.thenAnswer(answer((ReadOperation operation, TransactionCode<?> code) -> code.apply(repositoryMongo)));
 		when(repositoryMongo.createPlaneRepository()).thenReturn(planeRepositoryMongo);
 		when(repositoryMongo.createFlightRepository()).thenReturn(flightRepositoryMongo);
 	}
@@ -106,6 +109,40 @@ public class PlaneServiceLayerTest {
 	
 	
 	
+	@Test
+	public void testFindPlanesPage() {
+		when(planeRepositoryMongo.findPlanesPage(10, 5))
+			.thenReturn(asList(PLANE_FIXTURE_1));
+		
+		List<Plane> returnPlanes = airportServiceLayer.findPlanesPageSL(10, 5);
+		verify(transactionManager).doReadOnly(eq(ReadOperation.LISTING), any());
+		assertThat(returnPlanes).containsExactly(PLANE_FIXTURE_1);
+	}
+	
+	
+	
+	@Test
+	public void testFindPlanesPageAfter() {
+		when(planeRepositoryMongo.findPlanesPageAfter(PLANE_FIXTURE_1.getId(), 5))
+			.thenReturn(asList(PLANE_FIXTURE_1));
+		
+		List<Plane> returnPlanes = airportServiceLayer.findPlanesPageAfterSL(PLANE_FIXTURE_1.getId(), 5);
+		verify(transactionManager).doReadOnly(eq(ReadOperation.LISTING), any());
+		assertThat(returnPlanes).containsExactly(PLANE_FIXTURE_1);
+	}
+	
+	
+	
+	@Test
+	public void testCountPlanes() {
+		when(planeRepositoryMongo.countPlanes())
+			.thenReturn(4L);
+		
+		assertEquals(4, airportServiceLayer.countPlanesSL());
+	}
+	
+	
+	
 	@Test
 	public void testDeletePlaneWhenExist() {
 		
@@ -135,12 +172,11 @@ public class PlaneServiceLayerTest {
 	
 	@Test
 	public void testDeletePlaneWhenThereAreAssociatesFlights() {
-		List<Flight> flights = asList(FLIGHT_FIXTURE);
 		
 		when(planeRepositoryMongo.findById(ID_FIXTURE_1))
 			.thenReturn(PLANE_FIXTURE_1);
-		when(flightRepositoryMongo.findAllFlights())
-			.thenReturn(flights);
+		when(flightRepositoryMongo.findAnyFlightNumByPlaneId(ID_FIXTURE_1))
+			.thenReturn(FLIGHT_FIXTURE.getFlightNum());
 		
 		PlaneWithAssociateFlightException ex = assertThrows(PlaneWithAssociateFlightException.class, () -> {
 			airportServiceLayer.deletePlaneSL(PLANE_FIXTURE_1);
@@ -152,15 +188,41 @@ public class PlaneServiceLayerTest {
 	
 	@Test
 	public void testDeletePlaneWhenThereAreFlightsButNotAssociatesWithThePlaneToDelete() {
-		List<Flight> flights = asList(FLIGHT_FIXTURE);
 		
 		when(planeRepositoryMongo.findById(ID_FIXTURE_2))
 			.thenReturn(PLANE_FIXTURE_2);
-		when(flightRepositoryMongo.findAllFlights())
-			.thenReturn(flights);
+		when(flightRepositoryMongo.findAnyFlightNumByPlaneId(ID_FIXTURE_1))
+			.thenReturn(FLIGHT_FIXTURE.getFlightNum());
 		
 		airportServiceLayer.deletePlaneSL(PLANE_FIXTURE_2);
 		verify(planeRepositoryMongo).deletePlane(PLANE_FIXTURE_2);	
+		verify(flightRepositoryMongo, never()).findAllFlights();
+	}
+	
+	
+	
+	@Test
+	public void testDeletePlanesWithASingleDelete() {
+		when(flightRepositoryMongo.findPlaneIdsWithFlights(asList(ID_FIXTURE_1, ID_FIXTURE_2)))
+			.thenReturn(asList());
+		when(planeRepositoryMongo.deletePlanes(asList(ID_FIXTURE_1, ID_FIXTURE_2)))
+			.thenReturn(2L);
+		
+		assertEquals(2, airportServiceLayer.deletePlanesSL(asList(PLANE_FIXTURE_1, PLANE_FIXTURE_2)));
+		verify(transactionManager).doInTransaction(any());
+	}
+	
+	
+	
+	@Test
+	public void testDeletePlanesWhenThereAreAssociatesFlights() {
+		when(flightRepositoryMongo.findPlaneIdsWithFlights(asList(ID_FIXTURE_1, ID_FIXTURE_2)))
+			.thenReturn(asList(ID_FIXTURE_1));
+		
+		PlaneWithAssociateFlightException ex = assertThrows(PlaneWithAssociateFlightException.class, () -> {
+			airportServiceLayer.deletePlanesSL(asList(PLANE_FIXTURE_1, PLANE_FIXTURE_2));
+		});
+		assertEquals("Impossible to delete. There are flights associates with the planes " + ID_FIXTURE_1, ex.getMessage());
+		verify(planeRepositoryMongo, never()).deletePlanes(any());
 	}
 }
-
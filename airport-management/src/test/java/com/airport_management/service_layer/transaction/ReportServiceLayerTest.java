@@ -0,0 +1,80 @@
+package com.airport_management.service_layer.transaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalAnswers.answer;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static java.util.Arrays.asList;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.airport_management.exception.InconsistentDataException;
+import com.airport_management.model.PlaneUtilisation;
+import com.airport_management.repository.mongo.ReportRepositoryMongo;
+import com.airport_management.repository.mongo.RepositoryMongo;
+import com.airport_management.transaction.ReadOperation;
+import com.airport_management.transaction.TransactionCode;
+import com.airport_management.transaction.TransactionManager;
+
+
+public class ReportServiceLayerTest {
+
+	@Mock
+	TransactionManager transactionManager;
+	
+	@Mock
+	RepositoryMongo repositoryMongo;
+	
+	@Mock
+	ReportRepositoryMongo reportRepositoryMongo;
+	
+	@InjectMocks
+	AirportServiceLayer airportServiceLayer;
+	
+	private static final Date START_DATE_FIXTURE = new Date(0);
+	private static final Date END_DATE_FIXTURE = new Date(10000);
+	
+	
+	@Before
+	public void init() {
+		MockitoAnnotations.initMocks(this);
+		
+		when(transactionManager.doReadOnly(any(), any()))
+			.thenAnswer(answer((ReadOperation operation, TransactionCode<?> code) -> code.apply(repositoryMongo)));
+		when(repositoryMongo.createReportRepository()).thenReturn(reportRepositoryMongo);
+	}
+	
+	
+	
+	@Test
+	public void testPlaneUtilisationIsReadAsAReport() {
+		List<PlaneUtilisation> report = asList(new PlaneUtilisation("id-test", "model-test", 1, 1000, 9000, 8000));
+		when(reportRepositoryMongo.findPlaneUtilisation(START_DATE_FIXTURE, END_DATE_FIXTURE))
+			.thenReturn(report);
+		
+		assertThat(airportServiceLayer.planeUtilisationSL(START_DATE_FIXTURE, END_DATE_FIXTURE))
+			.isEqualTo(report);
+		verify(transactionManager).doReadOnly(eq(ReadOperation.REPORT), any());
+	}
+	
+	
+	
+	@Test
+	public void testPlaneUtilisationWhenTheRangeIsWrong() {
+		InconsistentDataException ex = assertThrows(InconsistentDataException.class, () -> {
+			airportServiceLayer.planeUtilisationSL(END_DATE_FIXTURE, START_DATE_FIXTURE);
+		});
+		assertEquals("start or end date is wrong", ex.getMessage());
+		verifyNoInteractions(transactionManager);
+	}
+}
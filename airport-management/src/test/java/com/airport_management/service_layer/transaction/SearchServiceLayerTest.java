@@ -4,7 +4,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.AdditionalAnswers.answer;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static java.util.Collections.emptyList;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -19,11 +25,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import com.airport_management.exception.FlightNotFoundException;
+import com.airport_management.exception.InconsistentDataException;
 import com.airport_management.model.Flight;
 import com.airport_management.model.Plane;
 import com.airport_management.repository.mongo.FlightRepositoryMongo;
 import com.airport_management.repository.mongo.PlaneRepositoryMongo;
 import com.airport_management.repository.mongo.RepositoryMongo;
+import com.airport_management.transaction.ReadOperation;
 import com.airport_management.transaction.TransactionCode;
 import com.airport_management.transaction.TransactionManager;
 import com.airport_management.exception.PlaneNotFoundException;
@@ -64,6 +72,11 @@ public class SearchServiceLayerTest {
 		
 		when(transactionManager.doInTransaction(any()))
 			.thenAnswer(answer((TransactionCode<?> code) -> code.apply(repositoryMongo)));
+		when(transactionManager.doReadOnly(any(), any()))
+			.thenAnswer(answer((ReadOperation operation, TransactionCode<?> code) -> code.apply(repositoryMongo)));
+		when(transactionManager.doInSnapshot(any(), any()))
+			.thenAnswer(answer((ReadOperation operation, TransactionCode<?> code) -> code.apply(repositoryMongo)));
+		when(transactionManager.readsAreCurrent(any())).thenReturn(true);
 		when(repositoryMongo.createPlaneRepository()).thenReturn(planeRepositoryMongo);
 		when(repositoryMongo.createFlightRepository()).thenReturn(flightRepositoryMongo);
 	}
@@ -74,21 +87,23 @@ public class SearchServiceLayerTest {
 	public void testFindAllFlightsByOriginWhenExist() {
 		List<Flight> flights = asList(FLIGHT_FIXTURE);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findByOrigin(ORIGIN_FIXTURE))
 			.thenReturn(flights);
 		
 		List<Flight> flightsFounded = airportServiceLayer.findAllFlightsByOriginSL(ORIGIN_FIXTURE);
 		assertThat(flightsFounded).containsExactly(FLIGHT_FIXTURE);
+		verify(flightRepositoryMongo, never()).findAllFlights();
+		verify(transactionManager).doReadOnly(eq(ReadOperation.SEARCH), any());
+		verify(transactionManager, never()).doInTransaction(any());
 	}
 	
 	
 	
 	@Test
 	public void testFindAllFlightsByOriginWhenNoExist() {
-		List<Flight> flights = asList(FLIGHT_FIXTURE);
 		
-		when(flightRepositoryMongo.findAllFlights())
-			.thenReturn(flights);
+		when(flightRepositoryMongo.findByOrigin("new origin"))
+			.thenReturn(emptyList());
 		
 		FlightNotFoundException ex = assertThrows(FlightNotFoundException.class, () -> {
 			airportServiceLayer.findAllFlightsByOriginSL("new origin");
@@ -102,21 +117,21 @@ public class SearchServiceLayerTest {
 	public void testFindAllFlightsByDestinationWhenExist() {
 		List<Flight> flights = asList(FLIGHT_FIXTURE);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findByDestination(DESTINATION_FIXTURE))
 			.thenReturn(flights);
 		
 		List<Flight> flightsFounded = airportServiceLayer.findAllFlightsByDestinationSL(DESTINATION_FIXTURE);
 		assertThat(flightsFounded).containsExactly(FLIGHT_FIXTURE);
+		verify(flightRepositoryMongo, never()).findAllFlights();
 	}
 	
 	
 	
 	@Test
 	public void testFindAllFlightsByDestinationWhenNoExist() {
-		List<Flight> flights = asList(FLIGHT_FIXTURE);
 		
-		when(flightRepositoryMongo.findAllFlights())
-			.thenReturn(flights);
+		when(flightRepositoryMongo.findByDestination("new destination"))
+			.thenReturn(emptyList());
 		
 		FlightNotFoundException ex = assertThrows(FlightNotFoundException.class, () -> {
 			airportServiceLayer.findAllFlightsByDestinationSL("new destination");
@@ -131,22 +146,21 @@ public class SearchServiceLayerTest {
 		Flight flight = new Flight(NUM_FIXTURE, ONE_HOUR_LATER, null, null, null, null);
 		List<Flight> flights = asList(flight);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findByDepartureBetween(NOW, TWO_HOUR_LATER))
 			.thenReturn(flights);
 		
 		List<Flight> flightsToReturn = airportServiceLayer.findAllFlightsWithDepartureDateInRangeSL(NOW, TWO_HOUR_LATER);
 		assertThat(flightsToReturn).containsExactly(flight);
+		verify(flightRepositoryMongo, never()).findAllFlights();
 	}
 	
 	
 	
 	@Test
-	public void testFindAllFlightsByDepartureDateInRangeWhenDepartureDateIsBeforeRange() {
-		Flight flight = new Flight(NUM_FIXTURE, NOW, null, null, null, null);
-		List<Flight> flights = asList(flight);
+	public void testFindAllFlightsByDepartureDateInRangeWhenNoExist() {
 		
-		when(flightRepositoryMongo.findAllFlights())
-			.thenReturn(flights);
+		when(flightRepositoryMongo.findByDepartureBetween(ONE_HOUR_LATER, TWO_HOUR_LATER))
+			.thenReturn(emptyList());
 		
 		FlightNotFoundException ex = assertThrows(FlightNotFoundException.class, () -> {
 			airportServiceLayer.findAllFlightsWithDepartureDateInRangeSL(ONE_HOUR_LATER, TWO_HOUR_LATER);
@@ -156,43 +170,26 @@ public class SearchServiceLayerTest {
 	
 	
 	
-	@Test
-	public void testFindAllFlightsByDepartureDateInRangeWhenDepartureDateIsAfterRange() {
-		Flight flight = new Flight(NUM_FIXTURE, TWO_HOUR_LATER, null, null, null, null);
-		List<Flight> flights = asList(flight);
-		
-		when(flightRepositoryMongo.findAllFlights())
-			.thenReturn(flights);
-		
-		FlightNotFoundException ex = assertThrows(FlightNotFoundException.class, () -> {
-			airportServiceLayer.findAllFlightsWithDepartureDateInRangeSL(NOW, ONE_HOUR_LATER);
-		});	
-		assertEquals("There aren't flights with departure date in the selected range", ex.getMessage());
-	}
-	
-	
-	
 	@Test
 	public void testFindAllFlightsByArrivalDateInRangeWhenExist() {
 		Flight flight = new Flight(NUM_FIXTURE, null, ONE_HOUR_LATER, null, null, null);
 		List<Flight> flights = asList(flight);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findByArrivalBetween(NOW, TWO_HOUR_LATER))
 			.thenReturn(flights);
 		
 		List<Flight> flightsToReturn = airportServiceLayer.findAllFlightsWithArrivalDateInRangeSL(NOW, TWO_HOUR_LATER);
 		assertThat(flightsToReturn).containsExactly(flight);
+		verify(flightRepositoryMongo, never()).findAllFlights();
 	}
 	
 	
 	
 	@Test
-	public void testFindAllFlightsByArrivalDateInRangeWhenArrivalDateIsBeforeRange() {
-		Flight flight = new Flight(NUM_FIXTURE, null, NOW, null, null, null);
-		List<Flight> flights = asList(flight);
+	public void testFindAllFlightsByArrivalDateInRangeWhenNoExist() {
 		
-		when(flightRepositoryMongo.findAllFlights())
-			.thenReturn(flights);
+		when(flightRepositoryMongo.findByArrivalBetween(ONE_HOUR_LATER, TWO_HOUR_LATER))
+			.thenReturn(emptyList());
 		
 		FlightNotFoundException ex = assertThrows(FlightNotFoundException.class, () -> {
 			airportServiceLayer.findAllFlightsWithArrivalDateInRangeSL(ONE_HOUR_LATER, TWO_HOUR_LATER);
@@ -202,41 +199,25 @@ public class SearchServiceLayerTest {
 	
 	
 	
-	@Test
-	public void testFindAllFlightsByArrivalDateInRangeWhenArrivalDateIsAfterRange() {
-		Flight flight = new Flight(NUM_FIXTURE, null, TWO_HOUR_LATER, null, null, null);
-		List<Flight> flights = asList(flight);
-		
-		when(flightRepositoryMongo.findAllFlights())
-			.thenReturn(flights);
-		
-		FlightNotFoundException ex = assertThrows(FlightNotFoundException.class, () -> {
-			airportServiceLayer.findAllFlightsWithArrivalDateInRangeSL(NOW, ONE_HOUR_LATER);
-		});	
-		assertEquals("There aren't flights with arrival date in the selected range", ex.getMessage());
-	}
-	
-	
-	
 	@Test
 	public void testFindAllFlightsAssociatesWithPlaneWhenExistFlights() {
 		List<Flight> flights = asList(FLIGHT_FIXTURE);
 		
-		when(flightRepositoryMongo.findAllFlights())
+		when(flightRepositoryMongo.findByPlaneId(ID_FIXTURE_1))
 			.thenReturn(flights);
 		
 		List<Flight> flightsToReturn = airportServiceLayer.findAllFlightsAssociatesWithPlaneSL(ID_FIXTURE_1);
 		assertThat(flightsToReturn).containsExactly(FLIGHT_FIXTURE);
+		verify(flightRepositoryMongo, never()).findAllFlights();
 	}
 	
 	
 	
 	@Test
 	public void testFindAllFlightsAssociatesWithPlaneWhenNoExistFlights() {
-		List<Flight> flights = asList(FLIGHT_FIXTURE);
 		
-		when(flightRepositoryMongo.findAllFlights())
-			.thenReturn(flights);
+		when(flightRepositoryMongo.findByPlaneId("new plane"))
+			.thenReturn(emptyList());
 		
 		FlightNotFoundException ex = assertThrows(FlightNotFoundException.class, () -> {
 			airportServiceLayer.findAllFlightsAssociatesWithPlaneSL("new plane");
@@ -250,21 +231,21 @@ public class SearchServiceLayerTest {
 	public void testFindAllPlanesByModelWhenExist() {
 		List<Plane> planes = asList(PLANE_FIXTURE_1);
 		
-		when(planeRepositoryMongo.findAllPlanes())
+		when(planeRepositoryMongo.findByModel(MODEL_FIXTURE))
 			.thenReturn(planes);
 		
 		List<Plane> planesToReturn = airportServiceLayer.findAllPlanesByModelSL(MODEL_FIXTURE);
 		assertThat(planesToReturn).containsExactly(PLANE_FIXTURE_1);
+		verify(planeRepositoryMongo, never()).findAllPlanes();
 	}
 	
 	
 	
 	@Test
 	public void testFindAllPlanesByModelWhenNoExist() {
-		List<Plane> planes = asList(PLANE_FIXTURE_1);
 		
-		when(planeRepositoryMongo.findAllPlanes())
-			.thenReturn(planes);
+		when(planeRepositoryMongo.findByModel("new-model"))
+			.thenReturn(emptyList());
 		
 		PlaneNotFoundException ex = assertThrows(PlaneNotFoundException.class, () -> {
 			airportServiceLayer.findAllPlanesByModelSL("new-model");
@@ -274,6 +255,198 @@ public class SearchServiceLayerTest {
 	
 	
 	
+	@Test
+	public void testFindAvailablePlanesLeavesOutTheBusyPlanes() {
+		when(flightRepositoryMongo.findBusyPlaneIds(NOW, TWO_HOUR_LATER))
+			.thenReturn(asList("busy-test"));
+		when(planeRepositoryMongo.findPlanesExcept(asList("busy-test"), MODEL_FIXTURE))
+			.thenReturn(asList(PLANE_FIXTURE_1));
+		
+		assertThat(airportServiceLayer.findAvailablePlanesSL(NOW, TWO_HOUR_LATER, " " + MODEL_FIXTURE + " "))
+			.containsExactly(PLANE_FIXTURE_1);
+		verify(transactionManager, times(1)).doInSnapshot(eq(ReadOperation.SEARCH), any());
+		verify(transactionManager, never()).doReadOnly(any(), any());
+	}
+	
+	
+	
+	@Test
+	public void testFindAvailablePlanesFromTheSchedule() {
+		Flight busy = new Flight(NUM_FIXTURE, NOW, ONE_HOUR_LATER, ORIGIN_FIXTURE, DESTINATION_FIXTURE, new Plane("busy-test", MODEL_FIXTURE));
+		airportServiceLayer.enableSchedule(true);
+		when(flightRepositoryMongo.findAllFlights())
+			.thenReturn(asList(busy));
+		when(planeRepositoryMongo.findPlanesExcept(asList("busy-test"), MODEL_FIXTURE))
+			.thenReturn(asList(PLANE_FIXTURE_1));
+		
+		assertThat(airportServiceLayer.findAvailablePlanesSL(NOW, TWO_HOUR_LATER, MODEL_FIXTURE))
+			.containsExactly(PLANE_FIXTURE_1);
+		airportServiceLayer.invalidateSearches();
+		assertThat(airportServiceLayer.findAvailablePlanesSL(NOW, TWO_HOUR_LATER, MODEL_FIXTURE))
+			.containsExactly(PLANE_FIXTURE_1);
+		
+		verify(flightRepositoryMongo, times(1)).findAllFlights();
+		verify(flightRepositoryMongo, never()).findBusyPlaneIds(any(), any());
+		verify(transactionManager, never()).doInSnapshot(any(), any());
+	}
+	
+	
+	
+	@Test
+	public void testFindAvailablePlanesInASnapshotWhenTheFlightsCannotBeLoaded() {
+		airportServiceLayer.enableSchedule(true);
+		when(transactionManager.readsAreCurrent(ReadOperation.LISTING)).thenReturn(false);
+		when(flightRepositoryMongo.findBusyPlaneIds(NOW, TWO_HOUR_LATER))
+			.thenReturn(emptyList());
+		when(planeRepositoryMongo.findPlanesExcept(emptyList(), MODEL_FIXTURE))
+			.thenReturn(asList(PLANE_FIXTURE_1));
+		
+		assertThat(airportServiceLayer.findAvailablePlanesSL(NOW, TWO_HOUR_LATER, MODEL_FIXTURE))
+			.containsExactly(PLANE_FIXTURE_1);
+		verify(flightRepositoryMongo, never()).findAllFlights();
+		verify(transactionManager).doInSnapshot(eq(ReadOperation.SEARCH), any());
+	}
+	
+	
+	
+	@Test
+	public void testFindAvailablePlanesWhenTheRangeIsWrong() {
+		InconsistentDataException ex = assertThrows(InconsistentDataException.class, () -> {
+			airportServiceLayer.findAvailablePlanesSL(TWO_HOUR_LATER, TWO_HOUR_LATER, MODEL_FIXTURE);
+		});
+		assertEquals("start or end date is wrong", ex.getMessage());
+		verify(transactionManager, never()).doInSnapshot(any(), any());
+	}
+	
+	
+	
+	@Test
+	public void testFindAvailablePlanesOfAnyModelWhenNoExist() {
+		when(flightRepositoryMongo.findBusyPlaneIds(NOW, TWO_HOUR_LATER))
+			.thenReturn(asList(ID_FIXTURE_1));
+		when(planeRepositoryMongo.findPlanesExcept(asList(ID_FIXTURE_1), null))
+			.thenReturn(emptyList());
+		
+		PlaneNotFoundException ex = assertThrows(PlaneNotFoundException.class, () -> {
+			airportServiceLayer.findAvailablePlanesSL(NOW, TWO_HOUR_LATER, "");
+		});
+		assertEquals("There aren't available planes in the selected range", ex.getMessage());
+	}
+	
+	
+	
+	@Test
+	public void testRepeatedSearchIsServedFromTheCache() {
+		when(flightRepositoryMongo.findByDepartureBetween(NOW, TWO_HOUR_LATER))
+			.thenReturn(asList(FLIGHT_FIXTURE));
+		
+		airportServiceLayer.findAllFlightsWithDepartureDateInRangeSL(NOW, TWO_HOUR_LATER);
+		List<Flight> flightsFounded = airportServiceLayer.findAllFlightsWithDepartureDateInRangeSL(
+				new Date(NOW.getTime()), new Date(TWO_HOUR_LATER.getTime()));
+		
+		assertThat(flightsFounded).containsExactly(FLIGHT_FIXTURE);
+		verify(transactionManager, times(1)).doReadOnly(eq(ReadOperation.SEARCH), any());
+	}
+	
+	
+	
+	@Test
+	public void testEmptyResultIsCachedAndThrowsAgain() {
+		when(planeRepositoryMongo.findByModel("new-model"))
+			.thenReturn(emptyList());
+		
+		assertThrows(PlaneNotFoundException.class, () -> airportServiceLayer.findAllPlanesByModelSL("new-model"));
+		assertThrows(PlaneNotFoundException.class, () -> airportServiceLayer.findAllPlanesByModelSL("new-model"));
+		verify(planeRepositoryMongo, times(1)).findByModel("new-model");
+	}
+	
+	
+	
+	@Test
+	public void testSearchesAreReadAgainAfterAWrite() {
+		when(flightRepositoryMongo.findByOrigin(ORIGIN_FIXTURE))
+			.thenReturn(asList(FLIGHT_FIXTURE));
+		when(flightRepositoryMongo.findByNum(NUM_FIXTURE))
+			.thenReturn(FLIGHT_FIXTURE);
+		
+		airportServiceLayer.findAllFlightsByOriginSL(ORIGIN_FIXTURE);
+		airportServiceLayer.deleteFlightSL(FLIGHT_FIXTURE);
+		airportServiceLayer.findAllFlightsByOriginSL(ORIGIN_FIXTURE);
+		
+		verify(flightRepositoryMongo, times(2)).findByOrigin(ORIGIN_FIXTURE);
+	}
+	
+	
+	
+	@Test
+	public void testSearchesThatDifferInCaseAndBlanksShareTheirResult() {
+		when(flightRepositoryMongo.findByOrigin("Rome"))
+			.thenReturn(asList(FLIGHT_FIXTURE));
+		
+		airportServiceLayer.findAllFlightsByOriginSL(" Rome");
+		List<Flight> flightsFounded = airportServiceLayer.findAllFlightsByOriginSL("rome ");
+		
+		assertThat(flightsFounded).containsExactly(FLIGHT_FIXTURE);
+		verify(flightRepositoryMongo, times(1)).findByOrigin("Rome");
+	}
+	
+	
+	
+	@Test
+	public void testACachedResultIsNotChangedByItsReaders() {
+		Plane read = new Plane(ID_FIXTURE_1, MODEL_FIXTURE);
+		when(planeRepositoryMongo.findByModel(MODEL_FIXTURE))
+			.thenReturn(asList(read));
+		
+		airportServiceLayer.findAllPlanesByModelSL(MODEL_FIXTURE).get(0).setModel("changed");
+		read.setModel("changed");
+		
+		assertThat(airportServiceLayer.findAllPlanesByModelSL(MODEL_FIXTURE))
+			.extracting(Plane::getModel)
+			.containsExactly(MODEL_FIXTURE);
+	}
+	
+	
+	
+	@Test
+	public void testAReadThatMayMissAWriteIsNotCached() {
+		when(transactionManager.readsAreCurrent(ReadOperation.SEARCH)).thenReturn(false);
+		when(flightRepositoryMongo.findByDestination(DESTINATION_FIXTURE))
+			.thenReturn(asList(FLIGHT_FIXTURE));
+		
+		airportServiceLayer.findAllFlightsByDestinationSL(DESTINATION_FIXTURE);
+		airportServiceLayer.findAllFlightsByDestinationSL(DESTINATION_FIXTURE);
+		
+		verify(flightRepositoryMongo, times(2)).findByDestination(DESTINATION_FIXTURE);
+		assertThat(airportServiceLayer.getSearchCache().size()).isZero();
+	}
+	
+	
+	
+	@Test
+	public void testFailedSearchIsNotCached() {
+		doReturn(null).when(transactionManager).doReadOnly(any(), any());
+		
+		assertThat(airportServiceLayer.findAllFlightsByOriginSL(ORIGIN_FIXTURE)).isNull();
+		assertThat(airportServiceLayer.getSearchCache().size()).isZero();
+	}
+	
+	
+	
+	@Test
+	public void testSearchWithoutCache() {
+		airportServiceLayer.setSearchCache(null);
+		when(flightRepositoryMongo.findByPlaneId(ID_FIXTURE_1))
+			.thenReturn(asList(FLIGHT_FIXTURE));
+		
+		airportServiceLayer.findAllFlightsAssociatesWithPlaneSL(ID_FIXTURE_1);
+		airportServiceLayer.findAllFlightsAssociatesWithPlaneSL(ID_FIXTURE_1);
+		
+		verify(flightRepositoryMongo, times(2)).findByPlaneId(ID_FIXTURE_1);
+	}
+	
+	
+	
 	private static final List<Date> getDates() {
 		Calendar cal = Calendar.getInstance();
 		Date now = cal.getTime();
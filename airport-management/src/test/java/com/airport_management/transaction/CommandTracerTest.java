@@ -0,0 +1,143 @@
+package com.airport_management.transaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+
+public class CommandTracerTest {
+
+	private static final ConnectionDescription CONNECTION = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+	private AtomicLong now;
+	private CommandTracer tracer;
+	private int requestId;
+
+
+	@Before
+	public void setUp() {
+		now = new AtomicLong();
+		tracer = new CommandTracer(100, TimeUnit.MILLISECONDS, now::get);
+	}
+
+
+
+	@Test
+	public void testCommandsAreAttachedToTheUnitOfTheirThread() {
+		tracer.begin("transaction");
+		command("find", new BsonDocument("find", new BsonString("flight")), 5);
+		command("find", new BsonDocument("find", new BsonString("plane")), 1);
+		command("commitTransaction", new BsonDocument("commitTransaction", new BsonInt64(1)), 2);
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+
+		CommandTracer.Trace trace = tracer.end();
+
+		assertThat(trace.getUnit()).isEqualTo("transaction");
+		assertThat(trace.getElapsedNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+		assertThat(trace.getCommands())
+			.extracting(CommandTracer.Command::getName, CommandTracer.Command::getTarget)
+			.containsExactly(
+					tuple("find", "flight"),
+					tuple("find", "plane"),
+					tuple("commitTransaction", "admin"));
+		assertThat(trace.isSlowerThan(TimeUnit.MILLISECONDS.toNanos(100))).isTrue();
+	}
+
+
+
+	@Test
+	public void testRepeatedCommandsAreSummedUpInTheBreakdown() {
+		tracer.begin("search read");
+		command("find", new BsonDocument("find", new BsonString("flight")), 10);
+		command("find", new BsonDocument("find", new BsonString("plane")), 1);
+		command("find", new BsonDocument("find", new BsonString("plane")), 2);
+		command("getMore", new BsonDocument("getMore", new BsonInt64(7)).append("collection", new BsonString("flight")), 4);
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+
+		assertThat(tracer.end()).hasToString(
+				"search read took 20.0 ms, 4 commands\n" +
+				"  find flight x1 10.0 ms\n" +
+				"  find plane x2 3.0 ms\n" +
+				"  getMore flight x1 4.0 ms");
+	}
+
+
+
+	@Test
+	public void testFailedCommandsAreCounted() {
+		tracer.begin("transaction");
+		requestId++;
+		tracer.commandStarted(new CommandStartedEvent(requestId, CONNECTION, "airport", "insert", new BsonDocument("insert", new BsonString("flight"))));
+		tracer.commandFailed(new CommandFailedEvent(requestId, CONNECTION, "insert", TimeUnit.MILLISECONDS.toNanos(3), new IllegalStateException()));
+
+		assertThat(tracer.end().toString()).endsWith("  insert flight x1 3.0 ms, 1 failed");
+	}
+
+
+
+	@Test
+	public void testNestedUnitsBelongToTheOuterOne() {
+		tracer.begin("transaction");
+		tracer.begin("lookup read");
+		command("find", new BsonDocument("find", new BsonString("plane")), 1);
+
+		assertThat(tracer.end()).isNull();
+		command("insert", new BsonDocument("insert", new BsonString("flight")), 1);
+		assertThat(tracer.end().getCommands()).hasSize(2);
+	}
+
+
+
+	@Test
+	public void testCommandsOutsideAUnitAreIgnored() {
+		command("find", new BsonDocument("find", new BsonString("plane")), 1);
+
+		assertThat(tracer.end()).isNull();
+		tracer.begin("transaction");
+		assertThat(tracer.end().getCommands()).isEmpty();
+	}
+
+
+
+	@Test
+	public void testUnitsFasterThanTheThresholdAreNotSlow() {
+		tracer.begin("transaction");
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(99));
+
+		assertThat(tracer.end().isSlowerThan(TimeUnit.MILLISECONDS.toNanos(100))).isFalse();
+	}
+
+
+
+	@Test
+	public void testThresholdMustBePositive() {
+		assertThatThrownBy(() -> new CommandTracer(0, TimeUnit.MILLISECONDS))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("slow threshold must be positive");
+	}
+
+
+
+	private void command(String name, BsonDocument command, long millis) {
+		requestId++;
+		tracer.commandStarted(new CommandStartedEvent(requestId, CONNECTION, "admin", name, command));
+		tracer.commandSucceeded(new CommandSucceededEvent(requestId, CONNECTION, name, new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(millis)));
+	}
+}
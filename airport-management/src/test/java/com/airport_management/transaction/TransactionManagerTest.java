@@ -0,0 +1,285 @@
+package com.airport_management.transaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.Collection;
+
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import com.airport_management.exception.InconsistentDataException;
+import com.airport_management.exception.TransactionFailedException;
+import com.airport_management.exception.TransactionRetryExhaustedException;
+import com.airport_management.metrics.MetricsRegistry;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.TransactionOptions;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.ListIndexesIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.MongoIterable;
+import com.mongodb.client.TransactionBody;
+
+
+public class TransactionManagerTest {
+
+	private static final String AIRPORT_DB_NAME = "airport-manager-test";
+	private static final String PLANE_COLLECTION_NAME = "plane";
+	private static final String FLIGHT_COLLECTION_NAME = "flight";
+
+	private MongoClient client;
+	private ClientSession clientSession;
+	private ClientSession readSession;
+	private TransactionRetryPolicy retryPolicy;
+	private MetricsRegistry metrics;
+	private TransactionManager transactionManager;
+
+
+	@Before
+	public void setUp() {
+		client = mock(MongoClient.class);
+		clientSession = mock(ClientSession.class);
+		readSession = mock(ClientSession.class);
+		retryPolicy = mock(TransactionRetryPolicy.class);
+		metrics = new MetricsRegistry();
+
+		MongoDatabase database = mock(MongoDatabase.class);
+		when(client.getDatabase(AIRPORT_DB_NAME)).thenReturn(database);
+		when(client.startSession()).thenReturn(clientSession);
+		when(client.startSession(any())).thenReturn(readSession);
+		stubCollectionNames(database);
+		stubCollection(database, PLANE_COLLECTION_NAME);
+		stubCollection(database, FLIGHT_COLLECTION_NAME);
+
+		transactionManager = new TransactionManager(client, AIRPORT_DB_NAME, PLANE_COLLECTION_NAME, FLIGHT_COLLECTION_NAME);
+		transactionManager.setMetrics(metrics);
+		transactionManager.setRetryPolicy(retryPolicy);
+	}
+
+
+
+	@Test
+	public void testADatabaseErrorIsThrownAndCounted() {
+		MongoException cause = new MongoException("not primary");
+		when(retryPolicy.execute(any(), any(), any())).thenThrow(cause);
+
+		assertThatThrownBy(() -> transactionManager.doInTransaction(repositoryMongo -> "result"))
+			.isInstanceOf(TransactionFailedException.class)
+			.hasCause(cause)
+			.hasMessageContaining("not primary");
+		assertThat(outcome("error")).isEqualTo(1);
+		assertThat(outcome("commit")).isZero();
+		verify(clientSession).close();
+	}
+
+
+
+	@Test
+	public void testAGiveUpIsThrownAndCounted() {
+		TransactionRetryExhaustedException ex = new TransactionRetryExhaustedException(5, new MongoException("write conflict"));
+		when(retryPolicy.execute(any(), any(), any())).thenThrow(ex);
+
+		assertThatThrownBy(() -> transactionManager.doInTransaction(repositoryMongo -> "result"))
+			.isSameAs(ex);
+		assertThat(outcome("give_up")).isEqualTo(1);
+		assertThat(outcome("error")).isZero();
+	}
+
+
+
+	@Test
+	public void testARejectedWriteIsCountedAsAbort() {
+		when(retryPolicy.execute(any(), any(), any())).thenThrow(new InconsistentDataException("wrong dates"));
+
+		assertThatThrownBy(() -> transactionManager.doInTransaction(repositoryMongo -> "result"))
+			.isInstanceOf(InconsistentDataException.class);
+		assertThat(outcome("abort")).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testACommitIsCounted() {
+		when(retryPolicy.execute(any(), any(), any())).thenReturn("result");
+
+		String result = transactionManager.doInTransaction(repositoryMongo -> "result");
+		assertThat(result).isEqualTo("result");
+		assertThat(outcome("commit")).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testAReadStartsFromTheTimesOfTheLastWrite() {
+		BsonTimestamp operationTime = new BsonTimestamp(100, 1);
+		BsonDocument clusterTime = clusterTime(100, 2);
+		when(clientSession.getOperationTime()).thenReturn(operationTime);
+		when(clientSession.getClusterTime()).thenReturn(clusterTime);
+		when(retryPolicy.execute(any(), any(), any())).thenReturn("result");
+		
+		transactionManager.doInTransaction(repositoryMongo -> "result");
+		transactionManager.doReadOnly(ReadOperation.LISTING, repositoryMongo -> "read");
+		
+		InOrder inOrder = inOrder(readSession);
+		inOrder.verify(readSession).advanceOperationTime(operationTime);
+		inOrder.verify(readSession).advanceClusterTime(clusterTime);
+		inOrder.verify(readSession).close();
+	}
+
+
+
+	@Test
+	public void testTheTimesOnlyMoveForward() {
+		BsonTimestamp later = new BsonTimestamp(200, 1);
+		BsonDocument laterClusterTime = clusterTime(200, 1);
+		when(readSession.getOperationTime()).thenReturn(later);
+		when(readSession.getClusterTime()).thenReturn(laterClusterTime);
+		transactionManager.doReadOnly(ReadOperation.LISTING, repositoryMongo -> "read");
+		
+		when(clientSession.getOperationTime()).thenReturn(new BsonTimestamp(100, 1));
+		when(clientSession.getClusterTime()).thenReturn(clusterTime(100, 1));
+		when(retryPolicy.execute(any(), any(), any())).thenReturn("result");
+		transactionManager.doInTransaction(repositoryMongo -> "result");
+		
+		ClientSession nextReadSession = mock(ClientSession.class);
+		when(client.startSession(any())).thenReturn(nextReadSession);
+		transactionManager.doReadOnly(ReadOperation.LISTING, repositoryMongo -> "read");
+		verify(nextReadSession).advanceOperationTime(later);
+		verify(nextReadSession).advanceClusterTime(laterClusterTime);
+	}
+
+
+
+	@Test
+	public void testAChangeOfAnotherClientAdvancesTheReads() {
+		BsonTimestamp changed = new BsonTimestamp(300, 1);
+		
+		transactionManager.advanceOperationTime(changed);
+		transactionManager.doReadOnly(ReadOperation.SEARCH, repositoryMongo -> "read");
+		
+		verify(readSession).advanceOperationTime(changed);
+	}
+
+
+
+	@Test
+	public void testReadsAreCurrentOnThePrimaryOrInACausalSession() {
+		transactionManager.setReadPreference(ReadOperation.SEARCH, ReadPreference.secondaryPreferred());
+		assertThat(transactionManager.readsAreCurrent(ReadOperation.SEARCH)).isTrue();
+		assertThat(transactionManager.readsAreCurrent(ReadOperation.LOOKUP)).isTrue();
+		
+		transactionManager.setCausallyConsistentReads(false);
+		assertThat(transactionManager.readsAreCurrent(ReadOperation.SEARCH)).isFalse();
+		assertThat(transactionManager.readsAreCurrent(ReadOperation.LOOKUP)).isTrue();
+	}
+
+
+
+	@Test
+	public void testAFreshSessionIsLeftAloneBeforeAnyWrite() {
+		transactionManager.doReadOnly(ReadOperation.LISTING, repositoryMongo -> "read");
+		
+		verify(readSession, never()).advanceOperationTime(any());
+		verify(readSession, never()).advanceClusterTime(any());
+	}
+
+
+
+	@Test
+	public void testReadsWithoutCausalConsistencyAreNotAdvanced() {
+		when(clientSession.getOperationTime()).thenReturn(new BsonTimestamp(100, 1));
+		when(clientSession.getClusterTime()).thenReturn(clusterTime(100, 1));
+		when(retryPolicy.execute(any(), any(), any())).thenReturn("result");
+		transactionManager.setCausallyConsistentReads(false);
+		
+		transactionManager.doInTransaction(repositoryMongo -> "result");
+		transactionManager.doReadOnly(ReadOperation.LISTING, repositoryMongo -> "read");
+		
+		verify(readSession, never()).advanceOperationTime(any());
+		verify(readSession, never()).advanceClusterTime(any());
+	}
+
+
+
+	@Test
+	public void testASnapshotReadsInOneTransactionAtSnapshotReadConcern() {
+		when(retryPolicy.execute(eq(readSession), any(), any()))
+			.thenAnswer(invocation -> invocation.<TransactionBody<?>>getArgument(2).execute());
+		
+		String result = transactionManager.doInSnapshot(ReadOperation.SEARCH, repositoryMongo -> "read");
+		assertThat(result).isEqualTo("read");
+		
+		ArgumentCaptor<TransactionOptions> options = ArgumentCaptor.forClass(TransactionOptions.class);
+		verify(retryPolicy).execute(eq(readSession), options.capture(), any());
+		assertThat(options.getValue().getReadConcern()).isEqualTo(ReadConcern.SNAPSHOT);
+		assertThat(options.getValue().getReadPreference()).isEqualTo(ReadPreference.primary());
+		verify(readSession).close();
+	}
+
+
+
+	@Test
+	public void testASnapshotThatFailsIsCountedAsAReadError() {
+		when(retryPolicy.execute(any(), any(), any())).thenThrow(new MongoException("not primary"));
+		
+		String result = transactionManager.doInSnapshot(ReadOperation.SEARCH, repositoryMongo -> "read");
+		assertThat(result).isNull();
+		assertThat(metrics.counter("airport_read_errors_total", "", "operation", "search").count()).isEqualTo(1);
+		verify(readSession).close();
+	}
+
+
+
+	private static BsonDocument clusterTime(int seconds, int increment) {
+		return new BsonDocument("clusterTime", new BsonTimestamp(seconds, increment));
+	}
+
+
+
+	private long outcome(String outcome) {
+		return metrics.counter("airport_transactions_total", "", "outcome", outcome).count();
+	}
+
+
+
+	@SuppressWarnings("unchecked")
+	private void stubCollectionNames(MongoDatabase database) {
+		MongoIterable<String> names = mock(MongoIterable.class);
+		when(database.listCollectionNames()).thenReturn(names);
+		when(names.into(any())).thenAnswer(invocation -> {
+			Collection<String> target = invocation.getArgument(0);
+			target.add(PLANE_COLLECTION_NAME);
+			target.add(FLIGHT_COLLECTION_NAME);
+			return target;
+		});
+	}
+
+
+
+	//a collection without indexes, the provisioner creates them on the mock
+	@SuppressWarnings("unchecked")
+	private void stubCollection(MongoDatabase database, String name) {
+		MongoCollection<Document> collection = mock(MongoCollection.class);
+		ListIndexesIterable<Document> indexes = mock(ListIndexesIterable.class);
+		MongoCursor<Document> cursor = mock(MongoCursor.class);
+		when(database.getCollection(name)).thenReturn(collection);
+		when(collection.getNamespace()).thenReturn(new MongoNamespace(AIRPORT_DB_NAME, name));
+		when(collection.listIndexes()).thenReturn(indexes);
+		when(indexes.iterator()).thenReturn(cursor);
+		when(collection.withReadPreference(any())).thenReturn(collection);
+	}
+}
@@ -0,0 +1,217 @@
+package com.airport_management.transaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.airport_management.exception.InconsistentDataException;
+import com.airport_management.exception.TransactionRetryExhaustedException;
+import com.mongodb.MongoException;
+import com.mongodb.TransactionOptions;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.TransactionBody;
+
+
+public class TransactionRetryPolicyTest {
+
+	private static final TransactionOptions OPTIONS = TransactionOptions.builder().build();
+
+	private ClientSession clientSession;
+	private AtomicLong now;
+	private List<Long> sleeps;
+	private TransactionRetryPolicy retryPolicy;
+
+
+	@Before
+	public void setUp() {
+		clientSession = mock(ClientSession.class);
+		now = new AtomicLong();
+		sleeps = new ArrayList<>();
+
+		//the jitter always picks the whole bound, sleeping moves the clock
+		retryPolicy = new TransactionRetryPolicy(4, 10, 25, 1000, TimeUnit.MILLISECONDS, now::get, () -> 1.0,
+				nanos -> {
+					sleeps.add(TimeUnit.NANOSECONDS.toMillis(nanos));
+					now.addAndGet(nanos);
+				});
+	}
+
+
+
+	@Test
+	public void testCommittedAtTheFirstAttempt() {
+		assertThat(retryPolicy.execute(clientSession, OPTIONS, () -> "result")).isEqualTo("result");
+
+		verify(clientSession).startTransaction(OPTIONS);
+		verify(clientSession).commitTransaction();
+		assertThat(retryPolicy.getRetryCount()).isZero();
+	}
+
+
+
+	@Test
+	public void testTransientErrorsAreRetriedWithAnExponentialBackoff() {
+		AtomicInteger calls = new AtomicInteger();
+		when(clientSession.hasActiveTransaction()).thenReturn(true);
+
+		String result = retryPolicy.execute(clientSession, OPTIONS, () -> {
+			if(calls.incrementAndGet() < 4)
+				throw transientError();
+			return "result";
+		});
+
+		assertThat(result).isEqualTo("result");
+		assertThat(sleeps).containsExactly(10L, 20L, 25L);
+		assertThat(retryPolicy.getRetryCount()).isEqualTo(3);
+		verify(clientSession, times(4)).startTransaction(OPTIONS);
+		verify(clientSession, times(3)).abortTransaction();
+		verify(clientSession).commitTransaction();
+	}
+
+
+
+	@Test
+	public void testWriteConflictsAreRetried() {
+		AtomicInteger calls = new AtomicInteger();
+
+		retryPolicy.execute(clientSession, OPTIONS, () -> {
+			if(calls.incrementAndGet() == 1)
+				throw new MongoException(112, "WriteConflict");
+			return "result";
+		});
+
+		assertThat(calls.get()).isEqualTo(2);
+		assertThat(retryPolicy.getRetryCount()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testGivenUpWhenTheAttemptsRunOut() {
+		MongoException error = transientError();
+		TransactionBody<String> body = () -> {
+			throw error;
+		};
+
+		assertThatThrownBy(() -> retryPolicy.execute(clientSession, OPTIONS, body))
+			.isInstanceOf(TransactionRetryExhaustedException.class)
+			.hasCause(error)
+			.hasMessage("The database is busy, the change was not saved after 4 attempts. Try again");
+		assertThat(retryPolicy.getRetryCount()).isEqualTo(3);
+		assertThat(retryPolicy.getGiveUpCount()).isEqualTo(1);
+		verify(clientSession, never()).commitTransaction();
+	}
+
+
+
+	@Test
+	public void testGivenUpWhenTheNextWaitWouldPassTheDeadline() {
+		TransactionBody<String> body = () -> {
+			now.addAndGet(TimeUnit.MILLISECONDS.toNanos(495));
+			throw transientError();
+		};
+
+		assertThatThrownBy(() -> retryPolicy.execute(clientSession, OPTIONS, body))
+			.isInstanceOf(TransactionRetryExhaustedException.class)
+			.extracting(ex -> ((TransactionRetryExhaustedException) ex).getAttempts())
+			.isEqualTo(2);
+		assertThat(sleeps).containsExactly(10L);
+	}
+
+
+
+	@Test
+	public void testOtherErrorsAreNotRetried() {
+		MongoException error = new MongoException("not transient");
+		when(clientSession.hasActiveTransaction()).thenReturn(true);
+		TransactionBody<String> body = () -> {
+			throw error;
+		};
+
+		assertThatThrownBy(() -> retryPolicy.execute(clientSession, OPTIONS, body)).isSameAs(error);
+		verify(clientSession).abortTransaction();
+		assertThat(retryPolicy.getRetryCount()).isZero();
+	}
+
+
+
+	@Test
+	public void testRejectedWritesAreAbortedAndRethrown() {
+		InconsistentDataException rejected = new InconsistentDataException("departure or arrival date is wrong");
+		when(clientSession.hasActiveTransaction()).thenReturn(true);
+		TransactionBody<String> body = () -> {
+			throw rejected;
+		};
+
+		assertThatThrownBy(() -> retryPolicy.execute(clientSession, OPTIONS, body)).isSameAs(rejected);
+		verify(clientSession).abortTransaction();
+		verify(clientSession, never()).commitTransaction();
+	}
+
+
+
+	@Test
+	public void testCommitWithUnknownResultIsCommittedAgain() {
+		MongoException unknown = new MongoException("commit timed out");
+		unknown.addLabel(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL);
+		doThrow(unknown).doNothing().when(clientSession).commitTransaction();
+		AtomicInteger calls = new AtomicInteger();
+
+		retryPolicy.execute(clientSession, OPTIONS, calls::incrementAndGet);
+
+		assertThat(calls.get()).isEqualTo(1);
+		verify(clientSession, times(2)).commitTransaction();
+		assertThat(retryPolicy.getRetryCount()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testTransientCommitErrorRunsTheBodyAgain() {
+		doThrow(transientError()).doNothing().when(clientSession).commitTransaction();
+		AtomicInteger calls = new AtomicInteger();
+
+		retryPolicy.execute(clientSession, OPTIONS, calls::incrementAndGet);
+
+		assertThat(calls.get()).isEqualTo(2);
+		verify(clientSession, times(2)).startTransaction(OPTIONS);
+	}
+
+
+
+	@Test
+	public void testBackoffIsRandomizedUpToItsBound() {
+		TransactionRetryPolicy halfJitter = new TransactionRetryPolicy(4, 10, 25, 1000, TimeUnit.MILLISECONDS,
+				now::get, () -> 0.5, nanos -> {});
+
+		assertThat(halfJitter.backoffNanos(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+		assertThat(halfJitter.backoffNanos(3)).isEqualTo(TimeUnit.MICROSECONDS.toNanos(12500));
+	}
+
+
+
+	@Test
+	public void testSettingsMustBeValid() {
+		assertThatThrownBy(() -> new TransactionRetryPolicy(0, 10, 20, 100, TimeUnit.MILLISECONDS))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new TransactionRetryPolicy(3, 30, 20, 100, TimeUnit.MILLISECONDS))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+
+	private static MongoException transientError() {
+		MongoException error = new MongoException(251, "NoSuchTransaction");
+		error.addLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+		return error;
+	}
+}
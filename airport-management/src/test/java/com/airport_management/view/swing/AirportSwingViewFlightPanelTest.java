@@ -1,21 +1,28 @@
 package com.airport_management.view.swing;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.swing.timing.Pause.pause;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Date;
 
-import javax.swing.DefaultListModel;
 
 import org.assertj.swing.annotation.GUITest;
 import org.assertj.swing.core.matcher.JButtonMatcher;
 import org.assertj.swing.edt.GuiActionRunner;
 import org.assertj.swing.fixture.FrameFixture;
 import org.assertj.swing.fixture.JButtonFixture;
+import org.assertj.swing.fixture.JOptionPaneFixture;
 import org.assertj.swing.fixture.JTextComponentFixture;
 import org.assertj.swing.junit.runner.GUITestRunner;
 import org.assertj.swing.junit.testcase.AssertJSwingJUnitTestCase;
+import org.assertj.swing.timing.Condition;
+import org.assertj.swing.timing.Timeout;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -31,6 +38,8 @@ import com.airport_management.model.Plane;
 @RunWith(GUITestRunner.class)
 public class AirportSwingViewFlightPanelTest extends AssertJSwingJUnitTestCase{
 
+	private static final long TIMEOUT = 5000;
+
 	private FrameFixture window;
 
 	private AirportSwingView airportSwingView;
@@ -215,7 +224,7 @@ public class AirportSwingViewFlightPanelTest extends AssertJSwingJUnitTestCase{
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
 		GuiActionRunner.execute(
 			() -> {
-				DefaultListModel<Flight> listFlightsModel = airportSwingView.getListFlightsModel();
+				LazyListModel<Flight> listFlightsModel = airportSwingView.getListFlightsModel();
 				listFlightsModel.addElement(FLIGHT_FIXTURE_1);
 				listFlightsModel.addElement(FLIGHT_FIXTURE_2);
 			}
@@ -242,6 +251,41 @@ public class AirportSwingViewFlightPanelTest extends AssertJSwingJUnitTestCase{
 	
 	
 	
+	@Test @GUITest
+	public void testFlightInsertedShouldAddTheFlightToTheList() {
+		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		GuiActionRunner.execute(
+				() ->
+				airportSwingView.flightInserted(FLIGHT_FIXTURE_1));
+		
+		String[] listContents = window.panel("panel2").list().contents();
+		assertThat(listContents).containsExactly(FLIGHT_FIXTURE_1.toString());
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testFlightDeletedShouldRemoveTheFlightWithTheNum() {
+		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		GuiActionRunner.execute(
+			() -> {
+				LazyListModel<Flight> listFlightsModel = airportSwingView.getListFlightsModel();
+				listFlightsModel.addElement(FLIGHT_FIXTURE_1);
+				listFlightsModel.addElement(FLIGHT_FIXTURE_2);
+			}
+		);
+		
+		GuiActionRunner.execute(
+			() ->
+			airportSwingView.flightDeleted(NUM_FIXTURE_1)
+		);
+		
+		String[] listContents = window.panel("panel2").list().contents();
+		assertThat(listContents).containsExactly(FLIGHT_FIXTURE_2.toString());
+	}
+	
+	
+	
 	@Test @GUITest
 	public void testAddButtonShouldDelegateToFlightControllerNewFlight() {
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
@@ -254,7 +298,7 @@ public class AirportSwingViewFlightPanelTest extends AssertJSwingJUnitTestCase{
 		window.panel("panel2").textBox("originTextBox").enterText("origin");	
 		window.panel("panel2").textBox("destinationTextBox").enterText("destination");
 		window.panel("panel2").button(JButtonMatcher.withText("Add")).click();
-		verify(flightController).newFlight(new Flight(departureDate, arrivalDate, "origin", "destination", null));
+		verify(flightController, timeout(TIMEOUT)).newFlight(new Flight(departureDate, arrivalDate, "origin", "destination", null));
 	}
 
 	
@@ -265,7 +309,7 @@ public class AirportSwingViewFlightPanelTest extends AssertJSwingJUnitTestCase{
 		
 		GuiActionRunner.execute(
 			() -> {
-				DefaultListModel<Flight> listFlightsModel = airportSwingView.getListFlightsModel();
+				LazyListModel<Flight> listFlightsModel = airportSwingView.getListFlightsModel();
 				listFlightsModel.addElement(FLIGHT_FIXTURE_1);
 				listFlightsModel.addElement(FLIGHT_FIXTURE_2);
 			}
@@ -273,8 +317,122 @@ public class AirportSwingViewFlightPanelTest extends AssertJSwingJUnitTestCase{
 		
 		window.panel("panel2").list("flightsList").selectItem(1);
 		window.panel("panel2").button(JButtonMatcher.withText("Delete Selected")).click();
-		verify(flightController).deleteFlight(FLIGHT_FIXTURE_2);
+		verify(flightController, timeout(TIMEOUT)).deleteFlight(FLIGHT_FIXTURE_2);
 	}	
+	
+	
+	
+	@Test @GUITest
+	public void testDeleteButtonShouldDelegateToFlightControllerDeleteFlightsWhenMoreAreSelected() {
+		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		
+		GuiActionRunner.execute(
+			() -> {
+				LazyListModel<Flight> listFlightsModel = airportSwingView.getListFlightsModel();
+				listFlightsModel.addElement(FLIGHT_FIXTURE_1);
+				listFlightsModel.addElement(FLIGHT_FIXTURE_2);
+			}
+		);
+		
+		window.panel("panel2").list("flightsList").selectItems(0, 1);
+		window.panel("panel2").button(JButtonMatcher.withText("Delete Selected")).click();
+		verify(flightController, timeout(TIMEOUT)).deleteFlights(Arrays.asList(FLIGHT_FIXTURE_1, FLIGHT_FIXTURE_2));
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testDeleteFlightsOfPlaneButtonShouldDelegateToFlightControllerOnceConfirmed() {
+		when(flightController.countFlightsOfPlane(ID_FIXTURE_1)).thenReturn(2L);
+		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		JButtonFixture deleteButton = window.panel("panel2").button(JButtonMatcher.withText("Delete Flights Of Plane"));
+		deleteButton.requireDisabled();
+		
+		GuiActionRunner.execute(
+				() -> airportSwingView.getComboBoxDeletePlane().addItem(ID_FIXTURE_1));
+		window.panel("panel2").comboBox("deletePlaneComboBox").selectItem(ID_FIXTURE_1);
+		deleteButton.requireEnabled().click();
+		
+		JOptionPaneFixture confirmation = window.optionPane(Timeout.timeout(TIMEOUT));
+		confirmation.requireMessage("2 flights will be deleted");
+		confirmation.okButton().click();
+		verify(flightController, timeout(TIMEOUT)).deleteFlightsOfPlane(ID_FIXTURE_1);
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testTheFlightBeingAddedIsNotTheOneWhoseFlightsAreDeleted() {
+		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		GuiActionRunner.execute(
+				() -> airportSwingView.getComboBox().addItem(ID_FIXTURE_1));
+		window.panel("panel2").comboBox("planeComboBox").selectItem(ID_FIXTURE_1);
+		
+		window.panel("panel2").button(JButtonMatcher.withText("Delete Flights Of Plane")).requireDisabled();
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testDeleteDepartingBetweenButtonShouldDelegateToFlightControllerOnceConfirmed() {
+		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		Date start = (Date) window.panel("panel2").spinner("spinnerDeleteFrom").target().getValue();
+		Date end = (Date) window.panel("panel2").spinner("spinnerDeleteTo").target().getValue();
+		when(flightController.countFlightsWithDepartureDateInRange(start, end)).thenReturn(1L);
+		
+		window.panel("panel2").button(JButtonMatcher.withText("Delete Departing Between")).click();
+		
+		JOptionPaneFixture confirmation = window.optionPane(Timeout.timeout(TIMEOUT));
+		confirmation.requireMessage("1 flight will be deleted");
+		confirmation.okButton().click();
+		verify(flightController, timeout(TIMEOUT)).deleteFlightsWithDepartureDateInRange(start, end);
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testACancelledBulkDeleteDeletesNothing() {
+		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		Date start = (Date) window.panel("panel2").spinner("spinnerDeleteFrom").target().getValue();
+		Date end = (Date) window.panel("panel2").spinner("spinnerDeleteTo").target().getValue();
+		when(flightController.countFlightsWithDepartureDateInRange(start, end)).thenReturn(3L);
+		
+		window.panel("panel2").button(JButtonMatcher.withText("Delete Departing Between")).click();
+		window.optionPane(Timeout.timeout(TIMEOUT)).cancelButton().click();
+		
+		verify(flightController, timeout(TIMEOUT)).countFlightsWithDepartureDateInRange(start, end);
+		verify(flightController, never()).deleteFlightsWithDepartureDateInRange(any(), any());
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testABulkDeleteMatchingNothingAsksNothing() {
+		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		
+		window.panel("panel2").button(JButtonMatcher.withText("Delete Departing Between")).click();
+		
+		pause(new Condition("the nothing to delete message") {
+			@Override
+			public boolean test() {
+				return AirportSwingView.NOTHING_TO_DELETE.equals(
+						GuiActionRunner.execute(() -> window.panel("panel2").label("errorMessageLabel").target().getText()));
+			}
+		}, TIMEOUT);
+		verify(flightController, never()).deleteFlightsWithDepartureDateInRange(any(), any());
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testShowFlightsDeletedShouldShowTheCount() {
+		window.button(JButtonMatcher.withText("Flight Panel")).click();
+		
+		GuiActionRunner.execute(
+			() -> airportSwingView.showFlightsDeleted(1)
+		);
+		window.panel("panel2").label("errorMessageLabel").requireText("1 flight deleted");
+	}
 }
 
 
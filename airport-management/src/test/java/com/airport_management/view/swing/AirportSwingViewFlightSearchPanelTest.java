@@ -1,6 +1,7 @@
 package com.airport_management.view.swing;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 import java.util.Arrays;
@@ -28,6 +29,8 @@ import com.airport_management.model.Plane;
 @RunWith(GUITestRunner.class)
 public class AirportSwingViewFlightSearchPanelTest extends AssertJSwingJUnitTestCase {
 
+	private static final long TIMEOUT = 5000;
+
 	private FrameFixture window;
 	private AirportSwingView airportSwingView;
 
@@ -303,7 +306,7 @@ public class AirportSwingViewFlightSearchPanelTest extends AssertJSwingJUnitTest
 		String origin = "origin";
 		window.textBox("searchOriginTextBox").enterText(origin);
 		window.button(JButtonMatcher.withText("Search by origin")).click();
-		verify(searchController).findAllFlightsByOrigin(origin);
+		verify(searchController, timeout(TIMEOUT)).findAllFlightsByOrigin(origin);
 	}
 	
 	
@@ -314,7 +317,7 @@ public class AirportSwingViewFlightSearchPanelTest extends AssertJSwingJUnitTest
 		String destination = "destination";
 		window.textBox("searchDestinationTextBox").enterText(destination);
 		window.button(JButtonMatcher.withText("Search by destination")).click();
-		verify(searchController).findAllFlightsByDestination(destination);
+		verify(searchController, timeout(TIMEOUT)).findAllFlightsByDestination(destination);
 	}
 	
 	
@@ -325,7 +328,7 @@ public class AirportSwingViewFlightSearchPanelTest extends AssertJSwingJUnitTest
 		Date start = (Date)airportSwingView.getSpinnerSearchByDepartureDateStart().getValue();
 		Date end = (Date)airportSwingView.getSpinnerSearchByDepartureDateEnd().getValue();
 		window.button(JButtonMatcher.withText("Search by departure date")).click();
-		verify(searchController).findAllFlightsWithDepartureDateInRange(start, end);
+		verify(searchController, timeout(TIMEOUT)).findAllFlightsWithDepartureDateInRange(start, end);
 	}
 	
 	
@@ -336,7 +339,7 @@ public class AirportSwingViewFlightSearchPanelTest extends AssertJSwingJUnitTest
 		Date start = (Date)airportSwingView.getSpinnerSearchByArrivalDateStart().getValue();
 		Date end = (Date)airportSwingView.getSpinnerSearchByArrivalDateEnd().getValue();
 		window.button(JButtonMatcher.withText("Search by arrival date")).click();
-		verify(searchController).findAllFlightsWithArrivalDateInRange(start, end);
+		verify(searchController, timeout(TIMEOUT)).findAllFlightsWithArrivalDateInRange(start, end);
 	}
 }
 
@@ -1,6 +1,10 @@
 package com.airport_management.view.swing;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.assertj.swing.timing.Pause.pause;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 import org.assertj.swing.edt.GuiActionRunner;
@@ -11,6 +15,7 @@ import org.assertj.swing.core.matcher.JButtonMatcher;
 import org.assertj.swing.fixture.JButtonFixture;
 import org.assertj.swing.fixture.JTextComponentFixture;
 import org.assertj.swing.junit.testcase.AssertJSwingJUnitTestCase;
+import org.assertj.swing.timing.Condition;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -18,19 +23,23 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
-import javax.swing.DefaultListModel;
 
 import com.airport_management.controller.FlightController;
 import com.airport_management.controller.PlaneController;
 import com.airport_management.controller.SearchController;
 import com.airport_management.model.Plane;
+import com.airport_management.view.PageSource;
 
 
 @RunWith(GUITestRunner.class)
 public class AirportSwingViewPlanePanelTest extends AssertJSwingJUnitTestCase{
 	
+	private static final long TIMEOUT = 5000;
+
 	private FrameFixture window;
 	private AirportSwingView airportSwingView;
 
@@ -111,6 +120,60 @@ public class AirportSwingViewPlanePanelTest extends AssertJSwingJUnitTestCase{
 	
 
 	
+	@Test @GUITest
+	public void testShowPlanePagesShouldShowThePlanesOfTheSource() {
+		List<Plane> planes = Arrays.asList(PLANE_FIXTURE_1, PLANE_FIXTURE_2);
+		GuiActionRunner.execute(
+			() -> airportSwingView.showPlanePages(new PageSource<Plane>() {
+				@Override
+				public int size() {
+					return planes.size();
+				}
+				@Override
+				public List<Plane> page(int offset, int limit) {
+					return planes.subList(offset, Math.min(planes.size(), offset + limit));
+				}
+			})
+		);
+		String[] listContents = window.panel("panel1").list().contents();
+		assertThat(listContents)
+			.containsExactly(
+					"id=" + ID_FIXTURE_1 + ", " +  "model=" + MODEL_FIXTURE_1,
+					"id=" + ID_FIXTURE_2 + ", " +  "model=" + MODEL_FIXTURE_2);
+	}
+	
+
+	
+	@Test @GUITest
+	public void testPlanesInsertedElsewhereShouldReadTheNewPlanes() {
+		List<Plane> planes = new ArrayList<>(Arrays.asList(PLANE_FIXTURE_1));
+		GuiActionRunner.execute(
+			() -> airportSwingView.showPlanePages(new PageSource<Plane>() {
+				@Override
+				public int size() {
+					return planes.size();
+				}
+				@Override
+				public List<Plane> page(int offset, int limit) {
+					return new ArrayList<>(planes.subList(offset, Math.min(planes.size(), offset + limit)));
+				}
+			})
+		);
+		waitForPlanes(1);
+		
+		planes.add(PLANE_FIXTURE_2);
+		GuiActionRunner.execute(
+			() -> airportSwingView.planeInsertedElsewhere(ID_FIXTURE_2)
+		);
+		waitForPlanes(2);
+		assertThat(window.panel("panel1").list().contents())
+			.containsExactly(
+					"id=" + ID_FIXTURE_1 + ", " +  "model=" + MODEL_FIXTURE_1,
+					"id=" + ID_FIXTURE_2 + ", " +  "model=" + MODEL_FIXTURE_2);
+	}
+	
+
+	
 	@Test @GUITest
 	public void testShowErrorShouldShowTheMessageInTheErrorLabel() {
 		GuiActionRunner.execute(
@@ -140,7 +203,7 @@ public class AirportSwingViewPlanePanelTest extends AssertJSwingJUnitTestCase{
 		// setup
 		GuiActionRunner.execute(
 			() -> {
-				DefaultListModel<Plane> listPlanesModel = airportSwingView.getListPlaneModel();
+				LazyListModel<Plane> listPlanesModel = airportSwingView.getListPlaneModel();
 				listPlanesModel.addElement(PLANE_FIXTURE_1);
 				listPlanesModel.addElement(PLANE_FIXTURE_2);
 			}
@@ -160,12 +223,48 @@ public class AirportSwingViewPlanePanelTest extends AssertJSwingJUnitTestCase{
 
 	
 	
+	@Test @GUITest
+	public void testPlaneInsertedShouldAddThePlaneAndKeepTheErrorLabel() {
+		GuiActionRunner.execute(
+			() -> {
+				airportSwingView.showPlaneError("error");
+				airportSwingView.planeInserted(PLANE_FIXTURE_1);
+			}
+		);
+		String[] listContents = window.panel("panel1").list().contents();
+		assertThat(listContents).containsExactly("id=" + ID_FIXTURE_1 + ", " +  "model=" + MODEL_FIXTURE_1);
+		window.label("errorMessageLabel").requireText("error");
+	}
+
+	
+	
+	@Test @GUITest
+	public void testPlaneDeletedShouldRemoveThePlaneWithTheId() {
+		GuiActionRunner.execute(
+			() -> {
+				LazyListModel<Plane> listPlanesModel = airportSwingView.getListPlaneModel();
+				listPlanesModel.addElement(PLANE_FIXTURE_1);
+				listPlanesModel.addElement(PLANE_FIXTURE_2);
+			}
+		);
+		
+		GuiActionRunner.execute(
+			() ->
+			airportSwingView.planeDeleted(ID_FIXTURE_1)
+		);
+		
+		String[] listContents = window.panel("panel1").list().contents();
+		assertThat(listContents).containsExactly("id=" + ID_FIXTURE_2 + ", " +  "model=" + MODEL_FIXTURE_2);
+	}
+
+	
+	
 	@Test @GUITest
 	public void testAddButtonShouldDelegateToPlaneControllerNewPlane() {
 
 		window.panel("panel1").textBox("modelTextBox").enterText("model");	
 		window.panel("panel1").button(JButtonMatcher.withText("Add")).click();
-		verify(planeController).newPlane(new Plane("model"));
+		verify(planeController, timeout(TIMEOUT)).newPlane(new Plane("model"));
 	}
 
 	
@@ -174,15 +273,106 @@ public class AirportSwingViewPlanePanelTest extends AssertJSwingJUnitTestCase{
 	public void testDeleteButtonShouldDelegateToPlaneControllerDeletePlane() {
 		GuiActionRunner.execute(
 			() -> {
-				DefaultListModel<Plane> listplanesModel = airportSwingView.getListPlaneModel();
+				LazyListModel<Plane> listplanesModel = airportSwingView.getListPlaneModel();
 				listplanesModel.addElement(PLANE_FIXTURE_1);
 				listplanesModel.addElement(PLANE_FIXTURE_2);
 			}
 		);
 		window.panel("panel1").list("planeList").selectItem(1);
 		window.panel("panel1").button(JButtonMatcher.withText("Delete Selected")).click();
-		verify(planeController).deletePlane(PLANE_FIXTURE_2);
+		verify(planeController, timeout(TIMEOUT)).deletePlane(PLANE_FIXTURE_2);
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testDeleteButtonShouldDelegateToPlaneControllerDeletePlanesWhenMoreAreSelected() {
+		GuiActionRunner.execute(
+			() -> {
+				LazyListModel<Plane> listplanesModel = airportSwingView.getListPlaneModel();
+				listplanesModel.addElement(PLANE_FIXTURE_1);
+				listplanesModel.addElement(PLANE_FIXTURE_2);
+			}
+		);
+		window.panel("panel1").list("planeList").selectItems(0, 1);
+		window.panel("panel1").button(JButtonMatcher.withText("Delete Selected")).click();
+		verify(planeController, timeout(TIMEOUT)).deletePlanes(Arrays.asList(PLANE_FIXTURE_1, PLANE_FIXTURE_2));
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testDeleteButtonShouldRefuseASelectionThatCannotBeRead() {
+		GuiActionRunner.execute(
+			() -> airportSwingView.showPlanePages(new PageSource<Plane>() {
+				@Override
+				public int size() {
+					return 2;
+				}
+				@Override
+				public List<Plane> page(int offset, int limit) {
+					return null;
+				}
+			})
+		);
+		pause(new Condition("the plane list to count 2 planes") {
+			@Override
+			public boolean test() {
+				return GuiActionRunner.execute(() -> airportSwingView.getListPlaneModel().getSize() == 2);
+			}
+		}, TIMEOUT);
+		GuiActionRunner.execute(
+			() -> window.panel("panel1").list("planeList").target().setSelectionInterval(0, 1)
+		);
+		window.panel("panel1").button(JButtonMatcher.withText("Delete Selected")).click();
+		pause(new Condition("the refused delete to be reported") {
+			@Override
+			public boolean test() {
+				return AirportSwingView.UNREADABLE_SELECTION.equals(window.label("errorMessageLabel").text());
+			}
+		}, TIMEOUT);
+		verify(planeController, never()).deletePlane(any());
+		verify(planeController, never()).deletePlanes(any());
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testShowPlanesDeletedShouldShowTheCount() {
+		GuiActionRunner.execute(
+			() -> airportSwingView.showPlanesDeleted(2)
+		);
+		window.label("errorMessageLabel").requireText("2 planes deleted");
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testPlanesRemovedShouldRemoveThePlanesFromTheList() {
+		GuiActionRunner.execute(
+			() -> {
+				LazyListModel<Plane> listplanesModel = airportSwingView.getListPlaneModel();
+				listplanesModel.addElement(PLANE_FIXTURE_1);
+				listplanesModel.addElement(PLANE_FIXTURE_2);
+			}
+		);
+		GuiActionRunner.execute(
+			() -> airportSwingView.planesRemoved(Arrays.asList(PLANE_FIXTURE_1, PLANE_FIXTURE_2))
+		);
+		assertThat(window.panel("panel1").list().contents()).isEmpty();
+	}
+	
+	
+	
+	//################ private methods #################
+	
+	private void waitForPlanes(int count) {
+		pause(new Condition("the plane list to show " + count + " planes") {
+			@Override
+			public boolean test() {
+				return GuiActionRunner.execute(() -> airportSwingView.getListPlaneModel().getSize() == count
+						&& airportSwingView.getListPlaneModel().getElementAt(count - 1) != null);
+			}
+		}, TIMEOUT);
 	}
 }
-
-
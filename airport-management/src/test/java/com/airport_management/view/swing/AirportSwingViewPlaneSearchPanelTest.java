@@ -1,6 +1,7 @@
 package com.airport_management.view.swing;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 import java.util.Arrays;
@@ -28,6 +29,8 @@ import com.airport_management.model.Plane;
 @RunWith(GUITestRunner.class)
 public class AirportSwingViewPlaneSearchPanelTest  extends AssertJSwingJUnitTestCase {
 
+	private static final long TIMEOUT = 5000;
+
 	private FrameFixture window;
 	private AirportSwingView airportSwingView;
 
@@ -174,7 +177,7 @@ public class AirportSwingViewPlaneSearchPanelTest  extends AssertJSwingJUnitTest
 				() -> airportSwingView.getComboBoxSearch().addItem(planeId));
 		
 		window.button(JButtonMatcher.withText("Search associates flights")).click();
-		verify(searchController).findAllFlightsAssiociatesWithPlane(planeId);
+		verify(searchController, timeout(TIMEOUT)).findAllFlightsAssiociatesWithPlane(planeId);
 	}
 
 	
@@ -184,6 +187,34 @@ public class AirportSwingViewPlaneSearchPanelTest  extends AssertJSwingJUnitTest
 		String model = "model";
 		window.textBox("searchModelTextBox").enterText(model);
 		window.button(JButtonMatcher.withText("Search by model")).click();
-		verify(searchController).findAllPlanesByModel(model);
+		verify(searchController, timeout(TIMEOUT)).findAllPlanesByModel(model);
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testShowAllFoundedAvailablePlanesShouldAddPlaneDescriptionsToTheList() {
+		window.button(JButtonMatcher.withText("Plane Search")).click();
+		
+		GuiActionRunner.execute(
+			() -> airportSwingView.showAllFoundedAvailablePlanes(
+					Arrays.asList(new Plane("id1", "model")))
+		);
+		
+		assertThat(window.list("searchAvailablePlanesList").contents())
+			.containsExactly("id=id1, model=model");
+		window.label("errorSearchPlaneLabel").requireText(" ");
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testSearchAvailablePlanesButtonShouldDelegateToSearchControllerFindAvailablePlanes() {
+		window.button(JButtonMatcher.withText("Plane Search")).click();
+		Date start = (Date) window.spinner("spinnerSearchAvailableStart").target().getValue();
+		Date end = (Date) window.spinner("spinnerSearchAvailableEnd").target().getValue();
+		window.textBox("searchModelTextBox").enterText("model");
+		window.button(JButtonMatcher.withText("Search available planes")).click();
+		verify(searchController, timeout(TIMEOUT)).findAvailablePlanes(start, end, "model");
 	}
 }
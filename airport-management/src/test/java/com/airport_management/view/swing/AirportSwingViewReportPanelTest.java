@@ -0,0 +1,103 @@
+package com.airport_management.view.swing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.assertj.swing.annotation.GUITest;
+import org.assertj.swing.core.matcher.JButtonMatcher;
+import org.assertj.swing.edt.GuiActionRunner;
+import org.assertj.swing.fixture.FrameFixture;
+import org.assertj.swing.junit.runner.GUITestRunner;
+import org.assertj.swing.junit.testcase.AssertJSwingJUnitTestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.airport_management.controller.FlightController;
+import com.airport_management.controller.PlaneController;
+import com.airport_management.controller.ReportController;
+import com.airport_management.controller.SearchController;
+import com.airport_management.model.PlaneUtilisation;
+
+
+@RunWith(GUITestRunner.class)
+public class AirportSwingViewReportPanelTest  extends AssertJSwingJUnitTestCase {
+
+	private static final long TIMEOUT = 5000;
+
+	private FrameFixture window;
+	private AirportSwingView airportSwingView;
+
+	@Mock
+	private PlaneController planeController;
+	
+	@Mock
+	private FlightController flightController;
+	
+	@Mock
+	private SearchController searchController;
+	
+	@Mock
+	private ReportController reportController;
+	
+	
+	@Override
+	protected void onSetUp() {
+		MockitoAnnotations.initMocks(this); 
+		
+		GuiActionRunner.execute(() -> {
+			airportSwingView = new AirportSwingView();
+			airportSwingView.setAirportController(planeController, flightController, searchController);
+			airportSwingView.setReportController(reportController);
+			return airportSwingView;
+		});
+		window = new FrameFixture(robot(), airportSwingView);
+		window.show();	
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testRunReportButtonShouldDelegateToReportControllerPlaneUtilisation() {
+		window.button(JButtonMatcher.withText("Report")).click();
+		Date start = (Date) window.spinner("spinnerReportStart").target().getValue();
+		Date end = (Date) window.spinner("spinnerReportEnd").target().getValue();
+		window.button(JButtonMatcher.withText("Run report")).click();
+		verify(reportController, timeout(TIMEOUT)).planeUtilisation(start, end);
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testShowPlaneUtilisationShouldAddTheRowsToTheListAndResetErrorLabel() {
+		window.button(JButtonMatcher.withText("Report")).click();
+		GuiActionRunner.execute(
+			() -> airportSwingView.showReportError("error message")
+		);
+		
+		GuiActionRunner.execute(
+			() -> airportSwingView.showPlaneUtilisation(
+					Arrays.asList(new PlaneUtilisation("id1", "model", 2, 5400000, 1800000, 1800000)))
+		);
+		
+		assertThat(window.list("utilisationReportList").contents())
+			.containsExactly(new PlaneUtilisation("id1", "model", 2, 5400000, 1800000, 1800000).toString());
+		window.label("errorReportLabel").requireText(" ");
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testShowReportErrorShouldShowTheMessageInTheErrorLabel() {
+		window.button(JButtonMatcher.withText("Report")).click();
+		GuiActionRunner.execute(
+			() -> airportSwingView.showReportError("error message")
+		);
+		window.label("errorReportLabel").requireText("error message");
+	}
+}
@@ -1,15 +1,26 @@
 package com.airport_management.view.swing;
 
+import static org.assertj.swing.timing.Pause.pause;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.*;
 import static java.util.Arrays.asList;
 
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import javax.swing.JComboBox;
+
 import org.assertj.swing.annotation.GUITest;
 import org.assertj.swing.core.matcher.JButtonMatcher;
 import org.assertj.swing.core.matcher.JLabelMatcher;
 import org.assertj.swing.edt.GuiActionRunner;
 import org.assertj.swing.fixture.FrameFixture;
 import org.assertj.swing.junit.testcase.AssertJSwingJUnitTestCase;
+import org.assertj.swing.timing.Condition;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.junit.Test;
@@ -17,11 +28,13 @@ import org.junit.Test;
 import com.airport_management.controller.FlightController;
 import com.airport_management.controller.PlaneController;
 import com.airport_management.controller.SearchController;
-import com.airport_management.model.Plane;
+import com.airport_management.view.PageSource;
 
 
 public class AirportSwingViewTest extends AssertJSwingJUnitTestCase {
 	
+	private static final long TIMEOUT = 5000;
+	
 	private FrameFixture window;
 	private AirportSwingView airportSwingView;
 
@@ -100,6 +113,12 @@ public class AirportSwingViewTest extends AssertJSwingJUnitTestCase {
 		window.panel("panel2").list("flightsList");
 		window.panel("panel2").button(JButtonMatcher.withText("Add")).requireDisabled();
 		window.panel("panel2").button(JButtonMatcher.withText("Delete Selected")).requireDisabled();
+		window.panel("panel2").label(JLabelMatcher.withText("flights of plane"));
+		window.panel("panel2").comboBox("deletePlaneComboBox").requireEnabled();
+		window.panel("panel2").button(JButtonMatcher.withText("Delete Flights Of Plane")).requireDisabled();
+		window.panel("panel2").spinner("spinnerDeleteFrom").requireEnabled();
+		window.panel("panel2").spinner("spinnerDeleteTo").requireEnabled();
+		window.panel("panel2").button(JButtonMatcher.withText("Delete Departing Between")).requireEnabled();
 		window.panel("panel2").label("errorMessageLabel").requireText(" ");
 	}
 	
@@ -153,22 +172,93 @@ public class AirportSwingViewTest extends AssertJSwingJUnitTestCase {
 	@Test @GUITest
 	public void testButtonFlightPanelUpdateComboBoxOfPlanesId() {
 		
-		when(planeController.returnAllPlanes())
-				.thenReturn(asList(new Plane("id", "model")));
+		when(planeController.planeIdPages())
+				.thenReturn(ids(asList("id")));
 		
 		window.button(JButtonMatcher.withText("Flight Panel")).click();
-		assertThat(airportSwingView.getComboBox().getItemAt(0)).isEqualTo("id");
+		waitForBackgroundCalls();
+		waitForItem(airportSwingView.getComboBox(), "id");
 	}
 	
 	
 	
 	@Test @GUITest
 	public void testButtonPlaneSearchUpdateComboBoxOfPlanesId() {
-		when(planeController.returnAllPlanes())
-			.thenReturn(asList(new Plane("id", "model")));
+		when(planeController.planeIdPages())
+			.thenReturn(ids(asList("id")));
 
 		window.button(JButtonMatcher.withText("Plane Search")).click();
-		assertThat(airportSwingView.getComboBoxSearch().getItemAt(0)).isEqualTo("id");
+		waitForBackgroundCalls();
+		waitForItem(airportSwingView.getComboBoxSearch(), "id");
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testRefreshListsDelegatesToControllers() {
+		GuiActionRunner.execute(() -> airportSwingView.refreshLists());
+		verify(planeController, timeout(TIMEOUT)).allPlanesPaged();
+		verify(flightController, timeout(TIMEOUT)).allFlightsPaged();
+	}
+	
+	
+	
+	@Test @GUITest
+	public void testProgressBarIsShownWhileACallIsRunning() {
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			release.await();
+			return null;
+		}).when(searchController).findAllPlanesByModel(any());
+		
+		window.button(JButtonMatcher.withText("Plane Search")).click();
+		window.panel("panel4").button(JButtonMatcher.withText("Search by model")).click();
+		window.progressBar("busyProgressBar").requireVisible();
+		
+		release.countDown();
+		waitForBackgroundCalls();
+		assertThat(GuiActionRunner.execute(() -> airportSwingView.getProgressBar().isVisible())).isFalse();
+	}
+	
+	
+	
+	
+	//################ private methods #################
+	
+	private void waitForBackgroundCalls() {
+		pause(new Condition("background calls to complete") {
+			@Override
+			public boolean test() {
+				return !GuiActionRunner.execute(() -> airportSwingView.getProgressBar().isVisible());
+			}
+		}, TIMEOUT);
+	}
+	
+	
+	
+	//the first page of the items is read in the background when the popup or the test asks for it
+	private void waitForItem(JComboBox<String> comboBox, String item) {
+		pause(new Condition("first item to be read") {
+			@Override
+			public boolean test() {
+				return item.equals(GuiActionRunner.execute(() -> comboBox.getItemAt(0)));
+			}
+		}, TIMEOUT);
+	}
+	
+	
+	
+	private static PageSource<String> ids(List<String> ids) {
+		return new PageSource<String>() {
+			@Override
+			public int size() {
+				return ids.size();
+			}
+			@Override
+			public List<String> page(int offset, int limit) {
+				return ids.subList(Math.min(offset, ids.size()), Math.min(ids.size(), offset + limit));
+			}
+		};
 	}
 
 }
@@ -0,0 +1,179 @@
+package com.airport_management.view.swing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class BackgroundTasksTest {
+
+	private static final long TIMEOUT_SECONDS = 5;
+
+	private BackgroundTasks background;
+	private List<Boolean> busyChanges;
+	private List<String> applied;
+
+
+	@Before
+	public void setUp() {
+		busyChanges = new CopyOnWriteArrayList<>();
+		applied = new CopyOnWriteArrayList<>();
+		background = new BackgroundTasks(busyChanges::add);
+	}
+
+
+
+	@Test
+	public void testUpdatesOfASupersededTaskAreDropped() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(2);
+
+		background.submitLatest("channel", () -> {
+			started.countDown();
+			await(release);
+			BackgroundTasks.onEdt(background.guard(() -> applied.add("first")));
+			done.countDown();
+		});
+		assertThat(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		background.submitLatest("channel", () -> {
+			BackgroundTasks.onEdt(background.guard(() -> applied.add("second")));
+			done.countDown();
+		});
+		release.countDown();
+
+		assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		flushEdt();
+		assertThat(applied).containsExactly("second");
+	}
+
+
+
+	@Test
+	public void testASupersededTaskThatDidNotStartIsSkipped() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+
+		//occupies every read thread
+		for(int i = 0; i < 4; i++)
+			background.submitRead(() -> await(release));
+		background.submitLatest("channel", () -> applied.add("first"));
+		background.submitLatest("channel", () -> {
+			applied.add("second");
+			done.countDown();
+		});
+		release.countDown();
+
+		assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		assertThat(applied).containsExactly("second");
+	}
+
+
+
+	@Test
+	public void testTasksOnOtherChannelsAreNotSuperseded() throws Exception {
+		CountDownLatch done = new CountDownLatch(2);
+
+		background.submitLatest("first", () -> {
+			BackgroundTasks.onEdt(background.guard(() -> applied.add("first")));
+			done.countDown();
+		});
+		background.submitLatest("second", () -> {
+			BackgroundTasks.onEdt(background.guard(() -> applied.add("second")));
+			done.countDown();
+		});
+
+		assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		flushEdt();
+		assertThat(applied).containsExactlyInAnyOrder("first", "second");
+	}
+
+
+
+	@Test
+	public void testWritesRunInSubmissionOrder() throws Exception {
+		CountDownLatch done = new CountDownLatch(3);
+
+		for(String write : new String[] {"a", "b", "c"})
+			background.submitWrite(() -> {
+				applied.add(write);
+				done.countDown();
+			});
+
+		assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		assertThat(applied).containsExactly("a", "b", "c");
+	}
+
+
+
+	@Test
+	public void testBusyListenerIsToldWhenTasksStartAndFinish() throws Exception {
+		CountDownLatch done = new CountDownLatch(1);
+
+		background.submitRead(done::countDown);
+
+		assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		waitUntil(() -> busyChanges.size() == 2);
+		assertThat(busyChanges).containsExactly(true, false);
+	}
+
+
+
+	@Test
+	public void testAFailingTaskStillEndsTheBusyState() throws Exception {
+		background.submitRead(() -> {
+			throw new IllegalStateException("failure");
+		});
+
+		waitUntil(() -> busyChanges.size() == 2);
+		assertThat(busyChanges).containsExactly(true, false);
+	}
+
+
+
+	@Test
+	public void testGuardOutsideATaskKeepsTheUpdate() {
+		Runnable update = () -> applied.add("update");
+
+		assertThat(background.guard(update)).isSameAs(update);
+	}
+
+
+
+
+	//################ private methods #################
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+		catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+
+	private static void flushEdt() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {});
+	}
+
+
+
+	private static void waitUntil(BooleanSupplier condition) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+		while(!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			flushEdt();
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.airport_management.view.swing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.airport_management.view.PageSource;
+
+
+public class LazyComboBoxModelTest {
+
+	private LazyComboBoxModel<String> model;
+	private List<String> data;
+	private List<Integer> requestedOffsets;
+	private List<ListDataEvent> events;
+
+
+	@Before
+	public void setUp() {
+		model = new LazyComboBoxModel<>(new LazyListModel<>(10, 2));
+		data = IntStream.range(0, 35)
+				.mapToObj(i -> "id" + i)
+				.collect(Collectors.toCollection(ArrayList::new));
+		requestedOffsets = new ArrayList<>();
+		events = new ArrayList<>();
+		model.addListDataListener(new ListDataListener() {
+			@Override
+			public void intervalAdded(ListDataEvent e) {
+				events.add(e);
+			}
+			@Override
+			public void intervalRemoved(ListDataEvent e) {
+				events.add(e);
+			}
+			@Override
+			public void contentsChanged(ListDataEvent e) {
+				events.add(e);
+			}
+		});
+	}
+
+
+
+	@Test
+	public void testOnlyThePageOfTheItemIsRead() {
+		model.setSource(source());
+
+		assertThat(model.getSize()).isEqualTo(35);
+		assertThat(model.getElementAt(23)).isEqualTo("id23");
+		assertThat(requestedOffsets).containsExactly(20);
+	}
+
+
+
+	@Test
+	public void testEventsComeFromTheComboBoxModel() {
+		model.setSource(source());
+
+		assertThat(events).isNotEmpty();
+		assertThat(events).allMatch(e -> e.getSource() == model);
+	}
+
+
+
+	@Test
+	public void testSelectionIsKeptApartFromThePages() {
+		model.setSource(source());
+		model.setSelectedItem("id23");
+		events.clear();
+
+		model.getElementAt(0);
+		model.getElementAt(10);
+		model.getElementAt(30);
+
+		assertThat(model.getSelectedItem()).isEqualTo("id23");
+		model.setSelectedItem("id23");
+		assertThat(events).isEmpty();
+	}
+
+
+
+	@Test
+	public void testANewSourceClearsTheSelection() {
+		model.setSource(source());
+		model.setSelectedItem("id3");
+
+		model.setSource(source());
+
+		assertThat(model.getSelectedItem()).isNull();
+	}
+
+
+
+	@Test
+	public void testInMemoryAddAndRemove() {
+		model.addElement("a");
+		model.addElement("b");
+		model.setSelectedItem("b");
+
+		model.removeElementAt(1);
+
+		assertThat(model.getSize()).isEqualTo(1);
+		assertThat(model.getElementAt(0)).isEqualTo("a");
+		assertThat(model.getSelectedItem()).isNull();
+		assertThatThrownBy(() -> model.insertElementAt("c", 0))
+			.isInstanceOf(UnsupportedOperationException.class);
+	}
+
+
+
+
+	//################ private methods #################
+
+	private PageSource<String> source() {
+		return new PageSource<String>() {
+			@Override
+			public int size() {
+				return data.size();
+			}
+			@Override
+			public List<String> page(int offset, int limit) {
+				requestedOffsets.add(offset);
+				return new ArrayList<>(data.subList(Math.min(offset, data.size()), Math.min(data.size(), offset + limit)));
+			}
+		};
+	}
+}
@@ -0,0 +1,732 @@
+package com.airport_management.view.swing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.airport_management.view.PageSource;
+
+
+public class LazyListModelTest {
+
+	private LazyListModel<String> model;
+	private List<String> data;
+	private List<Integer> requestedOffsets;
+	private List<String> readAfter;
+	private List<Integer> events;
+
+
+	@Before
+	public void setUp() {
+		model = new LazyListModel<>(10, 2);
+		data = IntStream.range(0, 35)
+				.mapToObj(i -> "element" + i)
+				.collect(Collectors.toCollection(ArrayList::new));
+		requestedOffsets = new ArrayList<>();
+		readAfter = new ArrayList<>();
+		events = new ArrayList<>();
+		model.addListDataListener(new ListDataAdapter(events));
+	}
+
+
+
+	@Test
+	public void testInMemoryAddAndRemove() {
+		model.addElement("a");
+		model.addElement("b");
+
+		assertThat(model.getSize()).isEqualTo(2);
+		assertThat(model.getElementAt(1)).isEqualTo("b");
+		assertThat(model.removeElement("a")).isTrue();
+		assertThat(model.removeElement("a")).isFalse();
+		assertThat(model.getElementAt(0)).isEqualTo("b");
+		assertThat(events).containsExactly(
+				ListDataEvent.INTERVAL_ADDED,
+				ListDataEvent.INTERVAL_ADDED,
+				ListDataEvent.INTERVAL_REMOVED);
+	}
+
+
+
+	@Test
+	public void testSourceSizeIsReadWithoutLoadingPages() {
+		model.setSource(source());
+
+		assertThat(model.getSize()).isEqualTo(35);
+		assertThat(requestedOffsets).isEmpty();
+	}
+
+
+
+	@Test
+	public void testOnlyThePageOfTheElementIsLoaded() {
+		model.setSource(source());
+
+		assertThat(model.getElementAt(23)).isEqualTo("element23");
+		assertThat(model.getElementAt(27)).isEqualTo("element27");
+		assertThat(requestedOffsets).containsExactly(20);
+	}
+
+
+
+	@Test
+	public void testLeastRecentlyUsedPageIsEvicted() {
+		model.setSource(source());
+
+		model.getElementAt(0);
+		model.getElementAt(10);
+		model.getElementAt(0);
+		model.getElementAt(20);
+		model.getElementAt(10);
+
+		assertThat(model.cachedPages()).isEqualTo(2);
+		assertThat(requestedOffsets).containsExactly(0, 10, 20, 10);
+	}
+
+
+
+	@Test
+	public void testAddElementWithSourceReloadsOnlyTheTail() {
+		model.setOrder(Comparator.naturalOrder());
+		model.setSource(source());
+		model.getElementAt(0);
+		model.getElementAt(30);
+		data.add("new");
+		events.clear();
+
+		model.addElement("new");
+
+		assertThat(model.getSize()).isEqualTo(36);
+		assertThat(model.getElementAt(35)).isEqualTo("new");
+		assertThat(model.getElementAt(0)).isEqualTo("element0");
+		assertThat(requestedOffsets).containsExactly(0, 30, 30);
+		assertThat(events).containsExactly(ListDataEvent.INTERVAL_ADDED);
+	}
+
+
+
+	@Test
+	public void testRowInsertedElsewhereKeepsOnlyThePagesBeforeIt() {
+		data = IntStream.range(0, 35)
+				.mapToObj(i -> String.format("row%02d", i))
+				.collect(Collectors.toCollection(ArrayList::new));
+		model.setSource(source());
+		model.getElementAt(0);
+		model.getElementAt(30);
+		data.add(16, "row15a");
+
+		model.inserted(row -> row.compareTo("row15a") < 0);
+
+		assertThat(model.getSize()).isEqualTo(36);
+		assertThat(model.cachedPages()).isEqualTo(1);
+		assertThat(model.getElementAt(16)).isEqualTo("row15a");
+		assertThat(model.getElementAt(35)).isEqualTo("row34");
+		assertThat(requestedOffsets).containsExactly(0, 30, 10, 30);
+	}
+
+
+
+	@Test
+	public void testRowInsertedBeforeEveryCachedRowReloadsAll() {
+		model.setSource(source());
+		model.getElementAt(20);
+		data.add(0, "a");
+
+		model.inserted(row -> row.compareTo("a") < 0);
+
+		assertThat(model.cachedPages()).isZero();
+		assertThat(model.getElementAt(0)).isEqualTo("a");
+	}
+
+
+
+	@Test
+	public void testAddElementWithoutAnOrderReloadsAll() {
+		model.setSource(source());
+		model.getElementAt(0);
+		data.add(0, "new");
+
+		model.addElement("new");
+
+		assertThat(model.cachedPages()).isZero();
+		assertThat(model.getElementAt(0)).isEqualTo("new");
+	}
+
+
+
+	@Test
+	public void testReplaceFirstInMemory() {
+		model.addAll(Arrays.asList("a1", "b1"));
+		events.clear();
+
+		assertThat(model.replaceFirst(element -> element.startsWith("b"), "b2")).isTrue();
+		assertThat(model.replaceFirst(element -> element.startsWith("c"), "c2")).isFalse();
+
+		assertThat(modelContents()).containsExactly("a1", "b2");
+		assertThat(events).containsExactly(ListDataEvent.CONTENTS_CHANGED);
+	}
+
+
+
+	@Test
+	public void testReplaceFirstWithSourceReloadsThePageOfTheRow() {
+		model.setSource(source());
+		model.getElementAt(0);
+		model.getElementAt(15);
+		data.set(12, "changed12");
+		events.clear();
+
+		assertThat(model.replaceFirst(element -> element.equals("element12"), null)).isTrue();
+
+		assertThat(model.cachedPages()).isEqualTo(1);
+		assertThat(model.getElementAt(12)).isEqualTo("changed12");
+		assertThat(model.getElementAt(3)).isEqualTo("element3");
+		assertThat(requestedOffsets).containsExactly(0, 10, 10);
+		assertThat(events).containsExactly(ListDataEvent.CONTENTS_CHANGED);
+	}
+
+
+
+	@Test
+	public void testRemoveElementWithSourceFiresOnlyTheRemovedRow() {
+		model.setSource(source());
+		model.getElementAt(0);
+		model.getElementAt(15);
+		data.remove("element12");
+		events.clear();
+
+		model.removeElement("element12");
+
+		assertThat(model.getSize()).isEqualTo(34);
+		assertThat(model.getElementAt(3)).isEqualTo("element3");
+		assertThat(model.getElementAt(12)).isEqualTo("element13");
+		assertThat(requestedOffsets).containsExactly(0, 10, 10);
+		assertThat(events).containsExactly(ListDataEvent.INTERVAL_REMOVED);
+	}
+
+
+
+	@Test
+	public void testRemoveFirstMatching() {
+		model.addAll(Arrays.asList("a1", "b1", "b2"));
+		events.clear();
+
+		assertThat(model.removeFirst(element -> element.startsWith("b"))).isTrue();
+		assertThat(model.removeFirst(element -> element.startsWith("c"))).isFalse();
+
+		assertThat(modelContents()).containsExactly("a1", "b2");
+		assertThat(events).containsExactly(ListDataEvent.INTERVAL_REMOVED);
+	}
+
+
+
+	@Test
+	public void testRemoveFirstWithSourceRecountsWhenTheRowIsNotCached() {
+		model.setSource(source());
+		model.getElementAt(0);
+		data.remove("element22");
+		events.clear();
+
+		model.removeFirst(element -> element.equals("element22"));
+
+		assertThat(model.getSize()).isEqualTo(34);
+		assertThat(model.cachedPages()).isZero();
+	}
+
+
+
+	@Test
+	public void testRefreshReportsChangedAndAddedRows() {
+		model.setSource(source());
+		data.add("new");
+		events.clear();
+
+		model.refresh();
+
+		assertThat(model.getSize()).isEqualTo(36);
+		assertThat(events).containsExactly(
+				ListDataEvent.CONTENTS_CHANGED,
+				ListDataEvent.INTERVAL_ADDED);
+	}
+
+
+
+	@Test
+	public void testAddAllFiresASingleEvent() {
+		model.addElement("a");
+		events.clear();
+
+		model.addAll(Arrays.asList("b", "c", "d"));
+
+		assertThat(model.getSize()).isEqualTo(4);
+		assertThat(model.getElementAt(3)).isEqualTo("d");
+		assertThat(events).containsExactly(ListDataEvent.INTERVAL_ADDED);
+	}
+
+
+
+	@Test
+	public void testReplaceAllReportsOnlyTheChangedRows() {
+		model.addAll(Arrays.asList("a", "b", "c", "d", "e"));
+		List<ListDataEvent> received = new ArrayList<>();
+		model.addListDataListener(new ListDataAdapter(new ArrayList<>()) {
+			@Override
+			public void contentsChanged(ListDataEvent e) {
+				received.add(e);
+			}
+			@Override
+			public void intervalAdded(ListDataEvent e) {
+				received.add(e);
+			}
+			@Override
+			public void intervalRemoved(ListDataEvent e) {
+				received.add(e);
+			}
+		});
+
+		model.replaceAll(Arrays.asList("a", "x", "y", "z", "d", "e"));
+
+		assertThat(modelContents()).containsExactly("a", "x", "y", "z", "d", "e");
+		assertThat(received)
+			.extracting(ListDataEvent::getType, ListDataEvent::getIndex0, ListDataEvent::getIndex1)
+			.containsExactly(
+					tuple(ListDataEvent.CONTENTS_CHANGED, 1, 2),
+					tuple(ListDataEvent.INTERVAL_ADDED, 3, 3));
+	}
+
+
+
+	@Test
+	public void testReplaceAllWithTheSameElementsFiresNothing() {
+		model.addAll(Arrays.asList("a", "b"));
+		events.clear();
+
+		model.replaceAll(Arrays.asList("a", "b"));
+
+		assertThat(events).isEmpty();
+	}
+
+
+
+	@Test
+	public void testReplaceAllWithFewerElements() {
+		model.addAll(Arrays.asList("a", "b", "c", "d"));
+		events.clear();
+
+		model.replaceAll(Arrays.asList("a", "d"));
+
+		assertThat(modelContents()).containsExactly("a", "d");
+		assertThat(events).containsExactly(ListDataEvent.INTERVAL_REMOVED);
+	}
+
+
+
+	@Test
+	public void testRemoveAllInMemory() {
+		model.addAll(Arrays.asList("a", "b", "c", "d"));
+		events.clear();
+
+		model.removeAll(Arrays.asList("b", "c", "x"));
+
+		assertThat(modelContents()).containsExactly("a", "d");
+		assertThat(events).containsExactly(ListDataEvent.INTERVAL_REMOVED);
+	}
+
+
+
+	@Test
+	public void testRemoveAllWithSourceReloadsFromTheFirstRemovedRow() {
+		model.setSource(source());
+		model.getElementAt(0);
+		model.getElementAt(15);
+		data.removeAll(Arrays.asList("element12", "element14"));
+
+		model.removeAll(Arrays.asList("element12", "element14"));
+
+		assertThat(model.getSize()).isEqualTo(33);
+		assertThat(model.getElementAt(3)).isEqualTo("element3");
+		assertThat(model.getElementAt(12)).isEqualTo("element13");
+		assertThat(requestedOffsets).containsExactly(0, 10, 10);
+	}
+
+
+
+	@Test
+	public void testReplaceAllDropsTheSource() {
+		model.setSource(source());
+
+		model.replaceAll(Arrays.asList("a"));
+
+		assertThat(modelContents()).containsExactly("a");
+	}
+
+
+
+	@Test
+	public void testElementPastTheEndOfAShrunkSourceIsNull() {
+		model.setSource(source());
+		data.subList(30, 35).clear();
+
+		assertThat(model.getElementAt(32)).isNull();
+	}
+
+
+
+	@Test
+	public void testClearDropsTheSource() {
+		model.setSource(source());
+		model.clear();
+
+		assertThat(model.getSize()).isZero();
+		model.addElement("a");
+		assertThat(model.getSize()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testPagesAreLoadedThroughTheLoader() {
+		Deque<Runnable> loads = new ArrayDeque<>();
+		model = new LazyListModel<>(10, 2, loads::add, Runnable::run);
+		model.addListDataListener(new ListDataAdapter(events));
+		model.setSource(source());
+
+		assertThat(model.getSize()).isZero();
+		loads.poll().run();
+		assertThat(model.getSize()).isEqualTo(35);
+
+		events.clear();
+		assertThat(model.getElementAt(12)).isNull();
+		assertThat(model.getElementAt(13)).isNull();
+		assertThat(loads).hasSize(1);
+
+		loads.poll().run();
+		assertThat(model.getElementAt(13)).isEqualTo("element13");
+		assertThat(events).containsExactly(ListDataEvent.CONTENTS_CHANGED);
+	}
+
+
+
+	@Test
+	public void testPagesLoadedBeforeARefreshAreDropped() {
+		Deque<Runnable> loads = new ArrayDeque<>();
+		model = new LazyListModel<>(10, 2, loads::add, Runnable::run);
+		model.setSource(source());
+		loads.poll().run();
+
+		model.getElementAt(0);
+		Runnable staleLoad = loads.poll();
+		model.refresh();
+		loads.poll().run();
+		staleLoad.run();
+
+		assertThat(model.cachedPages()).isZero();
+		assertThat(model.getElementAt(0)).isNull();
+		assertThat(loads).hasSize(1);
+	}
+
+
+
+	@Test
+	public void testNextPageIsReadAfterTheLastRowOfThePreviousOne() {
+		model.setSource(source());
+
+		model.getElementAt(0);
+		model.getElementAt(10);
+		model.getElementAt(20);
+
+		assertThat(readAfter).containsExactly("element9", "element19");
+		assertThat(model.getElementAt(25)).isEqualTo("element25");
+	}
+
+
+
+	@Test
+	public void testPageIsReadByOffsetWhenThePreviousOneIsUnknown() {
+		model.setSource(source());
+
+		assertThat(model.getElementAt(25)).isEqualTo("element25");
+		assertThat(readAfter).isEmpty();
+		assertThat(requestedOffsets).containsExactly(20);
+	}
+
+
+
+	@Test
+	public void testPageEndsAfterTheFirstChangedRowAreForgotten() {
+		model.setSource(source());
+		model.getElementAt(0);
+		model.getElementAt(10);
+		data.remove("element12");
+
+		model.removeElement("element12");
+		model.getElementAt(10);
+		model.getElementAt(20);
+
+		assertThat(readAfter).containsExactly("element9", "element9", "element20");
+		assertThat(model.getElementAt(20)).isEqualTo("element21");
+	}
+
+
+
+	@Test
+	public void testFailedPageIsLoadedAgain() {
+		Deque<Runnable> loads = new ArrayDeque<>();
+		model = new LazyListModel<>(10, 2, loads::add, Runnable::run);
+		model.setSource(failingOnce(new IllegalStateException("read failed")));
+		loads.poll().run();
+
+		model.getElementAt(0);
+		assertThatThrownBy(() -> loads.poll().run())
+			.isInstanceOf(IllegalStateException.class);
+
+		assertThat(model.getElementAt(0)).isNull();
+		loads.poll().run();
+		assertThat(model.getElementAt(0)).isEqualTo("element0");
+	}
+
+
+
+	@Test
+	public void testNullPageIsNotCached() {
+		model.setSource(failingOnce(null));
+
+		assertThat(model.getElementAt(0)).isNull();
+		assertThat(model.cachedPages()).isZero();
+		assertThat(model.getElementAt(0)).isEqualTo("element0");
+	}
+
+
+
+	@Test
+	public void testBurstOfChangesIsCountedTwiceAtMost() {
+		Deque<Runnable> loads = new ArrayDeque<>();
+		model = new LazyListModel<>(10, 2, loads::add, Runnable::run);
+		model.setSource(source());
+		loads.poll().run();
+
+		for(int i = 0; i < 50; i++) {
+			data.add("new" + i);
+			model.refresh();
+		}
+		assertThat(loads).hasSize(1);
+		loads.poll().run();
+		assertThat(loads).hasSize(1);
+		loads.poll().run();
+
+		assertThat(loads).isEmpty();
+		assertThat(model.getSize()).isEqualTo(85);
+	}
+
+
+
+	@Test
+	public void testChangesDuringACountAreReadAfterIt() {
+		Deque<Runnable> loads = new ArrayDeque<>();
+		Deque<Runnable> published = new ArrayDeque<>();
+		model = new LazyListModel<>(10, 2, loads::add, published::add);
+		model.setSource(source());
+		loads.poll().run();
+		published.poll().run();
+
+		data.add("new1");
+		model.refresh();
+		loads.poll().run();
+		data.add("new2");
+		model.refresh();
+		assertThat(loads).isEmpty();
+
+		published.poll().run();
+		assertThat(model.getSize()).isEqualTo(36);
+		loads.poll().run();
+		published.poll().run();
+		assertThat(model.getSize()).isEqualTo(37);
+	}
+
+
+
+	@Test
+	public void testFailedCountDoesNotStopTheNextOnes() {
+		Deque<Runnable> loads = new ArrayDeque<>();
+		model = new LazyListModel<>(10, 2, loads::add, Runnable::run);
+		boolean[] failing = {true};
+		PageSource<String> source = source();
+		model.setSource(new PageSource<String>() {
+			@Override
+			public int size() {
+				if(failing[0])
+					throw new IllegalStateException("count failed");
+				return source.size();
+			}
+			@Override
+			public List<String> page(int offset, int limit) {
+				return source.page(offset, limit);
+			}
+		});
+		assertThatThrownBy(() -> loads.poll().run())
+			.isInstanceOf(IllegalStateException.class);
+
+		failing[0] = false;
+		model.refresh();
+		loads.poll().run();
+		assertThat(model.getSize()).isEqualTo(35);
+	}
+
+
+
+	@Test
+	public void testSelectedRowsAreReadOncePerMissingPage() {
+		model.setSource(source());
+		model.getElementAt(0);
+
+		Supplier<List<String>> selection = model.elementsAt(new int[] {5, 12, 15, 33});
+		assertThat(requestedOffsets).containsExactly(0);
+
+		assertThat(selection.get()).containsExactly("element5", "element12", "element15", "element33");
+		assertThat(readAfter).containsExactly("element9");
+		assertThat(requestedOffsets).containsExactly(0, 10, 30);
+		assertThat(model.cachedPages()).isEqualTo(1);
+	}
+
+
+
+	@Test
+	public void testSelectionInMemory() {
+		model.addElement("a");
+		model.addElement("b");
+
+		assertThat(model.elementsAt(new int[] {1}).get()).containsExactly("b");
+	}
+
+
+
+	@Test
+	public void testSelectionWithAFailedPageIsNotRead() {
+		model.setSource(failingOnce(null));
+
+		assertThat(model.elementsAt(new int[] {0, 1}).get()).isNull();
+	}
+
+
+
+	@Test
+	public void testSelectionAfterAPendingChangeIsNotRead() {
+		Deque<Runnable> loads = new ArrayDeque<>();
+		model = new LazyListModel<>(10, 2, loads::add, Runnable::run);
+		model.setSource(source());
+		loads.poll().run();
+		data.add(0, "new");
+
+		model.refresh();
+		assertThat(model.elementsAt(new int[] {3}).get()).isNull();
+		loads.poll().run();
+		assertThat(model.elementsAt(new int[] {3}).get()).containsExactly("element2");
+	}
+
+
+
+	@Test
+	public void testPageSizeMustBePositive() {
+		assertThatThrownBy(() -> model.setPageSize(0))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new LazyListModel<String>(10, 0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+
+
+
+	//################ private methods #################
+
+	private static class ListDataAdapter implements ListDataListener {
+
+		private final List<Integer> events;
+
+		ListDataAdapter(List<Integer> events) {
+			this.events = events;
+		}
+
+		@Override
+		public void intervalAdded(ListDataEvent e) {
+			events.add(e.getType());
+		}
+
+		@Override
+		public void intervalRemoved(ListDataEvent e) {
+			events.add(e.getType());
+		}
+
+		@Override
+		public void contentsChanged(ListDataEvent e) {
+			events.add(e.getType());
+		}
+	}
+
+
+	private List<String> modelContents() {
+		List<String> contents = new ArrayList<>();
+		for(int i = 0; i < model.getSize(); i++)
+			contents.add(model.getElementAt(i));
+		return contents;
+	}
+
+
+
+	private PageSource<String> source() {
+		return new PageSource<String>() {
+			@Override
+			public int size() {
+				return data.size();
+			}
+			@Override
+			public List<String> page(int offset, int limit) {
+				requestedOffsets.add(offset);
+				return new ArrayList<>(data.subList(Math.min(offset, data.size()), Math.min(data.size(), offset + limit)));
+			}
+			@Override
+			public List<String> pageAfter(String last, int offset, int limit) {
+				readAfter.add(last);
+				return page(data.indexOf(last) + 1, limit);
+			}
+		};
+	}
+
+
+
+	//the first page read throws the exception, or returns null without one
+	private PageSource<String> failingOnce(RuntimeException failure) {
+		PageSource<String> source = source();
+		return new PageSource<String>() {
+			private boolean failed;
+			@Override
+			public int size() {
+				return source.size();
+			}
+			@Override
+			public List<String> page(int offset, int limit) {
+				if(failed)
+					return source.page(offset, limit);
+				failed = true;
+				if(failure != null)
+					throw failure;
+				return null;
+			}
+		};
+	}
+}